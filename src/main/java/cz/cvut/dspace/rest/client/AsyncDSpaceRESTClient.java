@@ -0,0 +1,224 @@
+package cz.cvut.dspace.rest.client;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.dspace.rest.common.*;
+
+/**
+ * Asynchronous companion of {@link DSpaceRESTClient}. Every operation returns immediately with a future,
+ * which is completed when response from DSpace rest api arrives.
+ * <p>
+ * Futures are completed exceptionally with the same exceptions, which are thrown by {@link DSpaceRESTClient}
+ * (child classes of {@link javax.ws.rs.WebApplicationException} or {@link javax.ws.rs.ProcessingException}).
+ * Operations, which return null in {@link DSpaceRESTClient} when object was not found, complete their futures with null.
+ * <p>
+ * Only clients with non-blocking transport ({@link cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient} and
+ * {@link cz.cvut.dspace.rest.client.impl.Http2DSpaceRESTClient}) wait for responses without holding a thread.
+ * Other clients (e.g. {@link cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient}) execute every request
+ * by a thread of async executor of their RESTEasy client, which is blocked until the response arrives, so
+ * count of requests in flight is bounded by size of the executor.
+ */
+public interface AsyncDSpaceRESTClient {
+
+    /**
+     * Login client into rest api.
+     *
+     * @return Returns future of token for logged user in DSpace rest api.
+     * @see DSpaceRESTClient#login()
+     */
+    CompletableFuture<String> login();
+
+    /**
+     * Logout client from rest api.
+     *
+     * @return Returns future, which is completed after logout.
+     * @see DSpaceRESTClient#logout()
+     */
+    CompletableFuture<Void> logout();
+
+    /* COMMUNITIES */
+
+    /**
+     * @see DSpaceRESTClient#createCommunity(Community)
+     */
+    CompletableFuture<Community> createCommunity(Community community);
+
+    /**
+     * @see DSpaceRESTClient#findCommunityById(Integer, String)
+     */
+    CompletableFuture<Community> findCommunityById(Integer communityId, String expand);
+
+    /**
+     * @see DSpaceRESTClient#updateCommunity(Integer, Community)
+     */
+    CompletableFuture<Void> updateCommunity(Integer communityId, Community community);
+
+    /**
+     * @see DSpaceRESTClient#deleteCommunity(Integer)
+     */
+    CompletableFuture<Void> deleteCommunity(Integer communityId);
+
+    /**
+     * @see DSpaceRESTClient#readAllCommunities(String, Integer, Integer)
+     */
+    CompletableFuture<List<Community>> readAllCommunities(String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#readTopCommunities(String, Integer, Integer)
+     */
+    CompletableFuture<List<Community>> readTopCommunities(String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#createSubcommunityOfCommunity(Integer, Community)
+     */
+    CompletableFuture<Community> createSubcommunityOfCommunity(Integer parentCommunityId, Community subcommunity);
+
+    /**
+     * @see DSpaceRESTClient#readSubcommunitiesOfCommunity(Integer, String, Integer, Integer)
+     */
+    CompletableFuture<List<Community>> readSubcommunitiesOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#deleteSubcommunityOfCommunity(Integer, Integer)
+     */
+    CompletableFuture<Void> deleteSubcommunityOfCommunity(Integer parentCommunityId, Integer subcommunityId);
+
+    /**
+     * @see DSpaceRESTClient#readSubcollectionsOfCommunity(Integer, String, Integer, Integer)
+     */
+    CompletableFuture<List<Collection>> readSubcollectionsOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#deleteSubcollectionOfCommunity(Integer, Integer)
+     */
+    CompletableFuture<Void> deleteSubcollectionOfCommunity(Integer parentCommunityId, Integer subcollectionId);
+
+    /* COLLECTIONS */
+
+    /**
+     * @see DSpaceRESTClient#createCollection(Integer, Collection)
+     */
+    CompletableFuture<Collection> createCollection(Integer parentCommunityId, Collection collection);
+
+    /**
+     * @see DSpaceRESTClient#findCollectionById(Integer, String)
+     */
+    CompletableFuture<Collection> findCollectionById(Integer collectionId, String expand);
+
+    /**
+     * @see DSpaceRESTClient#updateCollection(Integer, Collection)
+     */
+    CompletableFuture<Void> updateCollection(Integer collectionId, Collection collection);
+
+    /**
+     * @see DSpaceRESTClient#deleteCollection(Integer)
+     */
+    CompletableFuture<Void> deleteCollection(Integer collectionId);
+
+    /**
+     * @see DSpaceRESTClient#readAllCollections(String, Integer, Integer)
+     */
+    CompletableFuture<List<Collection>> readAllCollections(String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#findCollectionByName(String)
+     */
+    CompletableFuture<Collection> findCollectionByName(String name);
+
+    /**
+     * @see DSpaceRESTClient#readCollectionItems(Integer, String, Integer, Integer)
+     */
+    CompletableFuture<List<Item>> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset);
+
+    /* ITEMS */
+
+    /**
+     * Metadata and bitstreams of item are read in parallel after item was found.
+     *
+     * @see DSpaceRESTClient#findItemById(Integer, boolean, boolean)
+     */
+    CompletableFuture<Item> findItemById(Integer itemId, boolean includeMetadata, boolean includeBitstreams);
+
+    /**
+     * @see DSpaceRESTClient#findItemsByMetadataEntry(MetadataEntry)
+     */
+    CompletableFuture<List<Item>> findItemsByMetadataEntry(MetadataEntry metadataEntry);
+
+    /**
+     * @see DSpaceRESTClient#createItem(Integer, List)
+     */
+    CompletableFuture<Item> createItem(Integer collectionId, List<MetadataEntry> metadata);
+
+    /**
+     * @see DSpaceRESTClient#updateItem(Integer, List)
+     */
+    CompletableFuture<Void> updateItem(Integer itemId, List<MetadataEntry> metadata);
+
+    /**
+     * @see DSpaceRESTClient#deleteItem(Integer)
+     */
+    CompletableFuture<Void> deleteItem(Integer itemId);
+
+    /**
+     * @see DSpaceRESTClient#readAllItems(String, Integer, Integer)
+     */
+    CompletableFuture<List<Item>> readAllItems(String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#addItemToCollection(Integer, Integer)
+     */
+    CompletableFuture<Void> addItemToCollection(Integer itemId, Integer collectionId);
+
+    /**
+     * @see DSpaceRESTClient#deleteItemFromCollection(Integer, Integer)
+     */
+    CompletableFuture<Void> deleteItemFromCollection(Integer itemId, Integer collectionId);
+
+    /* BITSTREAMS */
+
+    /**
+     * @see DSpaceRESTClient#findBitstreamById(Integer)
+     */
+    CompletableFuture<Bitstream> findBitstreamById(Integer bitstreamId);
+
+    /**
+     * Stream is read by worker thread of client, so it must not be closed before returned future is completed.
+     *
+     * @see DSpaceRESTClient#addBitstream(Integer, Bitstream, InputStream)
+     */
+    CompletableFuture<Bitstream> addBitstream(Integer itemId, Bitstream bitstream, InputStream is);
+
+    /**
+     * Stream is read by worker thread of client, so it must not be closed before returned future is completed.
+     *
+     * @see DSpaceRESTClient#updateBitstream(Integer, Bitstream, InputStream)
+     */
+    CompletableFuture<Void> updateBitstream(Integer bitstreamId, Bitstream bitstream, InputStream is);
+
+    /**
+     * @see DSpaceRESTClient#deleteBitstream(Integer, Integer)
+     */
+    CompletableFuture<Void> deleteBitstream(Integer itemId, Integer bitstreamId);
+
+    /**
+     * @see DSpaceRESTClient#readAllBitstreams(String, Integer, Integer)
+     */
+    CompletableFuture<List<Bitstream>> readAllBitstreams(String expand, Integer limit, Integer offset);
+
+    /**
+     * @see DSpaceRESTClient#getBitstreamPolicies(Integer)
+     */
+    CompletableFuture<List<ResourcePolicy>> getBitstreamPolicies(Integer bitstreamId);
+
+    /**
+     * @see DSpaceRESTClient#addBitstreamPolicy(Integer, ResourcePolicy)
+     */
+    CompletableFuture<Void> addBitstreamPolicy(Integer bitstreamId, ResourcePolicy policy);
+
+    /**
+     * @see DSpaceRESTClient#deleteBitstreamPolicy(Integer, Integer)
+     */
+    CompletableFuture<Void> deleteBitstreamPolicy(Integer bitstreamId, Integer policyId);
+}
@@ -0,0 +1,25 @@
+package cz.cvut.dspace.rest.client;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Call was rejected without request to DSpace, because circuit breaker of its group of operations is open.
+ */
+public class CircuitBreakerOpenException extends ProcessingException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String group;
+
+    public CircuitBreakerOpenException(String group, String message) {
+        super(message);
+        this.group = group;
+    }
+
+    /**
+     * @return Returns group of operations (e.g. "items"), whose breaker rejected the call.
+     */
+    public String getGroup() {
+        return group;
+    }
+}
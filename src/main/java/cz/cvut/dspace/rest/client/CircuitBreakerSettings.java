@@ -0,0 +1,99 @@
+package cz.cvut.dspace.rest.client;
+
+/**
+ * Settings of circuit breaker of one group of operations (communities, collections, items or bitstreams).
+ * Breaker evaluates the last {@link #windowSize} calls: it opens, when the share of failed calls (5xx, 429,
+ * I/O errors and timeouts) or the share of calls slower than {@link #slowCallDuration} reaches its threshold.
+ * Open breaker rejects calls at once for {@link #openDuration}, then it lets {@link #halfOpenCalls} trial calls
+ * through and closes again, if all of them succeed. Null values mean defaults.
+ */
+public class CircuitBreakerSettings {
+
+    /** Share of failed calls in percents, at which breaker opens. Default is 50 %. */
+    protected Integer failureRateThreshold;
+    /** Call slower than this duration in milliseconds is slow. Default is 10000 ms. */
+    protected Integer slowCallDuration;
+    /** Share of slow calls in percents, at which breaker opens. Default is 80 %. */
+    protected Integer slowCallRateThreshold;
+    /** Count of last calls, from which rates are computed. Default is 20. */
+    protected Integer windowSize;
+    /** Count of calls, which have to be made before breaker can open. Default is 10. */
+    protected Integer minimumCalls;
+    /** Time in milliseconds, for which open breaker rejects calls. Default is 30000 ms. */
+    protected Integer openDuration;
+    /** Count of trial calls of half-open breaker. Default is 3. */
+    protected Integer halfOpenCalls;
+
+    public CircuitBreakerSettings() {
+        super();
+    }
+
+    /**
+     * Creates copy of settings, e.g. to override some settings of default breaker for one group.
+     */
+    public CircuitBreakerSettings(CircuitBreakerSettings settings) {
+        this.failureRateThreshold = settings.failureRateThreshold;
+        this.slowCallDuration = settings.slowCallDuration;
+        this.slowCallRateThreshold = settings.slowCallRateThreshold;
+        this.windowSize = settings.windowSize;
+        this.minimumCalls = settings.minimumCalls;
+        this.openDuration = settings.openDuration;
+        this.halfOpenCalls = settings.halfOpenCalls;
+    }
+
+    public Integer getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(Integer failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public Integer getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Integer slowCallDuration) {
+        this.slowCallDuration = slowCallDuration;
+    }
+
+    public Integer getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(Integer slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public Integer getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(Integer windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public Integer getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(Integer minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public Integer getOpenDuration() {
+        return openDuration;
+    }
+
+    public void setOpenDuration(Integer openDuration) {
+        this.openDuration = openDuration;
+    }
+
+    public Integer getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(Integer halfOpenCalls) {
+        this.halfOpenCalls = halfOpenCalls;
+    }
+}
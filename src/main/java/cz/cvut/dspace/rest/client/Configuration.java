@@ -1,5 +1,12 @@
 package cz.cvut.dspace.rest.client;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 /**
 * @author Petr Karel
 * @version $Revision: 4 $
@@ -11,6 +18,80 @@ public class Configuration {
 	protected String password;
 	protected Integer maxTotal;
 	protected Integer maxPerRoute;
+	/** Period of background check of authentication token in seconds. Background refresh is disabled, when it is null. */
+	protected Integer tokenRefreshInterval;
+	/** Age of token in seconds, after which is token renewed in background ahead of its expiry. Null means no limit. */
+	protected Integer tokenMaxAge;
+	/** Timeout of connecting to DSpace in seconds. Default is 120 s. */
+	protected Integer connectTimeout;
+	/** Read timeout, i.e. max inactivity between two packets of response in seconds. Null means no timeout. */
+	protected Integer socketTimeout;
+	/** Max duration of single request in seconds, request is aborted after it. Null means no limit. */
+	protected Integer requestTimeout;
+	/** Max time in seconds, for which is idle connection kept alive, when server does not limit it by Keep-Alive header. Default is 30 s. */
+	protected Integer keepAliveDuration;
+	/** Idle connections are closed by background thread after this time in seconds. Zero disables the thread. Default is 30 s. */
+	protected Integer idleConnectionTimeout;
+	/** Connection, which was not used for this time in milliseconds, is validated before it is leased. Default is 2000 ms. */
+	protected Integer validateAfterInactivity;
+	/** Max count of connections for transfers of bitstream data, which are pooled apart from metadata calls. Default is 2. */
+	protected Integer transferMaxTotal;
+	/** Max count of connections per route for transfers of bitstream data. Default is transferMaxTotal. */
+	protected Integer transferMaxPerRoute;
+	/** HTTP/2 client speaks cleartext HTTP/2 (h2c) to endpoint with http scheme without upgrade, when it is true. Otherwise it uses HTTP/1.1 there. */
+	protected Boolean http2PriorKnowledge;
+	/** Requests in flight are limited by adaptive limit, which finds load DSpace can handle, when it is true. */
+	protected Boolean adaptiveConcurrency;
+	/** Adaptive limit of requests in flight at start. Default is 10. */
+	protected Integer initialConcurrency;
+	/** Upper bound of adaptive limit of requests in flight. Default is maxTotal or 100. */
+	protected Integer maxConcurrency;
+	/** Max rate of read requests (GET) per second. Null means no limit. */
+	protected Integer readsPerSecond;
+	/** Max rate of write requests (POST, PUT, DELETE) per second. Null means no limit. */
+	protected Integer writesPerSecond;
+	/** Max rate of upload of bitstream data in bytes per second. Null means no limit. */
+	protected Integer bitstreamBytesPerSecond;
+	/** Max count of attempts of idempotent request failed by transient failure. Null or 1 disables retries. */
+	protected Integer retryMaxAttempts;
+	/** Upper bound of delay before the first retry in milliseconds, it doubles with every retry. Default is 100 ms. */
+	protected Integer retryInitialDelay;
+	/** Upper bound of delay before retry in milliseconds. Default is 10000 ms. */
+	protected Integer retryMaxDelay;
+	/** Max share of retries in requests in percents, when the reserve of 10 retries is spent. Default is 20 %. */
+	protected Integer retryBudgetPercent;
+	/** Retry policies of single groups of operations (communities, collections, items, bitstreams), which override policy set by retry* settings. */
+	protected Map<String, RetryPolicy> retryPolicies = new HashMap<>();
+	/** Concurrent identical reads (e.g. of the same collection) share one request and its result object, when it is true. */
+	protected Boolean coalesceReads;
+	/** Groups of operations (communities, collections, items, bitstreams), whose lookups of single object by id are sent once more, when they are slower than usual, and the first response is used. Listings and bitstream data are never hedged. Hedging is disabled, when it is empty. */
+	protected Set<String> hedgedGroups = new HashSet<>();
+	/** Percentile of latency of reads, after which read is hedged. Default is 95. */
+	protected Integer hedgeDelayPercentile;
+	/** Min delay before hedge of read in milliseconds. Default is 10 ms. */
+	protected Integer hedgeMinDelay;
+	/** Max share of hedges in reads in percents. Default is 10 %. */
+	protected Integer hedgeBudgetPercent;
+	/** Settings of circuit breakers of groups of operations. Circuit breakers are disabled, when it is null. */
+	protected CircuitBreakerSettings circuitBreaker;
+	/** Settings of circuit breakers of single groups (communities, collections, items, bitstreams), which override {@link #circuitBreaker}. */
+	protected Map<String, CircuitBreakerSettings> circuitBreakerGroups = new HashMap<>();
+	/** Endpoints of read replicas of DSpace. Reads are balanced across {@link #endpointURL} and replicas, when it is not empty. */
+	protected List<String> replicaURLs = new ArrayList<>();
+	/** Writes are sent to {@link #endpointURL} only, unless it is false. */
+	protected Boolean pinWritesToPrimary;
+	/** Count of consecutive failures of endpoint, after which it is ejected from balancing. Default is 3. */
+	protected Integer ejectionFailures;
+	/** Time in milliseconds, for which ejected endpoint gets no requests. Default is 30000 ms. */
+	protected Integer ejectionTime;
+	/** Max count of items and pages of items kept with their ETag and Last-Modified for conditional reads. Conditional reads are disabled, when it is null or 0. */
+	protected Integer responseCacheSize;
+	/** Time in milliseconds, for which finds of items, bitstreams and collections, which found nothing, are answered without request. Misses are not cached, when it is null or 0. */
+	protected Integer negativeCacheTtl;
+	/** Max count of cached finds, which found nothing. Default is 10000. */
+	protected Integer negativeCacheSize;
+	/** Statistics of connection pool are published by JMX, unless it is false. */
+	protected Boolean jmxEnabled;
 	
 	public Configuration() {
 		super();
@@ -73,4 +154,300 @@ public class Configuration {
 		this.maxPerRoute = maxPerRoute;
 	}
 
+	public Integer getTokenRefreshInterval() {
+		return tokenRefreshInterval;
+	}
+
+	public void setTokenRefreshInterval(Integer tokenRefreshInterval) {
+		this.tokenRefreshInterval = tokenRefreshInterval;
+	}
+
+	public Integer getTokenMaxAge() {
+		return tokenMaxAge;
+	}
+
+	public void setTokenMaxAge(Integer tokenMaxAge) {
+		this.tokenMaxAge = tokenMaxAge;
+	}
+
+	public Integer getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(Integer connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public Integer getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	public void setSocketTimeout(Integer socketTimeout) {
+		this.socketTimeout = socketTimeout;
+	}
+
+	public Integer getRequestTimeout() {
+		return requestTimeout;
+	}
+
+	public void setRequestTimeout(Integer requestTimeout) {
+		this.requestTimeout = requestTimeout;
+	}
+
+	public Integer getKeepAliveDuration() {
+		return keepAliveDuration;
+	}
+
+	public void setKeepAliveDuration(Integer keepAliveDuration) {
+		this.keepAliveDuration = keepAliveDuration;
+	}
+
+	public Integer getIdleConnectionTimeout() {
+		return idleConnectionTimeout;
+	}
+
+	public void setIdleConnectionTimeout(Integer idleConnectionTimeout) {
+		this.idleConnectionTimeout = idleConnectionTimeout;
+	}
+
+	public Integer getValidateAfterInactivity() {
+		return validateAfterInactivity;
+	}
+
+	public void setValidateAfterInactivity(Integer validateAfterInactivity) {
+		this.validateAfterInactivity = validateAfterInactivity;
+	}
+
+	public Boolean getJmxEnabled() {
+		return jmxEnabled;
+	}
+
+	public void setJmxEnabled(Boolean jmxEnabled) {
+		this.jmxEnabled = jmxEnabled;
+	}
+
+	public Integer getTransferMaxTotal() {
+		return transferMaxTotal;
+	}
+
+	public void setTransferMaxTotal(Integer transferMaxTotal) {
+		this.transferMaxTotal = transferMaxTotal;
+	}
+
+	public Integer getTransferMaxPerRoute() {
+		return transferMaxPerRoute;
+	}
+
+	public void setTransferMaxPerRoute(Integer transferMaxPerRoute) {
+		this.transferMaxPerRoute = transferMaxPerRoute;
+	}
+
+	public Boolean getHttp2PriorKnowledge() {
+		return http2PriorKnowledge;
+	}
+
+	public void setHttp2PriorKnowledge(Boolean http2PriorKnowledge) {
+		this.http2PriorKnowledge = http2PriorKnowledge;
+	}
+
+	public Boolean getAdaptiveConcurrency() {
+		return adaptiveConcurrency;
+	}
+
+	public void setAdaptiveConcurrency(Boolean adaptiveConcurrency) {
+		this.adaptiveConcurrency = adaptiveConcurrency;
+	}
+
+	public Integer getInitialConcurrency() {
+		return initialConcurrency;
+	}
+
+	public void setInitialConcurrency(Integer initialConcurrency) {
+		this.initialConcurrency = initialConcurrency;
+	}
+
+	public Integer getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(Integer maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public Integer getReadsPerSecond() {
+		return readsPerSecond;
+	}
+
+	public void setReadsPerSecond(Integer readsPerSecond) {
+		this.readsPerSecond = readsPerSecond;
+	}
+
+	public Integer getWritesPerSecond() {
+		return writesPerSecond;
+	}
+
+	public void setWritesPerSecond(Integer writesPerSecond) {
+		this.writesPerSecond = writesPerSecond;
+	}
+
+	public Integer getBitstreamBytesPerSecond() {
+		return bitstreamBytesPerSecond;
+	}
+
+	public void setBitstreamBytesPerSecond(Integer bitstreamBytesPerSecond) {
+		this.bitstreamBytesPerSecond = bitstreamBytesPerSecond;
+	}
+
+	public Integer getRetryMaxAttempts() {
+		return retryMaxAttempts;
+	}
+
+	public void setRetryMaxAttempts(Integer retryMaxAttempts) {
+		this.retryMaxAttempts = retryMaxAttempts;
+	}
+
+	public Integer getRetryInitialDelay() {
+		return retryInitialDelay;
+	}
+
+	public void setRetryInitialDelay(Integer retryInitialDelay) {
+		this.retryInitialDelay = retryInitialDelay;
+	}
+
+	public Integer getRetryMaxDelay() {
+		return retryMaxDelay;
+	}
+
+	public void setRetryMaxDelay(Integer retryMaxDelay) {
+		this.retryMaxDelay = retryMaxDelay;
+	}
+
+	public Integer getRetryBudgetPercent() {
+		return retryBudgetPercent;
+	}
+
+	public void setRetryBudgetPercent(Integer retryBudgetPercent) {
+		this.retryBudgetPercent = retryBudgetPercent;
+	}
+
+	public Map<String, RetryPolicy> getRetryPolicies() {
+		return retryPolicies;
+	}
+
+	public void setRetryPolicies(Map<String, RetryPolicy> retryPolicies) {
+		this.retryPolicies = retryPolicies;
+	}
+
+	public CircuitBreakerSettings getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(CircuitBreakerSettings circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public Map<String, CircuitBreakerSettings> getCircuitBreakerGroups() {
+		return circuitBreakerGroups;
+	}
+
+	public void setCircuitBreakerGroups(Map<String, CircuitBreakerSettings> circuitBreakerGroups) {
+		this.circuitBreakerGroups = circuitBreakerGroups;
+	}
+
+	public Set<String> getHedgedGroups() {
+		return hedgedGroups;
+	}
+
+	public void setHedgedGroups(Set<String> hedgedGroups) {
+		this.hedgedGroups = hedgedGroups;
+	}
+
+	public Integer getHedgeDelayPercentile() {
+		return hedgeDelayPercentile;
+	}
+
+	public void setHedgeDelayPercentile(Integer hedgeDelayPercentile) {
+		this.hedgeDelayPercentile = hedgeDelayPercentile;
+	}
+
+	public Integer getHedgeMinDelay() {
+		return hedgeMinDelay;
+	}
+
+	public void setHedgeMinDelay(Integer hedgeMinDelay) {
+		this.hedgeMinDelay = hedgeMinDelay;
+	}
+
+	public Integer getHedgeBudgetPercent() {
+		return hedgeBudgetPercent;
+	}
+
+	public void setHedgeBudgetPercent(Integer hedgeBudgetPercent) {
+		this.hedgeBudgetPercent = hedgeBudgetPercent;
+	}
+
+	public Boolean getCoalesceReads() {
+		return coalesceReads;
+	}
+
+	public void setCoalesceReads(Boolean coalesceReads) {
+		this.coalesceReads = coalesceReads;
+	}
+
+	public List<String> getReplicaURLs() {
+		return replicaURLs;
+	}
+
+	public void setReplicaURLs(List<String> replicaURLs) {
+		this.replicaURLs = replicaURLs;
+	}
+
+	public Boolean getPinWritesToPrimary() {
+		return pinWritesToPrimary;
+	}
+
+	public void setPinWritesToPrimary(Boolean pinWritesToPrimary) {
+		this.pinWritesToPrimary = pinWritesToPrimary;
+	}
+
+	public Integer getEjectionFailures() {
+		return ejectionFailures;
+	}
+
+	public void setEjectionFailures(Integer ejectionFailures) {
+		this.ejectionFailures = ejectionFailures;
+	}
+
+	public Integer getEjectionTime() {
+		return ejectionTime;
+	}
+
+	public void setEjectionTime(Integer ejectionTime) {
+		this.ejectionTime = ejectionTime;
+	}
+
+	public Integer getResponseCacheSize() {
+		return responseCacheSize;
+	}
+
+	public void setResponseCacheSize(Integer responseCacheSize) {
+		this.responseCacheSize = responseCacheSize;
+	}
+
+	public Integer getNegativeCacheTtl() {
+		return negativeCacheTtl;
+	}
+
+	public void setNegativeCacheTtl(Integer negativeCacheTtl) {
+		this.negativeCacheTtl = negativeCacheTtl;
+	}
+
+	public Integer getNegativeCacheSize() {
+		return negativeCacheSize;
+	}
+
+	public void setNegativeCacheSize(Integer negativeCacheSize) {
+		this.negativeCacheSize = negativeCacheSize;
+	}
+
 }
@@ -2,12 +2,15 @@ package cz.cvut.dspace.rest.client;
 
 import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 
 import org.dspace.rest.common.*;
 
+import cz.cvut.dspace.rest.client.impl.BindingDSpaceRESTClient;
+
 /**
  * Interface for DSpace rest client.
  *
@@ -27,6 +30,31 @@ public interface DSpaceRESTClient {
      */
     String login() throws ProcessingException, WebApplicationException;
 
+    /**
+     * Returns view of this client, whose every call has to finish in given time. All requests of the call share
+     * the deadline; requests running at expiry are aborted and their connections are released.
+     *
+     * @param timeout Max duration of one call.
+     * @param unit    Unit of timeout.
+     * @return Returns client sharing connections and token with this client. Its calls throw ProcessingException
+     *         caused by java.util.concurrent.TimeoutException after deadline.
+     */
+    default DSpaceRESTClient withDeadline(long timeout, TimeUnit unit) {
+        return new BindingDSpaceRESTClient(this, BindingDSpaceRESTClient.deadline(timeout, unit));
+    }
+
+    /**
+     * Returns view of this client, whose calls retry failed requests by given policy instead of policy of client.
+     * It allows e.g. retries of creation, which is known to be safe to repeat, or no retries of call, whose caller
+     * handles failures itself.
+     *
+     * @param policy Policy of retries, {@link RetryPolicy#NONE} disables retries.
+     * @return Returns client sharing connections and token with this client.
+     */
+    default DSpaceRESTClient withRetryPolicy(RetryPolicy policy) {
+        return new BindingDSpaceRESTClient(this, BindingDSpaceRESTClient.retryPolicy(policy));
+    }
+
     /**
      * Logout client into rest api.
      *
@@ -1,5 +1,7 @@
 package cz.cvut.dspace.rest.client;
 
+import cz.cvut.dspace.rest.client.impl.Http2DSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient;
 import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
 import cz.cvut.dspace.rest.client.impl.BasicDSpaceRESTClient;
 
@@ -24,8 +26,16 @@ public class DSpaceRESTClientFactory {
 			PooledDSpaceRESTClient client = new PooledDSpaceRESTClient(configuration);
 			client.create();
 			return client;
+		} else if (NioDSpaceRESTClient.class.isAssignableFrom(type)) {
+			NioDSpaceRESTClient client = new NioDSpaceRESTClient(configuration);
+			client.create();
+			return client;
+		} else if (Http2DSpaceRESTClient.class.isAssignableFrom(type)) {
+			Http2DSpaceRESTClient client = new Http2DSpaceRESTClient(configuration);
+			client.create();
+			return client;
 		} else {
-			throw new IllegalArgumentException(type + " is not supported. Use BasicDSpaceRESTClient.class or PooledDSpaceRESTClient.class.");
+			throw new IllegalArgumentException(type + " is not supported. Use BasicDSpaceRESTClient.class, PooledDSpaceRESTClient.class, NioDSpaceRESTClient.class or Http2DSpaceRESTClient.class.");
 		}
 	}
 
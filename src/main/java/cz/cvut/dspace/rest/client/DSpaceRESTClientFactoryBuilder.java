@@ -1,6 +1,7 @@
 package cz.cvut.dspace.rest.client;
 
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
 * @author Petr Karel
@@ -8,6 +9,9 @@ import java.util.Properties;
 */
 public class DSpaceRESTClientFactoryBuilder {
 
+	/** Groups of operations, which have circuit breakers, retry policies and hedging of their own. */
+	public static final String[] CIRCUIT_BREAKER_GROUPS = { "communities", "collections", "items", "bitstreams" };
+
 	public DSpaceRESTClientFactory build(String endpointURL, String username, String password) {		
 		Configuration configuration = new Configuration(endpointURL, username, password, null, null);
 		return build(configuration);
@@ -23,13 +27,136 @@ public class DSpaceRESTClientFactoryBuilder {
 		Configuration configuration = new Configuration(properties.getProperty("endpointURL"),
 				properties.getProperty("username"),
 				properties.getProperty("password"),
-				properties.getProperty("maxTotal") != null ? Integer.valueOf(properties.getProperty("maxTotal")) : null,
-				properties.getProperty("maxPerRoute") != null ? Integer.valueOf(properties.getProperty("maxPerRoute")) : null);
+				getInteger(properties, "maxTotal"),
+				getInteger(properties, "maxPerRoute"));
+		configuration.setTokenRefreshInterval(getInteger(properties, "tokenRefreshInterval"));
+		configuration.setTokenMaxAge(getInteger(properties, "tokenMaxAge"));
+		configuration.setConnectTimeout(getInteger(properties, "connectTimeout"));
+		configuration.setSocketTimeout(getInteger(properties, "socketTimeout"));
+		configuration.setRequestTimeout(getInteger(properties, "requestTimeout"));
+		configuration.setKeepAliveDuration(getInteger(properties, "keepAliveDuration"));
+		configuration.setIdleConnectionTimeout(getInteger(properties, "idleConnectionTimeout"));
+		configuration.setValidateAfterInactivity(getInteger(properties, "validateAfterInactivity"));
+		configuration.setTransferMaxTotal(getInteger(properties, "transferMaxTotal"));
+		configuration.setTransferMaxPerRoute(getInteger(properties, "transferMaxPerRoute"));
+		configuration.setHttp2PriorKnowledge(getBoolean(properties, "http2PriorKnowledge"));
+		configuration.setAdaptiveConcurrency(getBoolean(properties, "adaptiveConcurrency"));
+		configuration.setInitialConcurrency(getInteger(properties, "initialConcurrency"));
+		configuration.setMaxConcurrency(getInteger(properties, "maxConcurrency"));
+		configuration.setReadsPerSecond(getInteger(properties, "readsPerSecond"));
+		configuration.setWritesPerSecond(getInteger(properties, "writesPerSecond"));
+		configuration.setBitstreamBytesPerSecond(getInteger(properties, "bitstreamBytesPerSecond"));
+		configuration.setRetryMaxAttempts(getInteger(properties, "retryMaxAttempts"));
+		configuration.setRetryInitialDelay(getInteger(properties, "retryInitialDelay"));
+		configuration.setRetryMaxDelay(getInteger(properties, "retryMaxDelay"));
+		configuration.setRetryBudgetPercent(getInteger(properties, "retryBudgetPercent"));
+		for (String group : CIRCUIT_BREAKER_GROUPS) {
+			String prefix = "retry." + group + ".";
+			for (String key : properties.stringPropertyNames()) {
+				if (key.startsWith(prefix)) {
+					configuration.getRetryPolicies().put(group, getRetryPolicy(properties, prefix, configuration));
+					break;
+				}
+			}
+		}
+		configuration.setCoalesceReads(getBoolean(properties, "coalesceReads"));
+		for (String group : CIRCUIT_BREAKER_GROUPS) {
+			if (Boolean.TRUE.equals(getBoolean(properties, "hedgedReads." + group))) {
+				configuration.getHedgedGroups().add(group);
+			}
+		}
+		configuration.setHedgeDelayPercentile(getInteger(properties, "hedgeDelayPercentile"));
+		configuration.setHedgeMinDelay(getInteger(properties, "hedgeMinDelay"));
+		configuration.setHedgeBudgetPercent(getInteger(properties, "hedgeBudgetPercent"));
+		if (Boolean.TRUE.equals(getBoolean(properties, "circuitBreaker"))) {
+			CircuitBreakerSettings defaults = getCircuitBreakerSettings(properties, "circuitBreaker.", new CircuitBreakerSettings());
+			configuration.setCircuitBreaker(defaults);
+			for (String group : CIRCUIT_BREAKER_GROUPS) {
+				String prefix = "circuitBreaker." + group + ".";
+				for (String key : properties.stringPropertyNames()) {
+					if (key.startsWith(prefix)) {
+						configuration.getCircuitBreakerGroups().put(group, getCircuitBreakerSettings(properties, prefix, new CircuitBreakerSettings(defaults)));
+						break;
+					}
+				}
+			}
+		}
+		if (properties.getProperty("replicaURLs") != null) {
+			for (String replicaURL : properties.getProperty("replicaURLs").split(",")) {
+				if (!replicaURL.trim().isEmpty()) {
+					configuration.getReplicaURLs().add(replicaURL.trim());
+				}
+			}
+		}
+		configuration.setPinWritesToPrimary(getBoolean(properties, "pinWritesToPrimary"));
+		configuration.setEjectionFailures(getInteger(properties, "ejectionFailures"));
+		configuration.setEjectionTime(getInteger(properties, "ejectionTime"));
+		configuration.setResponseCacheSize(getInteger(properties, "responseCacheSize"));
+		configuration.setNegativeCacheTtl(getInteger(properties, "negativeCacheTtl"));
+		configuration.setNegativeCacheSize(getInteger(properties, "negativeCacheSize"));
+		configuration.setJmxEnabled(getBoolean(properties, "jmxEnabled"));
 		return build(configuration);
 	}
 	
 	public DSpaceRESTClientFactory build(Configuration configuration) {				
 		return new DSpaceRESTClientFactory(configuration);
 	}
+
+	/**
+	 * Reads settings of circuit breaker from properties with given prefix, e.g. "circuitBreaker.items.failureRateThreshold".
+	 */
+	private static CircuitBreakerSettings getCircuitBreakerSettings(Properties properties, String prefix, CircuitBreakerSettings settings) {
+		if (properties.getProperty(prefix + "failureRateThreshold") != null) {
+			settings.setFailureRateThreshold(getInteger(properties, prefix + "failureRateThreshold"));
+		}
+		if (properties.getProperty(prefix + "slowCallDuration") != null) {
+			settings.setSlowCallDuration(getInteger(properties, prefix + "slowCallDuration"));
+		}
+		if (properties.getProperty(prefix + "slowCallRateThreshold") != null) {
+			settings.setSlowCallRateThreshold(getInteger(properties, prefix + "slowCallRateThreshold"));
+		}
+		if (properties.getProperty(prefix + "windowSize") != null) {
+			settings.setWindowSize(getInteger(properties, prefix + "windowSize"));
+		}
+		if (properties.getProperty(prefix + "minimumCalls") != null) {
+			settings.setMinimumCalls(getInteger(properties, prefix + "minimumCalls"));
+		}
+		if (properties.getProperty(prefix + "openDuration") != null) {
+			settings.setOpenDuration(getInteger(properties, prefix + "openDuration"));
+		}
+		if (properties.getProperty(prefix + "halfOpenCalls") != null) {
+			settings.setHalfOpenCalls(getInteger(properties, prefix + "halfOpenCalls"));
+		}
+		return settings;
+	}
+
+	/**
+	 * Reads retry policy of group from properties with given prefix, e.g. "retry.bitstreams.maxAttempts".
+	 * Missing settings are taken from retry* settings of client.
+	 */
+	private static RetryPolicy getRetryPolicy(Properties properties, String prefix, Configuration configuration) {
+		Integer maxAttempts = getInteger(properties, prefix + "maxAttempts");
+		if (maxAttempts == null) {
+			maxAttempts = configuration.getRetryMaxAttempts() != null ? configuration.getRetryMaxAttempts() : 1;
+		}
+		Integer initialDelay = getInteger(properties, prefix + "initialDelay");
+		if (initialDelay == null) {
+			initialDelay = configuration.getRetryInitialDelay() != null ? configuration.getRetryInitialDelay() : 100;
+		}
+		Integer maxDelay = getInteger(properties, prefix + "maxDelay");
+		if (maxDelay == null) {
+			maxDelay = configuration.getRetryMaxDelay() != null ? configuration.getRetryMaxDelay() : 10000;
+		}
+		return new RetryPolicy(maxAttempts, initialDelay, maxDelay, TimeUnit.MILLISECONDS,
+				Boolean.TRUE.equals(getBoolean(properties, prefix + "retryNonIdempotent")));
+	}
+
+	private static Integer getInteger(Properties properties, String key) {
+		return properties.getProperty(key) != null ? Integer.valueOf(properties.getProperty(key)) : null;
+	}
+
+	private static Boolean getBoolean(Properties properties, String key) {
+		return properties.getProperty(key) != null ? Boolean.valueOf(properties.getProperty(key)) : null;
+	}
 	
 }
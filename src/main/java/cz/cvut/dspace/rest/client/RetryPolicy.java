@@ -0,0 +1,121 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Policy of retries of requests, which failed by transient failure: DSpace answered 429, 502, 503 or 504,
+ * or the request failed by I/O error or timeout. Delay before retry grows exponentially from initial delay
+ * up to max delay and it is randomized by full jitter, so clients, which failed together, do not retry together.
+ * Delay requested by DSpace in Retry-After header is respected.
+ * <p>
+ * Only idempotent requests (GET, HEAD, PUT, DELETE, OPTIONS) are retried, unless the policy allows retries
+ * of non-idempotent requests. Policy of client is set by configuration, policy of single call can be bound
+ * to thread by {@link #call(Callable)}.
+ */
+public final class RetryPolicy {
+
+    /** Property of invocation, by which policy is passed to requests executed outside of thread of call. */
+    public static final String PROPERTY = RetryPolicy.class.getName();
+
+    /** Policy, which never retries. */
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, TimeUnit.MILLISECONDS, false);
+
+    private static final ThreadLocal<RetryPolicy> current = new ThreadLocal<>();
+
+    private final int maxAttempts;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final boolean retryNonIdempotent;
+
+    /**
+     * @param maxAttempts        Max count of attempts including the first one.
+     * @param initialDelay       Upper bound of delay before the first retry.
+     * @param maxDelay           Upper bound of any delay. Request is not retried, if DSpace asks to wait longer.
+     * @param unit               Unit of delays.
+     * @param retryNonIdempotent Non-idempotent requests (POST) are retried too, when it is true.
+     */
+    public RetryPolicy(int maxAttempts, long initialDelay, long maxDelay, TimeUnit unit, boolean retryNonIdempotent) {
+        if (maxAttempts < 1 || initialDelay < 0 || maxDelay < initialDelay) {
+            throw new IllegalArgumentException("Invalid retry policy [maxAttempts=" + maxAttempts + ", initialDelay="
+                    + initialDelay + ", maxDelay=" + maxDelay + "].");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelayNanos = unit.toNanos(initialDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.retryNonIdempotent = retryNonIdempotent;
+    }
+
+    /**
+     * @return Returns policy bound to current thread or null.
+     */
+    public static RetryPolicy current() {
+        return current.get();
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialDelay(TimeUnit unit) {
+        return unit.convert(initialDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxDelay(TimeUnit unit) {
+        return unit.convert(maxDelayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isRetryNonIdempotent() {
+        return retryNonIdempotent;
+    }
+
+    /**
+     * @return Returns true, if request of given method can be retried by this policy.
+     */
+    public boolean allows(String method) {
+        return maxAttempts > 1 && (retryNonIdempotent || isIdempotent(method));
+    }
+
+    public static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method)
+                || "DELETE".equals(method) || "OPTIONS".equals(method);
+    }
+
+    /**
+     * Computes randomized delay before retry.
+     *
+     * @param attempt Count of attempts made so far.
+     * @return Returns delay in nanoseconds.
+     */
+    public long backoffNanos(int attempt) {
+        long bound = initialDelayNanos << Math.min(attempt - 1, 30);
+        if (bound <= 0 || bound > maxDelayNanos) {
+            bound = maxDelayNanos;
+        }
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+
+    /**
+     * Runs callable with this policy bound to current thread.
+     */
+    public <T> T call(Callable<T> callable) throws Exception {
+        RetryPolicy previous = current.get();
+        current.set(this);
+        try {
+            return callable.call();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy[maxAttempts=" + maxAttempts + ", initialDelay=" + TimeUnit.NANOSECONDS.toMillis(initialDelayNanos)
+                + " ms, maxDelay=" + TimeUnit.NANOSECONDS.toMillis(maxDelayNanos) + " ms, retryNonIdempotent=" + retryNonIdempotent + "]";
+    }
+}
@@ -2,7 +2,16 @@ package cz.cvut.dspace.rest.client.impl;
 
 import java.io.InputStream;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ClientErrorException;
@@ -15,19 +24,27 @@ import javax.ws.rs.ServerErrorException;
 import javax.ws.rs.ServiceUnavailableException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriBuilder;
 
 import org.dspace.rest.common.*;
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
 import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.jboss.resteasy.client.jaxrs.ResteasyWebTarget;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import cz.cvut.dspace.rest.client.AsyncDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.CircuitBreakerSettings;
 import cz.cvut.dspace.rest.client.Configuration;
 import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+import cz.cvut.dspace.rest.client.DSpaceRESTClientFactoryBuilder;
+import cz.cvut.dspace.rest.client.RetryPolicy;
 
 /**
  * Implementation of DSpace rest client in RESTEasy.
@@ -51,23 +68,403 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
     /** Header key for token. */
     protected static final String HEADER_TOKEN = "rest-dspace-token";
 
-    protected String token = null;
+    protected final TokenManager tokenManager = new TokenManager();
+    /** Adaptive limit of requests in flight shared by all requests of this client or null, when it is disabled. */
+    protected final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    /** Rate limits of reads, writes and uploaded bytes shared by all requests of this client, null means no limit. */
+    protected final TokenBucket readLimit;
+    protected final TokenBucket writeLimit;
+    protected final TokenBucket bitstreamBytesLimit;
+    /** Policy of retries of requests without policy of their own and budget of retries of this client. */
+    protected final RetryPolicy retryPolicy;
+    protected final RetryBudget retryBudget;
+    /** Deduplication of concurrent identical reads or null, when it is disabled. */
+    protected final SingleFlight singleFlight;
+    /** Policy of hedged reads or null, when hedging is disabled. */
+    protected final HedgingPolicy hedgingPolicy;
+    /** Balancing of requests across primary endpoint and replicas or null, when there are no replicas. */
+    protected final LoadBalancer loadBalancer;
+    /** Results of reads of items with their validators for conditional requests or null, when it is disabled. */
+    protected final ValidatingCache responseCache;
+    /** Finds, which found nothing, or null, when they are not cached. */
+    protected final NegativeCache negativeCache;
+    /** Circuit breakers by group of operations, it is empty, when breakers are disabled. */
+    protected final Map<String, CircuitBreaker> circuitBreakers = new LinkedHashMap<>();
+    protected TokenRefresher tokenRefresher;
 
     protected ResteasyClient client;
+    /** Client for transfers of binary data of bitstreams. Implementations without separate transfer lane leave it null. */
+    protected ResteasyClient transferClient;
 
     public AbstractDSpaceRESTClient(Configuration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    /**
+     * @param ticker Source of time in nanoseconds, by which misses of negative cache expire and open circuit
+     *               breakers wait.
+     */
+    protected AbstractDSpaceRESTClient(Configuration configuration, LongSupplier ticker) {
         this.configuration = configuration;
         if (configuration.getEndpointURL().endsWith("/")) {
             ENDPOINT_URL = configuration.getEndpointURL().substring(0, configuration.getEndpointURL().length() - 1);
         } else {
             ENDPOINT_URL = configuration.getEndpointURL();
         }
+        if (Boolean.TRUE.equals(configuration.getAdaptiveConcurrency())) {
+            Integer initial = configuration.getInitialConcurrency();
+            Integer max = configuration.getMaxConcurrency() != null ? configuration.getMaxConcurrency() : configuration.getMaxTotal();
+            concurrencyLimiter = new AdaptiveConcurrencyLimiter(initial != null ? initial : 10, 1, max != null ? max : 100);
+        } else {
+            concurrencyLimiter = null;
+        }
+        readLimit = rateLimit(configuration.getReadsPerSecond());
+        writeLimit = rateLimit(configuration.getWritesPerSecond());
+        bitstreamBytesLimit = rateLimit(configuration.getBitstreamBytesPerSecond());
+        Integer maxAttempts = configuration.getRetryMaxAttempts();
+        if (maxAttempts != null && maxAttempts > 1) {
+            Integer initialDelay = configuration.getRetryInitialDelay();
+            Integer maxDelay = configuration.getRetryMaxDelay();
+            retryPolicy = new RetryPolicy(maxAttempts, initialDelay != null ? initialDelay : 100,
+                    maxDelay != null ? maxDelay : 10000, TimeUnit.MILLISECONDS, false);
+        } else {
+            retryPolicy = RetryPolicy.NONE;
+        }
+        Integer budgetPercent = configuration.getRetryBudgetPercent();
+        retryBudget = new RetryBudget((budgetPercent != null ? budgetPercent : 20) / 100.0, 10);
+        singleFlight = Boolean.TRUE.equals(configuration.getCoalesceReads()) ? new SingleFlight() : null;
+        if (configuration.getHedgedGroups() != null && !configuration.getHedgedGroups().isEmpty()) {
+            Integer percentile = configuration.getHedgeDelayPercentile();
+            Integer minDelay = configuration.getHedgeMinDelay();
+            Integer hedgePercent = configuration.getHedgeBudgetPercent();
+            hedgingPolicy = new HedgingPolicy(percentile != null ? percentile : 95, minDelay != null ? minDelay : 10,
+                    (hedgePercent != null ? hedgePercent : 10) / 100.0);
+        } else {
+            hedgingPolicy = null;
+        }
+        if (configuration.getReplicaURLs() != null && !configuration.getReplicaURLs().isEmpty()) {
+            Integer ejectionFailures = configuration.getEjectionFailures();
+            Integer ejectionTime = configuration.getEjectionTime();
+            loadBalancer = new LoadBalancer(ENDPOINT_URL, configuration.getReplicaURLs(), !Boolean.FALSE.equals(configuration.getPinWritesToPrimary()),
+                    ejectionFailures != null ? ejectionFailures : 3, ejectionTime != null ? ejectionTime : 30000);
+        } else {
+            loadBalancer = null;
+        }
+        Integer responseCacheSize = configuration.getResponseCacheSize();
+        responseCache = responseCacheSize != null && responseCacheSize > 0 ? new ValidatingCache(responseCacheSize) : null;
+        Integer negativeCacheTtl = configuration.getNegativeCacheTtl();
+        Integer negativeCacheSize = configuration.getNegativeCacheSize();
+        negativeCache = negativeCacheTtl != null && negativeCacheTtl > 0
+                ? new NegativeCache(negativeCacheTtl, TimeUnit.MILLISECONDS, negativeCacheSize != null ? negativeCacheSize : 10000, ticker) : null;
+        if (configuration.getCircuitBreaker() != null) {
+            for (String group : DSpaceRESTClientFactoryBuilder.CIRCUIT_BREAKER_GROUPS) {
+                CircuitBreakerSettings settings = configuration.getCircuitBreakerGroups() != null ? configuration.getCircuitBreakerGroups().get(group) : null;
+                circuitBreakers.put(group, new CircuitBreaker(group, settings != null ? settings : configuration.getCircuitBreaker(),
+                        ENDPOINT_URL, configuration.getJmxEnabled(), ticker));
+            }
+        }
+    }
+
+    /**
+     * Creates token bucket with burst of one second of given rate.
+     */
+    private static TokenBucket rateLimit(Integer perSecond) {
+        return perSecond != null && perSecond > 0 ? new TokenBucket(perSecond, perSecond) : null;
     }
 
     public abstract void create();
 
+    /**
+     * Returns builder of RESTEasy client, which wraps http engine by {@link #decorateEngine(ClientHttpEngine)}.
+     * Implementations should build their RESTEasy client by it.
+     *
+     * @return Returns new builder.
+     */
+    protected ResteasyClientBuilder clientBuilder() {
+        return new DSpaceResteasyClientBuilder(this);
+    }
+
+    /**
+     * Wraps http engine of RESTEasy client by engines, which are common for all requests of this client.
+     *
+     * @param engine Transport engine of implementation.
+     * @return Returns wrapped engine.
+     */
+    protected ClientHttpEngine decorateEngine(ClientHttpEngine engine) {
+        if (loadBalancer != null) {
+            // Every attempt (retry or hedge) chooses its endpoint on its own
+            engine = new LoadBalancingClientHttpEngine(engine, loadBalancer, this);
+        }
+        if (hedgingPolicy != null) {
+            // Hedged read is a single request for all outer engines
+            engine = new HedgingClientHttpEngine(engine, hedgingPolicy, configuration.getHedgedGroups(), ENDPOINT_URL);
+        }
+        if (concurrencyLimiter != null) {
+            engine = new LimitingClientHttpEngine(engine, concurrencyLimiter);
+        }
+        if (readLimit != null || writeLimit != null || bitstreamBytesLimit != null) {
+            // Throttled requests wait before they take permit of concurrency limit
+            engine = new RateLimitingClientHttpEngine(engine, readLimit, writeLimit, bitstreamBytesLimit);
+        }
+        // Waits for permits and rate limits count to deadline of request, so they are bounded by it
+        Integer requestTimeout = configuration.getRequestTimeout();
+        engine = new DeadlineClientHttpEngine(engine, requestTimeout != null ? TimeUnit.SECONDS.toMillis(requestTimeout) : null);
+        if (!circuitBreakers.isEmpty()) {
+            // Rejected requests do not spend tokens of rate limits
+            engine = new CircuitBreakingClientHttpEngine(engine, circuitBreakers, ENDPOINT_URL);
+        }
+        // Every attempt is throttled and limited on its own, token is renewed once for all attempts
+        engine = new RetryingClientHttpEngine(engine, retryPolicy, retryBudget, configuration.getRetryPolicies(), ENDPOINT_URL);
+        return new AuthenticatingClientHttpEngine(engine, this);
+    }
+
+    /**
+     * @return Returns adaptive limit of requests in flight or null, if it is not enabled in configuration.
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * @return Returns balancing of requests across replicas or null, if there are no replicas in configuration.
+     */
+    public LoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * @return Returns cache of conditional reads of items or null, if it is not enabled in configuration.
+     */
+    public ValidatingCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Adds validators of cached result of read to its request, when conditional reads are enabled.
+     *
+     * @return Returns cached result or null, when request is not conditional.
+     * @see ValidatingCache#validate(String, javax.ws.rs.client.Invocation.Builder)
+     */
+    protected <T> ValidatingCache.Entry<T> validate(String key, Invocation.Builder request) {
+        return responseCache != null ? responseCache.<T>validate(key, request) : null;
+    }
+
     public abstract void destroy();
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * View implements only {@link DSpaceRESTClient}, so it has no {@link #async()}, iterators, harvests and getters
+     * of this client. Asynchronous calls take deadline bound to thread, which starts them, so single asynchronous
+     * call can be bounded by starting it in {@link Deadline#call(Callable)}.
+     */
+    @Override
+    public DSpaceRESTClient withDeadline(final long timeout, final TimeUnit unit) {
+        return new BindingDSpaceRESTClient(this, BindingDSpaceRESTClient.deadline(timeout, unit));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * View implements only {@link DSpaceRESTClient} like view of {@link #withDeadline(long, TimeUnit)}. Asynchronous
+     * calls take retry policy bound to thread, which starts them, by {@link RetryPolicy#call(Callable)}.
+     */
+    @Override
+    public DSpaceRESTClient withRetryPolicy(final RetryPolicy policy) {
+        return new BindingDSpaceRESTClient(this, BindingDSpaceRESTClient.retryPolicy(policy));
+    }
+
+    /**
+     * Executes read, or joins concurrent identical read, when coalescing of reads is enabled.
+     *
+     * @param key    Identity of read, i.e. name of operation and its arguments.
+     * @param loader Executes read.
+     * @return Returns result of read, which may be shared with other callers.
+     */
+    protected <T> T coalesce(String key, Supplier<T> loader) {
+        return singleFlight != null ? singleFlight.execute(key, loader) : loader.get();
+    }
+
+    /**
+     * Executes find, unless it found nothing recently, when caching of misses is enabled.
+     *
+     * @param key    Name of find with its arguments, e.g. "findItemById/42".
+     * @param loader Executes find, it returns null, when nothing is found.
+     * @return Returns result of find or null.
+     */
+    protected <T> T probe(String key, Supplier<T> loader) {
+        return negativeCache != null ? negativeCache.find(key, loader) : loader.get();
+    }
+
+    /**
+     * Executes create and forgets cached misses of created object, when caching of misses is enabled.
+     *
+     * @see NegativeCache#created(String, Function, Supplier)
+     */
+    protected <T> T created(String kind, Function<T, Object> identity, Supplier<T> create) {
+        return negativeCache != null ? negativeCache.created(kind, identity, create) : create.get();
+    }
+
+    /**
+     * @return Returns cache of finds, which found nothing, or null, if it is not enabled in configuration.
+     */
+    public NegativeCache getNegativeCache() {
+        return negativeCache;
+    }
+
+    /**
+     * @return Returns deduplication of concurrent reads or null, if it is not enabled in configuration.
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * @return Returns policy and statistics of hedged reads or null, if hedging is not enabled.
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * @return Returns circuit breakers by group of operations (e.g. "items"), it is empty, if they are not enabled.
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(circuitBreakers);
+    }
+
+    /**
+     * Publishes circuit breakers by JMX. Implementations call it at the end of {@link #create()}.
+     */
+    protected void startCircuitBreakers() {
+        for (CircuitBreaker breaker : circuitBreakers.values()) {
+            breaker.start();
+        }
+    }
+
+    /**
+     * Unregisters circuit breakers from JMX. Implementations call it in {@link #destroy()}.
+     */
+    protected void stopCircuitBreakers() {
+        for (CircuitBreaker breaker : circuitBreakers.values()) {
+            breaker.shutdown();
+        }
+    }
+
+    /**
+     * Starts background refresh of authentication token, if it is enabled in configuration.
+     * Implementations call it at the end of {@link #create()}.
+     */
+    protected void startTokenRefresh() {
+        Integer interval = configuration.getTokenRefreshInterval();
+        if (interval != null && interval > 0) {
+            Integer maxAge = configuration.getTokenMaxAge();
+            tokenRefresher = new TokenRefresher(this, interval, maxAge != null ? Long.valueOf(maxAge) : null);
+            tokenRefresher.start();
+        }
+    }
+
+    /**
+     * Stops background refresh of authentication token. Implementations call it at the beginning of {@link #destroy()}.
+     */
+    protected void stopTokenRefresh() {
+        if (tokenRefresher != null) {
+            tokenRefresher.stop();
+            tokenRefresher = null;
+        }
+    }
+
+    /**
+     * Returns RESTEasy client for transfers of binary data of bitstreams, so large uploads do not occupy
+     * connections of metadata calls.
+     *
+     * @return Returns transfer client or the common client, if implementation has no separate transfer lane.
+     */
+    protected ResteasyClient transferClient() {
+        return transferClient != null ? transferClient : client;
+    }
+
+    /**
+     * Returns asynchronous view of this client. It shares connections and authentication token with this client,
+     * so it can be used only until {@link #destroy()} is called.
+     *
+     * @return Returns asynchronous client.
+     */
+    public AsyncDSpaceRESTClient async() {
+        return new DefaultAsyncDSpaceRESTClient(this);
+    }
+
+    /**
+     * Returns iterator over all items, which reads pages of items on demand and prefetches the next page by
+     * asynchronous client (see {@link PagingIterator}).
+     *
+     * @param expand   Expand fields of items.
+     * @param pageSize Count of items read by one request.
+     * @return Returns iterator, which should be closed, if it is abandoned before its end.
+     */
+    public PagingIterator<Item> iterateAllItems(String expand, int pageSize) {
+        AsyncDSpaceRESTClient async = async();
+        return new PagingIterator<>((limit, offset) -> async.readAllItems(expand, limit, offset), pageSize, 0);
+    }
+
+    /**
+     * Returns harvest of all items, which reads pages of items concurrently by asynchronous client (see
+     * {@link ParallelHarvest}). Pages are read with overlap of a tenth of page size. Reads in flight are limited
+     * by connections of client as well.
+     *
+     * @param expand      Expand fields of items.
+     * @param pageSize    Count of items read by one request.
+     * @param parallelism Max count of reads in flight.
+     * @return Returns harvest, which is started by {@link ParallelHarvest#harvest(java.util.function.Consumer, boolean)}.
+     */
+    public ParallelHarvest<Item> harvestAllItems(String expand, int pageSize, int parallelism) {
+        AsyncDSpaceRESTClient async = async();
+        return new ParallelHarvest<>((limit, offset) -> async.readAllItems(expand, limit, offset), pageSize,
+                Math.max(1, pageSize / 10), parallelism);
+    }
+
+    /**
+     * Returns iterator over items of collection, see {@link #iterateAllItems(String, int)}.
+     */
+    public PagingIterator<Item> iterateCollectionItems(Integer parentCollectionId, String expand, int pageSize) {
+        AsyncDSpaceRESTClient async = async();
+        return new PagingIterator<>((limit, offset) -> async.readCollectionItems(parentCollectionId, expand, limit, offset), pageSize, 0);
+    }
+
+    /**
+     * Returns iterator over all bitstreams, see {@link #iterateAllItems(String, int)}.
+     */
+    public PagingIterator<Bitstream> iterateAllBitstreams(String expand, int pageSize) {
+        AsyncDSpaceRESTClient async = async();
+        return new PagingIterator<>((limit, offset) -> async.readAllBitstreams(expand, limit, offset), pageSize, 0);
+    }
+
+    /**
+     * Returns iterator over all communities, see {@link #iterateAllItems(String, int)}.
+     */
+    public PagingIterator<Community> iterateAllCommunities(String expand, int pageSize) {
+        AsyncDSpaceRESTClient async = async();
+        return new PagingIterator<>((limit, offset) -> async.readAllCommunities(expand, limit, offset), pageSize, 0);
+    }
+
+    /**
+     * Returns iterator over all collections, see {@link #iterateAllItems(String, int)}.
+     */
+    public PagingIterator<Collection> iterateAllCollections(String expand, int pageSize) {
+        AsyncDSpaceRESTClient async = async();
+        return new PagingIterator<>((limit, offset) -> async.readAllCollections(expand, limit, offset), pageSize, 0);
+    }
+
+    /**
+     * Returns true, if http engine of this client executes requests without blocking threads, so asynchronous
+     * client can submit requests to it directly instead of running them by async executor of RESTEasy client.
+     *
+     * @return Returns true for non-blocking implementations.
+     */
+    protected boolean isNonBlocking() {
+        return false;
+    }
+
     public static <T> T extractResult(Class<T> responseType, Response response) {
         int status = response.getStatus();
         if (status >= 200 && status < 300) {
@@ -142,26 +539,117 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public String login() throws ProcessingException, WebApplicationException {
-        if (token == null) {
-            log.debug("Requesting authentication token [username={}, password={}].", configuration.getUsername(), "***");
-            ResteasyWebTarget target = client.target(ENDPOINT_URL + "/login");
-            Response response = target.request().accept(MediaType.APPLICATION_JSON).post(Entity.entity(new User(configuration.getUsername(), configuration.getPassword()), MediaType.APPLICATION_JSON));
-            try {
-                token = extractResult(String.class, response);
-                return token;
-            } catch (WebApplicationException ex) {
-                log.error("Requesting authentication token failed. Response code: {}.", response.getStatus());
-                throw ex;
-            } finally {
-                response.close();
+        return TokenManager.join(tokenManager.token(this::requestToken));
+    }
+
+    /**
+     * Requests new authentication token from DSpace. It is called by {@link TokenManager} only, so it is never
+     * running twice at the same time.
+     *
+     * @return Returns completed future of new token.
+     */
+    protected CompletableFuture<String> requestToken() throws ProcessingException, WebApplicationException {
+        log.debug("Requesting authentication token [username={}, password={}].", configuration.getUsername(), "***");
+        ResteasyWebTarget target = client.target(ENDPOINT_URL + "/login");
+        Response response = target.request().accept(MediaType.APPLICATION_JSON).post(Entity.entity(new User(configuration.getUsername(), configuration.getPassword()), MediaType.APPLICATION_JSON));
+        try {
+            return CompletableFuture.completedFuture(extractResult(String.class, response));
+        } catch (WebApplicationException ex) {
+            log.error("Requesting authentication token failed. Response code: {}.", response.getStatus());
+            throw ex;
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Starts login to replica in background, unless it is already running. Failed login counts as failure
+     * of the replica, so replica, which is down, is ejected and it is not asked for token again for a while.
+     *
+     * @param replica Replica without token.
+     */
+    protected void loginReplica(final LoadBalancer.Endpoint replica) {
+        final DefaultAsyncDSpaceRESTClient async = new DefaultAsyncDSpaceRESTClient(this);
+        replica.getTokenManager().token(() -> async.requestToken(replica.getURL(), null).whenComplete((token, ex) -> {
+            if (ex != null) {
+                log.warn("Login to replica {} failed: {}", replica.getURL(), ex.toString());
+                replica.failed();
             }
-        } else {
-            return token;
+        }));
+    }
+
+    /**
+     * Logs out of replicas in background. Failures are only logged.
+     */
+    protected void logoutReplicas() {
+        if (loadBalancer == null) {
+            return;
+        }
+        DefaultAsyncDSpaceRESTClient async = new DefaultAsyncDSpaceRESTClient(this);
+        for (LoadBalancer.Endpoint endpoint : loadBalancer.getEndpoints()) {
+            if (!endpoint.isPrimary() && endpoint.getTokenManager().peek() != null) {
+                async.logout(endpoint.getURL(), endpoint.getTokenManager());
+            }
+        }
+    }
+
+    /**
+     * Logs out token replaced by newer one in background, so its session does not stay open in DSpace until
+     * it expires. Failures are only logged.
+     *
+     * @param token Replaced token.
+     */
+    protected void logoutReplacedToken(String token) {
+        new DefaultAsyncDSpaceRESTClient(this).logout(ENDPOINT_URL, token).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                log.debug("Logout of replaced authentication token failed: {}", ex.toString());
+            }
+        });
+    }
+
+    /**
+     * Renews token, which was rejected by DSpace. Concurrent renewals of the same token share one login.
+     *
+     * @param staleToken Rejected token.
+     * @return Returns new token.
+     */
+    protected String renewToken(String staleToken) throws ProcessingException, WebApplicationException {
+        return TokenManager.join(tokenManager.renew(staleToken, this::requestToken));
+    }
+
+    /**
+     * Renews token like {@link #renewToken(String)}, but without blocking calling thread.
+     *
+     * @param staleToken Rejected token.
+     * @return Returns future of new token.
+     */
+    protected CompletableFuture<String> renewTokenAsync(String staleToken) {
+        final DefaultAsyncDSpaceRESTClient async = new DefaultAsyncDSpaceRESTClient(this);
+        return tokenManager.renew(staleToken, async::requestToken);
+    }
+
+    /**
+     * Checks by GET /status, whether DSpace still accepts token.
+     *
+     * @param token Authentication token.
+     * @return Returns true, if token is valid.
+     */
+    protected boolean isAuthenticated(String token) throws ProcessingException, WebApplicationException {
+        ResteasyWebTarget target = client.target(ENDPOINT_URL + "/status");
+        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
+        try {
+            return extractResult(Status.class, response).isAuthenticated();
+        } catch (WebApplicationException ex) {
+            log.error("Reading status of authentication token failed. Response code: {}.", response.getStatus());
+            throw ex;
+        } finally {
+            response.close();
         }
     }
 
     @Override
     public void logout() throws ProcessingException, WebApplicationException {
+        String token = tokenManager.peek();
         ResteasyWebTarget target = client.target(ENDPOINT_URL + "/logout");
         Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(new User(configuration.getUsername(), configuration.getPassword()), MediaType.APPLICATION_JSON));
         try {
@@ -172,7 +660,8 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
         } finally {
             response.close();
         }
-        token = null;
+        tokenManager.invalidate(token);
+        logoutReplicas();
     }
 
     @Override
@@ -196,21 +685,23 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public Community findCommunityById(Integer communityId, String expand) throws ProcessingException, WebApplicationException {
-        log.debug("Reading community(id={}) from DSpace.", communityId);
-        String token = login();
+        return coalesce("findCommunityById/" + communityId + "/" + expand, () -> {
+            log.debug("Reading community(id={}) from DSpace.", communityId);
+            String token = login();
 
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COMMUNITIES + "/" + communityId + addArguments(expand));
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
-        try {
-            Community community = extractResult(Community.class, response);
-            log.info("Community (handle={}) successfully read from DSpace(id={}).", community.getHandle(), community.getID());
-            return community;
-        } catch (WebApplicationException ex) {
-            log.error("Reading community(id={}) failed. Response code: {}.", communityId, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + COMMUNITIES + "/" + communityId + addArguments(expand));
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
+            try {
+                Community community = extractResult(Community.class, response);
+                log.info("Community (handle={}) successfully read from DSpace(id={}).", community.getHandle(), community.getID());
+                return community;
+            } catch (WebApplicationException ex) {
+                log.error("Reading community(id={}) failed. Response code: {}.", communityId, response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        });
     }
 
     @Override
@@ -382,40 +873,44 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public Collection createCollection(Integer parentCommunityId, Collection collection) throws ProcessingException, WebApplicationException {
-        log.debug("Creating collection in community(id={}).", parentCommunityId);
-        String token = login();
+        return created("findCollectionByName/", Collection::getName, () -> {
+            log.debug("Creating collection in community(id={}).", parentCommunityId);
+            String token = login();
 
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COLLECTIONS);
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(collection, MediaType.APPLICATION_JSON));
-        try {
-            collection = extractResult(Collection.class, response);
-            log.info("Collection (handle={}, id={}) successfully created in community(id={}).", new Object[]{collection.getHandle(), collection.getID(), parentCommunityId});
-            return collection;
-        } catch (WebApplicationException ex) {
-            log.error("Creating collection failed. Response code: {}.", response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COLLECTIONS);
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(collection, MediaType.APPLICATION_JSON));
+            try {
+                Collection created = extractResult(Collection.class, response);
+                log.info("Collection (handle={}, id={}) successfully created in community(id={}).", new Object[]{created.getHandle(), created.getID(), parentCommunityId});
+                return created;
+            } catch (WebApplicationException ex) {
+                log.error("Creating collection failed. Response code: {}.", response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        });
     }
 
     @Override
     public Collection findCollectionById(Integer collectionId, String expand) throws ProcessingException, WebApplicationException {
-        log.debug("Reading collection(id={}) from DSpace.", collectionId);
-        String token = login();
+        return coalesce("findCollectionById/" + collectionId + "/" + expand, () -> {
+            log.debug("Reading collection(id={}) from DSpace.", collectionId);
+            String token = login();
 
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/" + collectionId + addArguments(expand));
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
-        try {
-            Collection collection = extractResult(Collection.class, response);
-            log.info("Collection (handle={},id={}) successfully read from DSpace.", collection.getHandle(), collection.getID());
-            return collection;
-        } catch (WebApplicationException ex) {
-            log.error("Reading collection(id={}) failed. Response code: {}.", collectionId, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/" + collectionId + addArguments(expand));
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
+            try {
+                Collection collection = extractResult(Collection.class, response);
+                log.info("Collection (handle={},id={}) successfully read from DSpace.", collection.getHandle(), collection.getID());
+                return collection;
+            } catch (WebApplicationException ex) {
+                log.error("Reading collection(id={}) failed. Response code: {}.", collectionId, response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        });
     }
 
     @Override
@@ -433,6 +928,10 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
             throw ex;
         } finally {
             response.close();
+            if (negativeCache != null && collection.getName() != null) {
+                // Collection may be renamed to name, which was not found before.
+                negativeCache.invalidate("findCollectionByName/" + collection.getName());
+            }
         }
 
     }
@@ -476,22 +975,24 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public Collection findCollectionByName(String name) throws ProcessingException, WebApplicationException {
-        log.debug("Looking for collection with name: {}", name);
-        String token = login();
+        return probe("findCollectionByName/" + name, () -> coalesce("findCollectionByName/" + name, () -> {
+            log.debug("Looking for collection with name: {}", name);
+            String token = login();
 
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/find-collection");
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(name, MediaType.APPLICATION_JSON));
-        try {
-            return extractResult(Collection.class, response);
-        } catch (NotFoundException ex) {
-            log.info("No collection was found with name={}.", name);
-            return null;
-        } catch (WebApplicationException ex) {
-            log.error("Looking for collection (name={}) failed. Response code: {}.", name, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/find-collection");
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(name, MediaType.APPLICATION_JSON));
+            try {
+                return extractResult(Collection.class, response);
+            } catch (NotFoundException ex) {
+                log.info("No collection was found with name={}.", name);
+                return null;
+            } catch (WebApplicationException ex) {
+                log.error("Looking for collection (name={}) failed. Response code: {}.", name, response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        }));
     }
 
     @Override
@@ -499,11 +1000,20 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
         log.debug("Reading items from collection(id={}).", parentCollectionId);
         String token = login();
 
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/" + parentCollectionId + ITEMS + addArguments(expand, limit, offset));
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
+        String url = ENDPOINT_URL + COLLECTIONS + "/" + parentCollectionId + ITEMS + addArguments(expand, limit, offset);
+        Invocation.Builder request = client.target(url).request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON);
+        ValidatingCache.Entry<Item[]> cached = validate(url, request);
+        Response response = request.get();
         try {
+            if (responseCache != null && responseCache.isNotModified(cached, response)) {
+                log.debug("Items of collection(id={}) were not modified.", parentCollectionId);
+                return Arrays.asList(cached.getValue());
+            }
             Item[] items = extractResult(Item[].class, response);
             log.info("Items were successfully read from collection(id={}). (count={})", parentCollectionId, items.length);
+            if (responseCache != null) {
+                responseCache.store(url, response, items);
+            }
             return Arrays.asList(items);
         } catch (WebApplicationException ex) {
             log.error("Reading items from collection(id={}) failed. Response code: {}.", parentCollectionId, response.getStatus());
@@ -515,55 +1025,75 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public Item findItemById(Integer itemId, boolean includeMetadata, boolean includeBitstreams) throws ProcessingException, WebApplicationException {
-        log.debug("Looking for item with id: {}", itemId);
-        String token = login();
-        Item item = null;
-
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "?expand=parentCollectionList,parentCollection,metadata,bitstreams");
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
-        try {
-            item = extractResult(Item.class, response);
-        } catch (NotFoundException ex) {
-            log.info("No item was found with id={}.", itemId);
-            return null;
-        } catch (WebApplicationException ex) {
-            log.error("Looking for item (id={}) failed. Response code: {}.", itemId, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
-
-        if (includeMetadata) {
-            log.debug("Getting metadata for item with id: {}", itemId);
-            target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "/metadata");
-            response = target.request().accept(MediaType.APPLICATION_JSON).get();
+        final String key = "findItemById/" + itemId + "/" + includeMetadata + "/" + includeBitstreams;
+        return probe("findItemById/" + itemId, () -> coalesce(key, () -> {
+            log.debug("Looking for item with id: {}", itemId);
+            String token = login();
+            Item item = null;
+            String etag;
+            String lastModified;
+
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "?expand=parentCollectionList,parentCollection,metadata,bitstreams");
+            Invocation.Builder request = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON);
+            ValidatingCache.Entry<Item> cached = validate(key, request);
+            Response response = request.get();
             try {
-                MetadataEntry[] metadataEntries = extractResult(MetadataEntry[].class, response);
-                item.setMetadata(Arrays.asList(metadataEntries));
+                if (responseCache != null && responseCache.isNotModified(cached, response)) {
+                    // Expanded item covers its metadata and bitstreams, they are not read again either.
+                    log.debug("Item with id: {} was not modified.", itemId);
+                    return cached.getValue();
+                }
+                item = extractResult(Item.class, response);
+                etag = response.getHeaderString(HttpHeaders.ETAG);
+                lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+            } catch (NotFoundException ex) {
+                log.info("No item was found with id={}.", itemId);
+                if (responseCache != null) {
+                    responseCache.invalidate(key);
+                }
+                return null;
             } catch (WebApplicationException ex) {
-                log.error("Looking for item's (id={}) metadata failed. Response code: {}.", itemId, response.getStatus());
+                log.error("Looking for item (id={}) failed. Response code: {}.", itemId, response.getStatus());
                 throw ex;
             } finally {
                 response.close();
             }
-        }
 
-        if (includeBitstreams) {
-            log.debug("Getting bitstreams for item with id: {}", itemId);
-            target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "/bitstreams");
-            response = target.request().accept(MediaType.APPLICATION_JSON).get();
-            try {
-                Bitstream[] bitstreams = extractResult(Bitstream[].class, response);
-                item.setBitstreams(Arrays.asList(bitstreams));
-            } catch (WebApplicationException ex) {
-                log.error("Looking for item's (id={}) bitstreams failed. Response code: {}.", itemId, response.getStatus());
-                throw ex;
-            } finally {
-                response.close();
+            if (includeMetadata) {
+                log.debug("Getting metadata for item with id: {}", itemId);
+                target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "/metadata");
+                response = target.request().accept(MediaType.APPLICATION_JSON).get();
+                try {
+                    MetadataEntry[] metadataEntries = extractResult(MetadataEntry[].class, response);
+                    item.setMetadata(Arrays.asList(metadataEntries));
+                } catch (WebApplicationException ex) {
+                    log.error("Looking for item's (id={}) metadata failed. Response code: {}.", itemId, response.getStatus());
+                    throw ex;
+                } finally {
+                    response.close();
+                }
+            }
+
+            if (includeBitstreams) {
+                log.debug("Getting bitstreams for item with id: {}", itemId);
+                target = client.target(ENDPOINT_URL + ITEMS + "/" + itemId + "/bitstreams");
+                response = target.request().accept(MediaType.APPLICATION_JSON).get();
+                try {
+                    Bitstream[] bitstreams = extractResult(Bitstream[].class, response);
+                    item.setBitstreams(Arrays.asList(bitstreams));
+                } catch (WebApplicationException ex) {
+                    log.error("Looking for item's (id={}) bitstreams failed. Response code: {}.", itemId, response.getStatus());
+                    throw ex;
+                } finally {
+                    response.close();
+                }
             }
-        }
 
-        return item;
+            if (responseCache != null) {
+                responseCache.store(key, etag, lastModified, item.getLastModified(), item);
+            }
+            return item;
+        }));
     }
 
     @Override
@@ -593,23 +1123,25 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
     @Override
     public Item createItem(Integer collectionId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
-        log.info("Creating a new item in collection (id={}).", collectionId);
-        Item item = new Item();
-        item.setMetadata(metadata);
-        String token = login();
-
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/" + collectionId + "/items");
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(item, MediaType.APPLICATION_JSON));
-        try {
-            item = extractResult(Item.class, response);
-            log.info("Item (handle={}) successfully created in collection (id={}).", item.getHandle(), collectionId);
-            return item;
-        } catch (WebApplicationException ex) {
-            log.error("Creating item failed. Response code: {}.", response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+        return created("findItemById/", Item::getID, () -> {
+            log.info("Creating a new item in collection (id={}).", collectionId);
+            Item item = new Item();
+            item.setMetadata(metadata);
+            String token = login();
+
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + COLLECTIONS + "/" + collectionId + "/items");
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(item, MediaType.APPLICATION_JSON));
+            try {
+                item = extractResult(Item.class, response);
+                log.info("Item (handle={}) successfully created in collection (id={}).", item.getHandle(), collectionId);
+                return item;
+            } catch (WebApplicationException ex) {
+                log.error("Creating item failed. Response code: {}.", response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        });
     }
 
     @Override
@@ -707,53 +1239,57 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
     /* BITSTREAMS */
     @Override
     public Bitstream findBitstreamById(Integer bitstreamId) throws ProcessingException, WebApplicationException {
-        log.debug("Looking for bitstream with id: {}", bitstreamId);
-        String token = login();
-        ResteasyWebTarget target = client.target(ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId);
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
-        try {
-            return extractResult(Bitstream.class, response);
-        } catch (NotFoundException ex) {
-            return null;
-        } catch (WebApplicationException ex) {
-            log.error("Looking for bitstream (id={}) failed. Response code: {}.", bitstreamId, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+        return probe("findBitstreamById/" + bitstreamId, () -> coalesce("findBitstreamById/" + bitstreamId, () -> {
+            log.debug("Looking for bitstream with id: {}", bitstreamId);
+            String token = login();
+            ResteasyWebTarget target = client.target(ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId);
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).get();
+            try {
+                return extractResult(Bitstream.class, response);
+            } catch (NotFoundException ex) {
+                return null;
+            } catch (WebApplicationException ex) {
+                log.error("Looking for bitstream (id={}) failed. Response code: {}.", bitstreamId, response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        }));
     }
 
     @Override
     public Bitstream addBitstream(Integer itemId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
-        log.info("Adding bitstream to item (id={})", itemId);
-
-        UriBuilder uriBuilder = UriBuilder.fromPath(ENDPOINT_URL + ITEMS + "/" + itemId + BITSTREAMS);
-        uriBuilder.queryParam("name", bitstream.getName() != null ? bitstream.getName() : "");
-        uriBuilder.queryParam("description", bitstream.getDescription() != null ? bitstream.getDescription() : "");
-        if (bitstream.getPolicies() != null && bitstream.getPolicies().length > 0) {
-            ResourcePolicy defaultPolicy = bitstream.getPolicies()[0];
-            uriBuilder.queryParam("groupId", defaultPolicy.getGroupId());
-            if (defaultPolicy.getStartDate() != null) {
-                LocalDate startDate = new LocalDate(defaultPolicy.getStartDate());
-                uriBuilder.queryParam("year", startDate.getYear());
-                uriBuilder.queryParam("month", startDate.getMonthOfYear());
-                uriBuilder.queryParam("day", startDate.getDayOfMonth());
+        return created("findBitstreamById/", Bitstream::getID, () -> {
+            log.info("Adding bitstream to item (id={})", itemId);
+
+            UriBuilder uriBuilder = UriBuilder.fromPath(ENDPOINT_URL + ITEMS + "/" + itemId + BITSTREAMS);
+            uriBuilder.queryParam("name", bitstream.getName() != null ? bitstream.getName() : "");
+            uriBuilder.queryParam("description", bitstream.getDescription() != null ? bitstream.getDescription() : "");
+            if (bitstream.getPolicies() != null && bitstream.getPolicies().length > 0) {
+                ResourcePolicy defaultPolicy = bitstream.getPolicies()[0];
+                uriBuilder.queryParam("groupId", defaultPolicy.getGroupId());
+                if (defaultPolicy.getStartDate() != null) {
+                    LocalDate startDate = new LocalDate(defaultPolicy.getStartDate());
+                    uriBuilder.queryParam("year", startDate.getYear());
+                    uriBuilder.queryParam("month", startDate.getMonthOfYear());
+                    uriBuilder.queryParam("day", startDate.getDayOfMonth());
+                }
             }
-        }
 
-        String token = login();
-        ResteasyWebTarget target = client.target(uriBuilder.build().toString());
-        Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(is, MediaType.APPLICATION_JSON));
-        try {
-            bitstream = extractResult(Bitstream.class, response);
-            log.info("Bitstream (id={}) successfully added to item (id={}).", bitstream.getID(), itemId);
-            return bitstream;
-        } catch (WebApplicationException ex) {
-            log.error("Adding bitstream to item (id={}) failed. Response code: {}.", itemId, response.getStatus());
-            throw ex;
-        } finally {
-            response.close();
-        }
+            String token = login();
+            ResteasyWebTarget target = transferClient().target(uriBuilder.build().toString());
+            Response response = target.request().header(HEADER_TOKEN, token).accept(MediaType.APPLICATION_JSON).post(Entity.entity(is, MediaType.APPLICATION_JSON));
+            try {
+                Bitstream added = extractResult(Bitstream.class, response);
+                log.info("Bitstream (id={}) successfully added to item (id={}).", added.getID(), itemId);
+                return added;
+            } catch (WebApplicationException ex) {
+                log.error("Adding bitstream to item (id={}) failed. Response code: {}.", itemId, response.getStatus());
+                throw ex;
+            } finally {
+                response.close();
+            }
+        });
     }
 
     @Override
@@ -764,7 +1300,7 @@ public abstract class AbstractDSpaceRESTClient implements DSpaceRESTClient {
 
         if (is != null) {
             log.info("Updating bitstream's (id={}) binary data.", bitstreamId);
-            target = client.target(ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/data");
+            target = transferClient().target(ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/data");
             response = target.request().header(HEADER_TOKEN, token).accept(MediaType.WILDCARD).put(Entity.entity(is, MediaType.APPLICATION_JSON));
             try {
                 handleErrorStatus(response);
@@ -0,0 +1,212 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit of requests in flight to DSpace, which adapts to load of server by AIMD (additive increase,
+ * multiplicative decrease). The limit grows by one per round trip, while requests succeed and the limit is used at least
+ * by half, and it is cut by {@link #BACKOFF_RATIO}, when DSpace signals overload: it answers 429 or 5xx,
+ * request times out or median latency of a round trip grows over {@link #LATENCY_TOLERANCE} times the latency
+ * without load. Round trip of latencies is the last limit of successful requests (at least
+ * {@link #MIN_ROUND_TRIP_SAMPLES}), so single slow request (e.g. large page) does not cut the limit.
+ * The limit is cut at most once per round trip, because all requests sent before the cut see the same
+ * congestion. So the limit oscillates slightly under the count of requests, at which DSpace starts to queue.
+ * <p>
+ * Requests over limit wait in FIFO queue. Permits are handed over by futures, so non-blocking transports
+ * do not block threads by waiting. Cancelled future of permit leaves the queue.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    public static final double BACKOFF_RATIO = 0.9;
+    public static final double LATENCY_TOLERANCE = 1.5;
+    /**
+     * Latency without load is the least latency of the current and previous window of this length, so it follows
+     * DSpace, which becomes faster or slower, and forgets outliers.
+     */
+    static final long MIN_LATENCY_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(5);
+    /** Least count of latencies, whose median is compared to latency without load. */
+    static final int MIN_ROUND_TRIP_SAMPLES = 5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Queue<CompletableFuture<Permit>> waiting = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long previousMinLatencyNanos = Long.MAX_VALUE;
+    private long windowMinLatencyNanos = Long.MAX_VALUE;
+    private long windowStartNanos = System.nanoTime();
+    private long smoothedLatencyNanos;
+    /** Latencies of successful requests of the current round trip. */
+    private final long[] roundTripLatencies;
+    private int roundTripSamples;
+    private long lastDecreaseNanos;
+    private long decreases;
+
+    /**
+     * @param initialLimit Limit before any request completes.
+     * @param minLimit     Lowest limit.
+     * @param maxLimit     Highest limit.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid bounds of limit [" + minLimit + ", " + maxLimit + "].");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.roundTripLatencies = new long[Math.max(MIN_ROUND_TRIP_SAMPLES, maxLimit)];
+    }
+
+    /**
+     * Requests permit for one request. Permit must be released by {@link Permit#release(Outcome, long)}.
+     *
+     * @return Returns future of permit, which is completed immediately, when limit is not reached.
+     */
+    public CompletableFuture<Permit> acquire() {
+        CompletableFuture<Permit> permit = new CompletableFuture<>();
+        synchronized (this) {
+            if (waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+            } else {
+                waiting.add(permit);
+                permit.whenComplete((granted, ex) -> {
+                    if (permit.isCancelled()) {
+                        withdraw(permit);
+                    }
+                });
+                return permit;
+            }
+        }
+        permit.complete(new Permit());
+        return permit;
+    }
+
+    private synchronized void withdraw(CompletableFuture<Permit> permit) {
+        waiting.remove(permit);
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+
+    /**
+     * @return Returns count of cuts of limit since start.
+     */
+    public synchronized long getDecreases() {
+        return decreases;
+    }
+
+    private void release(Outcome outcome, long latencyNanos) {
+        List<CompletableFuture<Permit>> granted = new ArrayList<>();
+        synchronized (this) {
+            int used = inFlight;
+            inFlight--;
+            long now = System.nanoTime();
+            boolean congested = outcome == Outcome.OVERLOAD;
+            if (outcome == Outcome.SUCCESS) {
+                sample(latencyNanos, now);
+                congested = isRoundTripSlow();
+            }
+            if (congested) {
+                if (now - lastDecreaseNanos > smoothedLatencyNanos) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseNanos = now;
+                    decreases++;
+                }
+            } else if (outcome == Outcome.SUCCESS && used * 2 >= (int) limit) {
+                // Each of limit requests adds 1/limit, so the limit grows by one per round trip.
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            while (!waiting.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                granted.add(waiting.poll());
+            }
+        }
+        for (CompletableFuture<Permit> permit : granted) {
+            if (!permit.complete(new Permit())) {
+                // Waiter gave up (e.g. it was cancelled), return its permit.
+                release(Outcome.IGNORED, 0);
+            }
+        }
+    }
+
+    private void sample(long latencyNanos, long now) {
+        smoothedLatencyNanos = smoothedLatencyNanos == 0 ? latencyNanos : (smoothedLatencyNanos * 7 + latencyNanos) / 8;
+        if (now - windowStartNanos > MIN_LATENCY_WINDOW_NANOS) {
+            previousMinLatencyNanos = windowMinLatencyNanos;
+            windowMinLatencyNanos = Long.MAX_VALUE;
+            windowStartNanos = now;
+        }
+        windowMinLatencyNanos = Math.min(windowMinLatencyNanos, latencyNanos);
+        roundTripLatencies[roundTripSamples++] = latencyNanos;
+    }
+
+    /**
+     * Ends round trip, when it has enough latencies, and compares their median to latency without load.
+     */
+    private boolean isRoundTripSlow() {
+        if (roundTripSamples < Math.max(MIN_ROUND_TRIP_SAMPLES, (int) limit) && roundTripSamples < roundTripLatencies.length) {
+            return false;
+        }
+        long[] latencies = Arrays.copyOf(roundTripLatencies, roundTripSamples);
+        roundTripSamples = 0;
+        Arrays.sort(latencies);
+        return latencies[latencies.length / 2] > Math.min(previousMinLatencyNanos, windowMinLatencyNanos) * LATENCY_TOLERANCE;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptiveConcurrencyLimiter[limit=" + (int) limit + ", inFlight=" + inFlight + ", queued=" + waiting.size() + "]";
+    }
+
+    /**
+     * Outcome of request reported to limiter.
+     */
+    public enum Outcome {
+        /** Request succeeded, its latency is sampled. */
+        SUCCESS,
+        /** DSpace is overloaded (429, 5xx or timeout). */
+        OVERLOAD,
+        /** Request says nothing about load of DSpace (e.g. upload of large bitstream or failure of client). */
+        IGNORED
+    }
+
+    /**
+     * Permit for one request in flight.
+     */
+    public class Permit {
+
+        private boolean released;
+
+        /**
+         * Releases permit. Only the first call has effect.
+         *
+         * @param outcome      Outcome of request.
+         * @param latencyNanos Latency of request in nanoseconds.
+         */
+        public void release(Outcome outcome, long latencyNanos) {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            AdaptiveConcurrencyLimiter.this.release(outcome, latencyNanos);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.util.EntityUtils;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientConfiguration;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.jboss.resteasy.spi.ResteasyProviderFactory;
+
+/**
+ * Http engine of RESTEasy client over non-blocking Apache HttpAsyncClient. Requests are multiplexed by I/O reactor
+ * of the client over its connection pool, so waiting for response does not hold any thread.
+ * <p>
+ * Entities of requests are buffered in memory, except of input streams (bitstream data), which are streamed
+ * in chunks as I/O reactor writes them. Reads of such stream block I/O reactor thread, so clients should send
+ * streamed uploads by blocking transfer pool (see {@link NioDSpaceRESTClient}). Entities of responses (metadata)
+ * are buffered in memory. Futures are completed by callback executor, so dependent stages (e.g. deserialization
+ * by Jackson) never run in I/O reactor thread.
+ */
+public class ApacheHttpAsyncClient4Engine implements AsyncClientHttpEngine {
+
+    private final CloseableHttpAsyncClient httpClient;
+    private final Executor callbackExecutor;
+    private SSLContext sslContext;
+    private HostnameVerifier hostnameVerifier;
+
+    /**
+     * @param httpClient       Started http client.
+     * @param callbackExecutor Executor, which completes futures of responses.
+     */
+    public ApacheHttpAsyncClient4Engine(CloseableHttpAsyncClient httpClient, Executor callbackExecutor) {
+        this.httpClient = httpClient;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    public CloseableHttpAsyncClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public void setSslContext(SSLContext sslContext) {
+        this.sslContext = sslContext;
+    }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier() {
+        return hostnameVerifier;
+    }
+
+    public void setHostnameVerifier(HostnameVerifier hostnameVerifier) {
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        return TokenManager.join(submit(invocation));
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+        final HttpUriRequest request;
+        try {
+            request = createRequest(invocation);
+        } catch (IOException | RuntimeException ex) {
+            future.completeExceptionally(new ProcessingException("Unable to write request entity.", ex));
+            return future;
+        }
+        final Future<HttpResponse> execution = httpClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(final HttpResponse response) {
+                callbackExecutor.execute(() -> {
+                    try {
+                        future.complete(createResponse(invocation, response));
+                    } catch (IOException | RuntimeException ex) {
+                        future.completeExceptionally(new ProcessingException("Unable to read response.", ex));
+                    }
+                });
+            }
+
+            @Override
+            public void failed(final Exception ex) {
+                callbackExecutor.execute(() -> future.completeExceptionally(new ProcessingException(ex)));
+            }
+
+            @Override
+            public void cancelled() {
+                callbackExecutor.execute(() -> future.cancel(false));
+            }
+        });
+        future.whenComplete((response, ex) -> {
+            if (future.isCancelled()) {
+                execution.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    protected HttpUriRequest createRequest(ClientInvocation invocation) throws IOException {
+        RequestBuilder builder = RequestBuilder.create(invocation.getMethod()).setUri(invocation.getUri());
+        if (invocation.getEntity() instanceof InputStream) {
+            // Stream is sent chunked as it is read, so neither size nor throttling of upload is lost by buffering.
+            builder.setEntity(new InputStreamEntity((InputStream) invocation.getEntity(), -1));
+        } else if (invocation.getEntity() != null) {
+            // Entity is written first, because message body writers may add headers.
+            builder.setEntity(new ByteArrayEntity(writeRequestBody(invocation)));
+        }
+        for (Map.Entry<String, List<String>> header : invocation.getHeaders().asMap().entrySet()) {
+            // Content-Length is set by http client from entity.
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                builder.addHeader(header.getKey(), value);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Serializes entity of request by message body writers of RESTEasy client.
+     */
+    static byte[] writeRequestBody(ClientInvocation invocation) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        // Message body writers look up providers in context, which ClientInvocation#invoke() normally sets up.
+        Providers current = ResteasyProviderFactory.getContextData(Providers.class);
+        ResteasyProviderFactory.pushContext(Providers.class, invocation.getClientConfiguration());
+        try {
+            invocation.writeRequestBody(body);
+        } finally {
+            ResteasyProviderFactory.popContextData(Providers.class);
+            if (current != null) {
+                ResteasyProviderFactory.pushContext(Providers.class, current);
+            }
+        }
+        return body.toByteArray();
+    }
+
+    protected ClientResponse createResponse(ClientInvocation invocation, HttpResponse httpResponse) throws IOException {
+        byte[] body = httpResponse.getEntity() != null ? EntityUtils.toByteArray(httpResponse.getEntity()) : null;
+        BufferedClientResponse response = new BufferedClientResponse(invocation.getClientConfiguration(), body);
+        response.setStatus(httpResponse.getStatusLine().getStatusCode());
+        response.setHeaders(ApacheHttpClient4Engine.extractHeaders(httpResponse));
+        return response;
+    }
+
+    @Override
+    public void close() {
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            throw new ProcessingException("Unable to close http client.", ex);
+        }
+    }
+
+    /**
+     * Response, whose entity was already read from connection.
+     */
+    static class BufferedClientResponse extends ClientResponse {
+
+        private InputStream stream;
+
+        BufferedClientResponse(ClientConfiguration configuration, byte[] body) {
+            super(configuration);
+            this.stream = body != null ? new ByteArrayInputStream(body) : null;
+        }
+
+        @Override
+        protected InputStream getInputStream() {
+            return stream;
+        }
+
+        @Override
+        protected void setInputStream(InputStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        protected void releaseConnection() throws IOException {
+            // Connection was returned to pool when response was received.
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Http engine, which can execute request without blocking calling thread.
+ */
+public interface AsyncClientHttpEngine extends ClientHttpEngine {
+
+    /**
+     * Executes request asynchronously. Blocking engines (and their wrappers) may execute request in calling thread
+     * and return completed future.
+     *
+     * @param invocation Request of RESTEasy client.
+     * @return Returns future of response, which must be closed by caller.
+     */
+    CompletableFuture<ClientResponse> submit(ClientInvocation invocation);
+}
@@ -0,0 +1,86 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.core.Response;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Http engine, which renews expired authentication token. When authenticated request is rejected with
+ * 401 Unauthorized, token is renewed (single-flight, see {@link TokenManager}) and the request is replayed
+ * once with the new token. Requests with streamed entity can not be replayed, so only the token is renewed
+ * for them and the 401 response is returned to the caller.
+ */
+public class AuthenticatingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticatingClientHttpEngine.class);
+
+    private final AbstractDSpaceRESTClient owner;
+
+    public AuthenticatingClientHttpEngine(ClientHttpEngine delegate, AbstractDSpaceRESTClient owner) {
+        super(delegate);
+        this.owner = owner;
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        ClientResponse response = delegate.invoke(invocation);
+        String staleToken = rejectedToken(invocation, response);
+        if (staleToken == null) {
+            return response;
+        }
+        // Connection must be released before login, otherwise login could wait for it in exhausted pool.
+        if (invocation.getEntity() instanceof InputStream) {
+            response.bufferEntity();
+            owner.renewToken(staleToken);
+            return response;
+        }
+        response.close();
+        String token = owner.renewToken(staleToken);
+        invocation.getHeaders().getHeaders().putSingle(AbstractDSpaceRESTClient.HEADER_TOKEN, token);
+        return delegate.invoke(invocation);
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        return submit(delegate, invocation).thenCompose(response -> {
+            final String staleToken = rejectedToken(invocation, response);
+            if (staleToken == null) {
+                return CompletableFuture.completedFuture(response);
+            }
+            if (invocation.getEntity() instanceof InputStream) {
+                response.bufferEntity();
+                return owner.renewTokenAsync(staleToken).thenApply(token -> response);
+            }
+            response.close();
+            return owner.renewTokenAsync(staleToken).thenCompose(token -> {
+                invocation.getHeaders().getHeaders().putSingle(AbstractDSpaceRESTClient.HEADER_TOKEN, token);
+                return submit(delegate, invocation);
+            });
+        });
+    }
+
+    /**
+     * Returns token of request, if DSpace rejected it, otherwise null.
+     */
+    private String rejectedToken(ClientInvocation invocation, ClientResponse response) {
+        if (response.getStatus() != Response.Status.UNAUTHORIZED.getStatusCode()) {
+            return null;
+        }
+        if (invocation.getUri().getPath().endsWith("/logout")) {
+            // Rejected token has no session to log out, replay would log out the current token.
+            return null;
+        }
+        String staleToken = invocation.getHeaders().getHeader(AbstractDSpaceRESTClient.HEADER_TOKEN);
+        if (staleToken != null) {
+            log.info("Authentication token was rejected by DSpace, renewing it [{} {}].", invocation.getMethod(), invocation.getUri());
+        }
+        return staleToken;
+    }
+}
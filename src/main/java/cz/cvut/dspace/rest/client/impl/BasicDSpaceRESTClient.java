@@ -7,8 +7,6 @@ import org.jboss.resteasy.plugins.providers.jackson.ResteasyJacksonProvider;
 
 import java.util.concurrent.TimeUnit;
 
-import java.util.concurrent.TimeUnit;
-
 /**
 * @author Petr Karel
 * @version $Revision: 4 $
@@ -22,13 +20,22 @@ public class BasicDSpaceRESTClient extends AbstractDSpaceRESTClient {
 	@Override
 	public void create() {
 		ResteasyJacksonProvider resteasyJacksonProvider = new ResteasyJacksonProvider();
-		ResteasyClientBuilder builder = new ResteasyClientBuilder().register(resteasyJacksonProvider);
-		builder.disableTrustManager().establishConnectionTimeout(120, TimeUnit.SECONDS);
+		ResteasyClientBuilder builder = clientBuilder().register(resteasyJacksonProvider);
+		Integer connectTimeout = configuration.getConnectTimeout();
+		builder.disableTrustManager().establishConnectionTimeout(
+				connectTimeout != null ? connectTimeout : ManagedConnectionPool.DEFAULT_CONNECT_TIMEOUT, TimeUnit.SECONDS);
+		if (configuration.getSocketTimeout() != null) {
+			builder.socketTimeout(configuration.getSocketTimeout(), TimeUnit.SECONDS);
+		}
 		client = builder.build();
+		startCircuitBreakers();
+		startTokenRefresh();
 	}
 	
 	@Override
 	public void destroy() {
+		stopTokenRefresh();
+		stopCircuitBreakers();
 		client.close();
 	}
 }
@@ -0,0 +1,280 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.*;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+import cz.cvut.dspace.rest.client.RetryPolicy;
+
+/**
+ * View of client, whose every call is executed by {@link Binding}, e.g. with deadline bound to thread by
+ * {@link Deadline#call(Callable)} or with retry policy bound by {@link RetryPolicy#call(Callable)}. Views of the view
+ * stack their bindings, so e.g. view with retry policy of view with deadline keeps the deadline.
+ */
+public class BindingDSpaceRESTClient implements DSpaceRESTClient {
+
+    /**
+     * Runs call of wrapped client with some state bound to thread.
+     */
+    public interface Binding {
+        <T> T call(Callable<T> call) throws Exception;
+    }
+
+    private final DSpaceRESTClient delegate;
+    private final Binding binding;
+
+    public BindingDSpaceRESTClient(DSpaceRESTClient delegate, Binding binding) {
+        this.delegate = delegate;
+        this.binding = binding;
+    }
+
+    /**
+     * @return Returns binding, which runs every call with new deadline bound to thread.
+     */
+    public static Binding deadline(final long timeout, final TimeUnit unit) {
+        return new Binding() {
+            @Override
+            public <T> T call(Callable<T> call) throws Exception {
+                Deadline deadline = Deadline.after(timeout, unit);
+                try {
+                    return deadline.call(call);
+                } finally {
+                    deadline.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * @return Returns binding, which runs every call with given retry policy bound to thread.
+     */
+    public static Binding retryPolicy(RetryPolicy policy) {
+        return policy::call;
+    }
+
+    /**
+     * @return Returns binding, which runs call by inner binding inside of outer one.
+     */
+    private static Binding stack(final Binding outer, final Binding inner) {
+        return new Binding() {
+            @Override
+            public <T> T call(final Callable<T> call) throws Exception {
+                return outer.call(() -> inner.call(call));
+            }
+        };
+    }
+
+    private <T> T call(Callable<T> call) {
+        try {
+            return binding.call(call);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new ProcessingException(ex);
+        }
+    }
+
+    private void run(final Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    public String login() throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.login());
+    }
+
+    @Override
+    public DSpaceRESTClient withDeadline(long timeout, TimeUnit unit) {
+        return new BindingDSpaceRESTClient(delegate, stack(binding, deadline(timeout, unit)));
+    }
+
+    @Override
+    public DSpaceRESTClient withRetryPolicy(RetryPolicy policy) {
+        return new BindingDSpaceRESTClient(delegate, stack(binding, retryPolicy(policy)));
+    }
+
+    @Override
+    public void logout() throws ProcessingException, WebApplicationException {
+        run(() -> delegate.logout());
+    }
+
+    @Override
+    public Community createCommunity(Community community) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.createCommunity(community));
+    }
+
+    @Override
+    public Community findCommunityById(Integer communityId, String expand) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findCommunityById(communityId, expand));
+    }
+
+    @Override
+    public void updateCommunity(Integer communityId, Community community) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.updateCommunity(communityId, community));
+    }
+
+    @Override
+    public void deleteCommunity(Integer communityId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteCommunity(communityId));
+    }
+
+    @Override
+    public List<Community> readAllCommunities(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readAllCommunities(expand, limit, offset));
+    }
+
+    @Override
+    public List<Community> readTopCommunities(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readTopCommunities(expand, limit, offset));
+    }
+
+    @Override
+    public Community createSubcommunityOfCommunity(Integer parentCommunityId, Community subcommunity) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.createSubcommunityOfCommunity(parentCommunityId, subcommunity));
+    }
+
+    @Override
+    public List<Community> readSubcommunitiesOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readSubcommunitiesOfCommunity(parentCommunityId, expand, limit, offset));
+    }
+
+    @Override
+    public void deleteSubcommunityOfCommunity(Integer parentCommunityId, Integer subcommunityId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteSubcommunityOfCommunity(parentCommunityId, subcommunityId));
+    }
+
+    @Override
+    public List<Collection> readSubcollectionsOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readSubcollectionsOfCommunity(parentCommunityId, expand, limit, offset));
+    }
+
+    @Override
+    public void deleteSubcollectionOfCommunity(Integer parentCommunityId, Integer subcollectionId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteSubcollectionOfCommunity(parentCommunityId, subcollectionId));
+    }
+
+    @Override
+    public Collection createCollection(Integer parentCommunityId, Collection collection) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.createCollection(parentCommunityId, collection));
+    }
+
+    @Override
+    public Collection findCollectionById(Integer collectionId, String expand) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findCollectionById(collectionId, expand));
+    }
+
+    @Override
+    public void updateCollection(Integer collectionId, Collection collection) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.updateCollection(collectionId, collection));
+    }
+
+    @Override
+    public void deleteCollection(Integer collectionId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteCollection(collectionId));
+    }
+
+    @Override
+    public List<Collection> readAllCollections(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readAllCollections(expand, limit, offset));
+    }
+
+    @Override
+    public Collection findCollectionByName(String name) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findCollectionByName(name));
+    }
+
+    @Override
+    public List<Item> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readCollectionItems(parentCollectionId, expand, limit, offset));
+    }
+
+    @Override
+    public Item findItemById(Integer dspaceId, boolean includeMetadata, boolean includeBitstreams) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findItemById(dspaceId, includeMetadata, includeBitstreams));
+    }
+
+    @Override
+    public List<Item> findItemsByMetadataEntry(MetadataEntry metadataEntry) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findItemsByMetadataEntry(metadataEntry));
+    }
+
+    @Override
+    public Item createItem(Integer collectionId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.createItem(collectionId, metadata));
+    }
+
+    @Override
+    public void updateItem(Integer itemId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.updateItem(itemId, metadata));
+    }
+
+    @Override
+    public void deleteItem(Integer itemId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteItem(itemId));
+    }
+
+    @Override
+    public List<Item> readAllItems(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readAllItems(expand, limit, offset));
+    }
+
+    @Override
+    public void addItemToCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.addItemToCollection(itemId, collectionId));
+    }
+
+    @Override
+    public void deleteItemFromCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteItemFromCollection(itemId, collectionId));
+    }
+
+    @Override
+    public Bitstream findBitstreamById(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.findBitstreamById(bitstreamId));
+    }
+
+    @Override
+    public Bitstream addBitstream(Integer itemId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.addBitstream(itemId, bitstream, is));
+    }
+
+    @Override
+    public void updateBitstream(Integer bitstreamId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.updateBitstream(bitstreamId, bitstream, is));
+    }
+
+    @Override
+    public void deleteBitstream(Integer itemId, Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteBitstream(itemId, bitstreamId));
+    }
+
+    @Override
+    public List<Bitstream> readAllBitstreams(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.readAllBitstreams(expand, limit, offset));
+    }
+
+    @Override
+    public List<ResourcePolicy> getBitstreamPolicies(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return call(() -> delegate.getBitstreamPolicies(bitstreamId));
+    }
+
+    @Override
+    public void addBitstreamPolicy(Integer bitstreamId, ResourcePolicy policy) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.addBitstreamPolicy(bitstreamId, policy));
+    }
+
+    @Override
+    public void deleteBitstreamPolicy(Integer bitstreamId, Integer policyId) throws ProcessingException, WebApplicationException {
+        run(() -> delegate.deleteBitstreamPolicy(bitstreamId, policyId));
+    }
+}
@@ -0,0 +1,59 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of results of reads used by {@link CachingDSpaceRESTClient}. Default implementation is {@link LruCache},
+ * other implementations (e.g. adapter of cache library with better eviction policy) can be plugged in.
+ * <p>
+ * Implementations must be thread-safe. Result loaded before invalidation must not be stored after it, otherwise
+ * the cache would keep result older than write, which invalidated it.
+ * <p>
+ * Results can depend on DSpace objects (see {@link CacheDependencies}), write of object evicts results, which depend
+ * on it, by {@link #invalidateDependents(String)}.
+ */
+public interface Cache {
+
+    /**
+     * Returns cached result or loads it in calling thread and caches it. Null results are not cached.
+     *
+     * @param key    Identity of read, e.g. "findCollectionById/1/".
+     * @param loader Loads result.
+     * @return Returns result of read.
+     */
+    default <T> T get(String key, Supplier<T> loader) {
+        return get(key, value -> Collections.emptySet(), loader);
+    }
+
+    /**
+     * Returns cached result or loads it in calling thread and caches it with its dependencies. Null results are not
+     * cached.
+     *
+     * @param key          Identity of read, e.g. "findCollectionById/1/".
+     * @param dependencies Returns dependencies of loaded result.
+     * @param loader       Loads result.
+     * @return Returns result of read.
+     */
+    <T> T get(String key, Function<? super T, Set<String>> dependencies, Supplier<T> loader);
+
+    void invalidate(String key);
+
+    /**
+     * Evicts all results, which depend on given object.
+     *
+     * @param dependency Name of object, e.g. "item/42".
+     */
+    void invalidateDependents(String dependency);
+
+    void invalidateAll();
+
+    /**
+     * @return Returns count of cached results.
+     */
+    int size();
+
+    CacheStats getStats();
+}
@@ -0,0 +1,122 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.DSpaceObject;
+import org.dspace.rest.common.Item;
+
+/**
+ * Model of dependencies of cached results on DSpace objects, which keeps {@link Cache} coherent with writes through
+ * the same client. Cached result depends on every object it contains, including embedded parents, children and
+ * bitstreams, and on the object it was read from (e.g. page of items depends on its collection). Write evicts
+ * results, which depend on the objects it changed:
+ * <ul>
+ * <li>write of item evicts the item, pages of items containing it and collections, which embed it,</li>
+ * <li>adding item to collection or removing it evicts the item (its parent collections) and items of the
+ * collection (its pages of items and count of items),</li>
+ * <li>write of bitstream or its policies evicts the bitstream, its policies and items, which embed it,</li>
+ * <li>write of collection evicts the collection, its items and its parent community (list of subcollections),</li>
+ * <li>write of community evicts the community, its subcommunities and subcollections and top communities.</li>
+ * </ul>
+ * Dependencies are names of objects, e.g. "item/42".
+ */
+public final class CacheDependencies {
+
+    /** Dependency of list of top communities. */
+    public static final String TOP_COMMUNITIES = "top-communities";
+
+    private CacheDependencies() {
+    }
+
+    public static String community(Integer id) {
+        return "community/" + id;
+    }
+
+    public static String collection(Integer id) {
+        return "collection/" + id;
+    }
+
+    /**
+     * Returns dependency of items of collection: pages of its items and count of its items.
+     */
+    public static String collectionItems(Integer id) {
+        return "collection/" + id + "/items";
+    }
+
+    public static String item(Integer id) {
+        return "item/" + id;
+    }
+
+    public static String bitstream(Integer id) {
+        return "bitstream/" + id;
+    }
+
+    /**
+     * Returns dependencies of result: objects contained in it and the given dependencies of read.
+     *
+     * @param result       Result of read, DSpace object, list of them or null.
+     * @param dependencies Dependencies of read, e.g. collection, whose items were read.
+     * @return Returns names of objects, whose writes invalidate result.
+     */
+    public static Set<String> of(Object result, String... dependencies) {
+        if (result == null && dependencies.length == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> names = new HashSet<>();
+        Collections.addAll(names, dependencies);
+        collect(result, names);
+        return names;
+    }
+
+    private static void collect(Object object, Set<String> names) {
+        if (object instanceof List) {
+            for (Object element : (List<?>) object) {
+                collect(element, names);
+            }
+        } else if (object instanceof Item) {
+            Item item = (Item) object;
+            add(names, "item/", item);
+            add(names, "collection/", item.getParentCollection());
+            addAll(names, "collection/", item.getParentCollectionList());
+            addAll(names, "community/", item.getParentCommunityList());
+            addAll(names, "bitstream/", item.getBitstreams());
+        } else if (object instanceof Collection) {
+            Collection collection = (Collection) object;
+            add(names, "collection/", collection);
+            if (collection.getID() != null) {
+                names.add(collectionItems(collection.getID()));
+            }
+            add(names, "community/", collection.getParentCommunity());
+            addAll(names, "community/", collection.getParentCommunityList());
+            addAll(names, "item/", collection.getItems());
+        } else if (object instanceof Community) {
+            Community community = (Community) object;
+            add(names, "community/", community);
+            add(names, "community/", community.getParentCommunity());
+            addAll(names, "community/", community.getSubcommunities());
+            addAll(names, "collection/", community.getCollections());
+        } else if (object instanceof Bitstream) {
+            add(names, "bitstream/", (Bitstream) object);
+        }
+    }
+
+    private static void add(Set<String> names, String kind, DSpaceObject object) {
+        if (object != null && object.getID() != null) {
+            names.add(kind + object.getID());
+        }
+    }
+
+    private static void addAll(Set<String> names, String kind, List<? extends DSpaceObject> objects) {
+        if (objects != null) {
+            for (DSpaceObject object : objects) {
+                add(names, kind, object);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of statistics of {@link Cache}.
+ */
+public class CacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long loadFailures;
+    private final long totalLoadNanos;
+    private final long evictions;
+    private final long expirations;
+
+    public CacheStats(long hits, long misses, long loadFailures, long totalLoadNanos, long evictions, long expirations) {
+        this.hits = hits;
+        this.misses = misses;
+        this.loadFailures = loadFailures;
+        this.totalLoadNanos = totalLoadNanos;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return Returns count of reads, which were loaded.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return Returns share of reads served by cache, from 0 to 1.
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public long getLoadFailures() {
+        return loadFailures;
+    }
+
+    /**
+     * @return Returns mean time of load of result in milliseconds.
+     */
+    public double getAverageLoadMillis() {
+        return misses == 0 ? 0 : totalLoadNanos / (double) misses / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getTotalLoadNanos() {
+        return totalLoadNanos;
+    }
+
+    /**
+     * @return Returns count of results removed, because cache was full.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Returns count of results removed, because they were older than time to live.
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats[hits=" + hits + ", misses=" + misses + ", loadFailures=" + loadFailures + ", averageLoadMillis="
+                + String.format("%.2f", getAverageLoadMillis()) + ", evictions=" + evictions + ", expirations=" + expirations + "]";
+    }
+}
@@ -0,0 +1,369 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+import org.dspace.rest.common.ResourcePolicy;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+
+/**
+ * Client, which caches reads of the community and collection tree: communities and collections by id, top
+ * communities and subcommunities and subcollections of community, and reads of items and bitstreams: items by id,
+ * pages of items of collection, bitstreams by id and their policies. Writes through this client evict only results,
+ * which depend on written objects (see {@link CacheDependencies}), so reads after own writes are never stale.
+ * Deletes of communities evict everything, because their subtree is not known. Writes by other clients are seen
+ * after time to live of results, as well as counts of items of collections after deletes of items.
+ * Collections are found by name in {@link CollectionIndex}, if the client has one.
+ * <p>
+ * Cached objects are shared by all callers, so callers must not modify them. Lists are copied for every caller.
+ */
+public class CachingDSpaceRESTClient extends DelegatingDSpaceRESTClient {
+
+    private final Cache cache;
+    private final CollectionIndex collectionIndex;
+
+    /**
+     * @param delegate        Client, which loads results.
+     * @param cache           Cache of results, it can be shared by more clients of the same DSpace and user.
+     * @param collectionIndex Index of collections by name or null, if collections are found by name in DSpace.
+     */
+    public CachingDSpaceRESTClient(DSpaceRESTClient delegate, Cache cache, CollectionIndex collectionIndex) {
+        super(delegate);
+        this.cache = cache;
+        this.collectionIndex = collectionIndex;
+    }
+
+    /**
+     * Creates client without index of collections.
+     *
+     * @param delegate Client, which loads results.
+     * @param cache    Cache of results.
+     */
+    public CachingDSpaceRESTClient(DSpaceRESTClient delegate, Cache cache) {
+        this(delegate, cache, null);
+    }
+
+    /**
+     * Creates client with {@link LruCache} and {@link CollectionIndex}, which is swept again after ttl.
+     *
+     * @param delegate Client, which loads results.
+     * @param maxSize  Max count of cached results.
+     * @param ttl      Time to live of result.
+     * @param unit     Unit of ttl.
+     */
+    public CachingDSpaceRESTClient(DSpaceRESTClient delegate, int maxSize, long ttl, TimeUnit unit) {
+        this(delegate, new LruCache(maxSize, ttl, unit), new CollectionIndex(ttl, unit));
+    }
+
+    @Override
+    protected DSpaceRESTClient wrap(DSpaceRESTClient view) {
+        return new CachingDSpaceRESTClient(view, cache, collectionIndex);
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return Returns index of collections by name or null, if client has none.
+     */
+    public CollectionIndex getCollectionIndex() {
+        return collectionIndex;
+    }
+
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    private <T> List<T> list(String key, Function<? super List<T>, Set<String>> dependencies, Supplier<List<T>> loader) {
+        List<T> list = cache.get(key, dependencies, loader);
+        return list != null ? new ArrayList<>(list) : null;
+    }
+
+    /**
+     * Evicts results, which depend on any of given objects.
+     */
+    private void invalidate(String... dependencies) {
+        for (String dependency : dependencies) {
+            cache.invalidateDependents(dependency);
+        }
+    }
+
+    /* COMMUNITIES */
+
+    @Override
+    public Community createCommunity(Community community) throws ProcessingException, WebApplicationException {
+        try {
+            return delegate.createCommunity(community);
+        } finally {
+            invalidate(CacheDependencies.TOP_COMMUNITIES);
+        }
+    }
+
+    @Override
+    public Community findCommunityById(Integer communityId, String expand) throws ProcessingException, WebApplicationException {
+        return cache.get("findCommunityById/" + communityId + "/" + expand, CacheDependencies::of,
+                () -> delegate.findCommunityById(communityId, expand));
+    }
+
+    @Override
+    public void updateCommunity(Integer communityId, Community community) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateCommunity(communityId, community);
+        } finally {
+            invalidate(CacheDependencies.community(communityId));
+        }
+    }
+
+    @Override
+    public void deleteCommunity(Integer communityId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteCommunity(communityId);
+        } finally {
+            // Subcommunities, collections and items of community are deleted with it.
+            cache.invalidateAll();
+            if (collectionIndex != null) {
+                collectionIndex.invalidate();
+            }
+        }
+    }
+
+    @Override
+    public List<Community> readTopCommunities(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return list("readTopCommunities/" + expand + "/" + limit + "/" + offset,
+                communities -> CacheDependencies.of(communities, CacheDependencies.TOP_COMMUNITIES),
+                () -> delegate.readTopCommunities(expand, limit, offset));
+    }
+
+    @Override
+    public Community createSubcommunityOfCommunity(Integer parentCommunityId, Community subcommunity) throws ProcessingException, WebApplicationException {
+        try {
+            return delegate.createSubcommunityOfCommunity(parentCommunityId, subcommunity);
+        } finally {
+            invalidate(CacheDependencies.community(parentCommunityId));
+        }
+    }
+
+    @Override
+    public List<Community> readSubcommunitiesOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return list("readSubcommunitiesOfCommunity/" + parentCommunityId + "/" + expand + "/" + limit + "/" + offset,
+                communities -> CacheDependencies.of(communities, CacheDependencies.community(parentCommunityId)),
+                () -> delegate.readSubcommunitiesOfCommunity(parentCommunityId, expand, limit, offset));
+    }
+
+    @Override
+    public void deleteSubcommunityOfCommunity(Integer parentCommunityId, Integer subcommunityId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteSubcommunityOfCommunity(parentCommunityId, subcommunityId);
+        } finally {
+            cache.invalidateAll();
+            if (collectionIndex != null) {
+                collectionIndex.invalidate();
+            }
+        }
+    }
+
+    @Override
+    public List<Collection> readSubcollectionsOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return list("readSubcollectionsOfCommunity/" + parentCommunityId + "/" + expand + "/" + limit + "/" + offset,
+                collections -> CacheDependencies.of(collections, CacheDependencies.community(parentCommunityId)),
+                () -> delegate.readSubcollectionsOfCommunity(parentCommunityId, expand, limit, offset));
+    }
+
+    @Override
+    public void deleteSubcollectionOfCommunity(Integer parentCommunityId, Integer subcollectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteSubcollectionOfCommunity(parentCommunityId, subcollectionId);
+        } finally {
+            invalidate(CacheDependencies.community(parentCommunityId), CacheDependencies.collection(subcollectionId),
+                    CacheDependencies.collectionItems(subcollectionId));
+            if (collectionIndex != null) {
+                collectionIndex.removed(subcollectionId);
+            }
+        }
+    }
+
+    /* COLLECTIONS */
+
+    @Override
+    public Collection createCollection(Integer parentCommunityId, Collection collection) throws ProcessingException, WebApplicationException {
+        Collection created;
+        try {
+            created = delegate.createCollection(parentCommunityId, collection);
+        } finally {
+            invalidate(CacheDependencies.community(parentCommunityId));
+        }
+        if (collectionIndex != null && created != null) {
+            collectionIndex.added(created);
+        }
+        return created;
+    }
+
+    @Override
+    public Collection findCollectionById(Integer collectionId, String expand) throws ProcessingException, WebApplicationException {
+        return cache.get("findCollectionById/" + collectionId + "/" + expand, CacheDependencies::of,
+                () -> delegate.findCollectionById(collectionId, expand));
+    }
+
+    @Override
+    public Collection findCollectionByName(String name) throws ProcessingException, WebApplicationException {
+        return collectionIndex != null ? collectionIndex.find(name, delegate) : delegate.findCollectionByName(name);
+    }
+
+    @Override
+    public void updateCollection(Integer collectionId, Collection collection) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateCollection(collectionId, collection);
+        } finally {
+            invalidate(CacheDependencies.collection(collectionId));
+            if (collectionIndex != null) {
+                collectionIndex.removed(collectionId);
+            }
+        }
+    }
+
+    @Override
+    public void deleteCollection(Integer collectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteCollection(collectionId);
+        } finally {
+            invalidate(CacheDependencies.collection(collectionId), CacheDependencies.collectionItems(collectionId));
+            if (collectionIndex != null) {
+                collectionIndex.removed(collectionId);
+            }
+        }
+    }
+
+    /* ITEMS */
+
+    @Override
+    public List<Item> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return list("readCollectionItems/" + parentCollectionId + "/" + expand + "/" + limit + "/" + offset,
+                items -> CacheDependencies.of(items, CacheDependencies.collectionItems(parentCollectionId)),
+                () -> delegate.readCollectionItems(parentCollectionId, expand, limit, offset));
+    }
+
+    @Override
+    public Item findItemById(Integer dspaceId, boolean includeMetadata, boolean includeBitstreams) throws ProcessingException, WebApplicationException {
+        return cache.get("findItemById/" + dspaceId + "/" + includeMetadata + "/" + includeBitstreams, CacheDependencies::of,
+                () -> delegate.findItemById(dspaceId, includeMetadata, includeBitstreams));
+    }
+
+    @Override
+    public Item createItem(Integer collectionId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        try {
+            return delegate.createItem(collectionId, metadata);
+        } finally {
+            invalidate(CacheDependencies.collectionItems(collectionId));
+        }
+    }
+
+    @Override
+    public void updateItem(Integer itemId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateItem(itemId, metadata);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void deleteItem(Integer itemId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteItem(itemId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void addItemToCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.addItemToCollection(itemId, collectionId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId), CacheDependencies.collectionItems(collectionId));
+        }
+    }
+
+    @Override
+    public void deleteItemFromCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteItemFromCollection(itemId, collectionId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId), CacheDependencies.collectionItems(collectionId));
+        }
+    }
+
+    /* BITSTREAMS */
+
+    @Override
+    public Bitstream findBitstreamById(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return cache.get("findBitstreamById/" + bitstreamId, CacheDependencies::of, () -> delegate.findBitstreamById(bitstreamId));
+    }
+
+    @Override
+    public Bitstream addBitstream(Integer itemId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        try {
+            return delegate.addBitstream(itemId, bitstream, is);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void updateBitstream(Integer bitstreamId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateBitstream(bitstreamId, bitstream, is);
+        } finally {
+            invalidate(CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+
+    @Override
+    public void deleteBitstream(Integer itemId, Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteBitstream(itemId, bitstreamId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId), CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+
+    @Override
+    public List<ResourcePolicy> getBitstreamPolicies(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return list("getBitstreamPolicies/" + bitstreamId,
+                policies -> CacheDependencies.of(null, CacheDependencies.bitstream(bitstreamId)),
+                () -> delegate.getBitstreamPolicies(bitstreamId));
+    }
+
+    @Override
+    public void addBitstreamPolicy(Integer bitstreamId, ResourcePolicy policy) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.addBitstreamPolicy(bitstreamId, policy);
+        } finally {
+            invalidate(CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+
+    @Override
+    public void deleteBitstreamPolicy(Integer bitstreamId, Integer policyId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteBitstreamPolicy(bitstreamId, policyId);
+        } finally {
+            invalidate(CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+}
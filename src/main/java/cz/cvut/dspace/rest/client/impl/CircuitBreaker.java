@@ -0,0 +1,302 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cz.cvut.dspace.rest.client.CircuitBreakerSettings;
+
+/**
+ * Circuit breaker of one group of operations. Closed breaker passes calls and records their outcomes in window
+ * of last calls. It opens, when the failure rate or the slow call rate of window reaches its threshold; open breaker
+ * rejects calls, so callers fail fast instead of waiting for DSpace, which is down. After open duration the breaker
+ * becomes half-open and lets a few trial calls through: it closes, when all of them succeed, and opens again
+ * at the first failed or slow one.
+ * <p>
+ * Outcome of call counts only in the state, in which its permit was granted: outcomes of calls started before
+ * the last transition (e.g. calls of closed breaker, which complete while it is half-open) are dropped.
+ * <p>
+ * State is published by {@link CircuitBreakerMXBean} between {@link #start()} and {@link #shutdown()}, unless JMX
+ * is disabled.
+ */
+public class CircuitBreaker implements CircuitBreakerMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final ObjectName objectName;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final int slowCallRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier ticker;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    /** Count of transitions, it tells permits granted in the current state from older ones. */
+    private long epoch;
+    private long openedNanos;
+    private int trialPermits;
+    private int trialSuccesses;
+    private long rejected;
+    private long openings;
+
+    /**
+     * @param name        Group of operations, e.g. "items".
+     * @param settings    Settings of breaker.
+     * @param endpointURL Endpoint of DSpace, it is part of JMX name.
+     * @param jmxEnabled  Breaker is registered to JMX, unless it is false.
+     */
+    public CircuitBreaker(String name, CircuitBreakerSettings settings, String endpointURL, Boolean jmxEnabled) {
+        this(name, settings, endpointURL, jmxEnabled, System::nanoTime);
+    }
+
+    /**
+     * @param name        Group of operations, e.g. "items".
+     * @param settings    Settings of breaker.
+     * @param endpointURL Endpoint of DSpace, it is part of JMX name.
+     * @param jmxEnabled  Breaker is registered to JMX, unless it is false.
+     * @param ticker      Source of time in nanoseconds, by which open duration elapses.
+     */
+    public CircuitBreaker(String name, CircuitBreakerSettings settings, String endpointURL, Boolean jmxEnabled, LongSupplier ticker) {
+        this.name = name;
+        this.failureRateThreshold = value(settings.getFailureRateThreshold(), 50);
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(value(settings.getSlowCallDuration(), 10000));
+        this.slowCallRateThreshold = value(settings.getSlowCallRateThreshold(), 80);
+        int windowSize = Math.max(1, value(settings.getWindowSize(), 20));
+        this.minimumCalls = Math.max(1, Math.min(windowSize, value(settings.getMinimumCalls(), 10)));
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(value(settings.getOpenDuration(), 30000));
+        this.halfOpenCalls = Math.max(1, value(settings.getHalfOpenCalls(), 3));
+        this.ticker = ticker;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+        this.objectName = Boolean.FALSE.equals(jmxEnabled) ? null : createObjectName(endpointURL, name);
+    }
+
+    private static int value(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static ObjectName createObjectName(String endpointURL, String name) {
+        try {
+            return new ObjectName("cz.cvut.dspace.rest.client:type=CircuitBreaker,endpoint=" + ObjectName.quote(String.valueOf(endpointURL))
+                    + ",name=" + ObjectName.quote(name) + ",id=" + sequence.incrementAndGet());
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    /**
+     * Requests permission for one call. Call, which got it, must report its outcome by {@link Permit#onSuccess(long)},
+     * {@link Permit#onFailure()} or {@link Permit#onIgnored()}.
+     *
+     * @return Returns permit or null, if the call must be rejected.
+     */
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (ticker.getAsLong() - openedNanos < openNanos) {
+                rejected++;
+                return null;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits >= halfOpenCalls) {
+                rejected++;
+                return null;
+            }
+            trialPermits++;
+        }
+        return new Permit(epoch);
+    }
+
+    private synchronized void record(Permit permit, boolean failure, boolean slowCall) {
+        if (permit.epoch != epoch) {
+            // Outcome of call started before the last transition.
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (failure || slowCall) {
+                transition(State.OPEN);
+            } else if (++trialSuccesses >= halfOpenCalls) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (calls == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failures += failure ? 1 : 0;
+        slowCalls += slowCall ? 1 : 0;
+        next = (next + 1) % failed.length;
+        if (calls >= minimumCalls && (failures * 100 >= failureRateThreshold * calls || slowCalls * 100 >= slowCallRateThreshold * calls)) {
+            log.warn("Circuit breaker of {} opens, {} of {} last calls failed and {} were slow.", new Object[] { name, failures, calls, slowCalls });
+            transition(State.OPEN);
+        }
+    }
+
+    private synchronized void ignore(Permit permit) {
+        if (permit.epoch == epoch && state == State.HALF_OPEN) {
+            // Trial, which says nothing, is given to another call.
+            trialPermits--;
+        }
+    }
+
+    private void transition(State target) {
+        if (target == State.OPEN) {
+            openedNanos = ticker.getAsLong();
+            openings++;
+        } else if (target == State.CLOSED) {
+            log.info("Circuit breaker of {} closes, DSpace recovered.", name);
+            calls = failures = slowCalls = next = 0;
+        }
+        trialPermits = trialSuccesses = 0;
+        state = target;
+        epoch++;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return Returns time in milliseconds, for which open breaker rejects calls, or 0.
+     */
+    public synchronized long getRemainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, TimeUnit.NANOSECONDS.toMillis(openNanos - (ticker.getAsLong() - openedNanos))) : 0;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized String getState() {
+        return state.name();
+    }
+
+    @Override
+    public synchronized double getFailureRate() {
+        return calls >= minimumCalls ? failures * 100.0 / calls : -1;
+    }
+
+    @Override
+    public synchronized double getSlowCallRate() {
+        return calls >= minimumCalls ? slowCalls * 100.0 / calls : -1;
+    }
+
+    @Override
+    public synchronized long getRejectedCalls() {
+        return rejected;
+    }
+
+    @Override
+    public synchronized long getOpenings() {
+        return openings;
+    }
+
+    /**
+     * Registers the breaker to JMX.
+     */
+    public void start() {
+        if (objectName != null && !ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (JMException ex) {
+                log.warn("Registration of circuit breaker to JMX failed.", ex);
+            }
+        }
+    }
+
+    public void shutdown() {
+        if (objectName != null && ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException ex) {
+                log.warn("Unregistration of circuit breaker from JMX failed.", ex);
+            }
+        }
+    }
+
+    /**
+     * Permission for one call. Only the first report of outcome has effect.
+     */
+    public class Permit {
+
+        private final long epoch;
+        private boolean reported;
+
+        Permit(long epoch) {
+            this.epoch = epoch;
+        }
+
+        private synchronized boolean report() {
+            if (reported) {
+                return false;
+            }
+            reported = true;
+            return true;
+        }
+
+        /**
+         * Reports call, which succeeded.
+         *
+         * @param latencyNanos Latency of call or -1, if it says nothing about speed of DSpace (e.g. large upload).
+         */
+        public void onSuccess(long latencyNanos) {
+            if (report()) {
+                record(this, false, latencyNanos > slowCallNanos);
+            }
+        }
+
+        /**
+         * Reports call, which failed by failure of DSpace.
+         */
+        public void onFailure() {
+            if (report()) {
+                record(this, true, false);
+            }
+        }
+
+        /**
+         * Reports call, whose outcome says nothing about health of DSpace (e.g. failure of client).
+         */
+        public void onIgnored() {
+            if (report()) {
+                ignore(this);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "CircuitBreaker[" + name + ", state=" + state + ", calls=" + calls + ", failures=" + failures + ", slowCalls=" + slowCalls + "]";
+    }
+}
@@ -0,0 +1,38 @@
+package cz.cvut.dspace.rest.client.impl;
+
+/**
+ * JMX view of {@link CircuitBreaker}. Breakers are registered as
+ * {@code cz.cvut.dspace.rest.client:type=CircuitBreaker,endpoint="...",name="...",id=...}.
+ */
+public interface CircuitBreakerMXBean {
+
+    /**
+     * @return Returns group of operations guarded by breaker, e.g. "items".
+     */
+    String getName();
+
+    /**
+     * @return Returns CLOSED, OPEN or HALF_OPEN.
+     */
+    String getState();
+
+    /**
+     * @return Returns share of failed calls in window in percents or -1, if there are too few calls.
+     */
+    double getFailureRate();
+
+    /**
+     * @return Returns share of slow calls in window in percents or -1, if there are too few calls.
+     */
+    double getSlowCallRate();
+
+    /**
+     * @return Returns count of calls rejected by open breaker since start.
+     */
+    long getRejectedCalls();
+
+    /**
+     * @return Returns count of openings of breaker since start.
+     */
+    long getOpenings();
+}
@@ -0,0 +1,136 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+import cz.cvut.dspace.rest.client.CircuitBreakerOpenException;
+
+/**
+ * Http engine, which guards requests by {@link CircuitBreaker} of their group of operations. Group is the first
+ * segment of path of resource under endpoint (communities, collections, items or bitstreams); requests of other
+ * resources (e.g. login) are not guarded. Requests rejected by open breaker fail with
+ * {@link CircuitBreakerOpenException} without being sent.
+ */
+public class CircuitBreakingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private final Map<String, CircuitBreaker> breakers;
+    private final String basePath;
+
+    /**
+     * @param delegate    Engine, which executes request.
+     * @param breakers    Breakers by group of operations.
+     * @param endpointURL Endpoint of DSpace, paths of groups are relative to it.
+     */
+    public CircuitBreakingClientHttpEngine(ClientHttpEngine delegate, Map<String, CircuitBreaker> breakers, String endpointURL) {
+        super(delegate);
+        this.breakers = breakers;
+        this.basePath = basePath(endpointURL);
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        CircuitBreaker breaker = breaker(invocation);
+        if (breaker == null) {
+            return delegate.invoke(invocation);
+        }
+        CircuitBreaker.Permit permit = acquire(breaker, invocation);
+        long start = System.nanoTime();
+        ClientResponse response;
+        try {
+            response = delegate.invoke(invocation);
+        } catch (RuntimeException ex) {
+            report(permit, ex);
+            throw ex;
+        }
+        report(permit, invocation, response, System.nanoTime() - start);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final CircuitBreaker breaker = breaker(invocation);
+        if (breaker == null) {
+            return submit(delegate, invocation);
+        }
+        final CircuitBreaker.Permit permit;
+        try {
+            permit = acquire(breaker, invocation);
+        } catch (CircuitBreakerOpenException ex) {
+            CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        final long start = System.nanoTime();
+        return submit(delegate, invocation).whenComplete((response, ex) -> {
+            if (ex != null) {
+                report(permit, ex);
+            } else {
+                report(permit, invocation, response, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private CircuitBreaker breaker(ClientInvocation invocation) {
+        String group = group(basePath, invocation);
+        return group != null ? breakers.get(group) : null;
+    }
+
+    /**
+     * @return Returns path of endpoint without trailing slash.
+     */
+    static String basePath(String endpointURL) {
+        String path = URI.create(endpointURL).getPath();
+        return path == null ? "" : path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    /**
+     * @param basePath Path of endpoint, see {@link #basePath(String)}.
+     * @return Returns group of operations of request, i.e. the first segment of path under endpoint, or null.
+     */
+    static String group(String basePath, ClientInvocation invocation) {
+        String path = invocation.getUri().getPath();
+        if (path == null || !path.startsWith(basePath + "/")) {
+            return null;
+        }
+        int start = basePath.length() + 1;
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    private static CircuitBreaker.Permit acquire(CircuitBreaker breaker, ClientInvocation invocation) {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            throw new CircuitBreakerOpenException(breaker.getName(), "Circuit breaker of " + breaker.getName() + " is open for next "
+                    + breaker.getRemainingOpenMillis() + " ms [" + invocation.getMethod() + " " + invocation.getUri() + "].");
+        }
+        return permit;
+    }
+
+    private static void report(CircuitBreaker.Permit permit, ClientInvocation invocation, ClientResponse response, long latencyNanos) {
+        int status = response.getStatus();
+        if (status == 429 || status >= 500) {
+            permit.onFailure();
+        } else {
+            // Latency of streamed uploads depends on size of data, not on health of DSpace.
+            permit.onSuccess(invocation.getEntity() instanceof InputStream ? -1 : latencyNanos);
+        }
+    }
+
+    private static void report(CircuitBreaker.Permit permit, Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                permit.onFailure();
+                return;
+            }
+        }
+        permit.onIgnored();
+    }
+}
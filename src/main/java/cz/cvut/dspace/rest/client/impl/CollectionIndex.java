@@ -0,0 +1,198 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.dspace.rest.common.Collection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+
+/**
+ * Index of collections by name, which turns {@link DSpaceRESTClient#findCollectionByName(String)} into hash lookup.
+ * Index is built by one paged sweep of all collections and kept up to date by writes of collections through
+ * {@link CachingDSpaceRESTClient}. Name, which is not in index (e.g. collection created by other client), is looked
+ * up in DSpace and added. Whole index is swept again after max age, lookups use the old index meanwhile.
+ * <p>
+ * When more collections have the same name, the first one found is used, as DSpace does.
+ */
+public class CollectionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionIndex.class);
+
+    /** Count of collections read by one request of sweep. */
+    static final int PAGE_SIZE = 100;
+
+    private final long maxAgeNanos;
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    /** Collections by name or null, when index was not built yet. */
+    private volatile Map<String, Collection> byName;
+    private volatile long builtAt;
+    /** Ids of collections updated or deleted while sweep runs, they are removed from its index. Null, when no sweep runs. */
+    private Set<Integer> removedDuringSweep;
+    /** Set by invalidation while sweep runs, index of the sweep is not used then. */
+    private boolean invalidatedDuringSweep;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder sweeps = new LongAdder();
+
+    /**
+     * @param maxAge Max age of index, after which it is swept again.
+     * @param unit   Unit of maxAge.
+     */
+    public CollectionIndex(long maxAge, TimeUnit unit) {
+        this.maxAgeNanos = unit.toNanos(maxAge);
+    }
+
+    /**
+     * Finds collection by name.
+     *
+     * @param name   Name of collection.
+     * @param client Client, which reads collections from DSpace.
+     * @return Returns collection or null, if there is no collection with the name.
+     */
+    public Collection find(String name, DSpaceRESTClient client) {
+        lookups.increment();
+        Collection collection = index(client).get(name);
+        if (collection != null) {
+            hits.increment();
+            return collection;
+        }
+        collection = client.findCollectionByName(name);
+        if (collection != null) {
+            added(collection);
+        }
+        return collection;
+    }
+
+    private Map<String, Collection> index(DSpaceRESTClient client) {
+        Map<String, Collection> index = byName;
+        if (index != null && System.nanoTime() - builtAt < maxAgeNanos) {
+            return index;
+        }
+        if (index == null) {
+            sweepLock.lock();
+        } else if (!sweepLock.tryLock()) {
+            // Other thread sweeps, old index is good enough meanwhile.
+            return index;
+        }
+        try {
+            index = byName;
+            if (index != null && System.nanoTime() - builtAt < maxAgeNanos) {
+                return index;
+            }
+            return sweep(client);
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private Map<String, Collection> sweep(DSpaceRESTClient client) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            removedDuringSweep = new HashSet<>();
+            invalidatedDuringSweep = false;
+        }
+        Map<String, Collection> index = new ConcurrentHashMap<>();
+        try {
+            for (int offset = 0; ; offset += PAGE_SIZE) {
+                List<Collection> page = client.readAllCollections("", PAGE_SIZE, offset);
+                for (Collection collection : page) {
+                    if (collection.getName() != null) {
+                        index.putIfAbsent(collection.getName(), collection);
+                    }
+                }
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            sweeps.increment();
+            log.debug("Index of collections was built, it has {} names, sweep took {} ms.", index.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            synchronized (this) {
+                if (invalidatedDuringSweep) {
+                    // Sweep could miss deletion of unknown collections, names are looked up in DSpace until next sweep.
+                    byName = null;
+                    return Collections.emptyMap();
+                }
+                // Sweep could read collection before its update or deletion, its new name is looked up in DSpace.
+                final Set<Integer> removed = removedDuringSweep;
+                if (!removed.isEmpty()) {
+                    index.values().removeIf(collection -> removed.contains(collection.getID()));
+                }
+                byName = index;
+                builtAt = System.nanoTime();
+            }
+            return index;
+        } finally {
+            synchronized (this) {
+                removedDuringSweep = null;
+            }
+        }
+    }
+
+    /**
+     * Adds collection created (or found) by client.
+     */
+    public synchronized void added(Collection collection) {
+        Map<String, Collection> index = byName;
+        if (index != null && collection.getName() != null) {
+            index.putIfAbsent(collection.getName(), collection);
+        }
+    }
+
+    /**
+     * Removes collection updated or deleted by client. Its new name is looked up in DSpace by the next lookup.
+     */
+    public synchronized void removed(Integer collectionId) {
+        if (removedDuringSweep != null) {
+            removedDuringSweep.add(collectionId);
+        }
+        Map<String, Collection> index = byName;
+        if (index != null) {
+            index.values().removeIf(collection -> collectionId.equals(collection.getID()));
+        }
+    }
+
+    public synchronized void invalidate() {
+        if (removedDuringSweep != null) {
+            invalidatedDuringSweep = true;
+        }
+        byName = null;
+    }
+
+    /**
+     * @return Returns count of names in index.
+     */
+    public int size() {
+        Map<String, Collection> index = byName;
+        return index != null ? index.size() : 0;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return Returns count of lookups served by index without request.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Returns count of sweeps of all collections.
+     */
+    public long getSweeps() {
+        return sweeps.sum();
+    }
+}
@@ -0,0 +1,90 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.jboss.resteasy.client.jaxrs.internal.ClientConfiguration;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Response of blocking transport, which runs completion action, when its entity is read to the end
+ * or when it is closed. Status and headers are copied, entity is streamed from the wrapped response.
+ * Completion action must tolerate repeated runs (e.g. entity read to the end and closed afterwards).
+ */
+class CompletingClientResponse extends ClientResponse {
+
+    private final ClientResponse delegate;
+    private final Runnable completion;
+    private InputStream stream;
+    private boolean opened;
+
+    CompletingClientResponse(ClientConfiguration configuration, ClientResponse delegate, Runnable completion) {
+        super(configuration);
+        this.delegate = delegate;
+        this.completion = completion;
+        setStatus(delegate.getStatus());
+        setHeaders(delegate.getStringHeaders());
+        setProperties(delegate.getProperties());
+    }
+
+    @Override
+    protected InputStream getInputStream() {
+        if (!opened) {
+            opened = true;
+            InputStream entity = null;
+            try {
+                entity = delegate.readEntity(InputStream.class);
+            } catch (IllegalStateException ex) {
+                // Response has no entity.
+            }
+            if (entity == null) {
+                completion.run();
+                return null;
+            }
+            stream = new FilterInputStream(entity) {
+                @Override
+                public int read() throws IOException {
+                    return completeAtEnd(super.read());
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return completeAtEnd(super.read(buffer, offset, length));
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        completion.run();
+                    }
+                }
+
+                private int completeAtEnd(int read) {
+                    if (read == -1) {
+                        completion.run();
+                    }
+                    return read;
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    protected void setInputStream(InputStream stream) {
+        this.stream = stream;
+        opened = true;
+    }
+
+    @Override
+    protected void releaseConnection() throws IOException {
+        try {
+            delegate.close();
+        } finally {
+            completion.run();
+        }
+    }
+}
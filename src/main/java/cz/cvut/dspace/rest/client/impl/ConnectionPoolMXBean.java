@@ -0,0 +1,25 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ManagedConnectionPool}. Pools are registered as
+ * {@code cz.cvut.dspace.rest.client:type=ConnectionPool,endpoint="...",name="...",id=...}.
+ */
+public interface ConnectionPoolMXBean {
+
+    /**
+     * @return Returns statistics of whole pool.
+     */
+    ConnectionPoolStats getTotalStats();
+
+    /**
+     * @return Returns statistics of routes by target host (e.g. "https://dspace.example.org:443").
+     */
+    Map<String, ConnectionPoolStats> getRouteStats();
+
+    /**
+     * @return Returns upper bounds of buckets of lease wait histograms in milliseconds.
+     */
+    long[] getLeaseWaitBucketBoundsMillis();
+}
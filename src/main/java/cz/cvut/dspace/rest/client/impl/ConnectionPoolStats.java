@@ -0,0 +1,85 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of connection pool (whole pool or one route) together with summary of times, which requests
+ * waited for lease of connection. Pending requests and long lease waits mean, that requests queue in client
+ * and not in DSpace.
+ */
+public class ConnectionPoolStats {
+
+    private final int leased;
+    private final int available;
+    private final int pending;
+    private final int max;
+    private final long leaseCount;
+    private final double leaseWaitMeanMillis;
+    private final double leaseWaitP95Millis;
+    private final double leaseWaitMaxMillis;
+    private final long[] leaseWaitBuckets;
+
+    @ConstructorProperties({ "leased", "available", "pending", "max", "leaseCount", "leaseWaitMeanMillis",
+            "leaseWaitP95Millis", "leaseWaitMaxMillis", "leaseWaitBuckets" })
+    public ConnectionPoolStats(int leased, int available, int pending, int max, long leaseCount, double leaseWaitMeanMillis,
+                               double leaseWaitP95Millis, double leaseWaitMaxMillis, long[] leaseWaitBuckets) {
+        this.leased = leased;
+        this.available = available;
+        this.pending = pending;
+        this.max = max;
+        this.leaseCount = leaseCount;
+        this.leaseWaitMeanMillis = leaseWaitMeanMillis;
+        this.leaseWaitP95Millis = leaseWaitP95Millis;
+        this.leaseWaitMaxMillis = leaseWaitMaxMillis;
+        this.leaseWaitBuckets = leaseWaitBuckets;
+    }
+
+    /** Count of connections used by requests. */
+    public int getLeased() {
+        return leased;
+    }
+
+    /** Count of idle connections. */
+    public int getAvailable() {
+        return available;
+    }
+
+    /** Count of requests waiting for connection. */
+    public int getPending() {
+        return pending;
+    }
+
+    /** Max count of connections. */
+    public int getMax() {
+        return max;
+    }
+
+    /** Count of leases since start of pool. */
+    public long getLeaseCount() {
+        return leaseCount;
+    }
+
+    public double getLeaseWaitMeanMillis() {
+        return leaseWaitMeanMillis;
+    }
+
+    public double getLeaseWaitP95Millis() {
+        return leaseWaitP95Millis;
+    }
+
+    public double getLeaseWaitMaxMillis() {
+        return leaseWaitMaxMillis;
+    }
+
+    /** Histogram of lease waits with buckets defined by {@link LatencyHistogram#BOUNDS_MILLIS}. */
+    public long[] getLeaseWaitBuckets() {
+        return leaseWaitBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats[leased=" + leased + ", available=" + available + ", pending=" + pending + ", max=" + max
+                + ", leaseCount=" + leaseCount + ", leaseWaitMeanMillis=" + leaseWaitMeanMillis
+                + ", leaseWaitP95Millis=" + leaseWaitP95Millis + ", leaseWaitMaxMillis=" + leaseWaitMaxMillis + "]";
+    }
+}
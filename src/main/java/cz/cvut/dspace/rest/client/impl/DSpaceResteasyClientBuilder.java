@@ -0,0 +1,36 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+
+/**
+ * RESTEasy client builder, which lets DSpace client wrap http engine before RESTEasy client is built.
+ * Engine set by {@link #httpEngine(org.jboss.resteasy.client.jaxrs.ClientHttpEngine)} is wrapped,
+ * otherwise the default engine of RESTEasy (configured by this builder) is created and wrapped. Default engine
+ * is replaced by {@link DeadlineApacheHttpClient4Engine} with the same http client, so its requests can be aborted.
+ */
+public class DSpaceResteasyClientBuilder extends ResteasyClientBuilder {
+
+    private final AbstractDSpaceRESTClient owner;
+
+    public DSpaceResteasyClientBuilder(AbstractDSpaceRESTClient owner) {
+        this.owner = owner;
+    }
+
+    @Override
+    public ResteasyClient build() {
+        httpEngine(owner.decorateEngine(httpEngine != null ? httpEngine : initDefaultEngine()));
+        return super.build();
+    }
+
+    @Override
+    protected ClientHttpEngine initDefaultEngine() {
+        ClientHttpEngine engine = super.initDefaultEngine();
+        if (engine.getClass() == ApacheHttpClient4Engine.class) {
+            return DeadlineApacheHttpClient4Engine.of((ApacheHttpClient4Engine) engine);
+        }
+        return engine;
+    }
+}
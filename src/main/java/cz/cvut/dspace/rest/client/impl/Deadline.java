@@ -0,0 +1,179 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Point in time, until which call of DSpace has to finish. Deadline of call is bound to thread, which executes
+ * the call, so all requests of the call (e.g. item, its metadata and bitstreams) share it. Transports register
+ * actions, which abort their requests, when the deadline expires; aborted requests release their connections.
+ */
+public final class Deadline {
+
+    private static final Logger log = LoggerFactory.getLogger(Deadline.class);
+
+    /** Property of invocation, by which deadline is passed to requests executed outside of thread of call. */
+    public static final String PROPERTY = Deadline.class.getName();
+
+    private static final ThreadLocal<Deadline> current = new ThreadLocal<>();
+    private static final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "dspace-deadline-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    private final long deadlineNanos;
+    private List<Runnable> expiryActions = new ArrayList<>();
+    private ScheduledFuture<?> expiry;
+    private boolean expired;
+    private volatile boolean cancelled;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static Deadline after(long timeout, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * @return Returns deadline, which expires only by {@link #cancel()}.
+     */
+    public static Deadline unbounded() {
+        return new Deadline(System.nanoTime() + Long.MAX_VALUE / 2);
+    }
+
+    /**
+     * Returns deadline, which expires together with this one, but which can be cancelled on its own.
+     * It allows to abort one of concurrent requests of the same call.
+     */
+    public Deadline fork() {
+        return new Deadline(deadlineNanos);
+    }
+
+    /**
+     * @return Returns deadline bound to current thread or null.
+     */
+    public static Deadline current() {
+        return current.get();
+    }
+
+    /**
+     * @return Returns count of deadlines, whose expiry is scheduled to abort their requests. Deadlines of finished
+     *         requests are closed, so they do not count.
+     */
+    public static int armed() {
+        return timer.getQueue().size();
+    }
+
+    /**
+     * @return Returns the earlier of given deadlines, any of them can be null.
+     */
+    public static Deadline earliest(Deadline first, Deadline second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        }
+        return first.deadlineNanos - second.deadlineNanos <= 0 ? first : second;
+    }
+
+    public long remaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return cancelled || deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Runs callable with this deadline bound to current thread. When thread has already earlier deadline, it is kept.
+     */
+    public <T> T call(Callable<T> callable) throws Exception {
+        Deadline previous = current.get();
+        // Fork of bound deadline replaces it, so it can abort requests of the callable.
+        current.set(earliest(this, previous));
+        try {
+            return callable.call();
+        } finally {
+            if (previous != null) {
+                current.set(previous);
+            } else {
+                current.remove();
+            }
+        }
+    }
+
+    /**
+     * Registers action, which is run by timer thread, when deadline expires. Action registered after expiry
+     * is run immediately, action registered after {@link #close()} is never run.
+     */
+    public void onExpiry(Runnable action) {
+        synchronized (this) {
+            if (expiryActions != null && !expired) {
+                expiryActions.add(action);
+                if (expiry == null) {
+                    expiry = timer.schedule(this::expire, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+            if (expiryActions == null) {
+                return;
+            }
+        }
+        run(action);
+    }
+
+    /**
+     * Expires deadline now, so actions registered to it abort their requests.
+     */
+    public void cancel() {
+        cancelled = true;
+        expire();
+    }
+
+    private void expire() {
+        List<Runnable> actions;
+        synchronized (this) {
+            if (expiryActions == null) {
+                return;
+            }
+            expired = true;
+            actions = expiryActions;
+            expiryActions = new ArrayList<>();
+        }
+        for (Runnable action : actions) {
+            run(action);
+        }
+    }
+
+    private static void run(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException ex) {
+            log.warn("Abort of request after deadline failed.", ex);
+        }
+    }
+
+    /**
+     * Discards registered actions, because the work guarded by this deadline finished.
+     */
+    public synchronized void close() {
+        expiryActions = null;
+        if (expiry != null) {
+            expiry.cancel(false);
+            expiry = null;
+        }
+    }
+}
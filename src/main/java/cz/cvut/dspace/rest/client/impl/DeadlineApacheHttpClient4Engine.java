@@ -0,0 +1,43 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+
+/**
+ * Blocking Apache http client engine, which aborts request, when deadline bound to thread of request
+ * (see {@link Deadline}) expires. Aborted request releases its connection, so hung DSpace can not hold
+ * threads and connections of client.
+ */
+public class DeadlineApacheHttpClient4Engine extends ApacheHttpClient4Engine {
+
+    public DeadlineApacheHttpClient4Engine(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    public DeadlineApacheHttpClient4Engine(HttpClient httpClient, boolean closeHttpClient) {
+        super(httpClient, closeHttpClient);
+    }
+
+    /**
+     * Creates engine with http client and settings of other engine, e.g. of default engine of RESTEasy.
+     */
+    public static DeadlineApacheHttpClient4Engine of(ApacheHttpClient4Engine engine) {
+        DeadlineApacheHttpClient4Engine result = new DeadlineApacheHttpClient4Engine(engine.getHttpClient(), true);
+        result.setHttpContext(engine.getHttpContext());
+        result.setResponseBufferSize(engine.getResponseBufferSize());
+        result.setHostnameVerifier(engine.getHostnameVerifier());
+        result.setSslContext(engine.getSslContext());
+        return result;
+    }
+
+    @Override
+    protected void loadHttpMethod(ClientInvocation request, HttpRequestBase httpMethod) throws Exception {
+        super.loadHttpMethod(request, httpMethod);
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.onExpiry(httpMethod::abort);
+        }
+    }
+}
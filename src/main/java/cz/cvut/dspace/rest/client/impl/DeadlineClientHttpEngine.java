@@ -0,0 +1,110 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Http engine, which aborts requests after their deadline. Deadline of request is the earlier of deadline of call
+ * (see {@link Deadline}) and configured timeout of single request. Blocking transports abort request
+ * by action registered to deadline (see {@link DeadlineApacheHttpClient4Engine}), non-blocking transports
+ * are aborted by cancellation of their future. Expired request fails with {@link ProcessingException} caused
+ * by {@link TimeoutException}.
+ * <p>
+ * Blocking transports return response, whose entity is still streamed from connection, so timeout of request
+ * stays armed until the entity is read or the response is closed.
+ */
+public class DeadlineClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private final Long requestTimeoutMillis;
+
+    /**
+     * @param delegate             Transport engine.
+     * @param requestTimeoutMillis Max duration of single request in milliseconds or null.
+     */
+    public DeadlineClientHttpEngine(ClientHttpEngine delegate, Long requestTimeoutMillis) {
+        super(delegate);
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    @Override
+    public ClientResponse invoke(final ClientInvocation invocation) {
+        if (isNonBlocking(delegate)) {
+            return TokenManager.join(submit(invocation));
+        }
+        Deadline requestDeadline = requestTimeoutMillis != null ? Deadline.after(requestTimeoutMillis, TimeUnit.MILLISECONDS) : null;
+        Deadline deadline = Deadline.earliest(callDeadline(invocation), requestDeadline);
+        if (deadline == null) {
+            return delegate.invoke(invocation);
+        }
+        if (deadline.isExpired()) {
+            throw timeout(invocation, null);
+        }
+        boolean completed = false;
+        try {
+            ClientResponse response = deadline.call(() -> delegate.invoke(invocation));
+            completed = true;
+            return requestDeadline != null ? new CompletingClientResponse(invocation.getClientConfiguration(), response, requestDeadline::close) : response;
+        } catch (RuntimeException ex) {
+            throw deadline.isExpired() ? timeout(invocation, ex) : ex;
+        } catch (Exception ex) {
+            throw new ProcessingException(ex);
+        } finally {
+            if (requestDeadline != null && !completed) {
+                requestDeadline.close();
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final Deadline requestDeadline = requestTimeoutMillis != null ? Deadline.after(requestTimeoutMillis, TimeUnit.MILLISECONDS) : null;
+        final Deadline deadline = Deadline.earliest(callDeadline(invocation), requestDeadline);
+        if (deadline == null) {
+            return submit(delegate, invocation);
+        }
+        if (deadline.isExpired()) {
+            CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(timeout(invocation, null));
+            return future;
+        }
+        final CompletableFuture<ClientResponse> response = submit(delegate, invocation);
+        final CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+        response.whenComplete((value, ex) -> {
+            if (requestDeadline != null) {
+                requestDeadline.close();
+            }
+            if (ex != null) {
+                result.completeExceptionally(ex);
+            } else if (!result.complete(value)) {
+                // Response came together with expiry of deadline, caller got timeout already.
+                value.close();
+            }
+        });
+        deadline.onExpiry(() -> {
+            if (result.completeExceptionally(timeout(invocation, null))) {
+                response.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static Deadline callDeadline(ClientInvocation invocation) {
+        Object deadline = invocation.getConfiguration().getProperty(Deadline.PROPERTY);
+        return deadline instanceof Deadline ? (Deadline) deadline : Deadline.current();
+    }
+
+    private static ProcessingException timeout(ClientInvocation invocation, Throwable cause) {
+        TimeoutException timeout = new TimeoutException("Deadline of request expired [" + invocation.getMethod() + " " + invocation.getUri() + "].");
+        if (cause != null) {
+            timeout.initCause(cause);
+        }
+        return new ProcessingException(timeout);
+    }
+}
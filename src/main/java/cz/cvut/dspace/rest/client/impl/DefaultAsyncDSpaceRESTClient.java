@@ -0,0 +1,620 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import static cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient.*;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriBuilder;
+
+import org.dspace.rest.common.*;
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.ResteasyClient;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.joda.time.LocalDate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cz.cvut.dspace.rest.client.AsyncDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.RetryPolicy;
+
+/**
+ * Implementation of asynchronous DSpace rest client over async executor of RESTEasy client. It shares RESTEasy client,
+ * endpoint and authentication token with its parent {@link AbstractDSpaceRESTClient}, so it lives exactly as long
+ * as the parent client (until {@link AbstractDSpaceRESTClient#destroy()} is called).
+ * <p>
+ * Responses are read and deserialized by async executor of RESTEasy client (or by callback executor of
+ * non-blocking client, see {@link NioDSpaceRESTClient}), which also runs dependent stages of returned futures.
+ * Callers should not block in these stages.
+ */
+public class DefaultAsyncDSpaceRESTClient implements AsyncDSpaceRESTClient {
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    protected final AbstractDSpaceRESTClient parent;
+
+    public DefaultAsyncDSpaceRESTClient(AbstractDSpaceRESTClient parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Sends request asynchronously. Requests streaming binary data are sent by transfer client of parent.
+     *
+     * @param method HTTP method.
+     * @param url    Full URL of resource.
+     * @param token  Authentication token or null if request is anonymous.
+     * @param accept Accepted media type of response.
+     * @param entity Entity of request or null.
+     * @return Returns future of response, which must be closed by caller.
+     */
+    protected CompletableFuture<Response> send(String method, String url, String token, String accept, Entity<?> entity) {
+        return send(method, url, token, accept, entity, Deadline.current(), RetryPolicy.current());
+    }
+
+    /**
+     * Sends request asynchronously with deadline and retry policy of call, which started it.
+     *
+     * @param deadline    Deadline of call or null.
+     * @param retryPolicy Retry policy of call or null for policy of client.
+     * @see #send(String, String, String, String, Entity)
+     */
+    protected CompletableFuture<Response> send(String method, String url, String token, String accept, Entity<?> entity,
+                                               Deadline deadline, RetryPolicy retryPolicy) {
+        return send(method, url, token, accept, entity, deadline, retryPolicy, null);
+    }
+
+    /**
+     * Sends request asynchronously, which is conditional, when there is cached result of it.
+     *
+     * @param cached Cached result, whose validators are sent, or null.
+     * @see #send(String, String, String, String, Entity, Deadline, RetryPolicy)
+     */
+    protected CompletableFuture<Response> send(String method, String url, String token, String accept, Entity<?> entity,
+                                               Deadline deadline, RetryPolicy retryPolicy, ValidatingCache.Entry<?> cached) {
+        ResteasyClient client = entity != null && entity.getEntity() instanceof InputStream ? parent.transferClient() : parent.client;
+        Invocation.Builder builder = client.target(url).request().accept(accept);
+        if (token != null) {
+            builder.header(HEADER_TOKEN, token);
+        }
+        if (deadline != null) {
+            builder.property(Deadline.PROPERTY, deadline);
+        }
+        if (retryPolicy != null) {
+            builder.property(RetryPolicy.PROPERTY, retryPolicy);
+        }
+        if (cached != null) {
+            cached.addConditions(builder);
+        }
+        final Invocation invocation = entity != null ? builder.build(method, entity) : builder.build(method);
+        ClientHttpEngine engine = client.httpEngine();
+        if (parent.isNonBlocking() && DelegatingClientHttpEngine.isNonBlocking(engine)) {
+            // Non-blocking engine does not need a thread of async executor for waiting on response.
+            // Transfer client of non-blocking client may still be blocking, its requests take the executor.
+            final ClientInvocation clientInvocation = (ClientInvocation) invocation;
+            return ((AsyncClientHttpEngine) engine).submit(clientInvocation).thenApply(response -> {
+                response.setProperties(clientInvocation.getMutableProperties());
+                return (Response) response;
+            });
+        }
+        // AsyncInvoker is not used, because RESTEasy closes response as soon as InvocationCallback returns,
+        // so stages attached to the future later could not read it.
+        return CompletableFuture.supplyAsync(invocation::invoke, client.asyncInvocationExecutor());
+    }
+
+    /**
+     * Sends authenticated request and reads its response.
+     *
+     * @param description Description of operation for logging, e.g. "Reading community(id=1)".
+     * @param method      HTTP method.
+     * @param url         Full URL of resource.
+     * @param entity      Entity of request or null.
+     * @param reader      Function, which extracts result from response. Response is closed after it.
+     * @return Returns future of result.
+     */
+    protected <T> CompletableFuture<T> call(final String description, final String method, final String url,
+                                            final Entity<?> entity, final Function<Response, T> reader) {
+        log.debug("{} (async).", description);
+        final Deadline deadline = Deadline.current();
+        final RetryPolicy retryPolicy = RetryPolicy.current();
+        return login().thenCompose(token -> send(method, url, token, MediaType.APPLICATION_JSON, entity, deadline, retryPolicy))
+                .thenApply(response -> {
+                    try {
+                        return reader.apply(response);
+                    } catch (WebApplicationException ex) {
+                        log.error("{} failed. Response code: {}.", description, response.getStatus());
+                        throw ex;
+                    } finally {
+                        response.close();
+                    }
+                });
+    }
+
+    /**
+     * Sends authenticated read, which is conditional, when parent client caches its result with validators.
+     * Response 304 is answered by the cached result without reading it. Fresh result is completed (e.g. by reads
+     * of its parts) and stored with validators of its response.
+     *
+     * @param description  Description of operation for logging.
+     * @param key          Identity of read in cache of parent.
+     * @param url          Full URL of resource.
+     * @param reader       Function, which extracts result from response. Response is closed after it.
+     * @param completion   Completes fresh result, which is not null.
+     * @param lastModified Time of last modification of result, when response has no validators, or null.
+     * @return Returns future of result.
+     */
+    protected <T> CompletableFuture<T> callValidated(final String description, final String key, final String url,
+                                                     final Function<Response, T> reader, final Function<T, CompletableFuture<T>> completion,
+                                                     final Function<T, String> lastModified) {
+        final ValidatingCache cache = parent.responseCache;
+        if (cache == null) {
+            return call(description, "GET", url, null, reader)
+                    .thenCompose(result -> result != null ? completion.apply(result) : CompletableFuture.completedFuture(null));
+        }
+        log.debug("{} (async).", description);
+        final Deadline deadline = Deadline.current();
+        final RetryPolicy retryPolicy = RetryPolicy.current();
+        final ValidatingCache.Entry<T> cached = cache.get(key);
+        return login().thenCompose(token -> send("GET", url, token, MediaType.APPLICATION_JSON, null, deadline, retryPolicy, cached))
+                .thenCompose(response -> {
+                    T result;
+                    String etag;
+                    String modified;
+                    try {
+                        if (cache.isNotModified(cached, response)) {
+                            log.debug("{} was not modified.", description);
+                            return CompletableFuture.completedFuture(cached.getValue());
+                        }
+                        result = reader.apply(response);
+                        etag = response.getHeaderString(HttpHeaders.ETAG);
+                        modified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+                    } catch (WebApplicationException ex) {
+                        log.error("{} failed. Response code: {}.", description, response.getStatus());
+                        throw ex;
+                    } finally {
+                        response.close();
+                    }
+                    if (result == null) {
+                        cache.invalidate(key);
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return completion.apply(result).thenApply(value -> {
+                        cache.store(key, etag, modified, lastModified != null ? lastModified.apply(value) : null, value);
+                        return value;
+                    });
+                });
+    }
+
+    /**
+     * Starts read, or joins concurrent identical read, when coalescing of reads is enabled in parent client.
+     */
+    protected <T> CompletableFuture<T> coalesce(String key, Supplier<CompletableFuture<T>> loader) {
+        return parent.singleFlight != null ? parent.singleFlight.submit(key, loader) : loader.get();
+    }
+
+    /**
+     * Starts find, unless it found nothing recently, when parent client caches misses.
+     *
+     * @see AbstractDSpaceRESTClient#probe(String, Supplier)
+     */
+    protected <T> CompletableFuture<T> probe(final String key, Supplier<CompletableFuture<T>> loader) {
+        final NegativeCache cache = parent.negativeCache;
+        if (cache == null) {
+            return loader.get();
+        }
+        if (cache.isMissing(key)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long started = cache.generation();
+        return loader.get().thenApply(result -> {
+            if (result == null) {
+                cache.missing(key, started);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Starts create, which forgets cached misses of created object, when parent client caches misses.
+     *
+     * @see NegativeCache#created(String, Function, Supplier)
+     */
+    protected <T> CompletableFuture<T> created(final String kind, final Function<T, Object> identity, Supplier<CompletableFuture<T>> create) {
+        final NegativeCache cache = parent.negativeCache;
+        if (cache == null) {
+            return create.get();
+        }
+        return create.get().whenComplete((created, ex) -> {
+            if (created != null) {
+                cache.invalidate(kind + identity.apply(created));
+            } else {
+                cache.invalidateAll(kind);
+            }
+        });
+    }
+
+    protected static <T> Function<Response, T> result(final Class<T> type) {
+        return response -> extractResult(type, response);
+    }
+
+    protected static <T> Function<Response, T> resultOrNull(final Class<T> type) {
+        return response -> {
+            try {
+                return extractResult(type, response);
+            } catch (NotFoundException ex) {
+                return null;
+            }
+        };
+    }
+
+    protected static <T> Function<Response, List<T>> list(final Class<T[]> type) {
+        return response -> Arrays.asList(extractResult(type, response));
+    }
+
+    protected static Function<Response, Void> status() {
+        return response -> {
+            handleErrorStatus(response);
+            return null;
+        };
+    }
+
+    @Override
+    public CompletableFuture<String> login() {
+        return parent.tokenManager.token(this::requestToken);
+    }
+
+    /**
+     * Requests new authentication token from DSpace. It is called by {@link TokenManager} only.
+     *
+     * @return Returns future of new token.
+     */
+    protected CompletableFuture<String> requestToken() {
+        return requestToken(parent.ENDPOINT_URL, Deadline.current());
+    }
+
+    /**
+     * Requests new authentication token from given endpoint (primary or replica).
+     *
+     * @param endpointURL Endpoint of DSpace.
+     * @param deadline    Deadline of login or null.
+     * @return Returns future of new token.
+     */
+    protected CompletableFuture<String> requestToken(String endpointURL, Deadline deadline) {
+        log.debug("Requesting authentication token [endpoint={}, username={}, password={}] (async).",
+                new Object[] { endpointURL, parent.configuration.getUsername(), "***" });
+        User user = new User(parent.configuration.getUsername(), parent.configuration.getPassword());
+        return send("POST", endpointURL + "/login", null, MediaType.APPLICATION_JSON, Entity.entity(user, MediaType.APPLICATION_JSON),
+                deadline, RetryPolicy.current())
+                .thenApply(response -> {
+                    try {
+                        return extractResult(String.class, response);
+                    } catch (WebApplicationException ex) {
+                        log.error("Requesting authentication token failed. Response code: {}.", response.getStatus());
+                        throw ex;
+                    } finally {
+                        response.close();
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> logout() {
+        return logout(parent.ENDPOINT_URL, parent.tokenManager).thenRun(parent::logoutReplicas);
+    }
+
+    /**
+     * Logs out of given endpoint (primary or replica).
+     *
+     * @param endpointURL Endpoint of DSpace.
+     * @param tokens      Holder of token of the endpoint.
+     * @return Returns future of logout.
+     */
+    protected CompletableFuture<Void> logout(String endpointURL, final TokenManager tokens) {
+        final String token = tokens.peek();
+        return logout(endpointURL, token).thenRun(() -> tokens.invalidate(token));
+    }
+
+    /**
+     * Logs out given token of endpoint, e.g. token replaced by newer one.
+     *
+     * @param endpointURL Endpoint of DSpace.
+     * @param token       Authentication token.
+     * @return Returns future of logout.
+     */
+    protected CompletableFuture<Void> logout(String endpointURL, String token) {
+        User user = new User(parent.configuration.getUsername(), parent.configuration.getPassword());
+        return send("POST", endpointURL + "/logout", token, MediaType.APPLICATION_JSON, Entity.entity(user, MediaType.APPLICATION_JSON))
+                .thenApply(response -> {
+                    try {
+                        handleErrorStatus(response);
+                        return null;
+                    } catch (WebApplicationException ex) {
+                        log.error("Logout failed. Response code: {}.", response.getStatus());
+                        throw ex;
+                    } finally {
+                        response.close();
+                    }
+                });
+    }
+
+    /* COMMUNITIES */
+
+    @Override
+    public CompletableFuture<Community> createCommunity(Community community) {
+        return call("Creating top community", "POST", parent.ENDPOINT_URL + COMMUNITIES,
+                Entity.entity(community, MediaType.APPLICATION_JSON), result(Community.class));
+    }
+
+    @Override
+    public CompletableFuture<Community> findCommunityById(Integer communityId, String expand) {
+        return coalesce("findCommunityById/" + communityId + "/" + expand, () -> call("Reading community(id=" + communityId + ")", "GET",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + communityId + addArguments(expand), null, result(Community.class)));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateCommunity(Integer communityId, Community community) {
+        return call("Updating community(id=" + communityId + ")", "PUT", parent.ENDPOINT_URL + COMMUNITIES + "/" + communityId,
+                Entity.entity(community, MediaType.APPLICATION_JSON), status());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCommunity(Integer communityId) {
+        return call("Deleting community(id=" + communityId + ")", "DELETE", parent.ENDPOINT_URL + COMMUNITIES + "/" + communityId,
+                null, status());
+    }
+
+    @Override
+    public CompletableFuture<List<Community>> readAllCommunities(String expand, Integer limit, Integer offset) {
+        return call("Reading communities", "GET", parent.ENDPOINT_URL + COMMUNITIES + addArguments(expand, limit, offset),
+                null, list(Community[].class));
+    }
+
+    @Override
+    public CompletableFuture<List<Community>> readTopCommunities(String expand, Integer limit, Integer offset) {
+        return call("Reading top communities", "GET", parent.ENDPOINT_URL + COMMUNITIES + "/top-communities" + addArguments(expand, limit, offset),
+                null, list(Community[].class));
+    }
+
+    @Override
+    public CompletableFuture<Community> createSubcommunityOfCommunity(Integer parentCommunityId, Community subcommunity) {
+        return call("Creating subcommunity in community(id=" + parentCommunityId + ")", "POST", parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COMMUNITIES,
+                Entity.entity(subcommunity, MediaType.APPLICATION_JSON), result(Community.class));
+    }
+
+    @Override
+    public CompletableFuture<List<Community>> readSubcommunitiesOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) {
+        return call("Reading subcommunities from community(id=" + parentCommunityId + ")", "GET",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COMMUNITIES + addArguments(expand, limit, offset),
+                null, list(Community[].class));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSubcommunityOfCommunity(Integer parentCommunityId, Integer subcommunityId) {
+        return call("Deleting subcommunity(id=" + subcommunityId + ") from community(id=" + parentCommunityId + ")", "DELETE",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COMMUNITIES + "/" + subcommunityId,
+                null, status());
+    }
+
+    @Override
+    public CompletableFuture<List<Collection>> readSubcollectionsOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) {
+        return call("Reading subcollections from community(id=" + parentCommunityId + ")", "GET",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COLLECTIONS + addArguments(expand, limit, offset),
+                null, list(Collection[].class));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteSubcollectionOfCommunity(Integer parentCommunityId, Integer subcollectionId) {
+        return call("Deleting subcollection(id=" + subcollectionId + ") from community(id=" + parentCommunityId + ")", "DELETE",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COLLECTIONS + "/" + subcollectionId,
+                null, status());
+    }
+
+    /* COLLECTIONS */
+
+    @Override
+    public CompletableFuture<Collection> createCollection(Integer parentCommunityId, Collection collection) {
+        return created("findCollectionByName/", Collection::getName, () -> call("Creating collection in community(id=" + parentCommunityId + ")", "POST",
+                parent.ENDPOINT_URL + COMMUNITIES + "/" + parentCommunityId + COLLECTIONS, Entity.entity(collection, MediaType.APPLICATION_JSON), result(Collection.class)));
+    }
+
+    @Override
+    public CompletableFuture<Collection> findCollectionById(Integer collectionId, String expand) {
+        return coalesce("findCollectionById/" + collectionId + "/" + expand, () -> call("Reading collection(id=" + collectionId + ")", "GET",
+                parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId + addArguments(expand), null, result(Collection.class)));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateCollection(Integer collectionId, Collection collection) {
+        return call("Updating collection(id=" + collectionId + ")", "PUT", parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId,
+                Entity.entity(collection, MediaType.APPLICATION_JSON), status())
+                .whenComplete((ignored, ex) -> {
+                    if (parent.negativeCache != null && collection.getName() != null) {
+                        parent.negativeCache.invalidate("findCollectionByName/" + collection.getName());
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCollection(Integer collectionId) {
+        return call("Deleting collection(id=" + collectionId + ")", "DELETE", parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId,
+                null, status());
+    }
+
+    @Override
+    public CompletableFuture<List<Collection>> readAllCollections(String expand, Integer limit, Integer offset) {
+        return call("Reading collections", "GET", parent.ENDPOINT_URL + COLLECTIONS + addArguments(expand, limit, offset),
+                null, list(Collection[].class));
+    }
+
+    @Override
+    public CompletableFuture<Collection> findCollectionByName(String name) {
+        return probe("findCollectionByName/" + name, () -> coalesce("findCollectionByName/" + name, () -> call("Looking for collection(name=" + name + ")", "POST",
+                parent.ENDPOINT_URL + COLLECTIONS + "/find-collection", Entity.entity(name, MediaType.APPLICATION_JSON), resultOrNull(Collection.class))));
+    }
+
+    @Override
+    public CompletableFuture<List<Item>> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset) {
+        String url = parent.ENDPOINT_URL + COLLECTIONS + "/" + parentCollectionId + ITEMS + addArguments(expand, limit, offset);
+        return callValidated("Reading items from collection(id=" + parentCollectionId + ")", url, url, result(Item[].class),
+                CompletableFuture::completedFuture, null)
+                .thenApply(Arrays::asList);
+    }
+
+    /* ITEMS */
+
+    @Override
+    public CompletableFuture<Item> findItemById(final Integer itemId, final boolean includeMetadata, final boolean includeBitstreams) {
+        final String key = "findItemById/" + itemId + "/" + includeMetadata + "/" + includeBitstreams;
+        return probe("findItemById/" + itemId, () -> coalesce(key, () -> callValidated("Looking for item(id=" + itemId + ")", key,
+                parent.ENDPOINT_URL + ITEMS + "/" + itemId + "?expand=parentCollectionList,parentCollection,metadata,bitstreams", resultOrNull(Item.class),
+                item -> {
+                    CompletableFuture<List<MetadataEntry>> metadata = includeMetadata
+                            ? call("Getting metadata for item(id=" + itemId + ")", "GET", parent.ENDPOINT_URL + ITEMS + "/" + itemId + METADATA, null, list(MetadataEntry[].class))
+                            : CompletableFuture.completedFuture(item.getMetadata());
+                    CompletableFuture<List<Bitstream>> bitstreams = includeBitstreams
+                            ? call("Getting bitstreams for item(id=" + itemId + ")", "GET", parent.ENDPOINT_URL + ITEMS + "/" + itemId + BITSTREAMS, null, list(Bitstream[].class))
+                            : CompletableFuture.completedFuture(item.getBitstreams());
+                    return metadata.thenCombine(bitstreams, (metadataEntries, itemBitstreams) -> {
+                        item.setMetadata(metadataEntries);
+                        item.setBitstreams(itemBitstreams);
+                        return item;
+                    });
+                }, Item::getLastModified).thenApply(item -> {
+                    if (item == null) {
+                        log.info("No item was found with id={}.", itemId);
+                    }
+                    return item;
+                })));
+    }
+
+    @Override
+    public CompletableFuture<List<Item>> findItemsByMetadataEntry(MetadataEntry metadataEntry) {
+        return call("Looking for items with metadataEntry(" + metadataEntry.getKey() + "/" + metadataEntry.getValue() + ")", "POST",
+                parent.ENDPOINT_URL + ITEMS + "/find-by-metadata-field" + "?expand=parentCollectionList,parentCollection",
+                Entity.entity(metadataEntry, MediaType.APPLICATION_JSON), list(Item[].class))
+                .thenApply(items -> items.isEmpty() ? null : items);
+    }
+
+    @Override
+    public CompletableFuture<Item> createItem(Integer collectionId, List<MetadataEntry> metadata) {
+        Item item = new Item();
+        item.setMetadata(metadata);
+        return created("findItemById/", Item::getID, () -> call("Creating a new item in collection(id=" + collectionId + ")", "POST",
+                parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId + ITEMS, Entity.entity(item, MediaType.APPLICATION_JSON), result(Item.class)));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateItem(Integer itemId, List<MetadataEntry> metadata) {
+        MetadataEntry[] metadataArray = metadata.toArray(new MetadataEntry[metadata.size()]);
+        return call("Updating an existing item(id=" + itemId + ")", "PUT", parent.ENDPOINT_URL + ITEMS + "/" + itemId + METADATA,
+                Entity.entity(metadataArray, MediaType.APPLICATION_JSON), status());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteItem(Integer itemId) {
+        return call("Deleting an existing item(id=" + itemId + ")", "DELETE", parent.ENDPOINT_URL + ITEMS + "/" + itemId,
+                null, status());
+    }
+
+    @Override
+    public CompletableFuture<List<Item>> readAllItems(String expand, Integer limit, Integer offset) {
+        return call("Reading items", "GET", parent.ENDPOINT_URL + ITEMS + addArguments(expand, limit, offset),
+                null, list(Item[].class));
+    }
+
+    @Override
+    public CompletableFuture<Void> addItemToCollection(Integer itemId, Integer collectionId) {
+        return call("Adding an existing item(id=" + itemId + ") into collection(id=" + collectionId + ")", "POST",
+                parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId + "/addItem/" + itemId,
+                Entity.entity(itemId, MediaType.APPLICATION_JSON), status());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteItemFromCollection(Integer itemId, Integer collectionId) {
+        return call("Deleting an existing item(id=" + itemId + ") from collection(id=" + collectionId + ")", "DELETE",
+                parent.ENDPOINT_URL + COLLECTIONS + "/" + collectionId + ITEMS + "/" + itemId,
+                null, status());
+    }
+
+    /* BITSTREAMS */
+
+    @Override
+    public CompletableFuture<Bitstream> findBitstreamById(Integer bitstreamId) {
+        return probe("findBitstreamById/" + bitstreamId, () -> coalesce("findBitstreamById/" + bitstreamId, () -> call("Looking for bitstream(id=" + bitstreamId + ")", "GET",
+                parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId, null, resultOrNull(Bitstream.class))));
+    }
+
+    @Override
+    public CompletableFuture<Bitstream> addBitstream(Integer itemId, Bitstream bitstream, InputStream is) {
+        UriBuilder uriBuilder = UriBuilder.fromPath(parent.ENDPOINT_URL + ITEMS + "/" + itemId + BITSTREAMS);
+        uriBuilder.queryParam("name", bitstream.getName() != null ? bitstream.getName() : "");
+        uriBuilder.queryParam("description", bitstream.getDescription() != null ? bitstream.getDescription() : "");
+        if (bitstream.getPolicies() != null && bitstream.getPolicies().length > 0) {
+            ResourcePolicy defaultPolicy = bitstream.getPolicies()[0];
+            uriBuilder.queryParam("groupId", defaultPolicy.getGroupId());
+            if (defaultPolicy.getStartDate() != null) {
+                LocalDate startDate = new LocalDate(defaultPolicy.getStartDate());
+                uriBuilder.queryParam("year", startDate.getYear());
+                uriBuilder.queryParam("month", startDate.getMonthOfYear());
+                uriBuilder.queryParam("day", startDate.getDayOfMonth());
+            }
+        }
+        return created("findBitstreamById/", Bitstream::getID, () -> call("Adding bitstream to item(id=" + itemId + ")", "POST", uriBuilder.build().toString(),
+                Entity.entity(is, MediaType.APPLICATION_JSON), result(Bitstream.class)));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateBitstream(final Integer bitstreamId, final Bitstream bitstream, InputStream is) {
+        CompletableFuture<Void> data = is != null
+                ? call("Updating bitstream's(id=" + bitstreamId + ") binary data", "PUT", parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/data",
+                        Entity.entity(is, MediaType.APPLICATION_JSON), status())
+                : CompletableFuture.<Void>completedFuture(null);
+        if (bitstream == null) {
+            return data;
+        }
+        return data.thenCompose(ignored -> call("Updating bitstream's(id=" + bitstreamId + ") metadata", "PUT", parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId,
+                Entity.entity(bitstream, MediaType.APPLICATION_JSON), status()));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBitstream(Integer itemId, Integer bitstreamId) {
+        return call("Deleting an existing bitstream(id=" + bitstreamId + ") in item(id=" + itemId + ")", "DELETE",
+                parent.ENDPOINT_URL + ITEMS + "/" + itemId + BITSTREAMS + "/" + bitstreamId,
+                null, status());
+    }
+
+    @Override
+    public CompletableFuture<List<Bitstream>> readAllBitstreams(String expand, Integer limit, Integer offset) {
+        return call("Reading bitstreams", "GET", parent.ENDPOINT_URL + BITSTREAMS + addArguments(expand, limit, offset),
+                null, list(Bitstream[].class));
+    }
+
+    @Override
+    public CompletableFuture<List<ResourcePolicy>> getBitstreamPolicies(Integer bitstreamId) {
+        return call("Getting all bitstream's(id=" + bitstreamId + ") policies", "GET", parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/policy",
+                null, list(ResourcePolicy[].class));
+    }
+
+    @Override
+    public CompletableFuture<Void> addBitstreamPolicy(Integer bitstreamId, ResourcePolicy policy) {
+        return call("Adding a new policy to bitstream(id=" + bitstreamId + ")", "POST", parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/policy",
+                Entity.entity(policy, MediaType.APPLICATION_JSON), status());
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteBitstreamPolicy(Integer bitstreamId, Integer policyId) {
+        return call("Deleting an existing policy(id=" + policyId + ") from bitstream(id=" + bitstreamId + ")", "DELETE",
+                parent.ENDPOINT_URL + BITSTREAMS + "/" + bitstreamId + "/policy/" + policyId,
+                null, status());
+    }
+}
@@ -0,0 +1,79 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Http engine, which wraps other engine. Subclasses add behaviour around {@link #invoke(ClientInvocation)},
+ * which is the single place every request of RESTEasy client (synchronous or asynchronous) passes through,
+ * and around {@link #submit(ClientInvocation)}, which is used by asynchronous client over non-blocking transport.
+ */
+public abstract class DelegatingClientHttpEngine implements AsyncClientHttpEngine {
+
+    protected final ClientHttpEngine delegate;
+
+    public DelegatingClientHttpEngine(ClientHttpEngine delegate) {
+        this.delegate = delegate;
+    }
+
+    public ClientHttpEngine getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return delegate.getSslContext();
+    }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier() {
+        return delegate.getHostnameVerifier();
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        return delegate.invoke(invocation);
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(ClientInvocation invocation) {
+        return submit(delegate, invocation);
+    }
+
+    /**
+     * @return Returns true, if chain of engines ends by engine, which executes requests without blocking threads.
+     */
+    protected static boolean isNonBlocking(ClientHttpEngine engine) {
+        while (engine instanceof DelegatingClientHttpEngine) {
+            engine = ((DelegatingClientHttpEngine) engine).getDelegate();
+        }
+        return engine instanceof AsyncClientHttpEngine;
+    }
+
+    /**
+     * Submits request to given engine. Blocking engine executes the request in calling thread.
+     */
+    protected static CompletableFuture<ClientResponse> submit(ClientHttpEngine engine, ClientInvocation invocation) {
+        if (engine instanceof AsyncClientHttpEngine) {
+            return ((AsyncClientHttpEngine) engine).submit(invocation);
+        }
+        CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+        try {
+            future.complete(engine.invoke(invocation));
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,229 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.*;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+import cz.cvut.dspace.rest.client.RetryPolicy;
+
+/**
+ * Client, which wraps other client. Subclasses add behaviour around single calls, all other calls are passed
+ * to the wrapped client. Views created by {@link #withDeadline(long, TimeUnit)} and
+ * {@link #withRetryPolicy(RetryPolicy)} are wrapped by {@link #wrap(DSpaceRESTClient)}, so they keep the behaviour.
+ */
+public abstract class DelegatingDSpaceRESTClient implements DSpaceRESTClient {
+
+    protected final DSpaceRESTClient delegate;
+
+    public DelegatingDSpaceRESTClient(DSpaceRESTClient delegate) {
+        this.delegate = delegate;
+    }
+
+    public DSpaceRESTClient getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Wraps view of wrapped client the same way as this client wraps it.
+     *
+     * @param view View of wrapped client, e.g. with deadline.
+     * @return Returns wrapped view.
+     */
+    protected abstract DSpaceRESTClient wrap(DSpaceRESTClient view);
+
+    @Override
+    public String login() throws ProcessingException, WebApplicationException {
+        return delegate.login();
+    }
+
+    @Override
+    public DSpaceRESTClient withDeadline(long timeout, TimeUnit unit) {
+        return wrap(delegate.withDeadline(timeout, unit));
+    }
+
+    @Override
+    public DSpaceRESTClient withRetryPolicy(RetryPolicy policy) {
+        return wrap(delegate.withRetryPolicy(policy));
+    }
+
+    @Override
+    public void logout() throws ProcessingException, WebApplicationException {
+        delegate.logout();
+    }
+
+    @Override
+    public Community createCommunity(Community community) throws ProcessingException, WebApplicationException {
+        return delegate.createCommunity(community);
+    }
+
+    @Override
+    public Community findCommunityById(Integer communityId, String expand) throws ProcessingException, WebApplicationException {
+        return delegate.findCommunityById(communityId, expand);
+    }
+
+    @Override
+    public void updateCommunity(Integer communityId, Community community) throws ProcessingException, WebApplicationException {
+        delegate.updateCommunity(communityId, community);
+    }
+
+    @Override
+    public void deleteCommunity(Integer communityId) throws ProcessingException, WebApplicationException {
+        delegate.deleteCommunity(communityId);
+    }
+
+    @Override
+    public List<Community> readAllCommunities(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readAllCommunities(expand, limit, offset);
+    }
+
+    @Override
+    public List<Community> readTopCommunities(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readTopCommunities(expand, limit, offset);
+    }
+
+    @Override
+    public Community createSubcommunityOfCommunity(Integer parentCommunityId, Community subcommunity) throws ProcessingException, WebApplicationException {
+        return delegate.createSubcommunityOfCommunity(parentCommunityId, subcommunity);
+    }
+
+    @Override
+    public List<Community> readSubcommunitiesOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readSubcommunitiesOfCommunity(parentCommunityId, expand, limit, offset);
+    }
+
+    @Override
+    public void deleteSubcommunityOfCommunity(Integer parentCommunityId, Integer subcommunityId) throws ProcessingException, WebApplicationException {
+        delegate.deleteSubcommunityOfCommunity(parentCommunityId, subcommunityId);
+    }
+
+    @Override
+    public List<Collection> readSubcollectionsOfCommunity(Integer parentCommunityId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readSubcollectionsOfCommunity(parentCommunityId, expand, limit, offset);
+    }
+
+    @Override
+    public void deleteSubcollectionOfCommunity(Integer parentCommunityId, Integer subcollectionId) throws ProcessingException, WebApplicationException {
+        delegate.deleteSubcollectionOfCommunity(parentCommunityId, subcollectionId);
+    }
+
+    @Override
+    public Collection createCollection(Integer parentCommunityId, Collection collection) throws ProcessingException, WebApplicationException {
+        return delegate.createCollection(parentCommunityId, collection);
+    }
+
+    @Override
+    public Collection findCollectionById(Integer collectionId, String expand) throws ProcessingException, WebApplicationException {
+        return delegate.findCollectionById(collectionId, expand);
+    }
+
+    @Override
+    public void updateCollection(Integer collectionId, Collection collection) throws ProcessingException, WebApplicationException {
+        delegate.updateCollection(collectionId, collection);
+    }
+
+    @Override
+    public void deleteCollection(Integer collectionId) throws ProcessingException, WebApplicationException {
+        delegate.deleteCollection(collectionId);
+    }
+
+    @Override
+    public List<Collection> readAllCollections(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readAllCollections(expand, limit, offset);
+    }
+
+    @Override
+    public Collection findCollectionByName(String name) throws ProcessingException, WebApplicationException {
+        return delegate.findCollectionByName(name);
+    }
+
+    @Override
+    public List<Item> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readCollectionItems(parentCollectionId, expand, limit, offset);
+    }
+
+    @Override
+    public Item findItemById(Integer dspaceId, boolean includeMetadata, boolean includeBitstreams) throws ProcessingException, WebApplicationException {
+        return delegate.findItemById(dspaceId, includeMetadata, includeBitstreams);
+    }
+
+    @Override
+    public List<Item> findItemsByMetadataEntry(MetadataEntry metadataEntry) throws ProcessingException, WebApplicationException {
+        return delegate.findItemsByMetadataEntry(metadataEntry);
+    }
+
+    @Override
+    public Item createItem(Integer collectionId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        return delegate.createItem(collectionId, metadata);
+    }
+
+    @Override
+    public void updateItem(Integer itemId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        delegate.updateItem(itemId, metadata);
+    }
+
+    @Override
+    public void deleteItem(Integer itemId) throws ProcessingException, WebApplicationException {
+        delegate.deleteItem(itemId);
+    }
+
+    @Override
+    public List<Item> readAllItems(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readAllItems(expand, limit, offset);
+    }
+
+    @Override
+    public void addItemToCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        delegate.addItemToCollection(itemId, collectionId);
+    }
+
+    @Override
+    public void deleteItemFromCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        delegate.deleteItemFromCollection(itemId, collectionId);
+    }
+
+    @Override
+    public Bitstream findBitstreamById(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return delegate.findBitstreamById(bitstreamId);
+    }
+
+    @Override
+    public Bitstream addBitstream(Integer itemId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        return delegate.addBitstream(itemId, bitstream, is);
+    }
+
+    @Override
+    public void updateBitstream(Integer bitstreamId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        delegate.updateBitstream(bitstreamId, bitstream, is);
+    }
+
+    @Override
+    public void deleteBitstream(Integer itemId, Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        delegate.deleteBitstream(itemId, bitstreamId);
+    }
+
+    @Override
+    public List<Bitstream> readAllBitstreams(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        return delegate.readAllBitstreams(expand, limit, offset);
+    }
+
+    @Override
+    public List<ResourcePolicy> getBitstreamPolicies(Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        return delegate.getBitstreamPolicies(bitstreamId);
+    }
+
+    @Override
+    public void addBitstreamPolicy(Integer bitstreamId, ResourcePolicy policy) throws ProcessingException, WebApplicationException {
+        delegate.addBitstreamPolicy(bitstreamId, policy);
+    }
+
+    @Override
+    public void deleteBitstreamPolicy(Integer bitstreamId, Integer policyId) throws ProcessingException, WebApplicationException {
+        delegate.deleteBitstreamPolicy(bitstreamId, policyId);
+    }
+}
@@ -0,0 +1,229 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Http engine, which hedges reads (GET): when the response does not come within delay given by {@link HedgingPolicy},
+ * the same request is sent once more and the response, which comes first, is returned. The other request is aborted,
+ * so it releases its connection. Only lookups of single object by id (e.g. items/{id}) of opted-in groups of operations
+ * are hedged, so listings and bitstream data are never sent twice.
+ * <p>
+ * Engine wraps transport directly, so the outer engines (limits, circuit breaker, deadline) see hedged read
+ * as one request. Non-blocking transports execute both requests by futures. Blocking transports execute
+ * the original request in calling thread and the hedge in thread of hedging executor; requests are aborted
+ * by forks of deadline of call (see {@link Deadline#fork()}).
+ */
+public class HedgingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dspace-hedge-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final AtomicInteger threads = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dspace-hedge-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HedgingPolicy policy;
+    private final Set<String> groups;
+    private final String basePath;
+
+    /**
+     * @param groups      Groups of operations (e.g. "items"), whose lookups are hedged.
+     * @param endpointURL Endpoint of DSpace, paths of groups are relative to it.
+     */
+    public HedgingClientHttpEngine(ClientHttpEngine delegate, HedgingPolicy policy, Set<String> groups, String endpointURL) {
+        super(delegate);
+        this.policy = policy;
+        this.groups = groups;
+        this.basePath = CircuitBreakingClientHttpEngine.basePath(endpointURL);
+    }
+
+    /**
+     * @return Returns true, if request is lookup of single object (GET {group}/{id}) of hedged group.
+     */
+    private boolean isHedged(ClientInvocation invocation) {
+        if (!"GET".equals(invocation.getMethod())) {
+            return false;
+        }
+        String group = CircuitBreakingClientHttpEngine.group(basePath, invocation);
+        if (group == null || !groups.contains(group)) {
+            return false;
+        }
+        String path = invocation.getUri().getPath();
+        int id = basePath.length() + group.length() + 2;
+        return path.length() > id && path.indexOf('/', id) < 0;
+    }
+
+    @Override
+    public ClientResponse invoke(final ClientInvocation invocation) {
+        if (!isHedged(invocation)) {
+            return delegate.invoke(invocation);
+        }
+        if (isNonBlocking(delegate)) {
+            return TokenManager.join(submit(invocation));
+        }
+        final long delay = policy.start();
+        final Deadline deadline = Deadline.current();
+        final Race race = new Race();
+        ScheduledFuture<?> trigger = null;
+        if (delay >= 0) {
+            trigger = timer.schedule(() -> {
+                if (!race.result.isDone() && policy.tryHedge()) {
+                    executor.execute(() -> invokeBlocking(invocation, deadline, race, true));
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+        }
+        invokeBlocking(invocation, deadline, race, false);
+        if (trigger != null) {
+            trigger.cancel(false);
+        }
+        return TokenManager.join(race.result);
+    }
+
+    private void invokeBlocking(ClientInvocation invocation, Deadline deadline, Race race, boolean hedge) {
+        Deadline attempt = deadline != null ? deadline.fork() : Deadline.unbounded();
+        Runnable abort = attempt::cancel;
+        if (!race.start(abort)) {
+            return;
+        }
+        ClientResponse response = null;
+        Throwable failure = null;
+        try {
+            response = attempt.call(() -> delegate.invoke(invocation));
+        } catch (Throwable ex) {
+            failure = ex;
+        }
+        if (response != null) {
+            // Transport aborts the request by the fork, so it stays open until the entity is read or closed.
+            response = new CompletingClientResponse(invocation.getClientConfiguration(), response, attempt::close);
+        } else {
+            attempt.close();
+        }
+        race.finish(response, failure, hedge, abort);
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        if (!isHedged(invocation) || !isNonBlocking(delegate)) {
+            return submit(delegate, invocation);
+        }
+        final long delay = policy.start();
+        final Race race = new Race();
+        submitAttempt(invocation, race, false);
+        if (delay >= 0) {
+            final ScheduledFuture<?> trigger = timer.schedule(() -> {
+                if (!race.result.isDone() && policy.tryHedge()) {
+                    submitAttempt(invocation, race, true);
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+            race.result.whenComplete((response, ex) -> trigger.cancel(false));
+        }
+        return race.result;
+    }
+
+    private void submitAttempt(ClientInvocation invocation, final Race race, final boolean hedge) {
+        final CompletableFuture<ClientResponse> future = submit(delegate, invocation);
+        final Runnable abort = () -> future.cancel(true);
+        if (race.start(abort)) {
+            future.whenComplete((response, ex) -> race.finish(response, ex, hedge, abort));
+        } else {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Concurrent requests of one read. The first response wins and the other requests are aborted. Failure is
+     * returned only when all started requests fail.
+     */
+    private class Race {
+
+        final CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+        private final long start = System.nanoTime();
+        private final List<Runnable> aborts = new ArrayList<>();
+        private int running;
+        private Throwable failure;
+
+        Race() {
+            // Cancellation of read (e.g. by its deadline) aborts all its requests.
+            result.whenComplete((response, ex) -> {
+                if (result.isCancelled()) {
+                    abortAll();
+                }
+            });
+        }
+
+        /**
+         * @return Returns false, if the read is already finished and the request must not be sent.
+         */
+        synchronized boolean start(Runnable abort) {
+            if (result.isDone()) {
+                return false;
+            }
+            running++;
+            aborts.add(abort);
+            return true;
+        }
+
+        /**
+         * Finishes request started with given abort action. Winner is not aborted, the other requests are.
+         * Latency of read is measured from start of the original request, so when hedge wins, aborted original
+         * request is recorded by its time so far, which is lower bound of its latency.
+         */
+        void finish(ClientResponse response, Throwable ex, boolean hedge, Runnable abort) {
+            if (ex == null) {
+                if (result.complete(response)) {
+                    policy.record(System.nanoTime() - start, hedge);
+                    synchronized (this) {
+                        aborts.remove(abort);
+                    }
+                    abortAll();
+                } else {
+                    response.close();
+                }
+                return;
+            }
+            Throwable last = null;
+            synchronized (this) {
+                running--;
+                if (failure == null) {
+                    failure = ex;
+                }
+                if (running == 0) {
+                    last = failure;
+                }
+            }
+            if (last != null) {
+                result.completeExceptionally(last);
+            }
+        }
+
+        private void abortAll() {
+            List<Runnable> actions;
+            synchronized (this) {
+                actions = new ArrayList<>(aborts);
+                aborts.clear();
+            }
+            for (Runnable abort : actions) {
+                abort.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Policy and statistics of hedged reads shared by all requests of client. Read is hedged, when it is slower than
+ * the given percentile of latencies of reads seen so far (but at least min delay), and when budget allows it.
+ * Budget grows by a share of every read, so hedges make at most that share of reads and can not double the load.
+ */
+public class HedgingPolicy {
+
+    /** Count of reads, which must be seen, before the percentile is trusted and reads are hedged. */
+    static final int MIN_SAMPLES = 20;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final RetryBudget budget;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder won = new LongAdder();
+
+    /**
+     * @param percentile    Percentile of latency of reads, after which read is hedged, e.g. 95.
+     * @param minDelayMillis Lower bound of delay before hedge in milliseconds.
+     * @param budgetRatio   Max ratio of hedges to reads, e.g. 0.1.
+     */
+    public HedgingPolicy(double percentile, long minDelayMillis, double budgetRatio) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("Invalid percentile " + percentile + ".");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.budget = new RetryBudget(budgetRatio, 10);
+    }
+
+    /**
+     * Registers new read.
+     *
+     * @return Returns delay, after which the read should be hedged, in nanoseconds, or -1, if it should not be hedged.
+     */
+    long start() {
+        budget.deposit();
+        if (latencies.getCount() < MIN_SAMPLES) {
+            return -1;
+        }
+        return Math.max(minDelayNanos, TimeUnit.MICROSECONDS.toNanos((long) (latencies.getPercentileMillis(percentile) * 1000)));
+    }
+
+    /**
+     * Withdraws hedge from budget.
+     *
+     * @return Returns false, if the budget is spent.
+     */
+    boolean tryHedge() {
+        if (!budget.tryWithdraw()) {
+            return false;
+        }
+        hedged.increment();
+        return true;
+    }
+
+    /**
+     * Records latency of original request of read. When hedge finished first, the original request is aborted
+     * and its latency so far is recorded, so slow reads keep the percentile high.
+     */
+    void record(long latencyNanos, boolean hedge) {
+        latencies.record(latencyNanos);
+        if (hedge) {
+            won.increment();
+        }
+    }
+
+    /**
+     * @return Returns count of hedges sent.
+     */
+    public long getHedged() {
+        return hedged.sum();
+    }
+
+    /**
+     * @return Returns count of hedges, which answered before the original request.
+     */
+    public long getWon() {
+        return won.sum();
+    }
+
+    /**
+     * @return Returns current delay before hedge in milliseconds or -1, if too few reads were seen.
+     */
+    public double getDelayMillis() {
+        return latencies.getCount() < MIN_SAMPLES ? -1 : Math.max(TimeUnit.NANOSECONDS.toMillis(minDelayNanos), latencies.getPercentileMillis(percentile));
+    }
+}
@@ -0,0 +1,305 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.DSpaceObject;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+
+/**
+ * Immutable snapshot of the whole tree of communities and collections. Snapshot is loaded by reading children
+ * of every community; children of different communities are read in parallel. Refresh reads again only children
+ * of communities, which are known to be changed, and of communities new in the tree, the rest of the tree
+ * is taken from the previous snapshot.
+ * <p>
+ * Refresh does not detect changes itself: communities of DSpace rest api have neither date of last modification
+ * nor counts of their children, so finding changed communities would cost as many requests as a new load.
+ * Callers supply ids of changed communities, e.g. parents of subcommunities and collections, which they created,
+ * moved or deleted. Changes made by others are not seen until the next {@link #load(DSpaceRESTClient, Executor)}.
+ * <p>
+ * Communities and collections are the objects returned by client, so callers must not modify them.
+ */
+public class HierarchySnapshot {
+
+    /** Count of children read by one request. */
+    static final int PAGE_SIZE = 100;
+
+    private final List<Integer> top;
+    private final Map<Integer, Community> communities;
+    private final Map<Integer, Collection> collections;
+    private final Map<Integer, Integer> parents;
+    private final Map<Integer, List<Integer>> subcommunities;
+    private final Map<Integer, List<Integer>> subcollections;
+    private final Map<Integer, List<Integer>> collectionParents;
+
+    private HierarchySnapshot(Loader loader) {
+        this.top = loader.top;
+        this.communities = Collections.unmodifiableMap(new HashMap<>(loader.communities));
+        this.collections = Collections.unmodifiableMap(new HashMap<>(loader.collections));
+        this.parents = Collections.unmodifiableMap(new HashMap<>(loader.parents));
+        this.subcommunities = Collections.unmodifiableMap(new HashMap<>(loader.subcommunities));
+        this.subcollections = Collections.unmodifiableMap(new HashMap<>(loader.subcollections));
+        Map<Integer, List<Integer>> collectionParents = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : subcollections.entrySet()) {
+            for (Integer collectionId : entry.getValue()) {
+                collectionParents.computeIfAbsent(collectionId, id -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        this.collectionParents = Collections.unmodifiableMap(collectionParents);
+    }
+
+    /**
+     * Loads snapshot of the whole tree.
+     *
+     * @param client   Client, which reads communities and collections. Reads of {@link CachingDSpaceRESTClient}
+     *                 are served from its cache.
+     * @param executor Executor of reads, its count of threads limits count of parallel reads.
+     * @return Returns new snapshot.
+     */
+    public static HierarchySnapshot load(DSpaceRESTClient client, Executor executor) {
+        return new Loader(client, executor, null, Collections.<Integer>emptySet()).load();
+    }
+
+    /**
+     * Loads new snapshot, which reads again children of changed communities and of communities, which are not
+     * in this snapshot. Top communities are always read again. Children of communities missing in changedCommunities
+     * are taken from this snapshot, even if they were changed in DSpace meanwhile.
+     *
+     * @param client             Client, which reads communities and collections.
+     * @param executor           Executor of reads.
+     * @param changedCommunities Ids of communities, whose subcommunities or collections were changed. Caller must
+     *                           supply them, they are not detected.
+     * @return Returns new snapshot.
+     */
+    public HierarchySnapshot refresh(DSpaceRESTClient client, Executor executor, java.util.Collection<Integer> changedCommunities) {
+        return new Loader(client, executor, this, new LinkedHashSet<>(changedCommunities)).load();
+    }
+
+    public List<Community> getTopCommunities() {
+        return communities(top);
+    }
+
+    public Community getCommunity(Integer communityId) {
+        return communities.get(communityId);
+    }
+
+    public Collection getCollection(Integer collectionId) {
+        return collections.get(collectionId);
+    }
+
+    public List<Community> getSubcommunities(Integer communityId) {
+        return communities(subcommunities.getOrDefault(communityId, Collections.<Integer>emptyList()));
+    }
+
+    public List<Collection> getCollections(Integer communityId) {
+        List<Collection> result = new ArrayList<>();
+        for (Integer collectionId : subcollections.getOrDefault(communityId, Collections.<Integer>emptyList())) {
+            result.add(collections.get(collectionId));
+        }
+        return result;
+    }
+
+    /**
+     * @return Returns parent community or null for top community or community, which is not in snapshot.
+     */
+    public Community getParentCommunity(Integer communityId) {
+        Integer parentId = parents.get(communityId);
+        return parentId != null ? communities.get(parentId) : null;
+    }
+
+    /**
+     * @return Returns communities, which contain collection directly.
+     */
+    public List<Community> getParentCommunities(Integer collectionId) {
+        return communities(collectionParents.getOrDefault(collectionId, Collections.<Integer>emptyList()));
+    }
+
+    /**
+     * @return Returns path from top community to given community (both included) or empty list, if community
+     *         is not in snapshot.
+     */
+    public List<Community> getPath(Integer communityId) {
+        List<Community> path = new ArrayList<>();
+        for (Integer id = communityId; id != null && communities.containsKey(id); id = parents.get(id)) {
+            path.add(communities.get(id));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * @return Returns path from top community to the first community, which contains collection directly,
+     *         or empty list, if collection is not in snapshot.
+     */
+    public List<Community> getCollectionPath(Integer collectionId) {
+        List<Integer> parentIds = collectionParents.get(collectionId);
+        return parentIds != null ? getPath(parentIds.get(0)) : Collections.<Community>emptyList();
+    }
+
+    /**
+     * @return Returns true, if the first community contains the second one at any depth.
+     */
+    public boolean isAncestor(Integer ancestorId, Integer communityId) {
+        for (Integer id = parents.get(communityId); id != null; id = parents.get(id)) {
+            if (id.equals(ancestorId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Returns all communities under given community in depth-first order.
+     */
+    public List<Community> getDescendants(Integer communityId) {
+        List<Community> result = new ArrayList<>();
+        for (Integer id : descendantIds(communityId)) {
+            result.add(communities.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * @return Returns all collections under given community (at any depth), every collection once.
+     */
+    public List<Collection> getDescendantCollections(Integer communityId) {
+        Set<Integer> ids = new LinkedHashSet<>(subcollections.getOrDefault(communityId, Collections.<Integer>emptyList()));
+        for (Integer id : descendantIds(communityId)) {
+            ids.addAll(subcollections.getOrDefault(id, Collections.<Integer>emptyList()));
+        }
+        List<Collection> result = new ArrayList<>();
+        for (Integer id : ids) {
+            result.add(collections.get(id));
+        }
+        return result;
+    }
+
+    private List<Integer> descendantIds(Integer communityId) {
+        List<Integer> result = new ArrayList<>();
+        for (Integer child : subcommunities.getOrDefault(communityId, Collections.<Integer>emptyList())) {
+            result.add(child);
+            result.addAll(descendantIds(child));
+        }
+        return result;
+    }
+
+    private List<Community> communities(List<Integer> ids) {
+        List<Community> result = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            result.add(communities.get(id));
+        }
+        return result;
+    }
+
+    public int getCommunityCount() {
+        return communities.size();
+    }
+
+    public int getCollectionCount() {
+        return collections.size();
+    }
+
+    /**
+     * Loads children of communities in parallel. Children of unchanged communities are taken from previous snapshot.
+     */
+    private static class Loader {
+
+        private final DSpaceRESTClient client;
+        private final Executor executor;
+        private final HierarchySnapshot previous;
+        private final Set<Integer> changed;
+
+        private List<Integer> top;
+        private final Map<Integer, Community> communities = new ConcurrentHashMap<>();
+        private final Map<Integer, Collection> collections = new ConcurrentHashMap<>();
+        private final Map<Integer, Integer> parents = new ConcurrentHashMap<>();
+        private final Map<Integer, List<Integer>> subcommunities = new ConcurrentHashMap<>();
+        private final Map<Integer, List<Integer>> subcollections = new ConcurrentHashMap<>();
+
+        Loader(DSpaceRESTClient client, Executor executor, HierarchySnapshot previous, Set<Integer> changed) {
+            this.client = client;
+            this.executor = executor;
+            this.previous = previous;
+            this.changed = changed;
+        }
+
+        HierarchySnapshot load() {
+            List<Community> topCommunities = pages(offset -> client.readTopCommunities("", PAGE_SIZE, offset));
+            top = ids(topCommunities);
+            List<CompletableFuture<Void>> children = new ArrayList<>();
+            for (Community community : topCommunities) {
+                if (communities.putIfAbsent(community.getID(), community) == null) {
+                    children.add(children(community.getID()));
+                }
+            }
+            TokenManager.join(CompletableFuture.allOf(children.toArray(new CompletableFuture<?>[children.size()])));
+            return new HierarchySnapshot(this);
+        }
+
+        private CompletableFuture<Void> children(final Integer communityId) {
+            if (previous != null && !changed.contains(communityId) && previous.subcommunities.containsKey(communityId)) {
+                // Unchanged branch, only its changed descendants are read.
+                subcollections.put(communityId, previous.subcollections.get(communityId));
+                for (Integer collectionId : previous.subcollections.get(communityId)) {
+                    collections.put(collectionId, previous.collections.get(collectionId));
+                }
+                return subcommunities(communityId, previous.getSubcommunities(communityId));
+            }
+            CompletableFuture<Void> readCollections = CompletableFuture.runAsync(() -> {
+                List<Collection> list = pages(offset -> client.readSubcollectionsOfCommunity(communityId, "", PAGE_SIZE, offset));
+                for (Collection collection : list) {
+                    collections.put(collection.getID(), collection);
+                }
+                subcollections.put(communityId, ids(list));
+            }, executor);
+            CompletableFuture<Void> readCommunities = CompletableFuture.supplyAsync(
+                    () -> pages(offset -> client.readSubcommunitiesOfCommunity(communityId, "", PAGE_SIZE, offset)), executor)
+                    .thenCompose(list -> subcommunities(communityId, list));
+            return CompletableFuture.allOf(readCollections, readCommunities);
+        }
+
+        private CompletableFuture<Void> subcommunities(Integer communityId, List<Community> list) {
+            subcommunities.put(communityId, ids(list));
+            List<CompletableFuture<Void>> children = new ArrayList<>();
+            for (Community subcommunity : list) {
+                // Guard against cycles in inconsistent data.
+                if (communities.putIfAbsent(subcommunity.getID(), subcommunity) == null) {
+                    parents.put(subcommunity.getID(), communityId);
+                    children.add(children(subcommunity.getID()));
+                }
+            }
+            return CompletableFuture.allOf(children.toArray(new CompletableFuture<?>[children.size()]));
+        }
+
+        private static <T> List<T> pages(Function<Integer, List<T>> page) {
+            List<T> result = new ArrayList<>();
+            for (int offset = 0; ; offset += PAGE_SIZE) {
+                List<T> list = page.apply(offset);
+                result.addAll(list);
+                if (list.size() < PAGE_SIZE) {
+                    return result;
+                }
+            }
+        }
+
+        private static List<Integer> ids(List<? extends DSpaceObject> objects) {
+            List<Integer> ids = new ArrayList<>(objects.size());
+            for (DSpaceObject object : objects) {
+                ids.add(object.getID());
+            }
+            return Collections.unmodifiableList(ids);
+        }
+    }
+}
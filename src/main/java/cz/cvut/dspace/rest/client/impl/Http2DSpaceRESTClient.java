@@ -0,0 +1,113 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.plugins.providers.jackson.ResteasyJacksonProvider;
+
+import cz.cvut.dspace.rest.client.Configuration;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Implementation of DSpace rest client over HTTP/2 (OkHttp). Concurrent requests are multiplexed as streams
+ * over one connection instead of leasing a connection per request.
+ * <p>
+ * Endpoint with https scheme negotiates HTTP/2 by ALPN and falls back to HTTP/1.1 (ALPN needs Java 8u252
+ * or newer). OkHttp does not upgrade cleartext connections, so endpoint with http scheme is spoken to
+ * by HTTP/1.1, unless {@link Configuration#getHttp2PriorKnowledge()} declares, that it speaks cleartext
+ * HTTP/2 (h2c) with prior knowledge, as reverse proxies often do on internal network.
+ * <p>
+ * {@link Configuration#getMaxTotal()} and {@link Configuration#getMaxPerRoute()} limit count of concurrent
+ * requests (streams) here, not count of connections. Limits not configured default to
+ * {@link #DEFAULT_MAX_REQUESTS} instead of defaults of OkHttp (64 requests, 5 per host), which would
+ * cap multiplexing over the single connection to DSpace.
+ */
+public class Http2DSpaceRESTClient extends AbstractDSpaceRESTClient {
+
+    public static final int DEFAULT_MAX_REQUESTS = 256;
+
+    private OkHttpClient httpClient;
+    private OkHttpClientEngine engine;
+
+    public Http2DSpaceRESTClient(Configuration configuration) {
+        super(configuration);
+    }
+
+    @Override
+    public void create() {
+        // Add jackson provider to builder
+        ResteasyJacksonProvider resteasyJacksonProvider = new ResteasyJacksonProvider();
+        ResteasyClientBuilder builder = clientBuilder().register(resteasyJacksonProvider);
+
+        // Create SSL context trusting all certs
+        X509TrustManager trustManager = new X509TrustManager() {
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        };
+        SSLContext sslContext;
+        try {
+            sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] { trustManager }, null);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to create SSL context.", ex);
+        }
+
+        // Limit concurrent requests instead of connections
+        Integer maxTotal = configuration.getMaxTotal();
+        Integer maxPerRoute = configuration.getMaxPerRoute();
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxTotal != null ? maxTotal : DEFAULT_MAX_REQUESTS);
+        dispatcher.setMaxRequestsPerHost(maxPerRoute != null ? maxPerRoute : DEFAULT_MAX_REQUESTS);
+
+        // Create rest client
+        Integer connectTimeout = configuration.getConnectTimeout();
+        Integer socketTimeout = configuration.getSocketTimeout();
+        httpClient = new OkHttpClient.Builder()
+                .protocols(Boolean.TRUE.equals(configuration.getHttp2PriorKnowledge()) && !ENDPOINT_URL.startsWith("https:")
+                        ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                        : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool())
+                .sslSocketFactory(sslContext.getSocketFactory(), trustManager)
+                .hostnameVerifier((hostname, session) -> true)
+                .connectTimeout(connectTimeout != null ? connectTimeout : ManagedConnectionPool.DEFAULT_CONNECT_TIMEOUT, TimeUnit.SECONDS)
+                .readTimeout(socketTimeout != null ? socketTimeout : 0, TimeUnit.SECONDS)
+                .writeTimeout(socketTimeout != null ? socketTimeout : 0, TimeUnit.SECONDS)
+                .build();
+        engine = new OkHttpClientEngine(httpClient);
+        engine.setSslContext(sslContext);
+        client = builder.httpEngine(engine).build();
+        startCircuitBreakers();
+        startTokenRefresh();
+    }
+
+    @Override
+    protected boolean isNonBlocking() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        stopTokenRefresh();
+        stopCircuitBreakers();
+        engine.close();
+    }
+}
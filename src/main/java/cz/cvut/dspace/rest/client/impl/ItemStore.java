@@ -0,0 +1,711 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.CheckSum;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.DSpaceObject;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent store of items with their metadata in local directory, so restarted process does not need to read
+ * all items from DSpace again. Items are appended in compact binary form to segment files, only index of their
+ * positions is kept in memory and items are decoded on every read, so callers get their own copies.
+ * <p>
+ * Every segment starts with magic number and version of format, segments of other versions are discarded. Every record
+ * has its length and CRC32 checksum, damaged record (e.g. torn write of crashed process) and the rest of its segment
+ * are dropped when store is opened. Newer record of item (update or removal) supersedes older ones, segments are
+ * compacted, when most of their records are superseded.
+ * <p>
+ * Bitstreams of items are stored without their parent object and policies, which are not expanded in items.
+ * Store is safe for use by more threads, but not by more processes.
+ */
+public class ItemStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemStore.class);
+
+    /** Magic number at the beginning of every segment. */
+    static final int MAGIC = 0x44534953;
+    /** Version of format of records, it has to be incremented by every change of encoding. */
+    static final int FORMAT_VERSION = 2;
+    /** Size of header of segment (magic number and version). */
+    static final int SEGMENT_HEADER = 8;
+    /** Size of header of record (length of payload and its checksum). */
+    static final int RECORD_HEADER = 8;
+    /** Default size, after which new segment is started. */
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final byte ITEM = 1;
+    private static final byte REMOVAL = 2;
+    private static final String SUFFIX = ".segment";
+
+    private final File directory;
+    private final long segmentSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Segments by their number. */
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<Integer, Location> index = new HashMap<>();
+    private Segment active;
+    private long sequence;
+    private long liveBytes;
+    private long totalBytes;
+    private boolean closed;
+
+    private int damagedRecords;
+    private int discardedSegments;
+    private int compactions;
+
+    /**
+     * Opens store with default size of segments.
+     *
+     * @param directory Directory of store, it is created, if it does not exist.
+     */
+    public ItemStore(File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Opens store and reads index of all its items.
+     *
+     * @param directory   Directory of store, it is created, if it does not exist.
+     * @param segmentSize Size of segment in bytes, after which new segment is started.
+     */
+    public ItemStore(File directory, long segmentSize) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Directory " + directory + " can not be created.");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        long start = System.nanoTime();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        for (File file : files != null ? files : new File[0]) {
+            try {
+                segments.put(Integer.valueOf(file.getName().substring(0, file.getName().length() - SUFFIX.length())), null);
+            } catch (NumberFormatException ex) {
+                log.warn("Unknown file {} in item store is ignored.", file);
+            }
+        }
+        for (Integer number : new ArrayList<>(segments.keySet())) {
+            Segment segment = load(number);
+            if (segment != null) {
+                segments.put(number, segment);
+            } else {
+                segments.remove(number);
+            }
+        }
+        for (Location location : index.values()) {
+            liveBytes += location.length;
+        }
+        // New items are appended to the last segment, its damaged end was cut off already.
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        log.info("Item store {} was opened, it has {} items in {} segments, loading took {} ms.", new Object[] { directory, index.size(),
+                segments.size(), (System.nanoTime() - start) / 1000000 });
+        if (totalBytes > segmentSize && liveBytes * 2 < totalBytes) {
+            compact();
+        }
+    }
+
+    /**
+     * Reads records of segment into index. Damaged end of segment is cut off.
+     *
+     * @return Returns segment or null, if it was discarded.
+     */
+    private Segment load(int number) throws IOException {
+        File file = segmentFile(number);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+        if (read(channel, header, 0) < SEGMENT_HEADER || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+            log.warn("Segment {} of item store has unknown format or version, it is discarded.", file);
+            channel.close();
+            delete(file);
+            discardedSegments++;
+            return null;
+        }
+        Segment segment = new Segment(number, file, channel);
+        long size = channel.size();
+        long position = SEGMENT_HEADER;
+        ByteBuffer recordHeader = ByteBuffer.allocate(RECORD_HEADER);
+        while (position < size) {
+            recordHeader.clear();
+            int length = -1;
+            if (read(channel, recordHeader, position) == RECORD_HEADER) {
+                length = recordHeader.getInt(0);
+            }
+            byte[] payload = length > 0 && position + RECORD_HEADER + length <= size ? readPayload(channel, position, length) : null;
+            if (payload == null || checksum(payload) != recordHeader.getInt(4)) {
+                log.warn("Segment {} of item store has damaged record at position {}, the rest of segment ({} bytes) is dropped.",
+                        new Object[] { file, position, size - position });
+                damagedRecords++;
+                channel.truncate(position);
+                break;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            byte kind = in.readByte();
+            long recordSequence = in.readLong();
+            Integer id = in.readInt();
+            sequence = Math.max(sequence, recordSequence);
+            Location previous = index.get(id);
+            if (previous == null || previous.sequence < recordSequence) {
+                if (kind == ITEM) {
+                    index.put(id, new Location(segment, position, RECORD_HEADER + length, recordSequence));
+                } else {
+                    index.remove(id);
+                }
+            }
+            position += RECORD_HEADER + length;
+        }
+        segment.size = position;
+        totalBytes += position;
+        return segment;
+    }
+
+    private static int read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static byte[] readPayload(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        return read(channel, payload, position + RECORD_HEADER) == length ? payload.array() : null;
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Reads item.
+     *
+     * @param itemId Id of item.
+     * @return Returns stored item or null, if store does not have it.
+     */
+    public Entry get(Integer itemId) {
+        lock.readLock().lock();
+        try {
+            checkOpen();
+            Location location = index.get(itemId);
+            if (location == null) {
+                return null;
+            }
+            byte[] payload = readPayload(location.segment.channel, location.position, location.length - RECORD_HEADER);
+            if (payload == null) {
+                throw new IOException("Record of item " + itemId + " is truncated.");
+            }
+            return decode(payload);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Reading of item " + itemId + " from store failed.", ex);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores item, which replaces previous version of it.
+     *
+     * @param item Item with metadata.
+     */
+    public void put(Item item) {
+        append(item.getID(), item);
+    }
+
+    /**
+     * Removes item, e.g. because it was changed or deleted in DSpace.
+     */
+    public void remove(Integer itemId) {
+        lock.readLock().lock();
+        try {
+            if (!index.containsKey(itemId)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        append(itemId, null);
+    }
+
+    private void append(Integer itemId, Item item) {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            long recordSequence = ++sequence;
+            byte[] payload = encode(recordSequence, itemId, item);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+            record.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+            Segment segment = activeSegment();
+            long position = segment.size;
+            while (record.hasRemaining()) {
+                segment.channel.write(record, position + record.position());
+            }
+            segment.size += record.limit();
+            totalBytes += record.limit();
+            Location previous = item != null
+                    ? index.put(itemId, new Location(segment, position, record.limit(), recordSequence))
+                    : index.remove(itemId);
+            liveBytes += (item != null ? record.limit() : 0) - (previous != null ? previous.length : 0);
+            if (totalBytes > segmentSize && liveBytes * 2 < totalBytes) {
+                compact();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing of item " + itemId + " to store failed.", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Segment activeSegment() throws IOException {
+        if (active == null || active.size >= segmentSize) {
+            int number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+            File file = segmentFile(number);
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            active = new Segment(number, file, channel);
+            active.size = SEGMENT_HEADER;
+            segments.put(number, active);
+            totalBytes += SEGMENT_HEADER;
+        }
+        return active;
+    }
+
+    /**
+     * Copies current records of all items to new segments and deletes the old segments.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            long start = System.nanoTime();
+            List<Segment> old = new ArrayList<>(segments.values());
+            long oldBytes = totalBytes;
+            active = null;
+            totalBytes = 0;
+            for (Map.Entry<Integer, Location> entry : index.entrySet()) {
+                Location location = entry.getValue();
+                ByteBuffer record = ByteBuffer.allocate(location.length);
+                if (read(location.segment.channel, record, location.position) < location.length) {
+                    throw new IOException("Record of item " + entry.getKey() + " is truncated.");
+                }
+                record.flip();
+                Segment segment = activeSegment();
+                long position = segment.size;
+                while (record.hasRemaining()) {
+                    segment.channel.write(record, position + record.position());
+                }
+                segment.size += location.length;
+                totalBytes += location.length;
+                entry.setValue(new Location(segment, position, location.length, location.sequence));
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel.force(false);
+            }
+            for (Segment segment : old) {
+                segment.channel.close();
+                delete(segment.file);
+                segments.remove(segment.number);
+            }
+            compactions++;
+            log.info("Item store {} was compacted from {} to {} bytes in {} ms.", new Object[] { directory, oldBytes, totalBytes,
+                    (System.nanoTime() - start) / 1000000 });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces written items to disk.
+     */
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            checkOpen();
+            if (active != null) {
+                active.channel.force(false);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (active != null) {
+                active.channel.force(false);
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Item store " + directory + " is closed.");
+        }
+    }
+
+    /**
+     * @return Returns ids of stored items.
+     */
+    public Set<Integer> getItemIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(index.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Returns size of all segments in bytes.
+     */
+    public long getTotalBytes() {
+        lock.readLock().lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Returns count of damaged records, which were dropped, when store was opened.
+     */
+    public int getDamagedRecords() {
+        return damagedRecords;
+    }
+
+    /**
+     * @return Returns count of segments of unknown format or version, which were discarded, when store was opened.
+     */
+    public int getDiscardedSegments() {
+        return discardedSegments;
+    }
+
+    public int getCompactions() {
+        lock.readLock().lock();
+        try {
+            return compactions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private File segmentFile(int number) {
+        return new File(directory, String.format("%08d", number) + SUFFIX);
+    }
+
+    private static void delete(File file) {
+        if (!file.delete()) {
+            log.warn("File {} of item store can not be deleted.", file);
+        }
+    }
+
+    /* ENCODING */
+
+    private static byte[] encode(long recordSequence, Integer itemId, Item item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(item != null ? ITEM : REMOVAL);
+        out.writeLong(recordSequence);
+        out.writeInt(itemId);
+        if (item != null) {
+            out.writeLong(System.currentTimeMillis());
+            writeString(out, item.getName());
+            writeString(out, item.getHandle());
+            writeString(out, item.getType());
+            writeString(out, item.getArchived());
+            writeString(out, item.getWithdrawn());
+            writeString(out, item.getLastModified());
+            writeObject(out, item.getParentCollection());
+            writeObjects(out, item.getParentCollectionList());
+            writeObjects(out, item.getParentCommunityList());
+            List<MetadataEntry> metadata = item.getMetadata();
+            out.writeInt(metadata != null ? metadata.size() : -1);
+            if (metadata != null) {
+                for (MetadataEntry entry : metadata) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                    writeString(out, entry.getLanguage());
+                    writeString(out, entry.getAuthority());
+                }
+            }
+            List<Bitstream> bitstreams = item.getBitstreams();
+            out.writeInt(bitstreams != null ? bitstreams.size() : -1);
+            if (bitstreams != null) {
+                for (Bitstream bitstream : bitstreams) {
+                    writeBitstream(out, bitstream);
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Entry decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != ITEM) {
+            throw new IOException("Record is not item.");
+        }
+        in.readLong();
+        Item item = new Item();
+        item.setID(in.readInt());
+        long storedAt = in.readLong();
+        item.setName(readString(in));
+        item.setHandle(readString(in));
+        item.setType(readString(in));
+        item.setArchived(readString(in));
+        item.setWithdrawn(readString(in));
+        item.setLastModified(readString(in));
+        item.setParentCollection(readObject(in, Collection::new));
+        item.setParentCollectionList(readObjects(in, Collection::new));
+        item.setParentCommunityList(readObjects(in, Community::new));
+        int count = in.readInt();
+        if (count >= 0) {
+            List<MetadataEntry> metadata = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                MetadataEntry entry = new MetadataEntry(readString(in), readString(in), readString(in));
+                entry.setAuthority(readString(in));
+                metadata.add(entry);
+            }
+            item.setMetadata(metadata);
+        }
+        count = in.readInt();
+        if (count >= 0) {
+            List<Bitstream> bitstreams = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                bitstreams.add(readBitstream(in));
+            }
+            item.setBitstreams(bitstreams);
+        }
+        return new Entry(item, storedAt);
+    }
+
+    private static void writeBitstream(DataOutputStream out, Bitstream bitstream) throws IOException {
+        writeObject(out, bitstream);
+        writeString(out, bitstream.getType());
+        writeString(out, bitstream.getBundleName());
+        writeString(out, bitstream.getDescription());
+        writeString(out, bitstream.getFormat());
+        writeString(out, bitstream.getMimeType());
+        out.writeBoolean(bitstream.getSizeBytes() != null);
+        out.writeLong(bitstream.getSizeBytes() != null ? bitstream.getSizeBytes() : 0);
+        writeString(out, bitstream.getRetrieveLink());
+        out.writeBoolean(bitstream.getSequenceId() != null);
+        out.writeInt(bitstream.getSequenceId() != null ? bitstream.getSequenceId() : 0);
+        CheckSum checkSum = bitstream.getCheckSum();
+        out.writeBoolean(checkSum != null);
+        if (checkSum != null) {
+            writeString(out, checkSum.getCheckSumAlgorith());
+            writeString(out, checkSum.getValue());
+        }
+    }
+
+    private static Bitstream readBitstream(DataInputStream in) throws IOException {
+        Bitstream bitstream = readObject(in, Bitstream::new);
+        if (bitstream == null) {
+            throw new IOException("Bitstream of item is missing.");
+        }
+        bitstream.setType(readString(in));
+        bitstream.setBundleName(readString(in));
+        bitstream.setDescription(readString(in));
+        bitstream.setFormat(readString(in));
+        bitstream.setMimeType(readString(in));
+        boolean hasSize = in.readBoolean();
+        long size = in.readLong();
+        bitstream.setSizeBytes(hasSize ? size : null);
+        bitstream.setRetrieveLink(readString(in));
+        boolean hasSequenceId = in.readBoolean();
+        int sequenceId = in.readInt();
+        bitstream.setSequenceId(hasSequenceId ? sequenceId : null);
+        if (in.readBoolean()) {
+            CheckSum checkSum = new CheckSum();
+            checkSum.setCheckSumAlgorith(readString(in));
+            checkSum.setValue(readString(in));
+            bitstream.setCheckSum(checkSum);
+        }
+        return bitstream;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.available()) {
+            throw new EOFException("String of " + length + " bytes exceeds record.");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes reference to collection, community or bitstream: id, name and handle.
+     */
+    private static void writeObject(DataOutputStream out, DSpaceObject object) throws IOException {
+        out.writeBoolean(object != null);
+        if (object != null) {
+            out.writeBoolean(object.getID() != null);
+            out.writeInt(object.getID() != null ? object.getID() : 0);
+            writeString(out, object.getName());
+            writeString(out, object.getHandle());
+        }
+    }
+
+    private static <T extends DSpaceObject> T readObject(DataInputStream in, Supplier<T> factory) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        T object = factory.get();
+        boolean hasId = in.readBoolean();
+        int id = in.readInt();
+        object.setID(hasId ? id : null);
+        object.setName(readString(in));
+        object.setHandle(readString(in));
+        return object;
+    }
+
+    private static void writeObjects(DataOutputStream out, List<? extends DSpaceObject> objects) throws IOException {
+        out.writeInt(objects != null ? objects.size() : -1);
+        if (objects != null) {
+            for (DSpaceObject object : objects) {
+                writeObject(out, object);
+            }
+        }
+    }
+
+    private static <T extends DSpaceObject> List<T> readObjects(DataInputStream in, Supplier<T> factory) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            return null;
+        }
+        List<T> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            objects.add(readObject(in, factory));
+        }
+        return objects;
+    }
+
+    /**
+     * Item read from store with time, when it was stored.
+     */
+    public static final class Entry {
+
+        private final Item item;
+        private final long storedAt;
+
+        Entry(Item item, long storedAt) {
+            this.item = item;
+            this.storedAt = storedAt;
+        }
+
+        public Item getItem() {
+            return item;
+        }
+
+        /**
+         * @return Returns time in milliseconds since epoch, when item was stored.
+         */
+        public long getStoredAt() {
+            return storedAt;
+        }
+    }
+
+    private static final class Segment {
+
+        final int number;
+        final File file;
+        final FileChannel channel;
+        /** Position of end of the last record, guarded by write lock. */
+        long size;
+
+        Segment(int number, File file, FileChannel channel) {
+            this.number = number;
+            this.file = file;
+            this.channel = channel;
+        }
+    }
+
+    private static final class Location {
+
+        final Segment segment;
+        final long position;
+        /** Length of record with its header. */
+        final int length;
+        final long sequence;
+
+        Location(Segment segment, long position, int length, long sequence) {
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+            this.sequence = sequence;
+        }
+    }
+}
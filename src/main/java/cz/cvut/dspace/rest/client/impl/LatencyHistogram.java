@@ -0,0 +1,99 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with fixed buckets. It is cheap enough to be updated by every request.
+ * Percentiles are approximated by upper bound of bucket, which contains them.
+ */
+public class LatencyHistogram {
+
+    /** Upper bounds of buckets in milliseconds. Durations longer than the last bound fall to overflow bucket. */
+    public static final long[] BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000 };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one duration.
+     *
+     * @param nanos Duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && millis >= BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns counts of durations in buckets defined by {@link #BOUNDS_MILLIS}. Bucket i contains durations
+     * shorter than BOUNDS_MILLIS[i], the last bucket contains the longer ones.
+     *
+     * @return Returns counts of buckets.
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double getMeanMillis() {
+        long count = getCount();
+        return count > 0 ? totalNanos.sum() / 1e6 / count : 0;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1e6;
+    }
+
+    /**
+     * Returns approximate percentile.
+     *
+     * @param percentile Percentile between 0 and 100.
+     * @return Returns upper bound of bucket containing the percentile (max for overflow bucket) in milliseconds
+     *         or 0, if nothing was recorded.
+     */
+    public double getPercentileMillis(double percentile) {
+        long[] counts = getBuckets();
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(BOUNDS_MILLIS[i], getMaxMillis());
+            }
+        }
+        return getMaxMillis();
+    }
+}
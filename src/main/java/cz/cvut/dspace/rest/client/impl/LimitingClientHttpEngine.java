@@ -0,0 +1,153 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+import cz.cvut.dspace.rest.client.impl.AdaptiveConcurrencyLimiter.Outcome;
+import cz.cvut.dspace.rest.client.impl.AdaptiveConcurrencyLimiter.Permit;
+
+/**
+ * Http engine, which keeps count of requests in flight under limit of {@link AdaptiveConcurrencyLimiter}
+ * and reports outcomes and latencies of requests to it. Synchronous requests wait for permit in calling thread
+ * until deadline of request (see {@link Deadline}), asynchronous requests are submitted, when permit is granted.
+ * Waiter, which gives up (by deadline, interrupt or cancellation), withdraws its request for permit.
+ * <p>
+ * Blocking transports return response, whose entity is still streamed from connection, so permit is held
+ * and latency measured until the entity is read or the response is closed.
+ */
+public class LimitingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public LimitingClientHttpEngine(ClientHttpEngine delegate, AdaptiveConcurrencyLimiter limiter) {
+        super(delegate);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        Permit permit = acquire(invocation);
+        long start = System.nanoTime();
+        ClientResponse response;
+        try {
+            response = delegate.invoke(invocation);
+        } catch (RuntimeException ex) {
+            permit.release(outcome(invocation, ex), System.nanoTime() - start);
+            throw ex;
+        }
+        return release(invocation, response, permit, start);
+    }
+
+    /**
+     * Releases permit, when entity of response is read. Entity of non-blocking transport is buffered already.
+     */
+    private ClientResponse release(ClientInvocation invocation, ClientResponse response, final Permit permit, final long start) {
+        final Outcome outcome = outcome(invocation, response);
+        if (isNonBlocking(delegate)) {
+            permit.release(outcome, System.nanoTime() - start);
+            return response;
+        }
+        return new CompletingClientResponse(invocation.getClientConfiguration(), response,
+                () -> permit.release(outcome, System.nanoTime() - start));
+    }
+
+    private Permit acquire(ClientInvocation invocation) {
+        CompletableFuture<Permit> permit = limiter.acquire();
+        Deadline deadline = Deadline.current();
+        if (permit.isDone() || deadline == null) {
+            return TokenManager.join(permit);
+        }
+        try {
+            return permit.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            withdraw(permit);
+            throw new ProcessingException(new TimeoutException("Deadline expired while waiting for permit of concurrency limit ["
+                    + invocation.getMethod() + " " + invocation.getUri() + "]."));
+        } catch (InterruptedException ex) {
+            withdraw(permit);
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex);
+        } catch (ExecutionException ex) {
+            return TokenManager.join(permit);
+        }
+    }
+
+    /**
+     * Withdraws request for permit, permit granted meanwhile is returned.
+     */
+    private static void withdraw(CompletableFuture<Permit> permit) {
+        if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+            permit.join().release(Outcome.IGNORED, 0);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+        final CompletableFuture<Permit> acquire = limiter.acquire();
+        acquire.whenComplete((permit, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            if (result.isDone()) {
+                // Caller gave up, before permit was granted.
+                permit.release(Outcome.IGNORED, 0);
+                return;
+            }
+            final long start = System.nanoTime();
+            final CompletableFuture<ClientResponse> response = submit(delegate, invocation);
+            response.whenComplete((value, ex) -> {
+                if (ex != null) {
+                    permit.release(outcome(invocation, ex), System.nanoTime() - start);
+                    result.completeExceptionally(ex);
+                    return;
+                }
+                ClientResponse completed = release(invocation, value, permit, start);
+                if (!result.complete(completed)) {
+                    completed.close();
+                }
+            });
+            result.whenComplete((value, ex) -> {
+                if (result.isCancelled()) {
+                    response.cancel(true);
+                }
+            });
+        });
+        result.whenComplete((value, ex) -> {
+            if (result.isCancelled()) {
+                // Cancellation (e.g. by deadline) withdraws request for permit.
+                acquire.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private static Outcome outcome(ClientInvocation invocation, ClientResponse response) {
+        int status = response.getStatus();
+        if (status == 429 || status >= 500) {
+            return Outcome.OVERLOAD;
+        }
+        // Latency of streamed uploads depends on size of data, not on load of DSpace.
+        return invocation.getEntity() instanceof InputStream ? Outcome.IGNORED : Outcome.SUCCESS;
+    }
+
+    private static Outcome outcome(ClientInvocation invocation, Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return Outcome.OVERLOAD;
+            }
+        }
+        return Outcome.IGNORED;
+    }
+}
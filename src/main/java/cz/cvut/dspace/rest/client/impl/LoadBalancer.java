@@ -0,0 +1,228 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Balancing of requests across the primary endpoint of DSpace and its read replicas. Endpoint is chosen by power
+ * of two choices: two random endpoints are compared and the one with fewer requests in flight is used. Endpoint,
+ * which failed several times in a row, is ejected for a while, so requests go to healthy endpoints only.
+ * <p>
+ * DSpace keeps tokens in memory of the instance, which issued them, so every replica has its own token.
+ */
+public class LoadBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancer.class);
+
+    private final Endpoint primary;
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final boolean pinWrites;
+    private final int ejectionFailures;
+    private final long ejectionNanos;
+
+    /**
+     * @param primaryURL       Endpoint, which serves writes and issues token of client.
+     * @param replicaURLs      Endpoints of read replicas.
+     * @param pinWrites        Writes are sent to primary only, when it is true.
+     * @param ejectionFailures Count of consecutive failures, after which endpoint is ejected.
+     * @param ejectionMillis   Time, for which endpoint is ejected, in milliseconds.
+     */
+    public LoadBalancer(String primaryURL, List<String> replicaURLs, boolean pinWrites, int ejectionFailures, long ejectionMillis) {
+        this.primary = new Endpoint(primaryURL, null);
+        this.endpoints.add(primary);
+        for (String replicaURL : replicaURLs) {
+            endpoints.add(new Endpoint(trim(replicaURL), new TokenManager()));
+        }
+        this.pinWrites = pinWrites;
+        this.ejectionFailures = Math.max(1, ejectionFailures);
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMillis);
+    }
+
+    private static String trim(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Chooses endpoint of request.
+     *
+     * @param write         Request changes data in DSpace.
+     * @param authenticated Request carries token, so it can be sent only to endpoints, which have token.
+     * @return Returns chosen endpoint, primary, when no other endpoint is available.
+     */
+    Endpoint choose(boolean write, boolean authenticated) {
+        if (write && pinWrites) {
+            return primary;
+        }
+        long now = System.nanoTime();
+        List<Endpoint> available = new ArrayList<>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            if (!endpoint.isEjected(now) && (!authenticated || endpoint.tokens == null || endpoint.tokens.peek() != null)) {
+                available.add(endpoint);
+            }
+        }
+        if (available.isEmpty()) {
+            return primary;
+        }
+        if (available.size() == 1) {
+            return available.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = available.get(first);
+        Endpoint b = available.get(second);
+        return b.outstanding.get() < a.outstanding.get() ? b : a;
+    }
+
+    /**
+     * @return Returns replicas, which are not ejected and have no token yet.
+     */
+    List<Endpoint> getReplicasWithoutToken() {
+        long now = System.nanoTime();
+        List<Endpoint> replicas = new ArrayList<>();
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.tokens != null && !endpoint.isEjected(now) && endpoint.tokens.peek() == null) {
+                replicas.add(endpoint);
+            }
+        }
+        return replicas;
+    }
+
+    public Endpoint getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return Returns primary endpoint followed by replicas.
+     */
+    public List<Endpoint> getEndpoints() {
+        return Collections.unmodifiableList(endpoints);
+    }
+
+    /**
+     * Endpoint of DSpace with its requests in flight and health.
+     */
+    public class Endpoint {
+
+        private final String url;
+        private final TokenManager tokens;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final LongAdder requests = new LongAdder();
+        private int failures;
+        private long ejectedUntil;
+        private boolean ejected;
+        private long ejections;
+
+        Endpoint(String url, TokenManager tokens) {
+            this.url = url;
+            this.tokens = tokens;
+        }
+
+        void start() {
+            outstanding.incrementAndGet();
+            requests.increment();
+        }
+
+        /**
+         * Ends request, whose outcome says nothing about health of endpoint (e.g. it was cancelled).
+         */
+        void finish() {
+            outstanding.decrementAndGet();
+        }
+
+        void onSuccess() {
+            outstanding.decrementAndGet();
+            synchronized (this) {
+                failures = 0;
+                ejected = false;
+            }
+        }
+
+        void onFailure() {
+            outstanding.decrementAndGet();
+            failed();
+        }
+
+        /**
+         * Records failure, which was not counted in requests in flight (e.g. failed login).
+         */
+        synchronized void failed() {
+            if (++failures >= ejectionFailures) {
+                long now = System.nanoTime();
+                if (!isEjected(now)) {
+                    log.warn("Endpoint {} failed {} times in a row, it is ejected for {} ms.",
+                            new Object[] { url, failures, TimeUnit.NANOSECONDS.toMillis(ejectionNanos) });
+                }
+                ejected = true;
+                ejectedUntil = now + ejectionNanos;
+                ejections++;
+                // When ejection ends, the first failure ejects the endpoint again.
+                failures = ejectionFailures - 1;
+            }
+        }
+
+        synchronized boolean isEjected(long now) {
+            return ejected && now - ejectedUntil < 0;
+        }
+
+        /**
+         * Rewrites url of resource of primary endpoint to this endpoint.
+         */
+        String rewrite(String resourceURL) {
+            return url + resourceURL.substring(primary.url.length());
+        }
+
+        TokenManager getTokenManager() {
+            return tokens;
+        }
+
+        public boolean isPrimary() {
+            return tokens == null;
+        }
+
+        public String getURL() {
+            return url;
+        }
+
+        /**
+         * @return Returns count of requests in flight.
+         */
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        /**
+         * @return Returns count of requests sent to endpoint.
+         */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public boolean isEjected() {
+            return isEjected(System.nanoTime());
+        }
+
+        /**
+         * @return Returns how many times endpoint was ejected.
+         */
+        public synchronized long getEjections() {
+            return ejections;
+        }
+
+        @Override
+        public String toString() {
+            return "Endpoint[" + url + ", outstanding=" + outstanding.get() + ", ejected=" + isEjected() + "]";
+        }
+    }
+}
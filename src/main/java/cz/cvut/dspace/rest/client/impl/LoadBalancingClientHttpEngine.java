@@ -0,0 +1,211 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.core.Response;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientRequestHeaders;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Http engine, which sends requests of resources of primary endpoint to endpoint chosen by {@link LoadBalancer}.
+ * Request routed to replica is sent as a copy with url and token of the replica, so the original invocation
+ * is never changed and attempts of the same request (retries, hedges) are routed independently.
+ * <p>
+ * Replicas get token by login in background, authenticated requests are not routed to replica until it has one.
+ * When replica rejects its token, the token is dropped and the request is replayed on primary. Requests with
+ * streamed entity can not be replayed, so they are always sent to primary.
+ */
+public class LoadBalancingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadBalancingClientHttpEngine.class);
+
+    private final LoadBalancer balancer;
+    private final AbstractDSpaceRESTClient owner;
+    private final String primaryURL;
+
+    public LoadBalancingClientHttpEngine(ClientHttpEngine delegate, LoadBalancer balancer, AbstractDSpaceRESTClient owner) {
+        super(delegate);
+        this.balancer = balancer;
+        this.owner = owner;
+        this.primaryURL = balancer.getPrimary().getURL();
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        LoadBalancer.Endpoint endpoint = choose(invocation);
+        if (endpoint == null) {
+            return delegate.invoke(invocation);
+        }
+        ClientResponse response = invoke(invocation, endpoint);
+        if (!rejected(endpoint, invocation, response)) {
+            return response;
+        }
+        response.close();
+        return invoke(invocation, balancer.getPrimary());
+    }
+
+    private ClientResponse invoke(ClientInvocation invocation, LoadBalancer.Endpoint endpoint) {
+        endpoint.start();
+        ClientResponse response;
+        try {
+            response = delegate.invoke(route(invocation, endpoint));
+        } catch (RuntimeException ex) {
+            report(endpoint, ex);
+            throw ex;
+        }
+        report(endpoint, response);
+        return response;
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final LoadBalancer.Endpoint endpoint = choose(invocation);
+        if (endpoint == null) {
+            return submit(delegate, invocation);
+        }
+        return submit(invocation, endpoint).thenCompose(response -> {
+            if (!rejected(endpoint, invocation, response)) {
+                return CompletableFuture.completedFuture(response);
+            }
+            response.close();
+            return submit(invocation, balancer.getPrimary());
+        });
+    }
+
+    private CompletableFuture<ClientResponse> submit(ClientInvocation invocation, final LoadBalancer.Endpoint endpoint) {
+        endpoint.start();
+        return submit(delegate, route(invocation, endpoint)).whenComplete((response, ex) -> {
+            if (ex != null) {
+                report(endpoint, ex);
+            } else {
+                report(endpoint, response);
+            }
+        });
+    }
+
+    /**
+     * Chooses endpoint of request.
+     *
+     * @return Returns null, if request is not a request of resource of primary endpoint (e.g. login to replica).
+     */
+    private LoadBalancer.Endpoint choose(ClientInvocation invocation) {
+        String url = invocation.getUri().toString();
+        if (!url.startsWith(primaryURL) || url.length() > primaryURL.length() && url.charAt(primaryURL.length()) != '/'
+                && url.charAt(primaryURL.length()) != '?') {
+            return null;
+        }
+        String method = invocation.getMethod();
+        boolean write = !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+        if (invocation.getEntity() instanceof InputStream) {
+            return balancer.getPrimary();
+        }
+        boolean authenticated = invocation.getHeaders().getHeader(AbstractDSpaceRESTClient.HEADER_TOKEN) != null;
+        if (authenticated) {
+            for (LoadBalancer.Endpoint replica : balancer.getReplicasWithoutToken()) {
+                owner.loginReplica(replica);
+            }
+        }
+        return balancer.choose(write, authenticated);
+    }
+
+    /**
+     * Returns copy of request for replica, or the request itself for primary.
+     */
+    private static ClientInvocation route(ClientInvocation invocation, LoadBalancer.Endpoint endpoint) {
+        if (endpoint.isPrimary()) {
+            return invocation;
+        }
+        RoutedInvocation routed = new RoutedInvocation(invocation, URI.create(endpoint.rewrite(invocation.getUri().toString())));
+        if (invocation.getHeaders().getHeader(AbstractDSpaceRESTClient.HEADER_TOKEN) != null) {
+            String token = endpoint.getTokenManager().peek();
+            if (token != null) {
+                routed.getHeaders().getHeaders().putSingle(AbstractDSpaceRESTClient.HEADER_TOKEN, token);
+            } else {
+                // Token was dropped meanwhile, replica rejects the request and it is replayed on primary.
+                routed.getHeaders().getHeaders().remove(AbstractDSpaceRESTClient.HEADER_TOKEN);
+            }
+        }
+        return routed;
+    }
+
+    /**
+     * Drops token of replica, which rejected it.
+     *
+     * @return Returns true, if request must be replayed on primary.
+     */
+    private static boolean rejected(LoadBalancer.Endpoint endpoint, ClientInvocation invocation, ClientResponse response) {
+        if (endpoint.isPrimary() || response.getStatus() != Response.Status.UNAUTHORIZED.getStatusCode()) {
+            return false;
+        }
+        String token = invocation.getHeaders().getHeader(AbstractDSpaceRESTClient.HEADER_TOKEN);
+        if (token == null) {
+            return false;
+        }
+        log.info("Authentication token was rejected by replica {}, request is sent to primary [{} {}].",
+                new Object[] { endpoint.getURL(), invocation.getMethod(), invocation.getUri() });
+        String staleToken = endpoint.getTokenManager().peek();
+        if (staleToken != null) {
+            endpoint.getTokenManager().invalidate(staleToken);
+        }
+        return true;
+    }
+
+    private static void report(LoadBalancer.Endpoint endpoint, ClientResponse response) {
+        if (response.getStatus() >= 500) {
+            endpoint.onFailure();
+        } else {
+            endpoint.onSuccess();
+        }
+    }
+
+    private static void report(LoadBalancer.Endpoint endpoint, Throwable ex) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null && deadline.isExpired()) {
+            // Request was aborted by its deadline (or by hedge, which answered first).
+            endpoint.finish();
+            return;
+        }
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                break;
+            }
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                endpoint.onFailure();
+                return;
+            }
+        }
+        endpoint.finish();
+    }
+
+    /**
+     * Copy of request with url of other endpoint. Headers are copied, so token of the copy can be replaced.
+     */
+    private static class RoutedInvocation extends ClientInvocation {
+
+        RoutedInvocation(ClientInvocation original, URI uri) {
+            super(original.getClient(), uri, new ClientRequestHeaders(original.getClientConfiguration()), original.getClientConfiguration());
+            // Lists of values are copied too, putSingle changes the list in place.
+            for (Map.Entry<String, List<Object>> header : original.getHeaders().getHeaders().entrySet()) {
+                headers.getHeaders().put(header.getKey(), new ArrayList<>(header.getValue()));
+            }
+            method = original.getMethod();
+            entity = original.getEntity();
+            entityGenericType = original.getEntityGenericType();
+            entityClass = original.getEntityClass();
+            entityAnnotations = original.getEntityAnnotations();
+        }
+    }
+}
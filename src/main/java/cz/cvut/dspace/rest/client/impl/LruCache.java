@@ -0,0 +1,193 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache bounded by count of results, which evicts the least recently used result, when it is full. Results expire
+ * after time to live. Results are loaded outside of lock, so slow load does not block hits of other keys.
+ * Concurrent misses of the same key are not deduplicated here, finds of client coalesce them (see {@link SingleFlight}).
+ */
+public class LruCache implements Cache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<String, Entry> entries;
+    /** Keys of cached results by their dependencies. */
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+    /** Incremented by every invalidation, load started before invalidation is not stored. */
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long loadFailures;
+    private long totalLoadNanos;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxSize Max count of cached results.
+     * @param ttl     Time to live of result.
+     * @param unit    Unit of ttl.
+     */
+    public LruCache(int maxSize, long ttl, TimeUnit unit) {
+        this(maxSize, ttl, unit, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize Max count of cached results.
+     * @param ttl     Time to live of result.
+     * @param unit    Unit of ttl.
+     * @param ticker  Source of time in nanoseconds, by which results expire.
+     */
+    public LruCache(int maxSize, long ttl, TimeUnit unit, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid size of cache " + maxSize + ".");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Function<? super T, Set<String>> dependencies, Supplier<T> loader) {
+        long started;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (ticker.getAsLong() - entry.expiresAt < 0) {
+                    hits++;
+                    return (T) entry.value;
+                }
+                unlink(key, entries.remove(key));
+                expirations++;
+            }
+            misses++;
+            started = generation;
+        }
+        long start = System.nanoTime();
+        T value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error ex) {
+            synchronized (this) {
+                loadFailures++;
+                totalLoadNanos += System.nanoTime() - start;
+            }
+            throw ex;
+        }
+        long loaded = System.nanoTime();
+        Set<String> depends = value != null ? dependencies.apply(value) : null;
+        synchronized (this) {
+            totalLoadNanos += loaded - start;
+            if (value != null && generation == started) {
+                Entry entry = new Entry(value, ticker.getAsLong() + ttlNanos, depends);
+                unlink(key, entries.put(key, entry));
+                for (String dependency : depends) {
+                    dependents.computeIfAbsent(dependency, name -> new HashSet<>()).add(key);
+                }
+                evict();
+            }
+        }
+        return value;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Entry> eldest = iterator.next();
+            iterator.remove();
+            unlink(eldest.getKey(), eldest.getValue());
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes key of removed result from index of its dependencies.
+     */
+    private void unlink(String key, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        for (String dependency : entry.dependencies) {
+            Set<String> keys = dependents.get(dependency);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                dependents.remove(dependency);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String key) {
+        generation++;
+        unlink(key, entries.remove(key));
+    }
+
+    @Override
+    public synchronized void invalidateDependents(String dependency) {
+        generation++;
+        Set<String> keys = dependents.remove(dependency);
+        if (keys != null) {
+            for (String key : keys) {
+                unlink(key, entries.remove(key));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        dependents.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, loadFailures, totalLoadNanos, evictions, expirations);
+    }
+
+    /**
+     * Removes expired results. Expired results are removed on access as well, so it is not necessary to call it,
+     * it only frees memory sooner.
+     */
+    public synchronized void cleanUp() {
+        long now = ticker.getAsLong();
+        for (Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator(); iterator.hasNext(); ) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (now - entry.getValue().expiresAt >= 0) {
+                iterator.remove();
+                unlink(entry.getKey(), entry.getValue());
+                expirations++;
+            }
+        }
+    }
+
+    private static class Entry {
+
+        final Object value;
+        final long expiresAt;
+        final Set<String> dependencies;
+
+        Entry(Object value, long expiresAt, Set<String> dependencies) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.dependencies = dependencies;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cz.cvut.dspace.rest.client.Configuration;
+
+/**
+ * Pool of http connections with hygiene of long-running clients. Proxies and DSpace close connections, which
+ * were idle for some time, and the next request on such half-closed connection fails. So the pool
+ * <ul>
+ * <li>keeps connection alive only as long as server allows by Keep-Alive header (at most configured duration),</li>
+ * <li>closes expired and idle connections by background thread,</li>
+ * <li>validates connection, which was not used for a while, before it is leased.</li>
+ * </ul>
+ * Pool measures, how long requests wait for lease of connection, and publishes its statistics by
+ * {@link ConnectionPoolMXBean} (registered to platform MBean server, unless JMX is disabled in configuration).
+ */
+public class ManagedConnectionPool implements ConnectionPoolMXBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ManagedConnectionPool.class);
+
+    public static final int DEFAULT_CONNECT_TIMEOUT = 120;
+    public static final int DEFAULT_KEEP_ALIVE_DURATION = 30;
+    public static final int DEFAULT_IDLE_CONNECTION_TIMEOUT = 30;
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY = 2000;
+
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private final InstrumentedConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final long idleConnectionTimeout;
+    private final ObjectName objectName;
+    private ScheduledExecutorService evictor;
+
+    public ManagedConnectionPool(Configuration configuration) {
+        this(configuration, "default", configuration.getMaxTotal(), configuration.getMaxPerRoute());
+    }
+
+    /**
+     * Creates pool with its own size, other settings are taken from configuration.
+     *
+     * @param configuration Configuration of client.
+     * @param name          Name of pool among pools of one client (e.g. "metadata" or "transfer"), it is part of JMX name.
+     * @param maxTotal      Max count of connections or null for default of http client.
+     * @param maxPerRoute   Max count of connections per route or null for default of http client.
+     */
+    public ManagedConnectionPool(Configuration configuration, String name, Integer maxTotal, Integer maxPerRoute) {
+        // Create socket factories trusting all certs
+        SSLContext sslContext;
+        try {
+            sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to create SSL context.", ex);
+        }
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE))
+                .build();
+
+        connectionManager = new InstrumentedConnectionManager(registry);
+        if (maxTotal != null) {
+            connectionManager.setMaxTotal(maxTotal);
+        }
+        if (maxPerRoute != null) {
+            connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        }
+        connectionManager.setValidateAfterInactivity(valueOf(configuration.getValidateAfterInactivity(), DEFAULT_VALIDATE_AFTER_INACTIVITY));
+        idleConnectionTimeout = valueOf(configuration.getIdleConnectionTimeout(), DEFAULT_IDLE_CONNECTION_TIMEOUT);
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(valueOf(configuration.getConnectTimeout(), DEFAULT_CONNECT_TIMEOUT)));
+        if (configuration.getSocketTimeout() != null) {
+            requestConfig.setSocketTimeout((int) TimeUnit.SECONDS.toMillis(configuration.getSocketTimeout()));
+        }
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(new KeepAliveStrategy(TimeUnit.SECONDS.toMillis(
+                        valueOf(configuration.getKeepAliveDuration(), DEFAULT_KEEP_ALIVE_DURATION))))
+                .setDefaultRequestConfig(requestConfig.build())
+                .build();
+
+        objectName = Boolean.FALSE.equals(configuration.getJmxEnabled()) ? null : createObjectName(configuration.getEndpointURL(), name);
+    }
+
+    private static ObjectName createObjectName(String endpointURL, String name) {
+        try {
+            return new ObjectName("cz.cvut.dspace.rest.client:type=ConnectionPool,endpoint=" + ObjectName.quote(String.valueOf(endpointURL))
+                    + ",name=" + ObjectName.quote(name) + ",id=" + sequence.incrementAndGet());
+        } catch (MalformedObjectNameException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+    }
+
+    private static int valueOf(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    public CloseableHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    @Override
+    public ConnectionPoolStats getTotalStats() {
+        return stats(connectionManager.getTotalStats(), connectionManager.leaseWaits);
+    }
+
+    @Override
+    public Map<String, ConnectionPoolStats> getRouteStats() {
+        Map<String, ConnectionPoolStats> stats = new TreeMap<>();
+        for (HttpRoute route : connectionManager.getRoutes()) {
+            stats.put(route.getTargetHost().toURI(), stats(connectionManager.getStats(route), connectionManager.getLeaseWaits(route)));
+        }
+        return stats;
+    }
+
+    @Override
+    public long[] getLeaseWaitBucketBoundsMillis() {
+        return LatencyHistogram.BOUNDS_MILLIS.clone();
+    }
+
+    private static ConnectionPoolStats stats(PoolStats pool, LatencyHistogram leaseWaits) {
+        return new ConnectionPoolStats(pool.getLeased(), pool.getAvailable(), pool.getPending(), pool.getMax(),
+                leaseWaits.getCount(), leaseWaits.getMeanMillis(), leaseWaits.getPercentileMillis(95),
+                leaseWaits.getMaxMillis(), leaseWaits.getBuckets());
+    }
+
+    /**
+     * Starts background eviction of expired and idle connections and registers the pool to JMX.
+     */
+    public synchronized void start() {
+        if (objectName != null && !ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (JMException ex) {
+                log.warn("Registration of connection pool to JMX failed.", ex);
+            }
+        }
+        if (evictor != null || idleConnectionTimeout <= 0) {
+            return;
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dspace-connection-evictor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long period = Math.max(1, Math.min(5, idleConnectionTimeout / 2));
+        evictor.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Closes connections, whose keep-alive expired, and connections idle for longer than configured timeout.
+     */
+    public void evict() {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleConnectionTimeout, TimeUnit.SECONDS);
+        } catch (RuntimeException ex) {
+            log.warn("Eviction of idle connections failed.", ex);
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+            evictor = null;
+        }
+        if (objectName != null && ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException ex) {
+                log.warn("Unregistration of connection pool from JMX failed.", ex);
+            }
+        }
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            log.warn("Closing of http client failed.", ex);
+        }
+    }
+
+    /**
+     * Keeps connection alive as long as server allows by Keep-Alive header, but at most for given duration.
+     * Servers usually do not send the header at all, then the given duration is used.
+     */
+    static class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long maxDuration;
+
+        KeepAliveStrategy(long maxDuration) {
+            this.maxDuration = maxDuration;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, maxDuration) : maxDuration;
+        }
+    }
+
+    /**
+     * Connection manager, which measures time, for which requests wait for lease of connection.
+     */
+    static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        final LatencyHistogram leaseWaits = new LatencyHistogram();
+        private final ConcurrentMap<HttpRoute, LatencyHistogram> routeLeaseWaits = new ConcurrentHashMap<>();
+
+        InstrumentedConnectionManager(Registry<ConnectionSocketFactory> registry) {
+            super(registry);
+        }
+
+        LatencyHistogram getLeaseWaits(HttpRoute route) {
+            return routeLeaseWaits.computeIfAbsent(route, key -> new LatencyHistogram());
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(final HttpRoute route, Object state) {
+            final long start = System.nanoTime();
+            final ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    HttpClientConnection connection = request.get(timeout, unit);
+                    long wait = System.nanoTime() - start;
+                    leaseWaits.record(wait);
+                    getLeaseWaits(route).record(wait);
+                    return connection;
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
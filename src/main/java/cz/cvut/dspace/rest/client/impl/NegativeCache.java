@@ -0,0 +1,208 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of finds, which found nothing (DSpace answered 404), so repeated probes of ids or names, which
+ * do not exist, do not cost a request each. Misses expire after time to live. Creates of objects through the same
+ * client forget misses of the created object, or of all objects of its kind, when result of create is not known.
+ * <p>
+ * Keys are names of finds with their arguments, e.g. "findItemById/42". Kind of object is prefix of key.
+ */
+public class NegativeCache {
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier ticker;
+    /** Expiration of misses by key. */
+    private final Map<String, Long> misses = new ConcurrentHashMap<>();
+    /** Incremented by every invalidation, miss of find started before invalidation is not stored. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param ttl     Time to live of miss.
+     * @param unit    Unit of ttl.
+     * @param maxSize Max count of cached misses, further misses are not cached until some expire.
+     */
+    public NegativeCache(long ttl, TimeUnit unit, int maxSize) {
+        this(ttl, unit, maxSize, System::nanoTime);
+    }
+
+    /**
+     * @param ttl     Time to live of miss.
+     * @param unit    Unit of ttl.
+     * @param maxSize Max count of cached misses, further misses are not cached until some expire.
+     * @param ticker  Source of time in nanoseconds, by which misses expire.
+     */
+    public NegativeCache(long ttl, TimeUnit unit, int maxSize, LongSupplier ticker) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Executes find, unless it is known to find nothing. Find, which returns null, is remembered.
+     *
+     * @param key    Name of find with its arguments.
+     * @param loader Executes find.
+     * @return Returns result of find or null.
+     */
+    public <T> T find(String key, Supplier<T> loader) {
+        if (isMissing(key)) {
+            return null;
+        }
+        long started = generation.get();
+        T result = loader.get();
+        if (result == null) {
+            missing(key, started);
+        }
+        return result;
+    }
+
+    /**
+     * Checks, whether key is known to find nothing.
+     */
+    public boolean isMissing(String key) {
+        lookups.increment();
+        Long expiresAt = misses.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (ticker.getAsLong() - expiresAt >= 0) {
+            misses.remove(key, expiresAt);
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    /**
+     * @return Returns current generation, which is passed to {@link #missing(String, long)} of find started now.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Remembers, that find found nothing.
+     *
+     * @param key     Name of find with its arguments.
+     * @param started Generation, when find started. Miss is not stored, if cache was invalidated since then.
+     */
+    public void missing(String key, long started) {
+        long now = ticker.getAsLong();
+        if (misses.size() >= maxSize) {
+            misses.values().removeIf(expiresAt -> now - expiresAt >= 0);
+            if (misses.size() >= maxSize) {
+                return;
+            }
+        }
+        misses.put(key, now + ttlNanos);
+        if (generation.get() != started) {
+            // Create raced with find, its result is unknown.
+            misses.remove(key);
+            return;
+        }
+        stores.increment();
+    }
+
+    /**
+     * Executes create and forgets miss of created object. If create fails, its result is not known, so all misses
+     * of the kind are forgotten.
+     *
+     * @param kind     Prefix of keys of finds of created objects, e.g. "findItemById/".
+     * @param identity Returns argument of find of created object, e.g. its id.
+     * @param create   Executes create.
+     * @return Returns created object.
+     */
+    public <T> T created(String kind, Function<T, Object> identity, Supplier<T> create) {
+        T created;
+        try {
+            created = create.get();
+        } catch (RuntimeException | Error ex) {
+            invalidateAll(kind);
+            throw ex;
+        }
+        if (created != null) {
+            invalidate(kind + identity.apply(created));
+        } else {
+            invalidateAll(kind);
+        }
+        return created;
+    }
+
+    public void invalidate(String key) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        misses.remove(key);
+    }
+
+    /**
+     * Forgets all misses, whose key starts with prefix.
+     */
+    public void invalidateAll(String prefix) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        for (Iterator<String> iterator = misses.keySet().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @return Returns count of cached misses including expired ones, which were not removed yet.
+     */
+    public int size() {
+        return misses.size();
+    }
+
+    /**
+     * @return Returns count of finds answered by cached miss without request.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Returns count of all finds checked in cache.
+     */
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    /**
+     * @return Returns share of finds answered by cached miss, from 0 to 1.
+     */
+    public double getHitRate() {
+        long count = lookups.sum();
+        return count == 0 ? 0 : (double) hits.sum() / count;
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "NegativeCache[size=" + misses.size() + ", lookups=" + lookups.sum() + ", hits=" + hits.sum() + ", stores="
+                + stores.sum() + ", invalidations=" + invalidations.sum() + "]";
+    }
+}
@@ -0,0 +1,150 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.ssl.SSLContexts;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.jboss.resteasy.plugins.providers.jackson.ResteasyJacksonProvider;
+
+import cz.cvut.dspace.rest.client.Configuration;
+
+/**
+ * Implementation of DSpace rest client over non-blocking I/O (Apache HttpAsyncClient). Synchronous methods
+ * behave as in {@link PooledDSpaceRESTClient}, but asynchronous client ({@link #async()}) does not need
+ * a thread per outstanding request, so many concurrent requests can be served by few threads.
+ * <p>
+ * Bitstream data are uploaded by separate pool of blocking connections (as in {@link PooledDSpaceRESTClient}),
+ * so streamed uploads neither block I/O reactor nor starve metadata calls.
+ */
+public class NioDSpaceRESTClient extends AbstractDSpaceRESTClient {
+
+    private PoolingNHttpClientConnectionManager connectionManager;
+    private CloseableHttpAsyncClient httpClient;
+    private ExecutorService callbackExecutor;
+    private ManagedConnectionPool transferConnectionPool;
+
+    public NioDSpaceRESTClient(Configuration configuration) {
+        super(configuration);
+    }
+
+    @Override
+    public void create() {
+        // Add jackson provider to builder
+        ResteasyJacksonProvider resteasyJacksonProvider = new ResteasyJacksonProvider();
+        ResteasyClientBuilder builder = clientBuilder().register(resteasyJacksonProvider);
+
+        // Create session strategies trusting all certs
+        SSLContext sslContext;
+        try {
+            sslContext = SSLContexts.custom().loadTrustMaterial(null, (chain, authType) -> true).build();
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Unable to create SSL context.", ex);
+        }
+        Registry<SchemeIOSessionStrategy> registry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", new SSLIOSessionStrategy(sslContext, NoopHostnameVerifier.INSTANCE))
+                .build();
+
+        // Create pooling connection manager
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(), registry);
+        } catch (IOReactorException ex) {
+            throw new IllegalStateException("Unable to create I/O reactor.", ex);
+        }
+        if (configuration.getMaxTotal() != null) {
+            connectionManager.setMaxTotal(configuration.getMaxTotal());
+        }
+        if (configuration.getMaxPerRoute() != null) {
+            connectionManager.setDefaultMaxPerRoute(configuration.getMaxPerRoute());
+        }
+
+        // Create rest client
+        Integer connectTimeout = configuration.getConnectTimeout();
+        RequestConfig.Builder requestConfig = RequestConfig.custom().setConnectTimeout((int) TimeUnit.SECONDS.toMillis(
+                connectTimeout != null ? connectTimeout : ManagedConnectionPool.DEFAULT_CONNECT_TIMEOUT));
+        if (configuration.getSocketTimeout() != null) {
+            requestConfig.setSocketTimeout((int) TimeUnit.SECONDS.toMillis(configuration.getSocketTimeout()));
+        }
+        httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig.build())
+                .build();
+        httpClient.start();
+        callbackExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dspace-nio-callback-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        ApacheHttpAsyncClient4Engine engine = new ApacheHttpAsyncClient4Engine(httpClient, callbackExecutor);
+        engine.setSslContext(sslContext);
+        engine.setHostnameVerifier(NoopHostnameVerifier.INSTANCE);
+        client = builder.httpEngine(engine).build();
+
+        // Bitstream data are transferred by separate pool, so large uploads can not starve metadata calls
+        Integer transferMaxTotal = configuration.getTransferMaxTotal() != null
+                ? configuration.getTransferMaxTotal() : PooledDSpaceRESTClient.DEFAULT_TRANSFER_MAX_TOTAL;
+        Integer transferMaxPerRoute = configuration.getTransferMaxPerRoute() != null ? configuration.getTransferMaxPerRoute() : transferMaxTotal;
+        transferConnectionPool = new ManagedConnectionPool(configuration, "transfer", transferMaxTotal, transferMaxPerRoute);
+        transferConnectionPool.start();
+        transferClient = clientBuilder().register(resteasyJacksonProvider)
+                .httpEngine(new DeadlineApacheHttpClient4Engine(transferConnectionPool.getHttpClient())).build();
+        startCircuitBreakers();
+        startTokenRefresh();
+    }
+
+    /**
+     * Returns pool of connections of this client for transfers of bitstream data.
+     *
+     * @return Returns pool or null, if client was not created yet.
+     */
+    public ManagedConnectionPool getTransferConnectionPool() {
+        return transferConnectionPool;
+    }
+
+    @Override
+    protected boolean isNonBlocking() {
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        stopTokenRefresh();
+        stopCircuitBreakers();
+        try {
+            httpClient.close();
+        } catch (IOException ex) {
+            log.warn("Closing of http client failed.", ex);
+        }
+        callbackExecutor.shutdown();
+        try {
+            transferConnectionPool.shutdown();
+        } catch (RuntimeException ex) {
+            log.warn("Shutdown of connection pool failed.", ex);
+        }
+    }
+}
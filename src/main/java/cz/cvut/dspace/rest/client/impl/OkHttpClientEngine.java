@@ -0,0 +1,187 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.ProcessingException;
+
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.jboss.resteasy.util.CaseInsensitiveMap;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Http engine of RESTEasy client over OkHttp. OkHttp speaks HTTP/2, when server supports it, and then
+ * multiplexes all concurrent requests to one host over a single connection.
+ * <p>
+ * Entities of requests are buffered in memory, except of input streams (bitstream data), which are streamed
+ * in chunks by dispatcher thread. Entities of responses (metadata) are buffered in memory. Futures are completed
+ * by dispatcher threads of OkHttp.
+ */
+public class OkHttpClientEngine implements AsyncClientHttpEngine {
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+    private static final String CONTENT_TYPE = "Content-Type";
+
+    private final OkHttpClient httpClient;
+    private SSLContext sslContext;
+
+    public OkHttpClientEngine(OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return sslContext;
+    }
+
+    public void setSslContext(SSLContext sslContext) {
+        this.sslContext = sslContext;
+    }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier() {
+        return httpClient.hostnameVerifier();
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        return TokenManager.join(submit(invocation));
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        final CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+        final Call call;
+        try {
+            call = httpClient.newCall(createRequest(invocation));
+        } catch (IOException | RuntimeException ex) {
+            future.completeExceptionally(new ProcessingException("Unable to write request entity.", ex));
+            return future;
+        }
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try {
+                    future.complete(createResponse(invocation, response));
+                } catch (IOException | RuntimeException ex) {
+                    future.completeExceptionally(new ProcessingException("Unable to read response.", ex));
+                } finally {
+                    response.close();
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException ex) {
+                future.completeExceptionally(new ProcessingException(ex));
+            }
+        });
+        future.whenComplete((response, ex) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    protected Request createRequest(ClientInvocation invocation) throws IOException {
+        RequestBody body = null;
+        if (invocation.getEntity() instanceof InputStream) {
+            String contentType = invocation.getHeaders().getHeader(CONTENT_TYPE);
+            body = new StreamingRequestBody(contentType != null ? MediaType.parse(contentType) : null,
+                    (InputStream) invocation.getEntity());
+        } else if (invocation.getEntity() != null) {
+            // Entity is written first, because message body writers may add headers.
+            byte[] content = ApacheHttpAsyncClient4Engine.writeRequestBody(invocation);
+            String contentType = invocation.getHeaders().getHeader(CONTENT_TYPE);
+            body = RequestBody.create(contentType != null ? MediaType.parse(contentType) : null, content);
+        } else if ("POST".equals(invocation.getMethod()) || "PUT".equals(invocation.getMethod())) {
+            // OkHttp does not allow these methods without body.
+            body = RequestBody.create(null, new byte[0]);
+        }
+        Request.Builder builder = new Request.Builder().url(invocation.getUri().toString()).method(invocation.getMethod(), body);
+        for (Map.Entry<String, List<String>> header : invocation.getHeaders().asMap().entrySet()) {
+            // Content-Length is set by http client from entity.
+            if (CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                builder.addHeader(header.getKey(), value);
+            }
+        }
+        return builder.build();
+    }
+
+    protected ClientResponse createResponse(ClientInvocation invocation, Response httpResponse) throws IOException {
+        ResponseBody body = httpResponse.body();
+        byte[] content = body != null ? body.bytes() : null;
+        ClientResponse response = new ApacheHttpAsyncClient4Engine.BufferedClientResponse(invocation.getClientConfiguration(), content);
+        response.setStatus(httpResponse.code());
+        CaseInsensitiveMap<String> headers = new CaseInsensitiveMap<>();
+        for (Map.Entry<String, List<String>> header : httpResponse.headers().toMultimap().entrySet()) {
+            for (String value : header.getValue()) {
+                headers.add(header.getKey(), value);
+            }
+        }
+        response.setHeaders(headers);
+        return response;
+    }
+
+    @Override
+    public void close() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * Body of request, which copies stream to connection as it is written, without known length (chunked).
+     * Stream can be read once, so OkHttp does not retry such request.
+     */
+    static class StreamingRequestBody extends RequestBody {
+
+        private final MediaType contentType;
+        private final InputStream stream;
+
+        StreamingRequestBody(MediaType contentType, InputStream stream) {
+            this.contentType = contentType;
+            this.stream = stream;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            try (Source source = Okio.source(stream)) {
+                sink.writeAll(source);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterator over all objects of paged list endpoint (readAllItems, readCollectionItems, ...), which reads pages on
+ * demand. The first page is read by the first {@link #hasNext()}, the next page is read in background, while
+ * the current one is consumed, and every page is released, when it is consumed. At most two pages are held at once,
+ * so scans of the whole repository run in constant memory. Iteration ends with the first page shorter than page size.
+ * <p>
+ * Failure of read of page is thrown by {@link #hasNext()} unwrapped (WebApplicationException, ProcessingException).
+ * Iterator is not thread-safe. It should be closed, when it is abandoned before its end, so prefetched page
+ * is dropped.
+ */
+public class PagingIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Reads page of objects.
+     */
+    @FunctionalInterface
+    public interface PageReader<T> {
+
+        /**
+         * @param limit  Size of page.
+         * @param offset Offset of the first object of page.
+         * @return Returns future of page.
+         */
+        CompletableFuture<List<T>> read(int limit, int offset);
+    }
+
+    /**
+     * Reads page of objects by synchronous call, e.g. of client decorator, which has no asynchronous view.
+     */
+    @FunctionalInterface
+    public interface BlockingPageReader<T> {
+
+        List<T> read(int limit, int offset);
+    }
+
+    private final PageReader<T> reader;
+    private final int pageSize;
+
+    private List<T> page;
+    private int index;
+    /** Offset of the page after the current one. */
+    private int nextOffset;
+    private CompletableFuture<List<T>> next;
+    private boolean last;
+    private int pages;
+
+    /**
+     * @param reader   Reads pages.
+     * @param pageSize Count of objects read by one request.
+     * @param offset   Offset of the first object.
+     */
+    public PagingIterator(PageReader<T> reader, int pageSize, int offset) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize + ".");
+        }
+        this.reader = reader;
+        this.pageSize = pageSize;
+        this.nextOffset = offset;
+    }
+
+    /**
+     * Creates iterator, whose pages are read by blocking reader in executor.
+     *
+     * @param reader   Reads pages, it is called by executor.
+     * @param executor Executor of reads.
+     * @param pageSize Count of objects read by one request.
+     * @param offset   Offset of the first object.
+     */
+    public static <T> PagingIterator<T> inBackground(BlockingPageReader<T> reader, Executor executor, int pageSize, int offset) {
+        return new PagingIterator<>((limit, from) -> CompletableFuture.supplyAsync(() -> reader.read(limit, from), executor), pageSize, offset);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page == null || index >= page.size()) {
+            // Release the consumed page.
+            page = null;
+            if (last) {
+                return false;
+            }
+            if (next == null) {
+                next = reader.read(pageSize, nextOffset);
+            }
+            List<T> read = TokenManager.join(next);
+            next = null;
+            pages++;
+            nextOffset += pageSize;
+            if (read == null || read.size() < pageSize) {
+                last = true;
+            } else {
+                next = reader.read(pageSize, nextOffset);
+            }
+            page = read;
+            index = 0;
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(index++);
+    }
+
+    /**
+     * @return Returns count of pages read so far.
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * Drops prefetched page, iterator has no more objects afterwards.
+     */
+    @Override
+    public void close() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+        page = null;
+        last = true;
+    }
+
+    /**
+     * Returns sequential stream of remaining objects, closing of stream closes this iterator.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+}
@@ -0,0 +1,251 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import javax.ws.rs.ProcessingException;
+
+import org.dspace.rest.common.DSpaceObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Harvest of all objects of paged list endpoint (typically readAllItems), which reads pages of offset space
+ * concurrently. Total count of objects is not known in advance, so offset space is split into ranges of page size,
+ * which are claimed in order by at most parallelism reads in flight, until the first range shorter than page is read.
+ * Objects are delivered to consumer in calling thread either in order of offsets or unordered, as pages arrive.
+ * <p>
+ * Concurrent inserts and deletes shift offsets of objects between reads of adjacent ranges. Inserts cause
+ * duplicates, which are delivered only once (by id). Deletes cause gaps, so every range is read with overlap into
+ * the next one: range is read with limit page size plus overlap. Adjacent ranges are consistent, if the first
+ * object of the next range was read by the previous range. Otherwise more objects were deleted than overlap covers
+ * and the boundary is repaired by reads of growing windows before it, until they reach objects of the previous range.
+ */
+public class ParallelHarvest<T extends DSpaceObject> {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelHarvest.class);
+    /** Max count of reads repairing one boundary of ranges. */
+    private static final int MAX_REPAIR_READS = 6;
+
+    private final PagingIterator.PageReader<T> reader;
+    private final int pageSize;
+    private final int overlap;
+    private final int parallelism;
+
+    private int pages;
+    private long duplicates;
+    private int repairs;
+    private int unrepairedGaps;
+
+    /**
+     * @param reader      Reads ranges, it should not block, e.g. read of asynchronous client.
+     * @param pageSize    Size of range of offsets.
+     * @param overlap     Count of objects read past the end of range, it is count of deletes between reads of adjacent
+     *                    ranges, which is tolerated without repair.
+     * @param parallelism Max count of reads in flight.
+     */
+    public ParallelHarvest(PagingIterator.PageReader<T> reader, int pageSize, int overlap, int parallelism) {
+        if (pageSize <= 0 || overlap < 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Invalid harvest (pageSize=" + pageSize + ", overlap=" + overlap
+                    + ", parallelism=" + parallelism + ").");
+        }
+        this.reader = reader;
+        this.pageSize = pageSize;
+        this.overlap = overlap;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Harvests all objects. Failure of read stops harvest, reads in flight are cancelled and failure is thrown
+     * unwrapped (WebApplicationException, ProcessingException).
+     *
+     * @param consumer Receives every object once, it is called by calling thread.
+     * @param ordered  True to deliver objects in order of offsets, false to deliver pages as they arrive.
+     * @return Returns count of delivered objects.
+     */
+    public long harvest(Consumer<? super T> consumer, boolean ordered) {
+        pages = 0;
+        duplicates = 0;
+        repairs = 0;
+        unrepairedGaps = 0;
+        int limit = pageSize + overlap;
+        BlockingQueue<Range<T>> completed = new LinkedBlockingQueue<>();
+        Map<Integer, CompletableFuture<List<T>>> running = new HashMap<>();
+        /* Ranges read, but not settled yet, objects are kept only for ordered delivery. */
+        Map<Integer, Range<T>> unsettled = new HashMap<>();
+        Set<Integer> seen = new HashSet<>();
+        long delivered = 0;
+        int next = 0;
+        int settled = 0;
+        int end = Integer.MAX_VALUE;
+        Range<T> previous = null;
+        try {
+            while (true) {
+                // Ordered delivery holds ranges read ahead of the slowest one, so reads ahead are bounded.
+                while (running.size() < parallelism && next <= end && (!ordered || next < settled + 2 * parallelism)) {
+                    int index = next++;
+                    CompletableFuture<List<T>> read = reader.read(limit, index * pageSize);
+                    running.put(index, read);
+                    read.whenComplete((objects, failure) -> completed.add(new Range<>(index, objects, failure)));
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+                Range<T> range = completed.take();
+                running.remove(range.index);
+                if (range.failure != null) {
+                    throw range.failure;
+                }
+                pages++;
+                if (range.objects.size() < limit) {
+                    end = Math.min(end, range.index);
+                }
+                if (!ordered) {
+                    delivered += deliver(range.objects, seen, consumer);
+                    range.objects = null;
+                }
+                unsettled.put(range.index, range);
+
+                // Ranges are settled in order: boundary with previous range is checked, then ordered range is delivered.
+                for (Range<T> current; (current = unsettled.remove(settled)) != null; settled++) {
+                    if (previous != null && previous.ids.length == limit) {
+                        delivered += checkBoundary(previous, current, seen, consumer);
+                    }
+                    if (ordered) {
+                        delivered += deliver(current.objects, seen, consumer);
+                        current.objects = null;
+                    }
+                    previous = current;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new ProcessingException(ex);
+        } finally {
+            for (CompletableFuture<List<T>> read : running.values()) {
+                read.cancel(false);
+            }
+        }
+        log.info("Harvest finished (objects={}, pages={}, duplicates={}, repairs={}, unrepairedGaps={}).",
+                new Object[]{delivered, pages, duplicates, repairs, unrepairedGaps});
+        return delivered;
+    }
+
+    private long deliver(List<T> objects, Set<Integer> seen, Consumer<? super T> consumer) {
+        long count = 0;
+        for (T object : objects) {
+            if (seen.add(object.getID())) {
+                consumer.accept(object);
+                count++;
+            } else {
+                duplicates++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks, that the next range starts with object read by the previous range, otherwise reads objects between them.
+     *
+     * @return Returns count of delivered objects missed by ranges.
+     */
+    private long checkBoundary(Range<T> previous, Range<T> next, Set<Integer> seen, Consumer<? super T> consumer) {
+        if (next.ids.length > 0 && contains(previous.ids, next.ids[0])) {
+            return 0;
+        }
+        int offset = next.index * pageSize;
+        int window = Math.max(overlap, 1);
+        List<T> objects = Collections.emptyList();
+        boolean bridged = false;
+        for (int attempt = 0; attempt < MAX_REPAIR_READS && !bridged; attempt++) {
+            window *= 2;
+            int from = Math.max(0, offset - window);
+            // Every window contains the smaller ones, only the last one is delivered to keep order of offsets.
+            objects = TokenManager.join(reader.read(offset - from + overlap, from));
+            if (objects == null) {
+                objects = Collections.emptyList();
+            }
+            for (T object : objects) {
+                bridged |= contains(previous.ids, object.getID());
+            }
+            if (from == 0) {
+                break;
+            }
+        }
+        if (bridged) {
+            repairs++;
+        } else {
+            unrepairedGaps++;
+            log.warn("Objects deleted during harvest near offset {} could not be bridged, some objects may be missing.", offset);
+        }
+        return deliver(objects, seen, consumer);
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int candidate : ids) {
+            if (candidate == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Returns count of ranges read by the last harvest.
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * @return Returns count of objects read more than once and delivered once.
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return Returns count of boundaries of ranges, whose gap was repaired.
+     */
+    public int getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * @return Returns count of boundaries of ranges, whose gap could not be repaired.
+     */
+    public int getUnrepairedGaps() {
+        return unrepairedGaps;
+    }
+
+    private static class Range<T extends DSpaceObject> {
+
+        final int index;
+        List<T> objects;
+        final int[] ids;
+        final Throwable failure;
+
+        Range(int index, List<T> objects, Throwable failure) {
+            this.index = index;
+            this.objects = objects != null ? objects : Collections.<T>emptyList();
+            this.ids = new int[this.objects.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = this.objects.get(i).getID();
+            }
+            this.failure = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        }
+    }
+}
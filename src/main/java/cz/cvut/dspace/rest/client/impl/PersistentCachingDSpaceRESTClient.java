@@ -0,0 +1,279 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+
+import cz.cvut.dspace.rest.client.DSpaceRESTClient;
+
+/**
+ * Client, which keeps items with their metadata in persistent {@link ItemStore}, so process restarted within max age
+ * of stored items finds them without requests. Items are stored by findItemById and by readAllItems and
+ * readCollectionItems, whose expand covers all fields expanded by findItemById ({@link #FIND_EXPAND}), so stored item
+ * has the same fields as item found in DSpace. Writes of items and bitstreams through this client remove items, which
+ * depend on written objects (see {@link CacheDependencies}), e.g. items embedding updated bitstream. Writes by other
+ * clients are seen after max age.
+ */
+public class PersistentCachingDSpaceRESTClient extends DelegatingDSpaceRESTClient {
+
+    /** Fields of item expanded by findItemById. */
+    public static final String FIND_EXPAND = "parentCollectionList,parentCollection,metadata,bitstreams";
+
+    private final ItemStore store;
+    private final Dependents dependents;
+    private final long maxAgeMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param delegate Client, which reads items from DSpace.
+     * @param store    Opened store of items, it is not closed by client.
+     * @param maxAge   Max age of stored item, older item is read from DSpace again.
+     * @param unit     Unit of maxAge.
+     */
+    public PersistentCachingDSpaceRESTClient(DSpaceRESTClient delegate, ItemStore store, long maxAge, TimeUnit unit) {
+        this(delegate, store, new Dependents(store), unit.toMillis(maxAge));
+    }
+
+    private PersistentCachingDSpaceRESTClient(DSpaceRESTClient delegate, ItemStore store, Dependents dependents, long maxAgeMillis) {
+        super(delegate);
+        this.store = store;
+        this.dependents = dependents;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    @Override
+    protected DSpaceRESTClient wrap(DSpaceRESTClient view) {
+        return new PersistentCachingDSpaceRESTClient(view, store, dependents, maxAgeMillis);
+    }
+
+    public ItemStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return Returns count of items found in store.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Returns count of finds of items passed to DSpace.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Stores items read with given expand, if they have all fields of found item.
+     */
+    private void store(List<Item> items, String expand) {
+        if (covers(expand)) {
+            for (Item item : items) {
+                dependents.put(item);
+            }
+        }
+    }
+
+    /**
+     * Removes stored items, which depend on any of given objects.
+     */
+    private void invalidate(String... dependencies) {
+        for (String dependency : dependencies) {
+            dependents.invalidate(dependency);
+        }
+    }
+
+    /**
+     * @return Returns true, if expand includes all fields of {@link #FIND_EXPAND}.
+     */
+    static boolean covers(String expand) {
+        List<String> fields = new ArrayList<>();
+        for (String field : expand != null ? expand.split(",") : new String[0]) {
+            fields.add(field.trim());
+        }
+        return fields.contains("all") || fields.containsAll(Arrays.asList(FIND_EXPAND.split(",")));
+    }
+
+    @Override
+    public List<Item> readCollectionItems(Integer parentCollectionId, String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        List<Item> items = delegate.readCollectionItems(parentCollectionId, expand, limit, offset);
+        store(items, expand);
+        return items;
+    }
+
+    @Override
+    public Item findItemById(Integer dspaceId, boolean includeMetadata, boolean includeBitstreams) throws ProcessingException, WebApplicationException {
+        ItemStore.Entry entry = store.get(dspaceId);
+        if (entry != null && System.currentTimeMillis() - entry.getStoredAt() < maxAgeMillis) {
+            hits.increment();
+            return entry.getItem();
+        }
+        misses.increment();
+        Item item = delegate.findItemById(dspaceId, includeMetadata, includeBitstreams);
+        if (item == null) {
+            dependents.remove(dspaceId);
+        } else {
+            dependents.put(item);
+        }
+        return item;
+    }
+
+    @Override
+    public void updateItem(Integer itemId, List<MetadataEntry> metadata) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateItem(itemId, metadata);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void deleteItem(Integer itemId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteItem(itemId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public List<Item> readAllItems(String expand, Integer limit, Integer offset) throws ProcessingException, WebApplicationException {
+        List<Item> items = delegate.readAllItems(expand, limit, offset);
+        store(items, expand);
+        return items;
+    }
+
+    @Override
+    public void addItemToCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.addItemToCollection(itemId, collectionId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void deleteItemFromCollection(Integer itemId, Integer collectionId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteItemFromCollection(itemId, collectionId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public Bitstream addBitstream(Integer itemId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        try {
+            return delegate.addBitstream(itemId, bitstream, is);
+        } finally {
+            invalidate(CacheDependencies.item(itemId));
+        }
+    }
+
+    @Override
+    public void updateBitstream(Integer bitstreamId, Bitstream bitstream, InputStream is) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.updateBitstream(bitstreamId, bitstream, is);
+        } finally {
+            invalidate(CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+
+    @Override
+    public void deleteBitstream(Integer itemId, Integer bitstreamId) throws ProcessingException, WebApplicationException {
+        try {
+            delegate.deleteBitstream(itemId, bitstreamId);
+        } finally {
+            invalidate(CacheDependencies.item(itemId), CacheDependencies.bitstream(bitstreamId));
+        }
+    }
+
+    /**
+     * Stored items by their dependencies (see {@link CacheDependencies}), shared by client and its views. Index is
+     * built by one pass over the store on first write, since the store may have items of previous process, and then
+     * it follows items stored and removed by client.
+     */
+    private static final class Dependents {
+
+        private final ItemStore store;
+        /** Ids of stored items by their dependencies, it is null, until the index is built. */
+        private Map<String, Set<Integer>> items;
+        private final Map<Integer, Set<String>> dependencies = new HashMap<>();
+
+        Dependents(ItemStore store) {
+            this.store = store;
+        }
+
+        synchronized void put(Item item) {
+            store.put(item);
+            if (items != null) {
+                unindex(item.getID());
+                index(item);
+            }
+        }
+
+        synchronized void remove(Integer itemId) {
+            store.remove(itemId);
+            if (items != null) {
+                unindex(itemId);
+            }
+        }
+
+        /**
+         * Removes items, which depend on given object.
+         */
+        synchronized void invalidate(String dependency) {
+            if (items == null) {
+                items = new HashMap<>();
+                for (Integer itemId : store.getItemIds()) {
+                    ItemStore.Entry entry = store.get(itemId);
+                    if (entry != null) {
+                        index(entry.getItem());
+                    }
+                }
+            }
+            Set<Integer> itemIds = items.get(dependency);
+            for (Integer itemId : itemIds != null ? new ArrayList<>(itemIds) : Collections.<Integer>emptyList()) {
+                remove(itemId);
+            }
+        }
+
+        private void index(Item item) {
+            Set<String> names = CacheDependencies.of(item);
+            dependencies.put(item.getID(), names);
+            for (String name : names) {
+                items.computeIfAbsent(name, key -> new HashSet<>()).add(item.getID());
+            }
+        }
+
+        private void unindex(Integer itemId) {
+            Set<String> names = dependencies.remove(itemId);
+            if (names != null) {
+                for (String name : names) {
+                    Set<Integer> itemIds = items.get(name);
+                    if (itemIds != null && itemIds.remove(itemId) && itemIds.isEmpty()) {
+                        items.remove(name);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,86 +1,87 @@
 package cz.cvut.dspace.rest.client.impl;
 
+import java.util.function.LongSupplier;
+
 import cz.cvut.dspace.rest.client.Configuration;
-import org.apache.http.client.HttpClient;
-import org.apache.http.conn.scheme.PlainSocketFactory;
-import org.apache.http.conn.scheme.Scheme;
-import org.apache.http.conn.scheme.SchemeRegistry;
-import org.apache.http.conn.ssl.SSLSocketFactory;
-import org.apache.http.conn.ssl.TrustStrategy;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.PoolingClientConnectionManager;
 import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
-import org.jboss.resteasy.client.jaxrs.engines.ApacheHttpClient4Engine;
 import org.jboss.resteasy.plugins.providers.jackson.ResteasyJacksonProvider;
 
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
-import java.security.UnrecoverableKeyException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
-import java.util.concurrent.TimeUnit;
-
 /**
  * @author Petr Karel
  * @version $Revision: 4 $
  */
 public class PooledDSpaceRESTClient extends AbstractDSpaceRESTClient {
 
-    private PoolingClientConnectionManager connectionManager;
-    private HttpClient httpClient;
-    private ApacheHttpClient4Engine engine;
+    public static final int DEFAULT_TRANSFER_MAX_TOTAL = 2;
+
+    private ManagedConnectionPool connectionPool;
+    private ManagedConnectionPool transferConnectionPool;
 
     public PooledDSpaceRESTClient(Configuration configuration) {
         super(configuration);
     }
 
+    protected PooledDSpaceRESTClient(Configuration configuration, LongSupplier ticker) {
+        super(configuration, ticker);
+    }
+
     public void create() {
         // Add jackson provider to builder
         ResteasyJacksonProvider resteasyJacksonProvider = new ResteasyJacksonProvider();
-        ResteasyClientBuilder builder = new ResteasyClientBuilder().register(resteasyJacksonProvider);
+        ResteasyClientBuilder builder = clientBuilder().register(resteasyJacksonProvider);
 
-        // Create schema registry for trusting all certs
-        SchemeRegistry registry = new SchemeRegistry();
-        registry.register(new Scheme("http", 80, PlainSocketFactory.getSocketFactory()));
-        TrustStrategy trustStrategy = new TrustStrategy() {
-            public boolean isTrusted(X509Certificate[] chain, String authType) throws CertificateException {
-                return true;
-            }
-        };
+        // Create pool of connections trusting all certs, with timeouts, keep-alive and eviction of idle connections
+        connectionPool = new ManagedConnectionPool(configuration, "metadata", configuration.getMaxTotal(), configuration.getMaxPerRoute());
+        connectionPool.start();
 
-        // Create SSLFactory
-        SSLSocketFactory factory = null;
-        try {
-            factory = new SSLSocketFactory(trustStrategy, SSLSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER);
-        } catch (NoSuchAlgorithmException | KeyManagementException | UnrecoverableKeyException | KeyStoreException e) {
-            e.printStackTrace();
-        }
-        registry.register(new Scheme("https", 443, factory));
+        // Create rest client
+        client = builder.httpEngine(new DeadlineApacheHttpClient4Engine(connectionPool.getHttpClient())).build();
 
-        // Create pooling connection manager
-        connectionManager = new PoolingClientConnectionManager(registry);
-        if (configuration.getMaxTotal() != null) {
-            connectionManager.setMaxTotal(configuration.getMaxTotal());
-        }
-        if (configuration.getMaxPerRoute() != null) {
-            connectionManager.setDefaultMaxPerRoute(configuration.getMaxPerRoute());
-        }
+        // Bitstream data are transferred by separate pool, so large uploads can not starve metadata calls
+        Integer transferMaxTotal = configuration.getTransferMaxTotal() != null ? configuration.getTransferMaxTotal() : DEFAULT_TRANSFER_MAX_TOTAL;
+        Integer transferMaxPerRoute = configuration.getTransferMaxPerRoute() != null ? configuration.getTransferMaxPerRoute() : transferMaxTotal;
+        transferConnectionPool = new ManagedConnectionPool(configuration, "transfer", transferMaxTotal, transferMaxPerRoute);
+        transferConnectionPool.start();
+        transferClient = clientBuilder().register(resteasyJacksonProvider)
+                .httpEngine(new DeadlineApacheHttpClient4Engine(transferConnectionPool.getHttpClient())).build();
+        startCircuitBreakers();
+        startTokenRefresh();
+    }
 
-        // Create rest client
-        httpClient = new DefaultHttpClient(connectionManager);
-        engine = new ApacheHttpClient4Engine(httpClient);
-        client = builder.httpEngine(engine).disableTrustManager().establishConnectionTimeout(120, TimeUnit.SECONDS).build();
+    /**
+     * Returns pool of connections of this client for metadata calls.
+     *
+     * @return Returns pool or null, if client was not created yet.
+     */
+    public ManagedConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    /**
+     * Returns pool of connections of this client for transfers of bitstream data.
+     *
+     * @return Returns pool or null, if client was not created yet.
+     */
+    public ManagedConnectionPool getTransferConnectionPool() {
+        return transferConnectionPool;
     }
 
     @Override
     public void destroy() {
+        stopTokenRefresh();
+        stopCircuitBreakers();
+        shutdown(connectionPool);
+        shutdown(transferConnectionPool);
+    }
+
+    private void shutdown(ManagedConnectionPool pool) {
+        if (pool == null) {
+            return;
+        }
         try {
-            //client.close();
-            //engine.finalize();
-            connectionManager.shutdown();
-        } catch (Throwable ex) {
-            ex.printStackTrace();
+            pool.shutdown();
+        } catch (RuntimeException ex) {
+            log.warn("Shutdown of connection pool failed.", ex);
         }
     }
 }
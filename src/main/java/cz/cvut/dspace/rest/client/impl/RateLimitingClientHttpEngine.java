@@ -0,0 +1,173 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+
+/**
+ * Http engine, which throttles requests to DSpace by token buckets: reads (GET, HEAD and finds sent by POST)
+ * and writes (other requests) by count of requests per second, uploads of bitstreams by bytes per second.
+ * Synchronous requests wait in calling thread, asynchronous requests are submitted later by timer, so they
+ * do not block threads. Request, whose deadline (see {@link Deadline}) would expire before its turn, fails
+ * at once without spending a token.
+ */
+public class RateLimitingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dspace-rate-limit-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final TokenBucket reads;
+    private final TokenBucket writes;
+    private final TokenBucket bitstreamBytes;
+
+    /**
+     * @param delegate       Transport engine.
+     * @param reads          Bucket of read requests or null for no limit.
+     * @param writes         Bucket of write requests or null for no limit.
+     * @param bitstreamBytes Bucket of uploaded bytes or null for no limit.
+     */
+    public RateLimitingClientHttpEngine(ClientHttpEngine delegate, TokenBucket reads, TokenBucket writes, TokenBucket bitstreamBytes) {
+        super(delegate);
+        this.reads = reads;
+        this.writes = writes;
+        this.bitstreamBytes = bitstreamBytes;
+    }
+
+    /** Paths of finds, which are sent by POST, but read only. */
+    private static final String[] READ_POSTS = {"/collections/find-collection", "/items/find-by-metadata-field"};
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        long wait = reserve(invocation, Deadline.current());
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException(ex);
+            }
+        }
+        return delegate.invoke(invocation);
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        long wait;
+        try {
+            wait = reserve(invocation, callDeadline(invocation));
+        } catch (ProcessingException ex) {
+            CompletableFuture<ClientResponse> future = new CompletableFuture<>();
+            future.completeExceptionally(ex);
+            return future;
+        }
+        if (wait <= 0) {
+            return submit(delegate, invocation);
+        }
+        final CompletableFuture<Void> delay = new CompletableFuture<>();
+        timer.schedule(() -> delay.complete(null), wait, TimeUnit.NANOSECONDS);
+        return delay.thenCompose(ignored -> submit(delegate, invocation));
+    }
+
+    /**
+     * Reserves permit for request and throttles its streamed entity.
+     *
+     * @param deadline Deadline of request or null.
+     * @return Returns nanoseconds, for which request has to wait.
+     * @throws ProcessingException Caused by {@link TimeoutException}, when deadline would expire before permit.
+     */
+    private long reserve(ClientInvocation invocation, Deadline deadline) {
+        TokenBucket bucket = isRead(invocation) ? reads : writes;
+        long wait = 0;
+        if (bucket != null) {
+            wait = bucket.tryReserve(1, deadline != null ? deadline.remaining(TimeUnit.NANOSECONDS) : Long.MAX_VALUE);
+            if (wait < 0) {
+                throw new ProcessingException(new TimeoutException("Deadline would expire while waiting for rate limit ["
+                        + invocation.getMethod() + " " + invocation.getUri() + "]."));
+            }
+        }
+        if (bitstreamBytes != null && invocation.getEntity() instanceof InputStream
+                && !(invocation.getEntity() instanceof ThrottledInputStream)) {
+            invocation.setEntityObject(new ThrottledInputStream((InputStream) invocation.getEntity(), bitstreamBytes));
+        }
+        return wait;
+    }
+
+    /**
+     * @return Returns true for requests, which do not change DSpace.
+     */
+    static boolean isRead(ClientInvocation invocation) {
+        String method = invocation.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return true;
+        }
+        if ("POST".equals(method)) {
+            String path = invocation.getUri().getPath();
+            for (String find : READ_POSTS) {
+                if (path.endsWith(find)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Deadline callDeadline(ClientInvocation invocation) {
+        Object deadline = invocation.getConfiguration().getProperty(Deadline.PROPERTY);
+        return deadline instanceof Deadline ? (Deadline) deadline : Deadline.current();
+    }
+
+    /**
+     * Stream, which pays for read bytes to token bucket.
+     */
+    static class ThrottledInputStream extends FilterInputStream {
+
+        private final TokenBucket bucket;
+
+        ThrottledInputStream(InputStream in, TokenBucket bucket) {
+            super(in);
+            this.bucket = bucket;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                pay(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                pay(count);
+            }
+            return count;
+        }
+
+        private void pay(long bytes) throws IOException {
+            try {
+                bucket.acquire(bytes);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Upload was interrupted.");
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Budget of retries shared by all requests of client. Every request deposits a fraction of retry and every retry
+ * withdraws a whole one, so retries make at most the given ratio of requests after the initial reserve is spent.
+ * It keeps retries from multiplying load of DSpace, which fails because it is overloaded.
+ */
+public class RetryBudget {
+
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio   Max ratio of retries to requests, e.g. 0.2.
+     * @param reserve Count of retries, which can be made at once, e.g. after start of client.
+     */
+    public RetryBudget(double ratio, int reserve) {
+        if (ratio < 0 || reserve < 0) {
+            throw new IllegalArgumentException("Invalid retry budget [ratio=" + ratio + ", reserve=" + reserve + "].");
+        }
+        this.deposit = (long) (ratio * UNIT);
+        this.capacity = Math.max(reserve * UNIT, deposit);
+        this.balance = new AtomicLong(reserve * UNIT);
+    }
+
+    /**
+     * Deposits share of new request.
+     */
+    public void deposit() {
+        long current;
+        do {
+            current = balance.get();
+        } while (current < capacity && !balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Withdraws one retry.
+     *
+     * @return Returns false, if the budget is spent and request must not be retried.
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < UNIT) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - UNIT));
+        return true;
+    }
+
+    /**
+     * @return Returns count of retries, which can be made now.
+     */
+    public int getAvailable() {
+        return (int) (balance.get() / UNIT);
+    }
+}
@@ -0,0 +1,222 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.jboss.resteasy.client.jaxrs.ClientHttpEngine;
+import org.jboss.resteasy.client.jaxrs.internal.ClientInvocation;
+import org.jboss.resteasy.client.jaxrs.internal.ClientResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import cz.cvut.dspace.rest.client.RetryPolicy;
+
+/**
+ * Http engine, which retries requests failed by transient failure according to {@link RetryPolicy}. Policy
+ * of request is taken from its invocation property, from current thread, from its group of operations (see
+ * {@link CircuitBreakingClientHttpEngine}) or from client, in this order. Retries
+ * are limited by {@link RetryBudget} of client and by deadline of call: request is not retried, if the delay
+ * would outlast the deadline. Requests with streamed entity can not be replayed, so they are never retried.
+ * <p>
+ * Synchronous requests wait for retry in calling thread, asynchronous requests are resubmitted by timer.
+ * Responses of failed attempts are closed, so their connections are released during delay.
+ */
+public class RetryingClientHttpEngine extends DelegatingClientHttpEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryingClientHttpEngine.class);
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dspace-retry-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RetryPolicy defaultPolicy;
+    private final RetryBudget budget;
+    private final Map<String, RetryPolicy> groupPolicies;
+    private final String basePath;
+
+    /**
+     * @param delegate      Engine, which executes single attempt.
+     * @param defaultPolicy Policy of requests, which have no policy of their own.
+     * @param budget        Budget of retries shared by requests of client.
+     * @param groupPolicies Policies by group of operations, which override default policy.
+     * @param endpointURL   Endpoint of DSpace, paths of groups are relative to it.
+     */
+    public RetryingClientHttpEngine(ClientHttpEngine delegate, RetryPolicy defaultPolicy, RetryBudget budget,
+                                    Map<String, RetryPolicy> groupPolicies, String endpointURL) {
+        super(delegate);
+        this.defaultPolicy = defaultPolicy;
+        this.budget = budget;
+        this.groupPolicies = groupPolicies != null ? groupPolicies : Collections.<String, RetryPolicy>emptyMap();
+        this.basePath = this.groupPolicies.isEmpty() ? null : CircuitBreakingClientHttpEngine.basePath(endpointURL);
+    }
+
+    @Override
+    public ClientResponse invoke(ClientInvocation invocation) {
+        RetryPolicy policy = policy(invocation);
+        if (policy == null) {
+            return delegate.invoke(invocation);
+        }
+        budget.deposit();
+        for (int attempt = 1; ; attempt++) {
+            ClientResponse response = null;
+            RuntimeException failure = null;
+            try {
+                response = delegate.invoke(invocation);
+            } catch (RuntimeException ex) {
+                failure = ex;
+            }
+            long delay = retryDelay(invocation, policy, attempt, response, failure);
+            if (delay < 0) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+            if (response != null) {
+                response.close();
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException(ex);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<ClientResponse> submit(final ClientInvocation invocation) {
+        RetryPolicy policy = policy(invocation);
+        if (policy == null) {
+            return submit(delegate, invocation);
+        }
+        budget.deposit();
+        CompletableFuture<ClientResponse> result = new CompletableFuture<>();
+        attempt(invocation, policy, 1, result);
+        return result;
+    }
+
+    private void attempt(final ClientInvocation invocation, final RetryPolicy policy, final int attempt,
+                         final CompletableFuture<ClientResponse> result) {
+        submit(delegate, invocation).whenComplete((response, ex) -> {
+            long delay = result.isDone() ? -1 : retryDelay(invocation, policy, attempt, response, ex);
+            if (delay < 0) {
+                if (ex != null) {
+                    result.completeExceptionally(ex);
+                } else if (!result.complete(response)) {
+                    response.close();
+                }
+                return;
+            }
+            if (response != null) {
+                response.close();
+            }
+            timer.schedule(() -> attempt(invocation, policy, attempt + 1, result), delay, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    /**
+     * @return Returns policy of request or null, if request can not be retried.
+     */
+    private RetryPolicy policy(ClientInvocation invocation) {
+        Object property = invocation.getConfiguration().getProperty(RetryPolicy.PROPERTY);
+        RetryPolicy policy = property instanceof RetryPolicy ? (RetryPolicy) property : RetryPolicy.current();
+        if (policy == null && basePath != null) {
+            String group = CircuitBreakingClientHttpEngine.group(basePath, invocation);
+            policy = group != null ? groupPolicies.get(group) : null;
+        }
+        if (policy == null) {
+            policy = defaultPolicy;
+        }
+        if (policy == null || !policy.allows(invocation.getMethod()) || invocation.getEntity() instanceof InputStream) {
+            return null;
+        }
+        return policy;
+    }
+
+    /**
+     * Decides, whether failed attempt is retried.
+     *
+     * @return Returns delay before next attempt in nanoseconds or -1, if request is not retried.
+     */
+    private long retryDelay(ClientInvocation invocation, RetryPolicy policy, int attempt, ClientResponse response, Throwable failure) {
+        if (attempt >= policy.getMaxAttempts()) {
+            return -1;
+        }
+        long delay = policy.backoffNanos(attempt);
+        if (response != null) {
+            int status = response.getStatus();
+            if (status != 429 && status != 502 && status != 503 && status != 504) {
+                return -1;
+            }
+            long retryAfter = retryAfterNanos(response);
+            if (retryAfter > policy.getMaxDelay(TimeUnit.NANOSECONDS)) {
+                log.debug("DSpace asked to retry after {} ms, which is over max delay [{} {}].", new Object[] {
+                        TimeUnit.NANOSECONDS.toMillis(retryAfter), invocation.getMethod(), invocation.getUri() });
+                return -1;
+            }
+            delay = Math.max(delay, retryAfter);
+        } else if (!isTransient(failure)) {
+            return -1;
+        }
+        Object property = invocation.getConfiguration().getProperty(Deadline.PROPERTY);
+        Deadline deadline = property instanceof Deadline ? (Deadline) property : Deadline.current();
+        if (deadline != null && deadline.remaining(TimeUnit.NANOSECONDS) <= delay) {
+            return -1;
+        }
+        if (!budget.tryWithdraw()) {
+            log.warn("Budget of retries is spent, request is not retried [{} {}].", invocation.getMethod(), invocation.getUri());
+            return -1;
+        }
+        log.debug("Retrying request in {} ms, attempt {} failed by {} [{} {}].", new Object[] { TimeUnit.NANOSECONDS.toMillis(delay), attempt,
+                response != null ? String.valueOf(response.getStatus()) : String.valueOf(failure), invocation.getMethod(), invocation.getUri() });
+        return delay;
+    }
+
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads Retry-After header, which holds either seconds or HTTP date.
+     *
+     * @return Returns requested delay in nanoseconds or 0.
+     */
+    static long retryAfterNanos(ClientResponse response) {
+        String value = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        value = value.trim();
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException ex) {
+            try {
+                long millis = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - System.currentTimeMillis();
+                return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+}
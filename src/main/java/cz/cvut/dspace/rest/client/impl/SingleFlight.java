@@ -0,0 +1,122 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Deduplication of concurrent identical reads. The first caller of key loads the result, callers, which come
+ * while it is loading, wait for it and get the same result (or the same exception). Synchronous and asynchronous
+ * reads with the same key share one request.
+ * <p>
+ * Shared results are the same objects for all callers, so callers must not modify them.
+ */
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Loads result or waits for result of concurrent identical read. Waiting caller gives up at its deadline
+     * (see {@link Deadline}).
+     *
+     * @param key    Identity of read, e.g. "findCollectionById/1/".
+     * @param loader Loads result in calling thread.
+     * @return Returns result of read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(key, running);
+        }
+        T result;
+        try {
+            result = loader.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        inFlight.remove(key, future);
+        future.complete(result);
+        return result;
+    }
+
+    /**
+     * Starts read or joins concurrent identical read.
+     *
+     * @param key    Identity of read.
+     * @param loader Starts asynchronous read.
+     * @return Returns future of result. Every caller gets its own future, so cancellation by one caller does not
+     *         affect the others.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(final String key, Supplier<CompletableFuture<T>> loader) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            return (CompletableFuture<T>) running.thenApply(Function.identity());
+        }
+        CompletableFuture<T> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException | Error ex) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+        loading.whenComplete((result, ex) -> {
+            inFlight.remove(key, future);
+            if (ex != null) {
+                future.completeExceptionally(ex);
+            } else {
+                future.complete(result);
+            }
+        });
+        return (CompletableFuture<T>) future.thenApply(Function.identity());
+    }
+
+    private static Object await(String key, CompletableFuture<Object> running) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return TokenManager.join(running);
+        }
+        try {
+            return running.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw new ProcessingException(new TimeoutException("Deadline expired while waiting for concurrent read [" + key + "]."));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex);
+        } catch (ExecutionException ex) {
+            // Let join unwrap the failure of the read the same way as for callers without deadline.
+            return TokenManager.join(running);
+        }
+    }
+
+    /**
+     * @return Returns count of reads, which joined concurrent identical read instead of sending request.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return Returns count of reads in flight.
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,76 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of count of tokens it keeps the time, when all permits reserved so far are
+ * paid off (GCRA), so reservation is a single compare-and-set. Caller, who reserves permits over burst,
+ * gets the time, for which it has to wait; later callers queue behind it.
+ */
+public class TokenBucket {
+
+    private final double nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong paidOffNanos;
+
+    /**
+     * @param permitsPerSecond Sustained rate.
+     * @param burstPermits     Count of permits, which can be taken at once after idle period.
+     */
+    public TokenBucket(double permitsPerSecond, double burstPermits) {
+        if (permitsPerSecond <= 0 || burstPermits < 1) {
+            throw new IllegalArgumentException("Invalid rate " + permitsPerSecond + "/s with burst " + burstPermits + ".");
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstNanos = (long) (burstPermits * nanosPerPermit);
+        this.paidOffNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Reserves permits.
+     *
+     * @param permits Count of permits.
+     * @return Returns nanoseconds, for which caller has to wait before it uses the permits.
+     */
+    public long reserve(long permits) {
+        return tryReserve(permits, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reserves permits, unless caller would have to wait for them longer than given time.
+     *
+     * @param permits      Count of permits.
+     * @param maxWaitNanos Max time, for which caller can wait.
+     * @return Returns nanoseconds, for which caller has to wait before it uses the permits, or -1, when permits
+     * were not reserved.
+     */
+    public long tryReserve(long permits, long maxWaitNanos) {
+        long cost = (long) (permits * nanosPerPermit);
+        while (true) {
+            long now = System.nanoTime();
+            long paidOff = paidOffNanos.get();
+            long next = Math.max(paidOff, now) + cost;
+            long wait = Math.max(0, next - now - burstNanos);
+            if (wait > maxWaitNanos) {
+                return -1;
+            }
+            if (paidOffNanos.compareAndSet(paidOff, next)) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Reserves permits and waits for them.
+     *
+     * @param permits Count of permits.
+     * @throws InterruptedException When thread is interrupted while waiting.
+     */
+    public void acquire(long permits) throws InterruptedException {
+        long wait = reserve(permits);
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Thread-safe holder of authentication token for DSpace rest api.
+ * <p>
+ * Login is single-flight: when there is no token, exactly one thread performs login and all other threads wait
+ * for its result. Renewal of expired token is single-flight as well, so many requests failing with the same
+ * stale token cost only one login round trip. Failed login is not cached, next request tries login again.
+ */
+public class TokenManager {
+
+    private final AtomicReference<CompletableFuture<String>> current = new AtomicReference<>();
+    /** Time of last successful login in milliseconds. */
+    private volatile long issuedAt;
+
+    /**
+     * Returns future of token. If there is no token nor running login, given login action is started by calling
+     * thread, otherwise the running (or finished) login is shared.
+     *
+     * @param login Action, which requests new token from DSpace.
+     * @return Returns future of token.
+     */
+    public CompletableFuture<String> token(Supplier<CompletableFuture<String>> login) {
+        while (true) {
+            CompletableFuture<String> token = current.get();
+            if (token != null) {
+                return token;
+            }
+            final CompletableFuture<String> placeholder = new CompletableFuture<>();
+            if (current.compareAndSet(null, placeholder)) {
+                CompletableFuture<String> requested;
+                try {
+                    requested = login.get();
+                } catch (RuntimeException ex) {
+                    requested = new CompletableFuture<>();
+                    requested.completeExceptionally(ex);
+                }
+                requested.whenComplete((value, failure) -> {
+                    if (failure != null) {
+                        // Do not cache failed login.
+                        current.compareAndSet(placeholder, null);
+                        placeholder.completeExceptionally(failure);
+                    } else {
+                        issuedAt = System.currentTimeMillis();
+                        placeholder.complete(value);
+                    }
+                });
+                return placeholder;
+            }
+        }
+    }
+
+    /**
+     * Renews token, which was rejected by DSpace. If the token was already renewed (or is being renewed)
+     * by other thread, the new token is shared and no login is performed.
+     *
+     * @param staleToken Token, which was rejected.
+     * @param login      Action, which requests new token from DSpace.
+     * @return Returns future of new token.
+     */
+    public CompletableFuture<String> renew(String staleToken, Supplier<CompletableFuture<String>> login) {
+        invalidate(staleToken);
+        return token(login);
+    }
+
+    /**
+     * Requests new token while the current one is still served to requests, then swaps them atomically.
+     * It is meant for background refresh, so request threads never wait for this login.
+     * If the token was replaced meanwhile by other thread, new token is dropped.
+     *
+     * @param staleToken Token, which should be replaced.
+     * @param login      Action, which requests new token from DSpace.
+     * @return Returns true, if token was replaced.
+     */
+    public boolean refresh(String staleToken, Supplier<CompletableFuture<String>> login) {
+        CompletableFuture<String> token = current.get();
+        if (token == null || !token.isDone() || token.isCompletedExceptionally() || !token.getNow(null).equals(staleToken)) {
+            return false;
+        }
+        String fresh = join(login.get());
+        if (current.compareAndSet(token, CompletableFuture.completedFuture(fresh))) {
+            issuedAt = System.currentTimeMillis();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns age of current token.
+     *
+     * @return Returns milliseconds since last successful login.
+     */
+    public long getTokenAge() {
+        return System.currentTimeMillis() - issuedAt;
+    }
+
+    /**
+     * Forgets token if it is still the current one.
+     *
+     * @param staleToken Token, which is not valid anymore.
+     */
+    public void invalidate(String staleToken) {
+        CompletableFuture<String> token = current.get();
+        if (token != null && token.isDone() && !token.isCompletedExceptionally()
+                && token.getNow(null).equals(staleToken)) {
+            current.compareAndSet(token, null);
+        }
+    }
+
+    /**
+     * Returns current token without logging in.
+     *
+     * @return Returns current token or null, if client is not logged in or login is still running.
+     */
+    public String peek() {
+        CompletableFuture<String> token = current.get();
+        if (token != null && token.isDone() && !token.isCompletedExceptionally()) {
+            return token.getNow(null);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for future and rethrows its failure unwrapped, so synchronous callers get the same exceptions
+     * as before (WebApplicationException, ProcessingException).
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ProcessingException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ProcessingException(cause);
+        }
+    }
+}
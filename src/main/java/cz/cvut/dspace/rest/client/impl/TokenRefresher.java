@@ -0,0 +1,81 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Background task, which keeps authentication token of client valid, so requests do not pay login latency.
+ * It logs in when client has no token (e.g. after logout), checks the token by GET /status and renews it,
+ * when DSpace does not accept it anymore or when it is older than configured max age. Token replaced for its age
+ * is logged out afterwards.
+ */
+public class TokenRefresher implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRefresher.class);
+
+    private final AbstractDSpaceRESTClient owner;
+    private final long interval;
+    private final Long maxAge;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param owner    Client, whose token is refreshed.
+     * @param interval Period of check in seconds.
+     * @param maxAge   Max age of token in seconds or null.
+     */
+    public TokenRefresher(AbstractDSpaceRESTClient owner, long interval, Long maxAge) {
+        this.owner = owner;
+        this.interval = interval;
+        this.maxAge = maxAge;
+    }
+
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "dspace-token-refresher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this, 0, interval, TimeUnit.SECONDS);
+        log.debug("Background refresh of authentication token started (interval={}s, maxAge={}s).", interval, maxAge);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            String token = owner.tokenManager.peek();
+            if (token == null) {
+                owner.login();
+            } else if (maxAge != null && owner.tokenManager.getTokenAge() >= TimeUnit.SECONDS.toMillis(maxAge)) {
+                log.debug("Authentication token is older than {}s, renewing it.", maxAge);
+                if (owner.tokenManager.refresh(token, owner::requestToken)) {
+                    // Old token is still valid, close its session. Token rejected by DSpace has no session anymore.
+                    owner.logoutReplacedToken(token);
+                }
+            } else if (!owner.isAuthenticated(token)) {
+                log.info("Authentication token is not valid anymore, renewing it.");
+                owner.tokenManager.refresh(token, owner::requestToken);
+            }
+        } catch (RuntimeException ex) {
+            // Keep the task scheduled, request path will login by itself if DSpace is not reachable now.
+            log.warn("Background refresh of authentication token failed.", ex);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package cz.cvut.dspace.rest.client.impl;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of deserialized responses with their validators (ETag and Last-Modified). Read of cached result is sent
+ * as conditional request with If-None-Match and If-Modified-Since and response 304 Not Modified is served from
+ * the cached result, so unchanged result is neither downloaded nor deserialized again. Result without validators
+ * is not cached and it is read as usual, so the cache costs nothing, when DSpace does not send validators.
+ * <p>
+ * Cache is bounded by count of results and it evicts the least recently used result, when it is full. Results are
+ * kept serialized and they are decoded by every {@link Entry#getValue()}, so every caller gets its own copy and
+ * changes made by callers do not reach the cache.
+ */
+public class ValidatingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ValidatingCache.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /** Format of dates in headers (RFC 1123). */
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+    /** Format of {@link java.util.Date#toString()}, which DSpace uses for last modification of item. */
+    private static final DateTimeFormatter DATE_TO_STRING = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US);
+
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry<?>> entries;
+
+    private long validations;
+    private long notModified;
+    private long stores;
+    private long withoutValidators;
+    private long evictions;
+
+    /**
+     * @param maxSize Max count of cached results.
+     */
+    public ValidatingCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Invalid size of cache " + maxSize + ".");
+        }
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns cached result and adds its validators to request, so DSpace answers 304, when result was not changed.
+     *
+     * @param key     Identity of read, e.g. name of operation and its arguments.
+     * @param request Request of read.
+     * @return Returns cached result or null, when there is none and request is not conditional.
+     */
+    public <T> Entry<T> validate(String key, Invocation.Builder request) {
+        Entry<T> entry = get(key);
+        if (entry != null) {
+            entry.addConditions(request);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns cached result, whose validators are added to request by {@link Entry#addConditions(Invocation.Builder)}.
+     *
+     * @param key Identity of read.
+     * @return Returns cached result or null.
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Entry<T> get(String key) {
+        Entry<T> entry = (Entry<T>) entries.get(key);
+        if (entry != null) {
+            validations++;
+        }
+        return entry;
+    }
+
+    /**
+     * Checks, whether response of conditional request confirms cached result.
+     *
+     * @param entry    Result returned by {@link #validate(String, Invocation.Builder)} or null.
+     * @param response Response of request.
+     * @return Returns true, when response is 304 Not Modified and cached result can be used, its body is not read.
+     */
+    public boolean isNotModified(Entry<?> entry, Response response) {
+        if (entry == null || response.getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()) {
+            return false;
+        }
+        synchronized (this) {
+            notModified++;
+        }
+        return true;
+    }
+
+    /**
+     * Stores result of read with validators of its response.
+     *
+     * @param key      Identity of read.
+     * @param response Response of read, whose body was read already.
+     * @param value    Deserialized result.
+     */
+    public <T> void store(String key, Response response, T value) {
+        store(key, response.getHeaderString(HttpHeaders.ETAG), response.getHeaderString(HttpHeaders.LAST_MODIFIED), null, value);
+    }
+
+    /**
+     * Stores result of read with validators of its response. Result of response without validators is removed,
+     * so stale result is never validated.
+     *
+     * @param key                  Identity of read.
+     * @param etag                 Value of ETag header or null.
+     * @param lastModified         Value of Last-Modified header or null.
+     * @param fallbackLastModified Time of last modification from result itself (e.g. lastModified of item), which is
+     *                             sent as If-Modified-Since, when response has no validators. It is used only, if it
+     *                             can be parsed. DSpace, which ignores it, simply answers with full result.
+     * @param value                Deserialized result, it is decoded to its class (e.g. Item[] rather than list).
+     */
+    public synchronized <T> void store(String key, String etag, String lastModified, String fallbackLastModified, T value) {
+        if (etag == null && lastModified == null && fallbackLastModified != null) {
+            lastModified = toHttpDate(fallbackLastModified);
+        }
+        if ((etag == null && lastModified == null) || value == null) {
+            withoutValidators++;
+            entries.remove(key);
+            return;
+        }
+        byte[] encoded;
+        try {
+            encoded = mapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            log.warn("Result of {} can not be cached: {}", key, ex.toString());
+            entries.remove(key);
+            return;
+        }
+        stores++;
+        entries.put(key, new Entry<>(etag, lastModified, encoded, value.getClass()));
+        Iterator<Entry<?>> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Returns count of conditional requests.
+     */
+    public synchronized long getValidations() {
+        return validations;
+    }
+
+    /**
+     * @return Returns count of reads served by cached result after response 304.
+     */
+    public synchronized long getNotModified() {
+        return notModified;
+    }
+
+    public synchronized long getStores() {
+        return stores;
+    }
+
+    /**
+     * @return Returns count of results, which were not cached, because their response had no validators.
+     */
+    public synchronized long getWithoutValidators() {
+        return withoutValidators;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Converts time of last modification written by DSpace (by {@link java.util.Date#toString()} or in ISO 8601)
+     * to date of http header.
+     *
+     * @return Returns http date or null, if time has unknown format.
+     */
+    private static String toHttpDate(String time) {
+        try {
+            return HTTP_DATE.format(ZonedDateTime.parse(time, DATE_TO_STRING));
+        } catch (DateTimeParseException ex) {
+            // Not a Date.toString()
+        }
+        try {
+            return HTTP_DATE.format(Instant.parse(time));
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ValidatingCache[size=" + entries.size() + ", validations=" + validations + ", notModified=" + notModified
+                + ", stores=" + stores + ", withoutValidators=" + withoutValidators + ", evictions=" + evictions + "]";
+    }
+
+    /**
+     * Cached result with its validators.
+     */
+    public static final class Entry<T> {
+
+        private final String etag;
+        private final String lastModified;
+        private final byte[] value;
+        private final Class<?> type;
+
+        Entry(String etag, String lastModified, byte[] value, Class<?> type) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.value = value;
+            this.type = type;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return Returns new copy of cached result.
+         */
+        @SuppressWarnings("unchecked")
+        public T getValue() {
+            try {
+                return (T) mapper.readValue(value, type);
+            } catch (IOException ex) {
+                throw new ProcessingException("Cached result can not be decoded.", ex);
+            }
+        }
+
+        /**
+         * Adds If-None-Match and If-Modified-Since to request.
+         */
+        public void addConditions(Invocation.Builder request) {
+            if (etag != null) {
+                request.header(HttpHeaders.IF_NONE_MATCH, etag);
+            }
+            if (lastModified != null) {
+                request.header(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+    }
+}
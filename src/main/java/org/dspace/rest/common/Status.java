@@ -0,0 +1,62 @@
+package org.dspace.rest.common;
+
+import javax.xml.bind.annotation.XmlRootElement;
+
+import org.codehaus.jackson.annotate.JsonIgnoreProperties;
+
+/**
+ * Class for status of rest api and of authentication token, which is returned by GET /status.
+ */
+@XmlRootElement(name = "status")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Status {
+
+	private boolean okay;
+	private boolean authenticated;
+	private String email;
+	private String fullname;
+	private String token;
+
+	public Status() {
+	}
+
+	public boolean isOkay() {
+		return okay;
+	}
+
+	public void setOkay(boolean okay) {
+		this.okay = okay;
+	}
+
+	public boolean isAuthenticated() {
+		return authenticated;
+	}
+
+	public void setAuthenticated(boolean authenticated) {
+		this.authenticated = authenticated;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public String getFullname() {
+		return fullname;
+	}
+
+	public void setFullname(String fullname) {
+		this.fullname = fullname;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public void setToken(String token) {
+		this.token = token;
+	}
+}
@@ -0,0 +1,69 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AdaptiveConcurrencyLimiter;
+import cz.cvut.dspace.rest.client.impl.AdaptiveConcurrencyLimiter.Outcome;
+import cz.cvut.dspace.rest.client.impl.AdaptiveConcurrencyLimiter.Permit;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testRequestsOverLimitWait() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        Permit first = limiter.acquire().get();
+        limiter.acquire().get();
+        CompletableFuture<Permit> third = limiter.acquire();
+        assertFalse(third.isDone());
+        assertEquals(1, limiter.getQueued());
+
+        first.release(Outcome.SUCCESS, LATENCY);
+        assertTrue(third.isDone());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testLimitGrowsUnderLoadAndShrinksOnOverload() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 10);
+        for (int i = 0; i < 20; i++) {
+            Permit[] permits = new Permit[limiter.getLimit()];
+            for (int j = 0; j < permits.length; j++) {
+                permits[j] = limiter.acquire().get();
+            }
+            for (Permit permit : permits) {
+                permit.release(Outcome.SUCCESS, LATENCY);
+            }
+        }
+        assertEquals(10, limiter.getLimit());
+
+        limiter.acquire().get().release(Outcome.OVERLOAD, LATENCY);
+        assertEquals(9, limiter.getLimit());
+        // Cut is applied at most once per round trip
+        limiter.acquire().get().release(Outcome.OVERLOAD, LATENCY);
+        assertEquals(9, limiter.getLimit());
+
+        Thread.sleep(100);
+        limiter.acquire().get().release(Outcome.SUCCESS, 5 * LATENCY);
+        assertEquals("Single slow request should not cut limit.", 9, limiter.getLimit());
+        for (int i = 0; i < 18; i++) {
+            limiter.acquire().get().release(Outcome.SUCCESS, 5 * LATENCY);
+        }
+        assertEquals("Median latency over tolerance should cut limit.", 8, limiter.getLimit());
+
+        // Cancelled waiter leaves the queue, its permit is not lost
+        AdaptiveConcurrencyLimiter single = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        Permit permit = single.acquire().get();
+        CompletableFuture<Permit> cancelled = single.acquire();
+        cancelled.cancel(false);
+        assertEquals(0, single.getQueued());
+        permit.release(Outcome.SUCCESS, LATENCY);
+        assertTrue(single.acquire().isDone());
+    }
+}
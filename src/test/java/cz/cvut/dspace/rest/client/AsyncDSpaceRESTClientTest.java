@@ -0,0 +1,65 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.ws.rs.NotFoundException;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class AsyncDSpaceRESTClientTest extends StubServerTest {
+
+    private AbstractDSpaceRESTClient client;
+    private AsyncDSpaceRESTClient asyncClient;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        for (int i = 0; i < 20; i++) {
+            server.addItem(collection, "Thesis " + i);
+        }
+        client = createClient(configuration(20), PooledDSpaceRESTClient.class);
+        asyncClient = client.async();
+    }
+
+    @Test
+    public void testFanOutReads() throws Exception {
+        List<Item> items = asyncClient.readCollectionItems(collection.getID(), "", 100, 0).get();
+        assertEquals(20, items.size());
+
+        List<CompletableFuture<Item>> futures = new ArrayList<>();
+        for (Item item : items) {
+            futures.add(asyncClient.findItemById(item.getID(), true, false));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = futures.get(i).get();
+            assertEquals(items.get(i).getID(), item.getID());
+            assertEquals("dc.title", item.getMetadata().get(0).getKey());
+        }
+        assertEquals("Token should be shared with synchronous client.", client.login(), asyncClient.login().get());
+    }
+
+    @Test
+    public void testMissingObjects() throws Exception {
+        assertNull(asyncClient.findItemById(-1, true, true).get());
+        assertNull(asyncClient.findCollectionByName("Unknown").get());
+        try {
+            asyncClient.findCollectionById(-1, "").get();
+            fail("Future should be completed exceptionally.");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof NotFoundException);
+        }
+    }
+}
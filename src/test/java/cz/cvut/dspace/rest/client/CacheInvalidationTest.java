@@ -0,0 +1,111 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CachingDSpaceRESTClient;
+
+public class CacheInvalidationTest extends StubServerTest {
+
+    private Community community;
+    private Collection theses;
+    private Collection articles;
+    private Item thesis;
+    private Item other;
+    private AbstractDSpaceRESTClient client;
+    private CachingDSpaceRESTClient cached;
+
+    @Before
+    public void setup() throws Exception {
+        community = server.addCommunity("University");
+        theses = server.addCollection(community, "Theses");
+        articles = server.addCollection(community, "Articles");
+        thesis = server.addItem(theses, "Thesis");
+        other = server.addItem(articles, "Article");
+        client = login(4);
+        cached = new CachingDSpaceRESTClient(client, 100, 1, TimeUnit.HOURS);
+    }
+
+    private int requests(Runnable reads) {
+        int requests = server.requests.get();
+        reads.run();
+        return server.requests.get() - requests;
+    }
+
+    @Test
+    public void testItemWritesEvictDependentResults() throws Exception {
+        Runnable reads = () -> {
+            cached.readCollectionItems(theses.getID(), "", 10, 0);
+            cached.readCollectionItems(articles.getID(), "", 10, 0);
+            cached.findItemById(thesis.getID(), false, false);
+            cached.findItemById(other.getID(), false, false);
+            cached.findCommunityById(community.getID(), "");
+        };
+        assertEquals(5, requests(reads));
+        assertEquals(0, requests(reads));
+
+        // Pages of the collection and the item with its parent collections are evicted, the rest stays
+        cached.addItemToCollection(thesis.getID(), articles.getID());
+        assertEquals(3, requests(reads));
+        List<Item> items = cached.readCollectionItems(articles.getID(), "", 10, 0);
+        assertEquals(2, items.size());
+        List<Collection> parents = cached.findItemById(thesis.getID(), false, false).getParentCollectionList();
+        assertEquals(articles.getID(), parents.get(parents.size() - 1).getID());
+
+        // Update evicts pages, which contain the item
+        cached.updateItem(other.getID(), Collections.singletonList(new MetadataEntry("dc.title", "Paper", null)));
+        assertEquals(2, requests(reads));
+        assertEquals(0, requests(reads));
+    }
+
+    @Test
+    public void testTreeAndBitstreamWritesEvictDependentResults() throws Exception {
+        Runnable reads = () -> {
+            cached.findCollectionById(theses.getID(), "");
+            cached.findCollectionById(articles.getID(), "");
+            cached.readSubcollectionsOfCommunity(community.getID(), "", 10, 0);
+            cached.readCollectionItems(articles.getID(), "", 10, 0);
+            cached.readTopCommunities("", 10, 0);
+        };
+        assertEquals(5, requests(reads));
+
+        // Renamed collection is evicted with subcollections of its community, other collections stay
+        Collection update = new Collection();
+        update.setName("Dissertations");
+        cached.updateCollection(theses.getID(), update);
+        assertEquals(2, requests(reads));
+        assertEquals("Dissertations", cached.findCollectionById(theses.getID(), "").getName());
+
+        Bitstream bitstream = new Bitstream();
+        bitstream.setName("article.pdf");
+        // Page, which contains the item of new bitstream, is evicted
+        Bitstream added = cached.addBitstream(other.getID(), bitstream, new ByteArrayInputStream(new byte[16]));
+        assertEquals(1, requests(reads));
+        assertEquals("article.pdf", cached.findBitstreamById(added.getID()).getName());
+        assertEquals(0, requests(() -> cached.findBitstreamById(added.getID())));
+
+        // Failed write evicts as well, its effect is not known
+        try {
+            cached.updateBitstream(added.getID(), bitstream, new ByteArrayInputStream(new byte[16]));
+            fail();
+        } catch (WebApplicationException ex) {
+            // Stub does not update bitstreams
+        }
+        assertEquals(1, requests(() -> cached.findBitstreamById(added.getID())));
+    }
+}
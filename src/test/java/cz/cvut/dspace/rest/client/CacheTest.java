@@ -0,0 +1,87 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CacheStats;
+import cz.cvut.dspace.rest.client.impl.CachingDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.LruCache;
+
+public class CacheTest extends StubServerTest {
+
+    private Community community;
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        community = server.addCommunity("University");
+        collection = server.addCollection("Theses");
+        client = login(4);
+    }
+
+    @Test
+    public void testReadsAreCachedAndInvalidatedByWrites() throws Exception {
+        CachingDSpaceRESTClient cached = new CachingDSpaceRESTClient(client, 100, 1, TimeUnit.HOURS);
+        int requests = server.requests.get();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Theses", cached.findCollectionById(collection.getID(), "").getName());
+            assertEquals("University", cached.findCommunityById(community.getID(), "").getName());
+            List<Community> top = cached.readTopCommunities("", 10, 0);
+            assertEquals(1, top.size());
+            // Every caller gets its own list
+            top.clear();
+        }
+        assertEquals(3, server.requests.get() - requests);
+        CacheStats stats = cached.getStats();
+        assertEquals(27, stats.getHits());
+        assertEquals(3, stats.getMisses());
+        assertEquals(0.9, stats.getHitRate(), 0.001);
+
+        // Views share the cache
+        assertEquals("Theses", cached.withDeadline(5, TimeUnit.SECONDS).findCollectionById(collection.getID(), "").getName());
+        assertEquals(3, server.requests.get() - requests);
+
+        Collection update = new Collection();
+        update.setName("Dissertations");
+        cached.updateCollection(collection.getID(), update);
+        // Only results, which depend on the collection, are evicted
+        assertEquals(2, cached.getCache().size());
+        assertEquals("Dissertations", cached.findCollectionById(collection.getID(), "").getName());
+    }
+
+    @Test
+    public void testEvictionAndExpiry() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        LruCache cache = new LruCache(2, 200, TimeUnit.MILLISECONDS, ticker);
+        CachingDSpaceRESTClient cached = new CachingDSpaceRESTClient(client, cache);
+        Collection other = server.addCollection("Articles");
+        cached.findCollectionById(collection.getID(), "");
+        cached.findCollectionById(other.getID(), "");
+        // Recently used collection stays, community evicts the other one
+        cached.findCollectionById(collection.getID(), "");
+        cached.findCommunityById(community.getID(), "");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getStats().getEvictions());
+        int requests = server.requests.get();
+        cached.findCollectionById(collection.getID(), "");
+        assertEquals(requests, server.requests.get());
+
+        ticker.advance(199, TimeUnit.MILLISECONDS);
+        cached.findCollectionById(collection.getID(), "");
+        assertEquals(requests, server.requests.get());
+        ticker.advance(1, TimeUnit.MILLISECONDS);
+        cached.findCollectionById(collection.getID(), "");
+        assertEquals(requests + 1, server.requests.get());
+        assertEquals(1, cache.getStats().getExpirations());
+        assertTrue(cache.getStats().getAverageLoadMillis() > 0);
+    }
+}
@@ -0,0 +1,118 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CircuitBreaker;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class CircuitBreakerTest extends StubServerTest {
+
+    private Collection collection;
+    private Item item;
+    private AbstractDSpaceRESTClient client;
+    private ManualTicker ticker;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        item = server.addItem(collection, "Thesis");
+        ticker = new ManualTicker();
+        CircuitBreakerSettings defaults = new CircuitBreakerSettings();
+        defaults.setWindowSize(4);
+        defaults.setMinimumCalls(4);
+        defaults.setHalfOpenCalls(1);
+        CircuitBreakerSettings items = new CircuitBreakerSettings(defaults);
+        items.setOpenDuration(300);
+        Configuration configuration = new Configuration(server.getEndpointURL(), "admin", "dspace");
+        configuration.setCircuitBreaker(defaults);
+        configuration.getCircuitBreakerGroups().put("items", items);
+        client = create(new PooledDSpaceRESTClient(configuration, ticker) {});
+        client.login();
+    }
+
+    @Test
+    public void testBreakerOpensAndRecovers() throws Exception {
+        CircuitBreaker items = client.getCircuitBreakers().get("items");
+        server.failNext.set(4);
+        for (int i = 0; i < 4; i++) {
+            try {
+                client.findItemById(item.getID(), false, false);
+                fail("DSpace is down.");
+            } catch (ServiceUnavailableException ex) {
+                // expected
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, items.state());
+
+        // Open breaker fails fast without request to DSpace, other groups are not affected
+        int requests = server.requests.get();
+        try {
+            client.findItemById(item.getID(), false, false);
+            fail("Breaker should reject call.");
+        } catch (CircuitBreakerOpenException ex) {
+            assertEquals("items", ex.getGroup());
+        }
+        assertEquals(requests, server.requests.get());
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+
+        ObjectName name = ManagementFactory.getPlatformMBeanServer().queryNames(
+                new ObjectName("cz.cvut.dspace.rest.client:type=CircuitBreaker,name=\"items\",*"), null).iterator().next();
+        assertEquals("OPEN", ManagementFactory.getPlatformMBeanServer().getAttribute(name, "State"));
+        assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "RejectedCalls"));
+
+        // Trial call of half-open breaker closes it
+        ticker.advance(299, TimeUnit.MILLISECONDS);
+        assertEquals(CircuitBreaker.State.OPEN, items.state());
+        ticker.advance(1, TimeUnit.MILLISECONDS);
+        assertEquals(item.getID(), client.findItemById(item.getID(), false, false).getID());
+        assertEquals(CircuitBreaker.State.CLOSED, items.state());
+    }
+
+    @Test
+    public void testOnlyHalfOpenTrialsCount() throws Exception {
+        CircuitBreakerSettings settings = new CircuitBreakerSettings();
+        settings.setWindowSize(2);
+        settings.setMinimumCalls(2);
+        settings.setHalfOpenCalls(2);
+        settings.setOpenDuration(50);
+        CircuitBreaker breaker = new CircuitBreaker("items", settings, server.getEndpointURL(), false, ticker);
+        CircuitBreaker.Permit stale = breaker.tryAcquire();
+        breaker.tryAcquire().onFailure();
+        breaker.tryAcquire().onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        ticker.advance(50, TimeUnit.MILLISECONDS);
+
+        // Call of closed breaker, which completes while it is half-open, is not trial
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        stale.onSuccess(0);
+        stale.onIgnored();
+        stale.onIgnored();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire());
+
+        // Ignored trial frees its permit once
+        first.onIgnored();
+        first.onIgnored();
+        CircuitBreaker.Permit third = breaker.tryAcquire();
+        assertNotNull(third);
+        assertNull(breaker.tryAcquire());
+        second.onSuccess(0);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        third.onSuccess(0);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+}
@@ -0,0 +1,106 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CachingDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CollectionIndex;
+import cz.cvut.dspace.rest.client.impl.DelegatingDSpaceRESTClient;
+
+public class CollectionIndexTest extends StubServerTest {
+
+    private Community community;
+    private AbstractDSpaceRESTClient client;
+    private CachingDSpaceRESTClient cached;
+
+    @Before
+    public void setup() throws Exception {
+        community = server.addCommunity("University");
+        for (int i = 0; i < 250; i++) {
+            server.addCollection("Collection " + i);
+        }
+        client = login(4);
+        cached = new CachingDSpaceRESTClient(client, 100, 1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testNamesAreResolvedByIndex() throws Exception {
+        int requests = server.requests.get();
+        for (int i = 0; i < 250; i++) {
+            assertEquals("Collection " + i, cached.findCollectionByName("Collection " + i).getName());
+        }
+        // One sweep of three pages
+        assertEquals(3, server.requests.get() - requests);
+        CollectionIndex index = cached.getCollectionIndex();
+        assertEquals(250, index.size());
+        assertEquals(250, index.getHits());
+        assertEquals(1, index.getSweeps());
+
+        // Collection created by other client is looked up in DSpace once
+        server.addCollection("Foreign");
+        assertNotNull(cached.findCollectionByName("Foreign"));
+        assertNotNull(cached.findCollectionByName("Foreign"));
+        assertEquals(4, server.requests.get() - requests);
+    }
+
+    @Test
+    public void testWritesUpdateIndex() throws Exception {
+        Collection first = cached.findCollectionByName("Collection 0");
+        int requests = server.requests.get();
+
+        Collection collection = new Collection();
+        collection.setName("Created");
+        Collection created = cached.createCollection(community.getID(), collection);
+        assertEquals(created.getID(), cached.findCollectionByName("Created").getID());
+        assertEquals(requests + 1, server.requests.get());
+
+        Collection update = new Collection();
+        update.setName("Renamed");
+        cached.updateCollection(first.getID(), update);
+        assertNull(cached.findCollectionByName("Collection 0"));
+        assertEquals(first.getID(), cached.findCollectionByName("Renamed").getID());
+
+        cached.deleteCollection(created.getID());
+        assertNull(cached.findCollectionByName("Created"));
+        assertEquals(1, cached.getCollectionIndex().getSweeps());
+    }
+
+    @Test
+    public void testRemovalDuringSweepKeepsSweptIndex() throws Exception {
+        final CollectionIndex index = new CollectionIndex(1, TimeUnit.HOURS);
+        final Collection renamed = client.findCollectionByName("Collection 150");
+        // Collection is renamed by client, while sweep reads its page
+        DSpaceRESTClient sweeping = new DelegatingDSpaceRESTClient(client) {
+            @Override
+            protected DSpaceRESTClient wrap(DSpaceRESTClient view) {
+                return view;
+            }
+
+            @Override
+            public List<Collection> readAllCollections(String expand, Integer limit, Integer offset) {
+                List<Collection> page = super.readAllCollections(expand, limit, offset);
+                if (offset == 100) {
+                    index.removed(renamed.getID());
+                }
+                return page;
+            }
+        };
+        assertEquals("Collection 0", index.find("Collection 0", sweeping).getName());
+        assertEquals(1, index.getSweeps());
+        assertEquals(249, index.size());
+
+        int requests = server.requests.get();
+        assertEquals("Collection 1", index.find("Collection 1", sweeping).getName());
+        assertEquals(renamed.getID(), index.find("Collection 150", sweeping).getID());
+        assertEquals(1, server.requests.get() - requests);
+        assertEquals(1, index.getSweeps());
+    }
+}
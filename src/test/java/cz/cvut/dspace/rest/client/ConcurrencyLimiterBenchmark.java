@@ -0,0 +1,87 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.WebApplicationException;
+
+import org.dspace.rest.common.Collection;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+/**
+ * Shows, how adaptive concurrency limit converges against local stand-in server, which processes only
+ * {@link #CAPACITY} requests concurrently and rejects requests over its short queue with 503. Workers
+ * of client send requests in loop with and without the limit. It is not part of the regular test run,
+ * run it by {@code mvn test -Dtest=ConcurrencyLimiterBenchmark}.
+ */
+public class ConcurrencyLimiterBenchmark {
+
+    private static final int CAPACITY = 4;
+    private static final int MAX_QUEUE = 4;
+    private static final int WORKERS = 16;
+    private static final long LATENCY_MILLIS = 20;
+    private static final int SECONDS = 20;
+
+    @Test
+    public void benchmark() throws Exception {
+        run(false);
+        run(true);
+    }
+
+    private void run(boolean adaptive) throws Exception {
+        StubDSpaceServer server = new StubDSpaceServer().start();
+        final Collection collection = server.addCollection("Theses");
+        Configuration configuration = new Configuration(server.getEndpointURL(), "admin", "dspace", WORKERS, WORKERS);
+        configuration.setAdaptiveConcurrency(adaptive);
+        configuration.setInitialConcurrency(WORKERS);
+        configuration.setCoalesceReads(false);
+        final AbstractDSpaceRESTClient client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder()
+                .build(configuration).getClient(PooledDSpaceRESTClient.class);
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        try {
+            server.latencyMillis = LATENCY_MILLIS;
+            client.login();
+            server.setCapacity(CAPACITY, MAX_QUEUE);
+            for (int i = 0; i < WORKERS; i++) {
+                workers.execute(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        try {
+                            client.findCollectionById(collection.getID(), "");
+                            succeeded.incrementAndGet();
+                        } catch (WebApplicationException ex) {
+                            failed.incrementAndGet();
+                        } catch (RuntimeException ex) {
+                            return;
+                        }
+                    }
+                });
+            }
+            System.out.println(adaptive ? "Adaptive limit" : "No limit");
+            System.out.println(String.format("%6s %8s %12s %12s %20s", "second", "limit", "succeeded/s", "rejected/s", "server latency [ms]"));
+            for (int second = 1; second <= SECONDS; second++) {
+                int succeededBefore = succeeded.get();
+                int failedBefore = failed.get();
+                int requestsBefore = server.requests.get() - server.overloaded.get();
+                long serverNanosBefore = server.serverNanos.get();
+                Thread.sleep(1000);
+                int accepted = server.requests.get() - server.overloaded.get() - requestsBefore;
+                System.out.println(String.format("%6d %8s %12d %12d %20.1f", second,
+                        adaptive ? String.valueOf(client.getConcurrencyLimiter().getLimit()) : "-",
+                        succeeded.get() - succeededBefore, failed.get() - failedBefore,
+                        accepted > 0 ? (server.serverNanos.get() - serverNanosBefore) / 1e6 / accepted : 0));
+            }
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+            client.destroy();
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.ConnectionPoolStats;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class ConnectionPoolTest extends StubServerTest {
+
+    private static final int VALIDATE_AFTER_INACTIVITY = 100;
+
+    private PooledDSpaceRESTClient client;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        Configuration configuration = configuration(8);
+        configuration.setIdleConnectionTimeout(1);
+        configuration.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY);
+        // Concurrent identical reads have to occupy their own connections
+        configuration.setCoalesceReads(false);
+        client = createClient(configuration, PooledDSpaceRESTClient.class);
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        server.latencyMillis = 100;
+        List<CompletableFuture<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(client.async().findCollectionById(collection.getID(), ""));
+        }
+        for (CompletableFuture<Collection> future : futures) {
+            future.get();
+        }
+        PoolingHttpClientConnectionManager connectionManager = client.getConnectionPool().getConnectionManager();
+        assertTrue(connectionManager.getTotalStats().getAvailable() > 1);
+        for (int i = 0; i < 50 && connectionManager.getTotalStats().getAvailable() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals("Idle connections should be closed.", 0, connectionManager.getTotalStats().getAvailable());
+    }
+
+    @Test
+    public void testStaleConnectionIsNotUsed() throws Exception {
+        client.findCollectionById(collection.getID(), "");
+        // Restart of DSpace closes all kept-alive connections of client
+        server.stop();
+        server = new StubDSpaceServer(server.getPort()).start();
+        collection = server.addCollection("Theses");
+        // Kept-alive connection is validated, when it was idle longer than validateAfterInactivity
+        Thread.sleep(2 * VALIDATE_AFTER_INACTIVITY);
+
+        // POST is not retried by http client, so it would fail on half-closed connection
+        Item item = client.createItem(collection.getID(), new ArrayList<>(server.addItem(collection, "Thesis").getMetadata()));
+        assertNotNull(item.getID());
+    }
+
+    @Test
+    public void testStatisticsArePublished() throws Exception {
+        client.login();
+        server.requestLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<CompletableFuture<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> client.findCollectionById(collection.getID(), ""), executor));
+        }
+        ConnectionPoolStats running = client.getConnectionPool().getTotalStats();
+        for (int i = 0; i < 250 && (running.getLeased() < 8 || running.getPending() < 8); i++) {
+            Thread.sleep(20);
+            running = client.getConnectionPool().getTotalStats();
+        }
+        assertEquals(8, running.getLeased());
+        assertEquals(8, running.getPending());
+        // Requests over pool size keep waiting for connection, until the held requests are released
+        Thread.sleep(150);
+        server.requestLatch.countDown();
+        for (CompletableFuture<Collection> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        ConnectionPoolStats total = client.getConnectionPool().getTotalStats();
+        assertEquals(0, total.getLeased());
+        assertEquals(8, total.getMax());
+        assertEquals(17, total.getLeaseCount());
+        assertTrue("Requests over pool size should wait for connection.", total.getLeaseWaitMaxMillis() >= 150);
+        assertEquals(total.getLeaseCount(), client.getConnectionPool().getRouteStats()
+                .get("http://localhost:" + server.getPort()).getLeaseCount());
+
+        MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names = mbeanServer.queryNames(new ObjectName("cz.cvut.dspace.rest.client:type=ConnectionPool,name=\"metadata\",*"), null);
+        assertEquals(1, names.size());
+        CompositeData stats = (CompositeData) mbeanServer.getAttribute(names.iterator().next(), "TotalStats");
+        assertEquals(17L, stats.get("leaseCount"));
+
+        client.destroy();
+        assertTrue(mbeanServer.queryNames(new ObjectName("cz.cvut.dspace.rest.client:type=ConnectionPool,name=\"metadata\",*"), null).isEmpty());
+    }
+
+    @Test
+    public void testUploadsDoNotStarveMetadataCalls() throws Exception {
+        final Item item = server.addItem(collection, "Thesis");
+        server.uploadLatch = new CountDownLatch(1);
+        List<CompletableFuture<Bitstream>> uploads = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            Bitstream bitstream = new Bitstream();
+            bitstream.setName("thesis-" + i + ".pdf");
+            uploads.add(client.async().addBitstream(item.getID(), bitstream, new ByteArrayInputStream(new byte[64 * 1024])));
+        }
+        for (int i = 0; i < 50 && client.getTransferConnectionPool().getTotalStats().getLeased() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, client.getTransferConnectionPool().getTotalStats().getLeased());
+
+        // Metadata calls have their own connections, while every transfer connection is busy
+        assertEquals("Thesis", client.async().findItemById(item.getID(), false, false).get(5, TimeUnit.SECONDS).getName());
+        assertEquals(0, client.getConnectionPool().getTotalStats().getPending());
+
+        server.uploadLatch.countDown();
+        for (CompletableFuture<Bitstream> upload : uploads) {
+            assertEquals(Long.valueOf(64 * 1024), upload.get(5, TimeUnit.SECONDS).getSizeBytes());
+        }
+    }
+}
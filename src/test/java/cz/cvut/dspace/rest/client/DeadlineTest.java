@@ -0,0 +1,101 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+import org.dspace.rest.common.Collection;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.Deadline;
+import cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class DeadlineTest extends StubServerTest {
+
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+    }
+
+    @Test
+    public void testExpiredCallIsAbortedAndReleasesConnection() throws Exception {
+        PooledDSpaceRESTClient pooled = createClient(configuration(1), PooledDSpaceRESTClient.class);
+        client = pooled;
+        client.login();
+        server.latencyMillis = 5000;
+
+        long start = System.nanoTime();
+        try {
+            client.withDeadline(300, TimeUnit.MILLISECONDS).findCollectionById(collection.getID(), "");
+            fail("Call should be aborted after deadline.");
+        } catch (ProcessingException ex) {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+        assertTrue("Call should not wait for response.", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        // Connection is released by thread, which aborted the request
+        for (int i = 0; i < 50 && pooled.getConnectionPool().getTotalStats().getLeased() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pooled.getConnectionPool().getTotalStats().getLeased());
+
+        // The only connection of pool is free for next call
+        server.latencyMillis = 0;
+        assertEquals(collection.getName(), client.withDeadline(2, TimeUnit.SECONDS).findCollectionById(collection.getID(), "").getName());
+    }
+
+    @Test
+    public void testRequestTimeoutCoversReadOfEntity() throws Exception {
+        Configuration configuration = configuration(1);
+        configuration.setRequestTimeout(1);
+        PooledDSpaceRESTClient pooled = createClient(configuration, PooledDSpaceRESTClient.class);
+        client = pooled;
+        client.login();
+        server.bodyDelayMillis = 5000;
+
+        long start = System.nanoTime();
+        try {
+            client.findCollectionById(collection.getID(), "");
+            fail("Read of stalled entity should be aborted after timeout.");
+        } catch (ProcessingException ex) {
+            // Aborted connection fails read of entity
+        }
+        assertTrue("Read of entity should not outlive timeout.", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+
+        // Timeout is disarmed, when entity was read, so it does not abort the connection back in pool
+        server.bodyDelayMillis = 0;
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        assertEquals(0, Deadline.armed());
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        assertEquals(0, pooled.getConnectionPool().getTotalStats().getLeased());
+    }
+
+    @Test
+    public void testRequestTimeoutOfNonBlockingClient() throws Exception {
+        Configuration configuration = configuration(4);
+        configuration.setRequestTimeout(1);
+        NioDSpaceRESTClient nio = createClient(configuration, NioDSpaceRESTClient.class);
+        client = nio;
+        client.login();
+        server.latencyMillis = 5000;
+
+        long start = System.nanoTime();
+        try {
+            nio.async().findCollectionById(collection.getID(), "").get();
+            fail("Request should be aborted after timeout.");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ProcessingException);
+            assertTrue(ex.getCause().getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+    }
+}
@@ -0,0 +1,125 @@
+package cz.cvut.dspace.rest.client;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Status;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Embedded stand-in of DSpace rest api behind HTTP/2 reverse proxy. It speaks cleartext HTTP/2 with prior
+ * knowledge (h2c) or, for comparison, HTTP/1.1 and implements only login, status and reading of collections.
+ */
+public class H2cStubServer {
+
+    private static final Pattern COLLECTION = Pattern.compile("/collections/(\\d+)(\\?.*)?");
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /** Count of all requests received by server. */
+    public final AtomicInteger requests = new AtomicInteger();
+    /** Count of logins received by server. */
+    public final AtomicInteger logins = new AtomicInteger();
+    /** Count of connections opened by clients. */
+    public final AtomicInteger connections = new AtomicInteger();
+    /** Artificial latency of every response. */
+    public volatile long latencyMillis = 0;
+
+    final Set<String> tokens = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final Map<Integer, Collection> collections = new ConcurrentHashMap<>();
+    final AtomicInteger sequence = new AtomicInteger();
+
+    /**
+     * @param http2 True for h2c, false for HTTP/1.1.
+     */
+    public H2cStubServer(boolean http2) {
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+        server.setProtocols(http2 ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE) : Arrays.asList(Protocol.HTTP_1_1));
+        server.setDispatcher(new StubDispatcher());
+    }
+
+    public H2cStubServer start() throws IOException {
+        server.start();
+        return this;
+    }
+
+    public void stop() throws IOException {
+        server.shutdown();
+    }
+
+    public String getEndpointURL() {
+        return "http://localhost:" + server.getPort();
+    }
+
+    public Collection addCollection(String name) {
+        Collection collection = new Collection();
+        collection.setID(sequence.incrementAndGet());
+        collection.setName(name);
+        collections.put(collection.getID(), collection);
+        return collection;
+    }
+
+    private class StubDispatcher extends Dispatcher {
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            requests.incrementAndGet();
+            if (request.getSequenceNumber() == 0) {
+                connections.incrementAndGet();
+            }
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            try {
+                String path = request.getPath();
+                if ("POST".equals(request.getMethod()) && "/login".equals(path)) {
+                    logins.incrementAndGet();
+                    String token = UUID.randomUUID().toString();
+                    tokens.add(token);
+                    // DSpace returns token as plain text even for application/json.
+                    return new MockResponse().setHeader("Content-Type", "application/json").setBody(token);
+                }
+                String token = request.getHeader("rest-dspace-token");
+                if ("GET".equals(request.getMethod()) && "/status".equals(path)) {
+                    Status status = new Status();
+                    status.setOkay(true);
+                    status.setAuthenticated(token != null && tokens.contains(token));
+                    return json(status);
+                }
+                if (token != null && !tokens.contains(token)) {
+                    return new MockResponse().setResponseCode(401);
+                }
+                Matcher matcher = COLLECTION.matcher(path);
+                if ("GET".equals(request.getMethod()) && matcher.matches()) {
+                    Collection collection = collections.get(Integer.valueOf(matcher.group(1)));
+                    return collection != null ? json(collection) : new MockResponse().setResponseCode(404);
+                }
+                return new MockResponse().setResponseCode(404);
+            } catch (IOException ex) {
+                return new MockResponse().setResponseCode(500);
+            }
+        }
+
+        private MockResponse json(Object entity) throws IOException {
+            return new MockResponse().setHeader("Content-Type", "application/json").setBody(mapper.writeValueAsString(entity));
+        }
+    }
+}
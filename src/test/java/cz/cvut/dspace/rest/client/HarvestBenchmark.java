@@ -0,0 +1,77 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.List;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PagingIterator;
+import cz.cvut.dspace.rest.client.impl.ParallelHarvest;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+/**
+ * Compares throughput of harvest of all items by sequential offset loop, by {@link PagingIterator} with prefetch
+ * and by {@link ParallelHarvest} against local stub server with artificial latency. It is not part of the regular
+ * test run, run it by {@code mvn test -Dtest=HarvestBenchmark}.
+ */
+public class HarvestBenchmark {
+
+    private static final int ITEMS = 20000;
+    private static final int PAGE_SIZE = 100;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Test
+    public void benchmark() throws Exception {
+        StubDSpaceServer server = new StubDSpaceServer().start();
+        Collection collection = server.addCollection("Theses");
+        for (int i = 0; i < ITEMS; i++) {
+            server.addItem(collection, "Thesis " + i);
+        }
+        Configuration configuration = new Configuration(server.getEndpointURL(), "admin", "dspace", 32, 32);
+        AbstractDSpaceRESTClient client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder()
+                .build(configuration).getClient(PooledDSpaceRESTClient.class);
+        try {
+            client.login();
+            server.latencyMillis = LATENCY_MILLIS;
+            System.out.println(String.format("%-12s %12s %12s %12s", "harvest", "parallelism", "items/s", "requests"));
+
+            int requests = server.requests.get();
+            long start = System.nanoTime();
+            long count = 0;
+            for (int offset = 0; ; offset += PAGE_SIZE) {
+                List<Item> page = client.readAllItems("", PAGE_SIZE, offset);
+                count += page.size();
+                if (page.size() < PAGE_SIZE) {
+                    break;
+                }
+            }
+            print("loop", 1, count, start, server.requests.get() - requests);
+
+            requests = server.requests.get();
+            start = System.nanoTime();
+            try (PagingIterator<Item> iterator = client.iterateAllItems("", PAGE_SIZE)) {
+                count = iterator.stream().count();
+            }
+            print("iterator", 1, count, start, server.requests.get() - requests);
+
+            for (int parallelism : new int[] { 4, 16, 32 }) {
+                for (boolean ordered : new boolean[] { true, false }) {
+                    requests = server.requests.get();
+                    start = System.nanoTime();
+                    count = client.harvestAllItems("", PAGE_SIZE, parallelism).harvest(item -> { }, ordered);
+                    print(ordered ? "ordered" : "unordered", parallelism, count, start, server.requests.get() - requests);
+                }
+            }
+        } finally {
+            client.destroy();
+            server.stop();
+        }
+    }
+
+    private static void print(String harvest, int parallelism, long count, long start, int requests) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(String.format("%-12s %12d %12.0f %12d", harvest, parallelism, count / seconds, requests));
+    }
+}
@@ -0,0 +1,110 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class HedgingTest extends StubServerTest {
+
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+    }
+
+    private void client(Class<? extends AbstractDSpaceRESTClient> type) {
+        client(type, hedgedConfiguration());
+        // Every other request hangs, so every slow read is answered by its hedge
+        server.slowMillis = 3000;
+        server.slowEvery = 2;
+    }
+
+    private Configuration hedgedConfiguration() {
+        Configuration configuration = configuration(8);
+        configuration.getHedgedGroups().add("collections");
+        configuration.setHedgeMinDelay(50);
+        return configuration;
+    }
+
+    private void client(Class<? extends AbstractDSpaceRESTClient> type, Configuration configuration) {
+        client = createClient(configuration, type);
+        client.login();
+        // Reads, from which the delay of hedge is learned
+        for (int i = 0; i < 25; i++) {
+            client.findCollectionById(collection.getID(), "");
+        }
+    }
+
+    @Test
+    public void testSlowReadIsHedged() throws Exception {
+        client(PooledDSpaceRESTClient.class);
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(client.getHedgingPolicy().getWon() >= 1);
+
+        // Aborted requests release their connections
+        PooledDSpaceRESTClient pooled = (PooledDSpaceRESTClient) client;
+        for (int i = 0; i < 50 && pooled.getConnectionPool().getTotalStats().getLeased() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, pooled.getConnectionPool().getTotalStats().getLeased());
+    }
+
+    @Test
+    public void testSlowReadOfNonBlockingClientIsHedged() throws Exception {
+        client(NioDSpaceRESTClient.class);
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(collection.getName(), client.async().findCollectionById(collection.getID(), "").get().getName());
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(client.getHedgingPolicy().getWon() >= 1);
+    }
+
+    @Test
+    public void testOnlyLookupsOfHedgedGroupsAreHedged() throws Exception {
+        client(PooledDSpaceRESTClient.class, hedgedConfiguration());
+        Item item = server.addItem(collection, "Thesis");
+        server.latencyMillis = 200;
+        // Listing of hedged group and lookup of other group are sent once
+        assertEquals(1, client.readCollectionItems(collection.getID(), "", 10, 0).size());
+        assertEquals(item.getID(), client.findItemById(item.getID(), false, false).getID());
+        assertEquals(0, client.getHedgingPolicy().getHedged());
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        assertEquals(1, client.getHedgingPolicy().getHedged());
+    }
+
+    @Test
+    public void testRequestTimeoutCoversReadOfEntityOfHedgedRead() throws Exception {
+        Configuration configuration = hedgedConfiguration();
+        configuration.setRequestTimeout(1);
+        client(PooledDSpaceRESTClient.class, configuration);
+        server.bodyDelayMillis = 5000;
+
+        // Headers come before the hedge, entity of the winning request stalls
+        long start = System.nanoTime();
+        try {
+            client.findCollectionById(collection.getID(), "");
+            fail("Read of stalled entity should be aborted after timeout.");
+        } catch (ProcessingException ex) {
+            // Aborted connection fails read of entity
+        }
+        assertTrue("Read of entity should not outlive timeout.", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(3));
+    }
+}
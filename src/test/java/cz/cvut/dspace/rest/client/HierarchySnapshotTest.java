@@ -0,0 +1,99 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.DSpaceObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.HierarchySnapshot;
+
+public class HierarchySnapshotTest extends StubServerTest {
+
+    private AbstractDSpaceRESTClient client;
+    private ExecutorService executor;
+    private Community university;
+    private Community faculty;
+    private Community department;
+    private Community library;
+    private Collection theses;
+
+    @Before
+    public void setup() throws Exception {
+        university = server.addCommunity("University");
+        faculty = server.addCommunity(university, "Faculty");
+        department = server.addCommunity(faculty, "Department");
+        library = server.addCommunity(university, "Library");
+        server.addCommunity("Archive");
+        theses = server.addCollection(department, "Theses");
+        server.addCollection(library, "Books");
+        client = login(8);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testLoadAndQueries() throws Exception {
+        server.latencyMillis = 100;
+        int requests = server.requests.get();
+        long start = System.nanoTime();
+        HierarchySnapshot snapshot = HierarchySnapshot.load(client, executor);
+        long millis = (System.nanoTime() - start) / 1000000;
+        // Top communities and two reads of every community
+        assertEquals(1 + 2 * 5, server.requests.get() - requests);
+        // Levels are read in parallel: top, university, faculty and library, department
+        assertTrue("Load took " + millis + " ms", millis < 800);
+
+        assertEquals(5, snapshot.getCommunityCount());
+        assertEquals(2, snapshot.getCollectionCount());
+        assertEquals(Arrays.asList("University", "Archive"), names(snapshot.getTopCommunities()));
+        assertEquals(Arrays.asList("Faculty", "Library"), names(snapshot.getSubcommunities(university.getID())));
+        assertEquals(Arrays.asList("University", "Faculty", "Department"), names(snapshot.getCollectionPath(theses.getID())));
+        assertEquals(Arrays.asList("Faculty", "Department", "Library"), names(snapshot.getDescendants(university.getID())));
+        assertEquals(Arrays.asList("Theses", "Books"), names(snapshot.getDescendantCollections(university.getID())));
+        assertTrue(snapshot.isAncestor(university.getID(), department.getID()));
+        assertFalse(snapshot.isAncestor(library.getID(), department.getID()));
+        assertEquals("Faculty", snapshot.getParentCommunity(department.getID()).getName());
+        assertEquals("Department", snapshot.getParentCommunities(theses.getID()).get(0).getName());
+    }
+
+    @Test
+    public void testRefreshReadsChangedBranchesOnly() throws Exception {
+        HierarchySnapshot snapshot = HierarchySnapshot.load(client, executor);
+        server.addCollection(library, "Journals");
+        Community maps = server.addCommunity(library, "Maps");
+        server.addCollection(maps, "Atlases");
+        int requests = server.requests.get();
+        HierarchySnapshot refreshed = snapshot.refresh(client, executor, Collections.singleton(library.getID()));
+        // Top communities, library and the new community
+        assertEquals(1 + 2 + 2, server.requests.get() - requests);
+        assertEquals(Arrays.asList("Books", "Journals"), names(refreshed.getCollections(library.getID())));
+        assertEquals(Arrays.asList("University", "Library", "Maps"), names(refreshed.getPath(maps.getID())));
+        assertSame(snapshot.getCollection(theses.getID()), refreshed.getCollection(theses.getID()));
+        // Old snapshot is not changed
+        assertEquals(1, snapshot.getCollections(library.getID()).size());
+    }
+
+    private static List<String> names(List<? extends DSpaceObject> objects) {
+        List<String> names = new ArrayList<>();
+        for (DSpaceObject object : objects) {
+            names.add(object.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,89 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.ws.rs.NotFoundException;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.Http2DSpaceRESTClient;
+
+public class Http2DSpaceRESTClientTest {
+
+    private H2cStubServer server;
+    private AbstractDSpaceRESTClient client;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        server = new H2cStubServer(true).start();
+        collection = server.addCollection("Theses");
+        Configuration configuration = new Configuration(server.getEndpointURL(), "admin", "dspace", 64, 64);
+        configuration.setHttp2PriorKnowledge(true);
+        client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder().build(configuration)
+                .getClient(Http2DSpaceRESTClient.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.destroy();
+        server.stop();
+    }
+
+    @Test
+    public void testSynchronousMethods() {
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        try {
+            client.findCollectionById(-1, "");
+            fail("Missing collection should not be found.");
+        } catch (NotFoundException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testRequestsAreMultiplexed() throws Exception {
+        server.latencyMillis = 100;
+        client.login();
+        AsyncDSpaceRESTClient asyncClient = client.async();
+        List<CompletableFuture<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            futures.add(asyncClient.findCollectionById(collection.getID(), ""));
+        }
+        for (CompletableFuture<Collection> future : futures) {
+            assertEquals(collection.getID(), future.get().getID());
+        }
+        assertEquals("All requests should share one connection.", 1, server.connections.get());
+    }
+
+    @Test
+    public void testHttp11FallbackStreamsUploads() throws Exception {
+        // Cleartext endpoint without prior knowledge of h2c is spoken to by HTTP/1.1
+        StubDSpaceServer http11Server = new StubDSpaceServer().start();
+        AbstractDSpaceRESTClient http11Client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder()
+                .build(http11Server.getEndpointURL(), "admin", "dspace", 4, 4)
+                .getClient(Http2DSpaceRESTClient.class);
+        try {
+            Item item = http11Server.addItem(http11Server.addCollection("Theses"), "Thesis");
+            Bitstream bitstream = new Bitstream();
+            bitstream.setName("thesis.pdf");
+            Bitstream added = http11Client.async().addBitstream(item.getID(), bitstream,
+                    new ByteArrayInputStream(new byte[3 * 1024 * 1024])).get();
+            assertEquals(3 * 1024 * 1024, added.getSizeBytes().longValue());
+        } finally {
+            http11Client.destroy();
+            http11Server.stop();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.ItemStore;
+import cz.cvut.dspace.rest.client.impl.PersistentCachingDSpaceRESTClient;
+
+public class ItemStoreTest extends StubServerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<Item> items = new ArrayList<>();
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        Collection collection = server.addCollection("Theses");
+        for (int i = 0; i < 150; i++) {
+            items.add(server.addItem(collection, "Thesis " + i));
+        }
+        Bitstream bitstream = new Bitstream();
+        bitstream.setID(1000);
+        bitstream.setName("thesis.pdf");
+        bitstream.setSizeBytes(1024L);
+        items.get(0).setBitstreams(new ArrayList<>(Collections.singletonList(bitstream)));
+        client = login(4);
+    }
+
+    @Test
+    public void testRestartedClientFindsStoredItems() throws Exception {
+        File directory = new File(folder.getRoot(), "items");
+        ItemStore store = new ItemStore(directory);
+        PersistentCachingDSpaceRESTClient cached = new PersistentCachingDSpaceRESTClient(client, store, 1, TimeUnit.HOURS);
+        // Items without all fields of found item are not stored
+        assertEquals(100, cached.readAllItems("metadata", 100, 0).size());
+        assertEquals(0, store.size());
+        assertEquals(100, cached.readAllItems(PersistentCachingDSpaceRESTClient.FIND_EXPAND, 100, 0).size());
+        assertEquals(50, cached.readAllItems(PersistentCachingDSpaceRESTClient.FIND_EXPAND, 100, 100).size());
+        store.close();
+
+        // Restart
+        store = new ItemStore(directory);
+        assertEquals(150, store.size());
+        cached = new PersistentCachingDSpaceRESTClient(client, store, 1, TimeUnit.HOURS);
+        int requests = server.requests.get();
+        for (Item item : items) {
+            Item found = cached.findItemById(item.getID(), true, false);
+            assertEquals(item.getName(), found.getName());
+            assertEquals(item.getLastModified(), found.getLastModified());
+            assertEquals("Theses", found.getParentCollection().getName());
+            assertEquals(item.getName(), found.getMetadata().get(0).getValue());
+        }
+        Item found = cached.findItemById(items.get(0).getID(), true, true);
+        assertEquals(1, found.getBitstreams().size());
+        assertEquals("thesis.pdf", found.getBitstreams().get(0).getName());
+        assertEquals(Long.valueOf(1024), found.getBitstreams().get(0).getSizeBytes());
+        assertEquals(requests, server.requests.get());
+        assertEquals(151, cached.getHits());
+
+        // Deleted item is removed from store
+        cached.deleteItem(items.get(0).getID());
+        assertNull(cached.findItemById(items.get(0).getID(), true, false));
+        assertEquals(149, store.size());
+
+        // Items older than max age are read again
+        PersistentCachingDSpaceRESTClient expired = new PersistentCachingDSpaceRESTClient(client, store, 0, TimeUnit.MILLISECONDS);
+        assertEquals(items.get(1).getName(), expired.findItemById(items.get(1).getID(), true, false).getName());
+        assertEquals(1, expired.getMisses());
+        store.close();
+    }
+
+    @Test
+    public void testWritesOfBitstreamsRemoveItemsEmbeddingThem() throws Exception {
+        File directory = new File(folder.getRoot(), "items");
+        ItemStore store = new ItemStore(directory);
+        new PersistentCachingDSpaceRESTClient(client, store, 1, TimeUnit.HOURS).readAllItems(PersistentCachingDSpaceRESTClient.FIND_EXPAND, 10, 0);
+        store.close();
+
+        // Restarted client knows, which stored items embed the bitstream
+        store = new ItemStore(directory);
+        PersistentCachingDSpaceRESTClient cached = new PersistentCachingDSpaceRESTClient(client, store, 1, TimeUnit.HOURS);
+        Bitstream renamed = new Bitstream();
+        renamed.setName("thesis-v2.pdf");
+        cached.updateBitstream(1000, renamed, null);
+        assertEquals(9, store.size());
+        assertEquals("thesis-v2.pdf", cached.findItemById(items.get(0).getID(), true, true).getBitstreams().get(0).getName());
+
+        Bitstream appendix = new Bitstream();
+        appendix.setName("appendix.pdf");
+        cached.addBitstream(items.get(1).getID(), appendix, new ByteArrayInputStream(new byte[16]));
+        assertEquals("appendix.pdf", cached.findItemById(items.get(1).getID(), true, true).getBitstreams().get(0).getName());
+
+        cached.deleteBitstream(items.get(0).getID(), 1000);
+        assertTrue(cached.findItemById(items.get(0).getID(), true, true).getBitstreams().isEmpty());
+        assertEquals(3, cached.getMisses());
+        store.close();
+    }
+
+    @Test
+    public void testDamagedRecordsAndUnknownVersionsAreDropped() throws Exception {
+        File directory = new File(folder.getRoot(), "items");
+        ItemStore store = new ItemStore(directory, 4096);
+        for (int i = 0; i < 3; i++) {
+            store.put(items.get(i));
+        }
+        store.close();
+        File segment = directory.listFiles()[0];
+        long intact = segment.length();
+
+        // Torn write at the end of segment
+        try (FileOutputStream out = new FileOutputStream(segment, true)) {
+            out.write(new byte[] { 0, 0, 1, 0, 42 });
+        }
+        store = new ItemStore(directory, 4096);
+        assertEquals(3, store.size());
+        assertEquals(1, store.getDamagedRecords());
+        assertEquals(intact, segment.length());
+        store.close();
+
+        // Flipped bit in the last record
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(intact - 3);
+            int value = file.read();
+            file.seek(intact - 3);
+            file.write(value ^ 1);
+        }
+        // Segment of unknown version
+        try (FileOutputStream out = new FileOutputStream(new File(directory, "00000099.segment"))) {
+            out.write(ByteBuffer.allocate(8).putInt(0x44534953).putInt(99).array());
+        }
+        store = new ItemStore(directory, 4096);
+        assertEquals(2, store.size());
+        assertNull(store.get(items.get(2).getID()));
+        assertEquals(items.get(1).getName(), store.get(items.get(1).getID()).getItem().getName());
+        assertEquals(1, store.getDamagedRecords());
+        assertEquals(1, store.getDiscardedSegments());
+
+        // Superseded records are compacted
+        for (int i = 0; i < 100; i++) {
+            store.put(items.get(0));
+        }
+        assertTrue(store.getCompactions() > 0);
+        assertTrue(store.getTotalBytes() < 4096 * 2);
+        store.close();
+        store = new ItemStore(directory, 4096);
+        assertEquals(2, store.size());
+        assertEquals(items.get(0).getName(), store.get(items.get(0).getID()).getItem().getName());
+        store.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testStoreInFileIsRejected() throws Exception {
+        new ItemStore(folder.newFile("items"));
+    }
+}
@@ -0,0 +1,98 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.MetadataEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.LoadBalancer;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class LoadBalancingTest {
+
+    private StubDSpaceServer primary;
+    private StubDSpaceServer replica;
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        primary = new StubDSpaceServer().start();
+        replica = new StubDSpaceServer().start();
+        collection = primary.addCollection("Theses");
+        replica.addCollection("Theses");
+        Configuration configuration = new Configuration(primary.getEndpointURL(), "admin", "dspace", 8, 8);
+        configuration.setReplicaURLs(Collections.singletonList(replica.getEndpointURL()));
+        configuration.setCoalesceReads(false);
+        configuration.setRetryMaxAttempts(4);
+        configuration.setRetryInitialDelay(1);
+        client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder().build(configuration).getClient(PooledDSpaceRESTClient.class);
+        client.login();
+    }
+
+    @After
+    public void tearDown() {
+        client.destroy();
+        primary.stop();
+        replica.stop();
+    }
+
+    /**
+     * Waits until replica gets its own token by login in background.
+     */
+    private void awaitReplicaToken() throws InterruptedException {
+        client.findCollectionById(collection.getID(), "");
+        for (int i = 0; i < 100 && replica.logins.get() == 0; i++) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+    }
+
+    @Test
+    public void testReadsAreBalancedAndWritesPinned() throws Exception {
+        awaitReplicaToken();
+        int primaryRequests = primary.requests.get();
+        int replicaRequests = replica.requests.get();
+        for (int i = 0; i < 40; i++) {
+            assertEquals("Theses", client.findCollectionById(collection.getID(), "").getName());
+        }
+        assertTrue(primary.requests.get() - primaryRequests > 0);
+        assertTrue(replica.requests.get() - replicaRequests > 0);
+        assertEquals(40, primary.requests.get() - primaryRequests + replica.requests.get() - replicaRequests);
+        assertEquals(1, replica.logins.get());
+        assertEquals(0, replica.unauthorized.get());
+
+        // Write goes to primary only
+        replicaRequests = replica.requests.get();
+        client.createItem(collection.getID(), Collections.singletonList(new MetadataEntry("dc.title", "Thesis", null)));
+        assertEquals(replicaRequests, replica.requests.get());
+
+        // Replica, which lost its token, is logged in again and the read is replayed on primary meanwhile
+        replica.expireTokens();
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Theses", client.findCollectionById(collection.getID(), "").getName());
+        }
+        assertTrue(replica.logins.get() >= 2);
+    }
+
+    @Test
+    public void testFailingReplicaIsEjected() throws Exception {
+        awaitReplicaToken();
+        replica.failNext.set(100);
+        for (int i = 0; i < 40; i++) {
+            // Failed attempts on replica are retried and the retries avoid ejected replica
+            assertEquals("Theses", client.findCollectionById(collection.getID(), "").getName());
+        }
+        LoadBalancer.Endpoint endpoint = client.getLoadBalancer().getEndpoints().get(1);
+        assertTrue(endpoint.isEjected());
+        assertEquals(1, endpoint.getEjections());
+        assertEquals(3, 100 - replica.failNext.get());
+        assertEquals(0, endpoint.getOutstanding());
+    }
+}
@@ -0,0 +1,23 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Source of time in nanoseconds, which stands still until it is advanced by test, so expiry of caches and open
+ * duration of circuit breakers do not depend on speed of machine running the tests.
+ */
+public class ManualTicker implements LongSupplier {
+
+    private final AtomicLong nanos = new AtomicLong(System.nanoTime());
+
+    @Override
+    public long getAsLong() {
+        return nanos.get();
+    }
+
+    public void advance(long duration, TimeUnit unit) {
+        nanos.addAndGet(unit.toNanos(duration));
+    }
+}
@@ -0,0 +1,90 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.NegativeCache;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class NegativeCacheTest extends StubServerTest {
+
+    private Community community;
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+    private final ManualTicker ticker = new ManualTicker();
+
+    @Before
+    public void setup() throws Exception {
+        community = server.addCommunity("University");
+        collection = server.addCollection(community, "Theses");
+    }
+
+    private void client(int negativeCacheTtl) {
+        Configuration configuration = configuration(4);
+        configuration.setNegativeCacheTtl(negativeCacheTtl);
+        client = create(new PooledDSpaceRESTClient(configuration, ticker) {});
+        client.login();
+    }
+
+    @Test
+    public void testMissesAreCachedUntilCreate() throws Exception {
+        client(60000);
+        int requests = server.requests.get();
+        for (int i = 0; i < 3; i++) {
+            assertNull(client.findItemById(999, true, false));
+            assertNull(client.findBitstreamById(999));
+            assertNull(client.findCollectionByName("Dissertations"));
+            assertNull(client.async().findItemById(999, false, false).get());
+        }
+        assertEquals(3, server.requests.get() - requests);
+
+        // Creates forget misses of created objects
+        int nextId = server.sequence.get() + 1;
+        assertNull(client.findItemById(nextId, false, false));
+        Item item = client.createItem(collection.getID(), Collections.singletonList(new MetadataEntry("dc.title", "Thesis", null)));
+        assertEquals(nextId, item.getID().intValue());
+        assertNotNull(client.findItemById(nextId, false, false));
+
+        Collection dissertations = new Collection();
+        dissertations.setName("Dissertations");
+        client.createCollection(community.getID(), dissertations);
+        assertEquals("Dissertations", client.findCollectionByName("Dissertations").getName());
+
+        nextId = server.sequence.get() + 1;
+        assertNull(client.async().findBitstreamById(nextId).get());
+        Bitstream bitstream = new Bitstream();
+        bitstream.setName("thesis.pdf");
+        client.async().addBitstream(item.getID(), bitstream, new ByteArrayInputStream(new byte[16])).get();
+        assertNotNull(client.findBitstreamById(nextId));
+
+        NegativeCache cache = client.getNegativeCache();
+        assertEquals(9, cache.getHits());
+        assertEquals(3, cache.getInvalidations());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testMissesExpire() throws Exception {
+        client(100);
+        int requests = server.requests.get();
+        assertNull(client.findItemById(999, false, false));
+        assertNull(client.findItemById(999, false, false));
+        assertEquals(1, server.requests.get() - requests);
+        ticker.advance(100, TimeUnit.MILLISECONDS);
+        assertNull(client.findItemById(999, false, false));
+        assertEquals(2, server.requests.get() - requests);
+        assertEquals(1, client.getNegativeCache().getHits());
+    }
+}
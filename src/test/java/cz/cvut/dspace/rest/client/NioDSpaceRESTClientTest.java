@@ -0,0 +1,89 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.ManagedConnectionPool;
+import cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient;
+
+public class NioDSpaceRESTClientTest extends StubServerTest {
+
+    private AbstractDSpaceRESTClient client;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        client = createClient(configuration(16), NioDSpaceRESTClient.class);
+    }
+
+    @Test
+    public void testSynchronousMethods() {
+        Item item = client.createItem(collection.getID(), server.addItem(collection, "Thesis").getMetadata());
+        assertEquals("Thesis", client.findItemById(item.getID(), true, false).getMetadata().get(0).getValue());
+        assertEquals(collection.getName(), client.findCollectionByName("Theses").getName());
+        client.deleteItem(item.getID());
+        assertNull(client.findItemById(item.getID(), false, false));
+    }
+
+    @Test
+    public void testManyOutstandingRequests() throws Exception {
+        server.latencyMillis = 100;
+        AsyncDSpaceRESTClient asyncClient = client.async();
+        List<CompletableFuture<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(asyncClient.findCollectionById(collection.getID(), ""));
+        }
+        for (CompletableFuture<Collection> future : futures) {
+            assertEquals(collection.getID(), future.get().getID());
+        }
+        assertEquals(1, server.logins.get());
+    }
+
+    @Test
+    public void testUploadsAreStreamedByTransferPool() throws Exception {
+        Item item = server.addItem(collection, "Thesis");
+        server.uploadLatch = new CountDownLatch(1);
+        Bitstream bitstream = new Bitstream();
+        bitstream.setName("thesis.pdf");
+        CompletableFuture<Bitstream> upload = client.async().addBitstream(item.getID(), bitstream,
+                new ByteArrayInputStream(new byte[3 * 1024 * 1024]));
+        ManagedConnectionPool transferPool = ((NioDSpaceRESTClient) client).getTransferConnectionPool();
+        for (int i = 0; i < 50 && transferPool.getTotalStats().getLeased() < 1; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, transferPool.getTotalStats().getLeased());
+
+        // Metadata calls are not blocked by upload in flight
+        assertEquals(collection.getID(), client.async().findCollectionById(collection.getID(), "").get().getID());
+        server.uploadLatch.countDown();
+        assertEquals(3 * 1024 * 1024, upload.get().getSizeBytes().longValue());
+    }
+
+    @Test
+    public void testExpiredTokenIsRenewedAsynchronously() throws Exception {
+        AsyncDSpaceRESTClient asyncClient = client.async();
+        assertEquals(collection.getID(), asyncClient.findCollectionById(collection.getID(), "").get().getID());
+        server.expireTokens();
+        List<CompletableFuture<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(asyncClient.findCollectionById(collection.getID(), ""));
+        }
+        for (CompletableFuture<Collection> future : futures) {
+            assertEquals(collection.getID(), future.get().getID());
+        }
+        assertEquals("Expired token should be renewed by one login.", 2, server.logins.get());
+    }
+}
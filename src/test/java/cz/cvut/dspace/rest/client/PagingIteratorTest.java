@@ -0,0 +1,116 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.CachingDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PagingIterator;
+
+public class PagingIteratorTest extends StubServerTest {
+
+    private Collection collection;
+    private List<Item> items = new ArrayList<>();
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        for (int i = 0; i < 250; i++) {
+            items.add(server.addItem(collection, "Thesis " + i));
+        }
+        client = login(4);
+    }
+
+    @Test
+    public void testAllObjectsArePagedInOrder() throws Exception {
+        int requests = server.requests.get();
+        PagingIterator<Item> iterator = client.iterateAllItems("", 100);
+        List<Integer> ids = new ArrayList<>();
+        while (iterator.hasNext()) {
+            ids.add(iterator.next().getID());
+        }
+        assertEquals(items.stream().map(Item::getID).collect(Collectors.toList()), ids);
+        assertEquals(3, iterator.getPages());
+        assertEquals(3, server.requests.get() - requests);
+
+        // Page size dividing count of objects ends with empty page
+        try (PagingIterator<Item> pages = client.iterateCollectionItems(collection.getID(), "", 50)) {
+            assertEquals(250, pages.stream().count());
+            assertEquals(6, pages.getPages());
+        }
+
+        // Decorators without asynchronous view page in executor
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CachingDSpaceRESTClient cached = new CachingDSpaceRESTClient(client, 100, 1, TimeUnit.HOURS);
+            PagingIterator<Item> background = PagingIterator.inBackground(
+                    (limit, offset) -> cached.readCollectionItems(collection.getID(), "", limit, offset), executor, 100, 200);
+            assertEquals(50, background.stream().count());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNextPageIsPrefetchedAndFailuresAreThrown() throws Exception {
+        List<Integer> offsets = new ArrayList<>();
+        List<CompletableFuture<List<Integer>>> reads = new ArrayList<>();
+        PagingIterator<Integer> iterator = new PagingIterator<>((limit, offset) -> {
+            offsets.add(offset);
+            CompletableFuture<List<Integer>> read = offset < 20
+                    ? CompletableFuture.completedFuture(Collections.nCopies(limit, offset))
+                    : new CompletableFuture<>();
+            reads.add(read);
+            return read;
+        }, 10, 0);
+        assertTrue(offsets.isEmpty());
+
+        // The second page is requested, while the first one is consumed
+        assertEquals(0, iterator.next().intValue());
+        assertEquals(2, offsets.size());
+        for (int i = 1; i < 10; i++) {
+            iterator.next();
+        }
+        assertEquals(10, iterator.next().intValue());
+        assertEquals(3, offsets.size());
+        for (int i = 1; i < 10; i++) {
+            iterator.next();
+        }
+
+        reads.get(2).completeExceptionally(new ServiceUnavailableException());
+        try {
+            iterator.hasNext();
+            fail();
+        } catch (ServiceUnavailableException ex) {
+            // Failure of page is thrown unwrapped
+        }
+
+        // Closed iterator drops the prefetched page
+        PagingIterator<Integer> abandoned = new PagingIterator<>((limit, offset) -> {
+            CompletableFuture<List<Integer>> read = offset == 0 ? CompletableFuture.completedFuture(Collections.nCopies(limit, 0))
+                    : new CompletableFuture<>();
+            reads.add(read);
+            return read;
+        }, 10, 0);
+        abandoned.next();
+        abandoned.close();
+        assertTrue(reads.get(reads.size() - 1).isCancelled());
+        assertFalse(abandoned.hasNext());
+    }
+}
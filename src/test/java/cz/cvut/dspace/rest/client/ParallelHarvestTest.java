@@ -0,0 +1,88 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.ParallelHarvest;
+
+public class ParallelHarvestTest extends StubServerTest {
+
+    private List<Integer> ids = new ArrayList<>();
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        Collection collection = server.addCollection("Theses");
+        for (int i = 0; i < 1000; i++) {
+            ids.add(server.addItem(collection, "Thesis " + i).getID());
+        }
+        client = login(4);
+    }
+
+    @Test
+    public void testOrderedAndUnorderedHarvest() throws Exception {
+        server.latencyMillis = 5;
+        ParallelHarvest<Item> harvest = client.harvestAllItems("", 50, 4);
+        List<Integer> ordered = new ArrayList<>();
+        assertEquals(1000, harvest.harvest(item -> ordered.add(item.getID()), true));
+        assertEquals(ids, ordered);
+        // The last range is the 20th, ranges claimed before it was read are empty
+        assertTrue(harvest.getPages() >= 20 && harvest.getPages() <= 23);
+        // Overlaps of 19 full ranges into the next ones
+        assertEquals(19 * 5, harvest.getDuplicates());
+        assertEquals(0, harvest.getRepairs());
+
+        Set<Integer> unordered = new HashSet<>();
+        assertEquals(1000, harvest.harvest(item -> assertTrue(unordered.add(item.getID())), false));
+        assertEquals(new HashSet<>(ids), unordered);
+    }
+
+    @Test
+    public void testDeletesAndInsertsDuringHarvest() throws Exception {
+        List<Item> repository = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            repository.add(item(id));
+        }
+        Set<Integer> offsets = new HashSet<>();
+        ParallelHarvest<Item> harvest = new ParallelHarvest<>((limit, offset) -> {
+            if (offsets.add(offset) && offset == 40) {
+                // Deletes behind harvest shift the rest by more than overlap
+                repository.subList(10, 40).clear();
+            } else if (offset == 80 && offsets.size() == 5) {
+                // Inserts shift it back
+                for (int id = 1001; id <= 1003; id++) {
+                    repository.add(0, item(id));
+                }
+            }
+            int from = Math.min(offset, repository.size());
+            return CompletableFuture.completedFuture(new ArrayList<>(repository.subList(from, Math.min(from + limit, repository.size()))));
+        }, 20, 2, 1);
+        List<Integer> harvested = new ArrayList<>();
+        harvest.harvest(item -> harvested.add(item.getID()), true);
+
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            expected.add(id);
+        }
+        assertEquals(expected, harvested);
+        assertEquals(1, harvest.getRepairs());
+        assertEquals(0, harvest.getUnrepairedGaps());
+    }
+
+    private static Item item(int id) {
+        Item item = new Item();
+        item.setID(id);
+        return item;
+    }
+}
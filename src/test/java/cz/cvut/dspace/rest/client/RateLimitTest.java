@@ -0,0 +1,91 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.TokenBucket;
+
+public class RateLimitTest extends StubServerTest {
+
+    private AbstractDSpaceRESTClient client;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        Configuration configuration = configuration(8);
+        configuration.setReadsPerSecond(20);
+        configuration.setBitstreamBytesPerSecond(64 * 1024);
+        client = createClient(configuration, PooledDSpaceRESTClient.class);
+    }
+
+    @Test
+    public void testTokenBucketAllowsBurstThenRate() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.reserve(1));
+        }
+        long wait = bucket.reserve(1);
+        assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(50) && wait <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(bucket.reserve(1) > wait);
+        // Permit, which comes after max wait, is not reserved
+        assertEquals(-1, bucket.tryReserve(1, TimeUnit.MILLISECONDS.toNanos(50)));
+        assertTrue(bucket.tryReserve(1, TimeUnit.SECONDS.toNanos(1)) > 0);
+    }
+
+    @Test
+    public void testReadsAreThrottled() {
+        client.login();
+        long start = System.nanoTime();
+        // Burst of 20 reads passes at once, the next 10 are spread over half of second
+        for (int i = 0; i < 30; i++) {
+            client.findCollectionById(collection.getID(), "");
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(450));
+    }
+
+    @Test
+    public void testReadOverDeadlineFailsAtOnce() {
+        Configuration configuration = configuration(8);
+        configuration.setReadsPerSecond(1);
+        AbstractDSpaceRESTClient slow = createClient(configuration, PooledDSpaceRESTClient.class);
+        slow.login();
+        // Find sent by POST spends token of reads, the next read has its turn in a second
+        assertEquals(collection.getID(), slow.findCollectionByName(collection.getName()).getID());
+        long start = System.nanoTime();
+        try {
+            slow.withDeadline(200, TimeUnit.MILLISECONDS).findCollectionById(collection.getID(), "");
+            fail("Read should not wait past its deadline.");
+        } catch (ProcessingException ex) {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(150));
+        // Failed read did not spend token
+        assertEquals(collection.getName(), slow.withDeadline(1500, TimeUnit.MILLISECONDS).findCollectionById(collection.getID(), "").getName());
+    }
+
+    @Test
+    public void testUploadIsThrottled() {
+        Item item = server.addItem(collection, "Thesis");
+        Bitstream bitstream = new Bitstream();
+        bitstream.setName("thesis.pdf");
+        long start = System.nanoTime();
+        // Burst covers the first 64 kB, the other 64 kB take a second
+        Bitstream created = client.addBitstream(item.getID(), bitstream, new ByteArrayInputStream(new byte[128 * 1024]));
+        assertEquals(Long.valueOf(128 * 1024), created.getSizeBytes());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+    }
+}
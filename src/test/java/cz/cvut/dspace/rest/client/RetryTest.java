@@ -0,0 +1,146 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.MetadataEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.NioDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class RetryTest extends StubServerTest {
+
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+    }
+
+    private AbstractDSpaceRESTClient client(Class<? extends AbstractDSpaceRESTClient> type) {
+        Configuration configuration = configuration(4);
+        configuration.setRetryMaxAttempts(4);
+        configuration.setRetryInitialDelay(20);
+        configuration.setRetryMaxDelay(2000);
+        client = createClient(configuration, type);
+        client.login();
+        return client;
+    }
+
+    @Test
+    public void testIdempotentRequestIsRetried() throws Exception {
+        client(PooledDSpaceRESTClient.class);
+        server.failNext.set(2);
+        int requests = server.requests.get();
+        assertEquals(collection.getName(), client.findCollectionById(collection.getID(), "").getName());
+        assertEquals(3, server.requests.get() - requests);
+
+        // Asynchronous call of non-blocking client without retries in configuration is retried by policy of call
+        NioDSpaceRESTClient nio = createClient(configuration(4), NioDSpaceRESTClient.class);
+        nio.login();
+        server.failNext.set(1);
+        try {
+            nio.async().findCollectionById(collection.getID(), "").get();
+            fail("Client without retry policy should fail.");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ServiceUnavailableException);
+        }
+        server.failNext.set(2);
+        RetryPolicy policy = new RetryPolicy(3, 10, 100, TimeUnit.MILLISECONDS, false);
+        assertEquals(collection.getName(), policy.call(() -> nio.async().findCollectionById(collection.getID(), "")).get().getName());
+    }
+
+    @Test
+    public void testPostIsNotRetriedUnlessPolicyAllows() {
+        client(PooledDSpaceRESTClient.class);
+        List<MetadataEntry> metadata = Collections.singletonList(new MetadataEntry("dc.title", "Thesis", "en"));
+        server.failNext.set(1);
+        try {
+            client.createItem(collection.getID(), metadata);
+            fail("Creation of item should not be retried.");
+        } catch (ServiceUnavailableException ex) {
+            assertEquals(0, server.failNext.get());
+        }
+        server.failNext.set(1);
+        RetryPolicy policy = new RetryPolicy(2, 10, 100, TimeUnit.MILLISECONDS, true);
+        assertNotNull(client.withRetryPolicy(policy).createItem(collection.getID(), metadata).getID());
+    }
+
+    @Test
+    public void testRetryAfterIsRespected() {
+        client(PooledDSpaceRESTClient.class);
+        server.failNext.set(1);
+        server.retryAfter = "1";
+        long start = System.nanoTime();
+        client.findCollectionById(collection.getID(), "");
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // DSpace asks to wait longer than the policy allows, the failure is returned at once
+        server.failNext.set(1);
+        server.retryAfter = "60";
+        try {
+            client.findCollectionById(collection.getID(), "");
+            fail("Request should not wait for a minute.");
+        } catch (ServiceUnavailableException ex) {
+            assertEquals(0, server.failNext.get());
+        }
+    }
+
+    @Test
+    public void testViewsStackTheirBindings() {
+        client(PooledDSpaceRESTClient.class);
+        List<MetadataEntry> metadata = Collections.singletonList(new MetadataEntry("dc.title", "Thesis", "en"));
+        RetryPolicy policy = new RetryPolicy(2, 10, 100, TimeUnit.MILLISECONDS, true);
+        server.failNext.set(1);
+        assertNotNull(client.withRetryPolicy(policy).withDeadline(5, TimeUnit.SECONDS).createItem(collection.getID(), metadata).getID());
+
+        server.latencyMillis = 5000;
+        try {
+            client.withDeadline(300, TimeUnit.MILLISECONDS).withRetryPolicy(policy).findCollectionById(collection.getID(), "");
+            fail("Call should be aborted after deadline.");
+        } catch (ProcessingException ex) {
+            assertTrue(ex.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testPolicyOfGroupOverridesPolicyOfClient() {
+        Properties properties = new Properties();
+        properties.setProperty("endpointURL", server.getEndpointURL());
+        properties.setProperty("username", "admin");
+        properties.setProperty("password", "dspace");
+        properties.setProperty("retry.collections.maxAttempts", "2");
+        properties.setProperty("retry.collections.initialDelay", "10");
+        properties.setProperty("retry.collections.retryNonIdempotent", "true");
+        client = createClient(new DSpaceRESTClientFactoryBuilder().build(properties), PooledDSpaceRESTClient.class);
+        client.login();
+
+        // Item is created under its collection, so it is retried by policy of collections
+        server.failNext.set(1);
+        List<MetadataEntry> metadata = Collections.singletonList(new MetadataEntry("dc.title", "Thesis", "en"));
+        Integer itemId = client.createItem(collection.getID(), metadata).getID();
+        assertNotNull(itemId);
+
+        server.failNext.set(1);
+        try {
+            client.findItemById(itemId, false, false);
+            fail("Items should not be retried.");
+        } catch (ServiceUnavailableException ex) {
+            assertEquals(0, server.failNext.get());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dspace.rest.common.Collection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class SingleFlightTest extends StubServerTest {
+
+    private Collection collection;
+    private AbstractDSpaceRESTClient client;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        Configuration configuration = configuration(16);
+        configuration.setCoalesceReads(true);
+        client = createClient(configuration, PooledDSpaceRESTClient.class);
+        client.login();
+        executor = Executors.newFixedThreadPool(16);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentReadsShareRequest() throws Exception {
+        server.latencyMillis = 300;
+        int requests = server.requests.get();
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<Collection>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return client.findCollectionById(collection.getID(), "");
+            }));
+        }
+        start.countDown();
+        // Asynchronous read joins the synchronous ones
+        Thread.sleep(100);
+        CompletableFuture<Collection> async = client.async().findCollectionById(collection.getID(), "");
+        Collection first = results.get(0).get();
+        for (Future<Collection> result : results) {
+            assertSame(first, result.get());
+        }
+        assertSame(first, async.get());
+        assertEquals(1, server.requests.get() - requests);
+        assertEquals(16, client.getSingleFlight().getCoalesced());
+        assertEquals(0, client.getSingleFlight().getInFlight());
+
+        // Later read sends its own request
+        server.latencyMillis = 0;
+        assertNotSame(first, client.findCollectionById(collection.getID(), ""));
+    }
+}
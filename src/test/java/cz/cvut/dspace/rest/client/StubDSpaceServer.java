@@ -0,0 +1,617 @@
+package cz.cvut.dspace.rest.client;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.dspace.rest.common.Bitstream;
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Community;
+import org.dspace.rest.common.Item;
+import org.dspace.rest.common.MetadataEntry;
+import org.dspace.rest.common.Status;
+import org.dspace.rest.common.User;
+import org.jboss.resteasy.plugins.providers.jackson.ResteasyJacksonProvider;
+import org.jboss.resteasy.plugins.server.tjws.TJWSEmbeddedJaxrsServer;
+
+/**
+ * Embedded in-memory stand-in of DSpace rest api for tests, which can not reach real DSpace.
+ * It implements only subset of rest api (login, communities, collections and items).
+ * <p>
+ * TJWS serves every kept-alive connection by its own thread and its pool has fixed 20 threads, so clients
+ * in tests should not open more than 20 connections, otherwise the others wait for keep-alive timeout.
+ */
+public class StubDSpaceServer {
+
+    private final TJWSEmbeddedJaxrsServer server = new TJWSEmbeddedJaxrsServer();
+    private final int port;
+
+    /** Count of all requests received by server. */
+    public final AtomicInteger requests = new AtomicInteger();
+    /** Count of logins received by server. */
+    public final AtomicInteger logins = new AtomicInteger();
+    /** Count of requests rejected with 401 Unauthorized. */
+    public final AtomicInteger unauthorized = new AtomicInteger();
+    /** Artificial latency of every response. */
+    public volatile long latencyMillis = 0;
+    /** Total time, which accepted requests spent in server (in queue and processing), in nanoseconds. */
+    public final AtomicLong serverNanos = new AtomicLong();
+    /** Count of requests rejected with 503 Service Unavailable because of overload. */
+    public final AtomicInteger overloaded = new AtomicInteger();
+    /** Every request, whose sequence number is divisible by it, is delayed by {@link #slowMillis}. Zero disables it. */
+    public volatile int slowEvery;
+    /** Delay of slow requests. */
+    public volatile long slowMillis;
+    /** Count of next requests, which fail with 503 Service Unavailable as if DSpace was restarting. */
+    public final AtomicInteger failNext = new AtomicInteger();
+    /** Value of Retry-After header of failed requests or null. */
+    public volatile String retryAfter;
+    /** Uploads of bitstreams wait for this latch before they respond, if it is set. */
+    public volatile CountDownLatch uploadLatch;
+    /** Every request waits for this latch before it is processed, if it is set. */
+    public volatile CountDownLatch requestLatch;
+    /** Reads of items send ETag and answer 304 Not Modified to matching If-None-Match, when it is true. */
+    public volatile boolean validators;
+    /** Count of responses 304 Not Modified. */
+    public final AtomicInteger notModified = new AtomicInteger();
+    /** Delay between the first byte of entity of response and the rest of it. Zero disables it. */
+    public volatile long bodyDelayMillis;
+
+    private volatile Semaphore workers;
+    private volatile int maxQueue;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    final Set<String> tokens = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final Map<Integer, Community> communities = new ConcurrentSkipListMap<>();
+    final Map<Integer, Collection> collections = new ConcurrentSkipListMap<>();
+    final Map<Integer, Item> items = new ConcurrentSkipListMap<>();
+    final Map<Integer, Bitstream> bitstreams = new ConcurrentSkipListMap<>();
+    /** Versions of items, which are part of their ETag. */
+    final Map<Integer, Integer> itemVersions = new ConcurrentHashMap<>();
+    final AtomicInteger sequence = new AtomicInteger();
+
+    public StubDSpaceServer() throws IOException {
+        this(freePort());
+    }
+
+    /**
+     * @param port Port of server, e.g. port of previous server to simulate restart of DSpace.
+     */
+    public StubDSpaceServer(int port) {
+        this.port = port;
+        server.setPort(port);
+        server.getDeployment().getProviders().add(new ResteasyJacksonProvider());
+        // Error responses are part of tests, so they are not logged with stack traces
+        server.getDeployment().getProviders().add(new ErrorMapper());
+        server.getDeployment().getProviders().add(new StalledBody());
+        server.getDeployment().getResources().add(new StubResource());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public StubDSpaceServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop();
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getEndpointURL() {
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * Simulates limited capacity of DSpace: only given count of requests is processed concurrently, the others
+     * wait in queue (so their latency grows) and requests over queue are rejected with 503 Service Unavailable.
+     *
+     * @param capacity Count of concurrently processed requests, 0 means unlimited.
+     * @param maxQueue Max count of waiting requests.
+     */
+    public void setCapacity(int capacity, int maxQueue) {
+        this.maxQueue = maxQueue;
+        this.workers = capacity > 0 ? new Semaphore(capacity, true) : null;
+    }
+
+    /** Invalidates all issued tokens, as DSpace does after restart. */
+    public void expireTokens() {
+        tokens.clear();
+    }
+
+    public Community addCommunity(String name) {
+        Community community = new Community();
+        community.setID(sequence.incrementAndGet());
+        community.setName(name);
+        communities.put(community.getID(), community);
+        return community;
+    }
+
+    public Community addCommunity(Community parent, String name) {
+        Community community = addCommunity(name);
+        community.setParentCommunity(parent);
+        return community;
+    }
+
+    public Collection addCollection(Community parent, String name) {
+        Collection collection = addCollection(name);
+        collection.setParentCommunity(parent);
+        return collection;
+    }
+
+    public Collection addCollection(String name) {
+        Collection collection = new Collection();
+        collection.setID(sequence.incrementAndGet());
+        collection.setName(name);
+        collections.put(collection.getID(), collection);
+        return collection;
+    }
+
+    public Item addItem(Collection parent, String title) {
+        Item item = new Item();
+        item.setID(sequence.incrementAndGet());
+        item.setName(title);
+        item.setParentCollection(parent);
+        item.setMetadata(new ArrayList<>(Collections.singletonList(new MetadataEntry("dc.title", title, null))));
+        item.setLastModified(new Date().toString());
+        items.put(item.getID(), item);
+        return item;
+    }
+
+    /**
+     * Changes title of item as if it was edited in DSpace.
+     */
+    public void updateItem(Item item, String title) {
+        Item stored = items.get(item.getID());
+        stored.setName(title);
+        stored.setLastModified(new Date().toString());
+        itemVersions.merge(item.getID(), 1, Integer::sum);
+    }
+
+    @Path("/")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    public class StubResource {
+
+        private void enter(String token) {
+            long start = System.nanoTime();
+            int sequenceNumber = requests.incrementAndGet();
+            long delay = slowEvery > 0 && sequenceNumber % slowEvery == 0 ? slowMillis : latencyMillis;
+            if (failNext.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                Response.ResponseBuilder response = Response.status(Response.Status.SERVICE_UNAVAILABLE);
+                throw new WebApplicationException(retryAfter != null ? response.header("Retry-After", retryAfter).build() : response.build());
+            }
+            Semaphore capacity = workers;
+            if (capacity != null) {
+                int waiting = queued.incrementAndGet();
+                if (!capacity.tryAcquire()) {
+                    if (waiting > maxQueue) {
+                        queued.decrementAndGet();
+                        overloaded.incrementAndGet();
+                        throw new WebApplicationException(Response.Status.SERVICE_UNAVAILABLE);
+                    }
+                    capacity.acquireUninterruptibly();
+                }
+                queued.decrementAndGet();
+            }
+            try {
+                CountDownLatch latch = requestLatch;
+                if (latch != null) {
+                    latch.await();
+                }
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (capacity != null) {
+                    capacity.release();
+                }
+                serverNanos.addAndGet(System.nanoTime() - start);
+            }
+            if (token != null && !tokens.contains(token)) {
+                unauthorized.incrementAndGet();
+                throw new WebApplicationException(Response.Status.UNAUTHORIZED);
+            }
+        }
+
+        /**
+         * Answers 304 Not Modified, when request has matching If-None-Match, otherwise sends entity with ETag.
+         * Without {@link #validators} it ignores conditions as DSpace does.
+         */
+        private Response validated(Request request, String tag, Object entity) {
+            if (!validators) {
+                return Response.ok(entity).build();
+            }
+            EntityTag etag = new EntityTag(Integer.toHexString(tag.hashCode()));
+            Response.ResponseBuilder response = request.evaluatePreconditions(etag);
+            if (response != null) {
+                notModified.incrementAndGet();
+                return response.build();
+            }
+            return Response.ok(entity).tag(etag).build();
+        }
+
+        private String tag(List<Item> list) {
+            StringBuilder tag = new StringBuilder();
+            for (Item item : list) {
+                tag.append(item.getID()).append('.').append(itemVersions.getOrDefault(item.getID(), 0)).append(',');
+            }
+            return tag.toString();
+        }
+
+        private <T> T found(T object) {
+            if (object == null) {
+                throw new NotFoundException();
+            }
+            return object;
+        }
+
+        private <T> List<T> page(java.util.Collection<T> values, Integer limit, Integer offset) {
+            List<T> list = new ArrayList<>(values);
+            int from = Math.min(offset != null ? offset : 0, list.size());
+            int to = Math.min(from + (limit != null ? limit : 100), list.size());
+            return list.subList(from, to);
+        }
+
+        @POST
+        @Path("login")
+        public String login(User user) {
+            enter(null);
+            logins.incrementAndGet();
+            String token = UUID.randomUUID().toString();
+            tokens.add(token);
+            return token;
+        }
+
+        @POST
+        @Path("logout")
+        public void logout(@HeaderParam("rest-dspace-token") String token) {
+            enter(null);
+            tokens.remove(token);
+        }
+
+        @GET
+        @Path("status")
+        public Status status(@HeaderParam("rest-dspace-token") String token) {
+            enter(null);
+            Status status = new Status();
+            status.setOkay(true);
+            status.setAuthenticated(token != null && tokens.contains(token));
+            return status;
+        }
+
+        @GET
+        @Path("communities/{id}")
+        public Community findCommunity(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            return found(communities.get(id));
+        }
+
+        @GET
+        @Path("communities")
+        public List<Community> readCommunities(@HeaderParam("rest-dspace-token") String token,
+                                               @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            return page(communities.values(), limit, offset);
+        }
+
+        @GET
+        @Path("communities/top-communities")
+        public List<Community> readTopCommunities(@HeaderParam("rest-dspace-token") String token,
+                                                  @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            List<Community> top = new ArrayList<>();
+            for (Community community : communities.values()) {
+                if (community.getParentCommunity() == null) {
+                    top.add(community);
+                }
+            }
+            return page(top, limit, offset);
+        }
+
+        @GET
+        @Path("collections/{id}")
+        public Collection findCollection(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            return found(collections.get(id));
+        }
+
+        @POST
+        @Path("communities/{id}/collections")
+        public Collection createCollection(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, Collection collection) {
+            enter(token);
+            return addCollection(found(communities.get(id)), collection.getName());
+        }
+
+        @GET
+        @Path("communities/{id}/communities")
+        public List<Community> readSubcommunities(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                                  @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            found(communities.get(id));
+            List<Community> children = new ArrayList<>();
+            for (Community community : communities.values()) {
+                if (community.getParentCommunity() != null && id.equals(community.getParentCommunity().getID())) {
+                    children.add(community);
+                }
+            }
+            return page(children, limit, offset);
+        }
+
+        @GET
+        @Path("communities/{id}/collections")
+        public List<Collection> readSubcollections(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                                   @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            found(communities.get(id));
+            List<Collection> children = new ArrayList<>();
+            for (Collection collection : collections.values()) {
+                if (collection.getParentCommunity() != null && id.equals(collection.getParentCommunity().getID())) {
+                    children.add(collection);
+                }
+            }
+            return page(children, limit, offset);
+        }
+
+        @DELETE
+        @Path("collections/{id}")
+        public void deleteCollection(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            found(collections.remove(id));
+        }
+
+        @PUT
+        @Path("collections/{id}")
+        public void updateCollection(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, Collection collection) {
+            enter(token);
+            found(collections.get(id)).setName(collection.getName());
+        }
+
+        @GET
+        @Path("collections")
+        public List<Collection> readCollections(@HeaderParam("rest-dspace-token") String token,
+                                                @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            return page(collections.values(), limit, offset);
+        }
+
+        @POST
+        @Path("collections/find-collection")
+        public Collection findCollectionByName(@HeaderParam("rest-dspace-token") String token, String name) {
+            enter(token);
+            for (Collection collection : collections.values()) {
+                if (collection.getName().equals(name)) {
+                    return collection;
+                }
+            }
+            throw new NotFoundException();
+        }
+
+        @GET
+        @Path("collections/{id}/items")
+        public Response readCollectionItems(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                            @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset, @Context Request request) {
+            enter(token);
+            found(collections.get(id));
+            List<Item> collectionItems = new ArrayList<>();
+            for (Item item : items.values()) {
+                if (item.getParentCollection() != null && id.equals(item.getParentCollection().getID())
+                        || item.getParentCollectionList() != null
+                        && item.getParentCollectionList().stream().anyMatch(parent -> id.equals(parent.getID()))) {
+                    collectionItems.add(item);
+                }
+            }
+            List<Item> page = page(collectionItems, limit, offset);
+            return validated(request, tag(page), new GenericEntity<List<Item>>(new ArrayList<>(page)) {});
+        }
+
+        @POST
+        @Path("collections/{id}/items")
+        public Item createItem(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, Item item) {
+            enter(token);
+            Item created = addItem(found(collections.get(id)), "Untitled");
+            if (item.getMetadata() != null) {
+                created.setMetadata(item.getMetadata());
+            }
+            return created;
+        }
+
+        @GET
+        @Path("items/{id}")
+        public Response findItem(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, @Context Request request) {
+            enter(token);
+            Item item = found(items.get(id));
+            return validated(request, tag(Collections.singletonList(item)), item);
+        }
+
+        @POST
+        @Path("collections/{id}/addItem/{itemId}")
+        public void addItemToCollection(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                        @PathParam("itemId") Integer itemId) {
+            enter(token);
+            Item item = found(items.get(itemId));
+            List<Collection> parents = item.getParentCollectionList() != null ? new ArrayList<>(item.getParentCollectionList()) : new ArrayList<>();
+            parents.add(found(collections.get(id)));
+            item.setParentCollectionList(parents);
+            itemVersions.merge(itemId, 1, Integer::sum);
+        }
+
+        @PUT
+        @Path("items/{id}/metadata")
+        public void updateItemMetadata(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, List<MetadataEntry> metadata) {
+            enter(token);
+            Item item = found(items.get(id));
+            item.setMetadata(new ArrayList<>(metadata));
+            itemVersions.merge(id, 1, Integer::sum);
+        }
+
+        @GET
+        @Path("items/{id}/metadata")
+        public List<MetadataEntry> readItemMetadata(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            return found(items.get(id)).getMetadata();
+        }
+
+        @GET
+        @Path("items")
+        public List<Item> readItems(@HeaderParam("rest-dspace-token") String token,
+                                    @QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+            enter(token);
+            return page(items.values(), limit, offset);
+        }
+
+        @DELETE
+        @Path("items/{id}")
+        public void deleteItem(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            found(items.remove(id));
+        }
+
+        @POST
+        @Path("items/{id}/bitstreams")
+        public Bitstream addBitstream(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                      @QueryParam("name") String name, InputStream data) throws IOException, InterruptedException {
+            enter(token);
+            Item item = found(items.get(id));
+            long size = 0;
+            byte[] buffer = new byte[8192];
+            for (int read; (read = data.read(buffer)) != -1; ) {
+                size += read;
+            }
+            CountDownLatch latch = uploadLatch;
+            if (latch != null) {
+                latch.await();
+            }
+            Bitstream bitstream = new Bitstream();
+            bitstream.setID(sequence.incrementAndGet());
+            bitstream.setName(name);
+            bitstream.setSizeBytes(size);
+            bitstreams.put(bitstream.getID(), bitstream);
+            List<Bitstream> itemBitstreams = item.getBitstreams() != null ? new ArrayList<>(item.getBitstreams()) : new ArrayList<>();
+            itemBitstreams.add(bitstream);
+            item.setBitstreams(itemBitstreams);
+            itemVersions.merge(id, 1, Integer::sum);
+            return bitstream;
+        }
+
+        @GET
+        @Path("items/{id}/bitstreams")
+        public List<Bitstream> readItemBitstreams(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            Item item = found(items.get(id));
+            return item.getBitstreams() != null ? item.getBitstreams() : Collections.<Bitstream>emptyList();
+        }
+
+        @PUT
+        @Path("bitstreams/{id}")
+        public void updateBitstream(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id, Bitstream bitstream) {
+            enter(token);
+            for (Item item : items.values()) {
+                for (Bitstream embedded : item.getBitstreams() != null ? item.getBitstreams() : Collections.<Bitstream>emptyList()) {
+                    if (id.equals(embedded.getID())) {
+                        embedded.setName(bitstream.getName());
+                        itemVersions.merge(item.getID(), 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        @DELETE
+        @Path("items/{id}/bitstreams/{bitstreamId}")
+        public void deleteBitstream(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id,
+                                    @PathParam("bitstreamId") Integer bitstreamId) {
+            enter(token);
+            Item item = found(items.get(id));
+            List<Bitstream> itemBitstreams = item.getBitstreams() != null ? new ArrayList<>(item.getBitstreams()) : new ArrayList<>();
+            itemBitstreams.removeIf(bitstream -> bitstreamId.equals(bitstream.getID()));
+            item.setBitstreams(itemBitstreams);
+            bitstreams.remove(bitstreamId);
+            itemVersions.merge(id, 1, Integer::sum);
+        }
+
+        @GET
+        @Path("bitstreams/{id}")
+        public Bitstream findBitstream(@HeaderParam("rest-dspace-token") String token, @PathParam("id") Integer id) {
+            enter(token);
+            return found(bitstreams.get(id));
+        }
+    }
+
+    /** Maps errors to their responses without logging. */
+    public static class ErrorMapper implements ExceptionMapper<WebApplicationException> {
+
+        @Override
+        public Response toResponse(WebApplicationException exception) {
+            return exception.getResponse();
+        }
+    }
+
+    /**
+     * Sends the first byte of entity with headers and stalls the rest of it by {@link #bodyDelayMillis}.
+     */
+    public class StalledBody implements WriterInterceptor {
+
+        @Override
+        public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+            final long delay = bodyDelayMillis;
+            if (delay > 0) {
+                context.setOutputStream(new FilterOutputStream(context.getOutputStream()) {
+                    private boolean stalled;
+
+                    @Override
+                    public void write(byte[] buffer, int offset, int length) throws IOException {
+                        if (!stalled && length > 0) {
+                            stalled = true;
+                            out.write(buffer[offset]);
+                            out.flush();
+                            try {
+                                Thread.sleep(delay);
+                            } catch (InterruptedException ex) {
+                                Thread.currentThread().interrupt();
+                            }
+                            offset++;
+                            length--;
+                        }
+                        out.write(buffer, offset, length);
+                    }
+                });
+            }
+            context.proceed();
+        }
+    }
+}
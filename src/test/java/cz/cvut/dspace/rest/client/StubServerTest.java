@@ -0,0 +1,78 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+/**
+ * Base of tests against {@link StubDSpaceServer}. Fresh server is started before every test, clients created
+ * by {@link #createClient(Configuration, Class)} or {@link #create(AbstractDSpaceRESTClient)} are destroyed and the server is stopped after it.
+ */
+public abstract class StubServerTest {
+
+    protected StubDSpaceServer server;
+    private final List<AbstractDSpaceRESTClient> clients = new ArrayList<>();
+
+    @Before
+    public void startServer() throws Exception {
+        server = new StubDSpaceServer().start();
+    }
+
+    @After
+    public void stopServer() {
+        try {
+            for (AbstractDSpaceRESTClient client : clients) {
+                client.destroy();
+            }
+        } finally {
+            clients.clear();
+            server.stop();
+        }
+    }
+
+    /**
+     * @return Returns configuration of client of the stub server with pool of given size.
+     */
+    protected Configuration configuration(int maxConnections) {
+        return new Configuration(server.getEndpointURL(), "admin", "dspace", maxConnections, maxConnections);
+    }
+
+    /**
+     * @return Returns client, which is destroyed after the test.
+     */
+    protected <T extends AbstractDSpaceRESTClient> T createClient(Configuration configuration, Class<T> type) {
+        return createClient(new DSpaceRESTClientFactoryBuilder().build(configuration), type);
+    }
+
+    /**
+     * @return Returns client, which is destroyed after the test.
+     */
+    protected <T extends AbstractDSpaceRESTClient> T createClient(DSpaceRESTClientFactory factory, Class<T> type) {
+        T client = type.cast(factory.getClient(type));
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * Creates given client, which is destroyed after the test.
+     */
+    protected <T extends AbstractDSpaceRESTClient> T create(T client) {
+        client.create();
+        clients.add(client);
+        return client;
+    }
+
+    /**
+     * @return Returns pooled client with pool of given size, which is logged in.
+     */
+    protected AbstractDSpaceRESTClient login(int maxConnections) {
+        AbstractDSpaceRESTClient client = createClient(configuration(maxConnections), PooledDSpaceRESTClient.class);
+        client.login();
+        return client;
+    }
+}
@@ -0,0 +1,106 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dspace.rest.common.Collection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+public class TokenManagementTest extends StubServerTest {
+
+    private static final int THREADS = 16;
+
+    private DSpaceRESTClient client;
+    private ExecutorService executor;
+    private Collection collection;
+
+    @Before
+    public void setup() throws Exception {
+        server.latencyMillis = 50;
+        collection = server.addCollection("Theses");
+        client = createClient(configuration(THREADS), PooledDSpaceRESTClient.class);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private void readConcurrently() throws Exception {
+        List<Future<Collection>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(new Callable<Collection>() {
+                @Override
+                public Collection call() {
+                    return client.findCollectionById(collection.getID(), "");
+                }
+            }));
+        }
+        for (Future<Collection> future : futures) {
+            assertEquals(collection.getID(), future.get().getID());
+        }
+    }
+
+    @Test
+    public void testConcurrentFirstLogin() throws Exception {
+        readConcurrently();
+        assertEquals("Only one thread should log in.", 1, server.logins.get());
+    }
+
+    @Test
+    public void testExpiredTokenIsRenewedOnce() throws Exception {
+        readConcurrently();
+        server.expireTokens();
+        readConcurrently();
+        assertEquals("Expired token should be renewed by one login.", 2, server.logins.get());
+    }
+
+    @Test
+    public void testBackgroundRefresh() throws Exception {
+        Configuration configuration = configuration(THREADS);
+        configuration.setTokenRefreshInterval(1);
+        AbstractDSpaceRESTClient refreshedClient = createClient(configuration, PooledDSpaceRESTClient.class);
+        waitForLogins(1);
+        String expiredToken = refreshedClient.login();
+        server.expireTokens();
+        waitForLogins(2);
+        for (int i = 0; i < 50 && expiredToken.equals(refreshedClient.login()); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(collection.getID(), refreshedClient.findCollectionById(collection.getID(), "").getID());
+        assertEquals("Request should not pay for login.", 2, server.logins.get());
+        assertEquals("Request should not be rejected.", 0, server.unauthorized.get());
+    }
+
+    @Test
+    public void testOldTokenIsLoggedOut() throws Exception {
+        Configuration configuration = configuration(THREADS);
+        configuration.setTokenRefreshInterval(1);
+        configuration.setTokenMaxAge(1);
+        AbstractDSpaceRESTClient refreshedClient = createClient(configuration, PooledDSpaceRESTClient.class);
+        for (int i = 0; i < 50 && (server.logins.get() < 2 || server.tokens.size() > 1); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(server.logins.get() >= 2);
+        assertEquals("Replaced token should be logged out.", 1, server.tokens.size());
+    }
+
+    private void waitForLogins(int logins) throws InterruptedException {
+        for (int i = 0; i < 50 && server.logins.get() < logins; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(logins, server.logins.get());
+    }
+}
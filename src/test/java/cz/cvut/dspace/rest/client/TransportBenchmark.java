@@ -0,0 +1,70 @@
+package cz.cvut.dspace.rest.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.dspace.rest.common.Collection;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.Http2DSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+
+/**
+ * Compares throughput and count of connections of pooled HTTP/1.1 client and HTTP/2 client against local
+ * stand-in server with artificial latency. It is not part of the regular test run, run it by
+ * {@code mvn test -Dtest=TransportBenchmark}.
+ */
+public class TransportBenchmark {
+
+    private static final int REQUESTS = 2000;
+    private static final long LATENCY_MILLIS = 20;
+
+    @Test
+    public void benchmark() throws Exception {
+        System.out.println(String.format("%-8s %12s %12s %12s", "client", "concurrency", "requests/s", "connections"));
+        for (int concurrency : new int[] { 8, 32, 128 }) {
+            run(PooledDSpaceRESTClient.class, false, concurrency);
+            run(Http2DSpaceRESTClient.class, true, concurrency);
+        }
+    }
+
+    private void run(Class<? extends DSpaceRESTClient> type, boolean http2, int concurrency) throws Exception {
+        H2cStubServer server = new H2cStubServer(http2).start();
+        final Collection collection = server.addCollection("Theses");
+        Configuration configuration = new Configuration(server.getEndpointURL(), "admin", "dspace", concurrency, concurrency);
+        // Every read has to reach the server
+        configuration.setCoalesceReads(false);
+        final AbstractDSpaceRESTClient client = (AbstractDSpaceRESTClient) new DSpaceRESTClientFactoryBuilder()
+                .build(configuration).getClient(type);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            client.login();
+            server.latencyMillis = LATENCY_MILLIS;
+            List<Future<Collection>> futures = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                futures.add(executor.submit(new Callable<Collection>() {
+                    @Override
+                    public Collection call() {
+                        return client.findCollectionById(collection.getID(), "");
+                    }
+                }));
+            }
+            for (Future<Collection> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println(String.format("%-8s %12d %12.0f %12d", http2 ? "HTTP/2" : "HTTP/1.1",
+                    concurrency, REQUESTS / seconds, server.connections.get()));
+        } finally {
+            executor.shutdownNow();
+            client.destroy();
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package cz.cvut.dspace.rest.client;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.dspace.rest.common.Collection;
+import org.dspace.rest.common.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import cz.cvut.dspace.rest.client.impl.AbstractDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.PooledDSpaceRESTClient;
+import cz.cvut.dspace.rest.client.impl.ValidatingCache;
+
+public class ValidatingCacheTest extends StubServerTest {
+
+    private Collection collection;
+    private Item item;
+    private AbstractDSpaceRESTClient client;
+
+    @Before
+    public void setup() throws Exception {
+        collection = server.addCollection("Theses");
+        item = server.addItem(collection, "Thesis");
+        server.addItem(collection, "Dissertation");
+        Configuration configuration = configuration(4);
+        configuration.setResponseCacheSize(100);
+        client = createClient(configuration, PooledDSpaceRESTClient.class);
+        client.login();
+    }
+
+    @Test
+    public void testNotModifiedIsServedFromCache() throws Exception {
+        server.validators = true;
+        Item first = client.findItemById(item.getID(), true, false);
+        List<Item> page = client.readCollectionItems(collection.getID(), "", 10, 0);
+        int requests = server.requests.get();
+
+        // Item and its metadata are not read again, every caller gets its own copy of cached item
+        Item cached = client.findItemById(item.getID(), true, false);
+        assertNotSame(first, cached);
+        assertEquals(first.getName(), cached.getName());
+        assertEquals("Thesis", cached.getMetadata().get(0).getValue());
+        cached.setName("Changed by caller");
+        assertEquals(first.getName(), client.async().findItemById(item.getID(), true, false).get().getName());
+        List<Item> cachedPage = client.readCollectionItems(collection.getID(), "", 10, 0);
+        assertEquals(page.size(), cachedPage.size());
+        assertEquals(page.get(0).getID(), cachedPage.get(0).getID());
+        assertNotSame(page.get(0), cachedPage.get(0));
+        assertEquals(3, server.requests.get() - requests);
+        assertEquals(3, server.notModified.get());
+
+        // Changed item is read again
+        server.updateItem(item, "Thesis, 2nd edition");
+        assertEquals("Thesis, 2nd edition", client.findItemById(item.getID(), true, false).getName());
+        assertEquals("Thesis, 2nd edition", client.async().readCollectionItems(collection.getID(), "", 10, 0).get().get(0).getName());
+        assertEquals(3, server.notModified.get());
+
+        ValidatingCache cache = client.getResponseCache();
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getNotModified());
+        assertEquals(5, cache.getValidations());
+    }
+
+    @Test
+    public void testWithoutValidatorsResultsAreReadAsUsual() throws Exception {
+        server.validators = false;
+        for (int i = 0; i < 3; i++) {
+            assertEquals(2, client.readCollectionItems(collection.getID(), "", 10, 0).size());
+        }
+        assertEquals("Thesis", client.findItemById(item.getID(), false, false).getName());
+        server.updateItem(item, "Thesis, 2nd edition");
+        // Last modification of item is sent as If-Modified-Since, DSpace ignores it and sends the item
+        assertEquals("Thesis, 2nd edition", client.findItemById(item.getID(), false, false).getName());
+
+        ValidatingCache cache = client.getResponseCache();
+        assertEquals(0, server.notModified.get());
+        assertEquals(3, cache.getWithoutValidators());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getValidations());
+    }
+}